@@ -0,0 +1,86 @@
+package benchmark;
+
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnValue;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.UUID;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Map instances shared by benchmarks.
+ * <p>
+ * Persistent maps are created in a fresh directory under target/benchmark so that
+ * forked JMH runs never see data left by a previous run.
+ */
+public final class BenchmarkMaps {
+
+  private BenchmarkMaps() {
+  }
+
+  //function used by applyFunction benchmarks. Same as functions.LikesTest.
+  public static final OnValue<Integer, Integer> incrementFunction =
+    (Integer value) ->
+      Apply.update(value + 1);
+
+  public enum MapType {
+    MEMORY_FUNCTIONS_OFF,
+    MEMORY_FUNCTIONS_ON,
+    PERSISTENT_FUNCTIONS_OFF,
+    PERSISTENT_FUNCTIONS_ON;
+
+    public Map<Integer, Integer, ?> create() {
+      switch (this) {
+        case MEMORY_FUNCTIONS_OFF:
+          return memoryFunctionsOff();
+        case MEMORY_FUNCTIONS_ON:
+          return memoryFunctionsOn();
+        case PERSISTENT_FUNCTIONS_OFF:
+          return persistentFunctionsOff(directory(name()));
+        case PERSISTENT_FUNCTIONS_ON:
+          return persistentFunctionsOn(directory(name()));
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+  }
+
+  public static Path directory(String name) {
+    return Paths.get("target", "benchmark", name + "-" + UUID.randomUUID());
+  }
+
+  public static Map<Integer, Integer, Void> memoryFunctionsOff() {
+    return
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+  }
+
+  public static Map<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> memoryFunctionsOn() {
+    return
+      MemoryMap
+        .functionsOn(intSerializer(), intSerializer(), Collections.singleton(incrementFunction))
+        .get();
+  }
+
+  public static Map<Integer, Integer, Void> persistentFunctionsOff(Path directory) {
+    return
+      PersistentMap
+        .functionsOff(directory, intSerializer(), intSerializer())
+        .get();
+  }
+
+  public static Map<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> persistentFunctionsOn(Path directory) {
+    return
+      PersistentMap
+        .functionsOn(directory, intSerializer(), intSerializer(), Collections.singleton(incrementFunction))
+        .get();
+  }
+}
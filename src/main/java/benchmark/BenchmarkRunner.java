@@ -0,0 +1,96 @@
+package benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of target/benchmarks.jar (build with mvn package -Pbenchmarks).
+ * <p>
+ * Accepts all regular JMH command line options. Unless -rf/-rff are given results are written
+ * as JSON to target/jmh-result.json so runs against different SwayDB versions can be diffed.
+ * <p>
+ * Examples:
+ * <pre>
+ * java -jar target/benchmarks.jar                        //run all benchmarks
+ * java -jar target/benchmarks.jar MapBenchmark.get       //run only the get benchmark
+ * java -jar target/benchmarks.jar -prof gc -rff gc.json  //with allocation profiling
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+
+    ChainedOptionsBuilder options =
+      new OptionsBuilder()
+        .parent(commandLine);
+
+    if (!commandLine.getResultFormat().hasValue())
+      options.resultFormat(ResultFormatType.JSON);
+
+    if (!commandLine.getResult().hasValue())
+      options.result("target/jmh-result.json");
+
+    new Runner(options.build()).run();
+  }
+
+  /**
+   * Runs all benchmarks of the class once for each thread count and writes
+   * the results of all runs to a single JSON file.
+   * <p>
+   * Used by the main methods of contention benchmarks, eg:
+   * <pre>
+   * java -cp target/benchmarks.jar counter.StripedCounterBenchmark
+   * </pre>
+   */
+  public static void runThreadScaling(Class<?> benchmark, String resultFile, int... threads) throws RunnerException {
+    List<Options> runs = new ArrayList<>();
+    for (int threadCount : threads)
+      runs.add(
+        new OptionsBuilder()
+          .include(benchmark.getName())
+          .threads(threadCount)
+          .build()
+      );
+
+    run(runs, resultFile);
+  }
+
+  /**
+   * Same as {@link #runThreadScaling(Class, String, int...)} for {@link org.openjdk.jmh.annotations.Group} benchmarks.
+   * Each element of threadGroups is the number of threads of each group method, eg: {1, 4} for 1 producer and 4 consumers.
+   */
+  public static void runThreadGroupScaling(Class<?> benchmark, String resultFile, int[]... threadGroups) throws RunnerException {
+    List<Options> runs = new ArrayList<>();
+    for (int[] threadGroup : threadGroups)
+      runs.add(
+        new OptionsBuilder()
+          .include(benchmark.getName())
+          .threadGroups(threadGroup)
+          .build()
+      );
+
+    run(runs, resultFile);
+  }
+
+  private static void run(List<Options> runs, String resultFile) throws RunnerException {
+    List<RunResult> results = new ArrayList<>();
+
+    for (Options options : runs)
+      results.addAll(new Runner(options).run());
+
+    ResultFormatFactory
+      .getInstance(ResultFormatType.JSON, resultFile)
+      .writeOut(results);
+  }
+}
@@ -0,0 +1,87 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the basic operations used in {@link quickstart.QuickStart_Map_Simple}
+ * on memory and persistent maps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapBenchmark {
+
+  @Param({"MEMORY_FUNCTIONS_OFF", "MEMORY_FUNCTIONS_ON", "PERSISTENT_FUNCTIONS_OFF"})
+  BenchmarkMaps.MapType mapType;
+
+  //number of key-values the map is pre-loaded with.
+  @Param("100000")
+  int keyCount;
+
+  //number of key-values written by putBatch and read by rangeScan.
+  @Param("100")
+  int rangeSize;
+
+  Map<Integer, Integer, ?> map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map = mapType.create();
+    map.put(Stream.range(1, keyCount).map(KeyVal::of));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    map.delete();
+  }
+
+  int randomKey() {
+    return ThreadLocalRandom.current().nextInt(1, keyCount + 1);
+  }
+
+  //start of a range that is fully within the pre-loaded key-values.
+  int randomRangeStart() {
+    return ThreadLocalRandom.current().nextInt(1, keyCount - rangeSize + 2);
+  }
+
+  @Benchmark
+  public void put() {
+    int key = randomKey();
+    map.put(key, key);
+  }
+
+  //one operation is one atomic batch of rangeSize key-values.
+  @Benchmark
+  public void putBatch() {
+    int from = randomRangeStart();
+    map.put(Stream.range(from, from + rangeSize - 1).map(KeyVal::of));
+  }
+
+  @Benchmark
+  public Optional<Integer> get() {
+    return map.get(randomKey());
+  }
+
+  @Benchmark
+  public Integer rangeScan() {
+    int from = randomRangeStart();
+    int to = from + rangeSize - 1;
+
+    return
+      map
+        .stream()
+        .from(from)
+        .takeWhile(keyVal -> keyVal.key() <= to)
+        .foldLeft(0, (sum, keyVal) -> sum + keyVal.value());
+  }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import swaydb.Apply;
+import swaydb.KeyVal;
+import swaydb.PureFunction;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks applyFunction on a single key (as in {@link functions.LikesTest})
+ * and on a key range (as in {@link functions.DiscountApp}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapFunctionBenchmark {
+
+  public enum Storage {
+    MEMORY,
+    PERSISTENT
+  }
+
+  @Param({"MEMORY", "PERSISTENT"})
+  Storage storage;
+
+  @Param("100000")
+  int keyCount;
+
+  //number of keys the range applyFunction is applied to.
+  @Param("100")
+  int rangeSize;
+
+  Map<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    if (storage == Storage.MEMORY)
+      map = BenchmarkMaps.memoryFunctionsOn();
+    else
+      map = BenchmarkMaps.persistentFunctionsOn(BenchmarkMaps.directory("applyFunction"));
+
+    map.put(Stream.range(1, keyCount).map(KeyVal::of));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    map.delete();
+  }
+
+  @Benchmark
+  public void applyFunctionOnKey() {
+    int key = ThreadLocalRandom.current().nextInt(1, keyCount + 1);
+    map.applyFunction(key, BenchmarkMaps.incrementFunction);
+  }
+
+  @Benchmark
+  public void applyFunctionOnRange() {
+    int from = ThreadLocalRandom.current().nextInt(1, keyCount - rangeSize + 2);
+    map.applyFunction(from, from + rangeSize - 1, BenchmarkMaps.incrementFunction);
+  }
+}
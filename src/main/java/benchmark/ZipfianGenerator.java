@@ -0,0 +1,92 @@
+package benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates skewed item numbers in [0, items) following a Zipfian distribution where item 0 is the most popular.
+ * <p>
+ * Uses the algorithm from "Quickly Generating Billion-Record Synthetic Databases" (Gray et al.) as implemented
+ * by YCSB's ZipfianGenerator. The generator is immutable, pass a {@link java.util.concurrent.ThreadLocalRandom}
+ * to use it from multiple threads.
+ */
+public final class ZipfianGenerator {
+
+  //YCSB's default skew.
+  public static final double DEFAULT_THETA = 0.99;
+
+  private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+  private static final long FNV_PRIME = 1099511628211L;
+
+  private final long items;
+  private final double theta;
+  private final double alpha;
+  private final double zetaN;
+  private final double eta;
+  private final double halfPowTheta;
+
+  public ZipfianGenerator(long items) {
+    this(items, DEFAULT_THETA);
+  }
+
+  public ZipfianGenerator(long items, double theta) {
+    if (items < 1)
+      throw new IllegalArgumentException("items must be greater than 0. Actual: " + items);
+
+    this.items = items;
+    this.theta = theta;
+    this.alpha = 1.0 / (1.0 - theta);
+    this.zetaN = zeta(items, theta);
+    this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+    this.halfPowTheta = 1 + Math.pow(0.5, theta);
+  }
+
+  private static double zeta(long n, double theta) {
+    double sum = 0;
+    for (long i = 1; i <= n; i++)
+      sum += 1 / Math.pow(i, theta);
+    return sum;
+  }
+
+  public long items() {
+    return items;
+  }
+
+  /**
+   * @return the next item where lower items are more popular.
+   */
+  public long next(Random random) {
+    double u = random.nextDouble();
+    double uz = u * zetaN;
+
+    if (uz < 1.0)
+      return 0;
+
+    if (uz < halfPowTheta)
+      return Math.min(1, items - 1);
+
+    return Math.min(items - 1, (long) (items * Math.pow(eta * u - eta + 1, alpha)));
+  }
+
+  /**
+   * Same distribution as {@link #next(Random)} but popular items are spread over [0, items)
+   * instead of being clustered at the start, like YCSB's ScrambledZipfianGenerator.
+   */
+  public long nextScrambled(Random random) {
+    return Math.floorMod(fnvHash(next(random)), items);
+  }
+
+  private static long fnvHash(long value) {
+    long hash = FNV_OFFSET_BASIS;
+    for (int i = 0; i < Long.BYTES; i++) {
+      hash ^= value & 0xFF;
+      hash *= FNV_PRIME;
+      value >>>= 8;
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return "ZipfianGenerator(items=" + items + ", theta=" + theta + ")";
+  }
+}
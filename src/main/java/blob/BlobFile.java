@@ -0,0 +1,182 @@
+package blob;
+
+import swaydb.data.slice.Slice;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An append-only memory-mapped file of [key length + 1: int][value length: int][key][value] records.
+ * A key length of 0 marks the end of the written records.
+ * <p>
+ * Files are mapped once and never unmapped, the mapping is released when the buffer is garbage collected.
+ * Buffers returned by {@link #read(int, int)} stay readable after the file is deleted, on Linux and macOS.
+ */
+final class BlobFile {
+
+  static final int HEADER_BYTES = Integer.BYTES * 2;
+
+  final int id;
+  final Path path;
+  private final MappedByteBuffer buffer;
+  //only changed by the appending thread, see BlobLog.append.
+  private int writePosition;
+  //bytes of values that are still referenced by the map.
+  final AtomicLong liveBytes = new AtomicLong();
+
+  private BlobFile(int id, Path path, MappedByteBuffer buffer, int writePosition) {
+    this.id = id;
+    this.path = path;
+    this.buffer = buffer;
+    this.writePosition = writePosition;
+  }
+
+  static Path path(Path directory, int id) {
+    return directory.resolve(String.format("%010d.blob", id));
+  }
+
+  static int id(Path path) {
+    String name = path.getFileName().toString();
+    return Integer.parseInt(name.substring(0, name.length() - ".blob".length()));
+  }
+
+  static BlobFile create(Path directory, int id, int capacity) throws IOException {
+    Path path = path(directory, id);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return new BlobFile(id, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity), 0);
+    }
+  }
+
+  /**
+   * Opens a file written by a previous instance. Nothing is appended to opened files.
+   */
+  static BlobFile open(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+      BlobFile file = new BlobFile(id(path), path, buffer, 0);
+      file.writePosition = file.end();
+      return file;
+    }
+  }
+
+  private int end() {
+    int position = 0;
+    while (position + HEADER_BYTES <= buffer.capacity()) {
+      int keyLength = buffer.getInt(position) - 1;
+      if (keyLength < 0)
+        break;
+      position += HEADER_BYTES + keyLength + buffer.getInt(position + Integer.BYTES);
+    }
+    return position;
+  }
+
+  int writePosition() {
+    return writePosition;
+  }
+
+  int capacity() {
+    return buffer.capacity();
+  }
+
+  static int recordBytes(int keyLength, int valueLength) {
+    return HEADER_BYTES + keyLength + valueLength;
+  }
+
+  /**
+   * @return offset of the value or -1 if the record does not fit.
+   */
+  int append(byte[] key, Slice<Byte> value) {
+    ByteBuffer writer = writer(key, value.size());
+    if (writer == null)
+      return -1;
+
+    Object array = value.unsafeInnerArray();
+    if (array instanceof byte[])
+      writer.put((byte[]) array, value.fromOffset(), value.size());
+    else
+      for (int i = 0; i < value.size(); i++)
+        writer.put(value.get(i));
+
+    return appended(key.length, value.size());
+  }
+
+  /**
+   * Appends the remaining bytes of value without changing its position.
+   *
+   * @return offset of the value or -1 if the record does not fit.
+   */
+  int append(byte[] key, ByteBuffer value) {
+    ByteBuffer writer = writer(key, value.remaining());
+    if (writer == null)
+      return -1;
+
+    int valueLength = value.remaining();
+    writer.put(value.duplicate());
+    return appended(key.length, valueLength);
+  }
+
+  //writes the header and key, or returns null if the record does not fit.
+  private ByteBuffer writer(byte[] key, int valueLength) {
+    if (writePosition + recordBytes(key.length, valueLength) > buffer.capacity())
+      return null;
+
+    ByteBuffer writer = buffer.duplicate();
+    writer.position(writePosition);
+    writer.putInt(key.length + 1);
+    writer.putInt(valueLength);
+    writer.put(key);
+    return writer;
+  }
+
+  private int appended(int keyLength, int valueLength) {
+    int valueOffset = writePosition + HEADER_BYTES + keyLength;
+    writePosition += recordBytes(keyLength, valueLength);
+    liveBytes.addAndGet(valueLength);
+    return valueOffset;
+  }
+
+  /**
+   * A read-only view of the mapped bytes, no bytes are copied.
+   */
+  ByteBuffer read(int offset, int length) {
+    ByteBuffer reader = buffer.duplicate();
+    reader.limit(offset + length);
+    reader.position(offset);
+    return reader.slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * Calls visitor with each record's key bytes, value offset and value length, in the order they were written.
+   */
+  void forEach(RecordVisitor visitor) {
+    int position = 0;
+    while (position < writePosition) {
+      int keyLength = buffer.getInt(position) - 1;
+      int valueLength = buffer.getInt(position + Integer.BYTES);
+      byte[] key = new byte[keyLength];
+      ByteBuffer reader = buffer.duplicate();
+      reader.position(position + HEADER_BYTES);
+      reader.get(key);
+      visitor.visit(key, position + HEADER_BYTES + keyLength, valueLength);
+      position += recordBytes(keyLength, valueLength);
+    }
+  }
+
+  interface RecordVisitor {
+    void visit(byte[] key, int valueOffset, int valueLength);
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  void delete() throws IOException {
+    Files.deleteIfExists(path);
+  }
+}
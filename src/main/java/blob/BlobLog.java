@@ -0,0 +1,147 @@
+package blob;
+
+import swaydb.data.slice.Slice;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link BlobFile}s of a directory. Values are appended to the active file, which is the file with the highest id.
+ * When it is full a new file of fileBytes is created. Files of a previous instance are opened read-only and a new
+ * active file is created by the first append.
+ */
+final class BlobLog {
+
+  private final Path directory;
+  private volatile int fileBytes;
+  private final ConcurrentSkipListMap<Integer, BlobFile> files = new ConcurrentSkipListMap<>();
+  private BlobFile active;
+  private int nextId;
+
+  BlobLog(Path directory, int fileBytes) throws IOException {
+    this.directory = directory;
+    this.fileBytes = fileBytes;
+    Files.createDirectories(directory);
+
+    List<Path> paths;
+    try (java.util.stream.Stream<Path> list = Files.list(directory)) {
+      paths = list.filter(path -> path.getFileName().toString().endsWith(".blob")).collect(Collectors.toList());
+    }
+
+    for (Path path : paths) {
+      BlobFile file = BlobFile.open(path);
+      files.put(file.id, file);
+      nextId = Math.max(nextId, file.id + 1);
+    }
+  }
+
+  void setFileBytes(int fileBytes) {
+    this.fileBytes = fileBytes;
+  }
+
+  /**
+   * @return a pointer to the appended value.
+   */
+  StoredValue append(byte[] key, Slice<Byte> value) {
+    return append(key, value.size(), file -> file.append(key, value));
+  }
+
+  /**
+   * Appends the remaining bytes of value, eg: a value read from another blob file.
+   *
+   * @return a pointer to the appended value.
+   */
+  StoredValue append(byte[] key, ByteBuffer value) {
+    return append(key, value.remaining(), file -> file.append(key, value));
+  }
+
+  private synchronized StoredValue append(byte[] key, int valueLength, ToIntFunction<BlobFile> appender) {
+    int offset = active == null ? -1 : appender.applyAsInt(active);
+    if (offset < 0) {
+      if (active != null)
+        active.force();
+
+      int capacity = Math.max(fileBytes, BlobFile.recordBytes(key.length, valueLength));
+      try {
+        active = BlobFile.create(directory, nextId++, capacity);
+      } catch (IOException exception) {
+        throw new UncheckedIOException(exception);
+      }
+      files.put(active.id, active);
+      offset = appender.applyAsInt(active);
+    }
+    return StoredValue.pointer(active.id, offset, valueLength);
+  }
+
+  /**
+   * @return null if the file was deleted by garbage collection after the pointer was read.
+   */
+  ByteBuffer read(StoredValue pointer) {
+    BlobFile file = files.get(pointer.fileId);
+    return file == null ? null : file.read(pointer.offset, pointer.length);
+  }
+
+  BlobFile file(int id) {
+    return files.get(id);
+  }
+
+  /**
+   * Files that are no longer appended to.
+   */
+  synchronized List<BlobFile> sealedFiles() {
+    List<BlobFile> sealed = new ArrayList<>(files.values());
+    sealed.remove(active);
+    return sealed;
+  }
+
+  /**
+   * The value no longer is referenced by the map.
+   */
+  void release(StoredValue pointer) {
+    BlobFile file = files.get(pointer.fileId);
+    if (file != null)
+      file.liveBytes.addAndGet(-pointer.length);
+  }
+
+  void delete(BlobFile file) throws IOException {
+    files.remove(file.id);
+    file.delete();
+  }
+
+  /**
+   * Deletes all files and the directory.
+   */
+  synchronized void delete() throws IOException {
+    for (BlobFile file : files.values())
+      delete(file);
+    active = null;
+    Files.deleteIfExists(directory);
+  }
+
+  long totalBytes() {
+    long total = 0;
+    for (BlobFile file : files.values())
+      total += file.writePosition();
+    return total;
+  }
+
+  long liveBytes() {
+    long live = 0;
+    for (BlobFile file : files.values())
+      live += file.liveBytes.get();
+    return live;
+  }
+
+  synchronized void force() {
+    if (active != null)
+      active.force();
+  }
+}
@@ -0,0 +1,363 @@
+package blob;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swaydb.KeyVal;
+import swaydb.data.slice.Slice;
+import swaydb.java.Map;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.java.serializers.Serializer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A map that stores values of at least thresholdBytes serialized bytes in append-only memory-mapped blob files
+ * (key-value separation, as in WiscKey). The underlying map stores a (file, offset, length) pointer for them
+ * so compactions rewrite the pointer instead of the value. Smaller values are stored inline.
+ * <p>
+ * {@link #getBuffer(Object)} reads values from the mapped file without copying them.
+ * Overwritten and removed values stay in their file until {@link #collectGarbage(double)} rewrites the live
+ * values of files whose live ratio is below a threshold to the active file and deletes the old files.
+ * <p>
+ * Writes must go through this class. Writes and garbage collection of the same key are serialized with
+ * locks striped by the serialized key so that a value being moved is not overwritten in between.
+ * <p>
+ * Blob files are forced to disk when they are full and on {@link #close()}. A value appended since the
+ * last force can be lost by an OS crash, while the map may already store its pointer. Garbage collection
+ * forces the values it moved before deleting their old file, so it never loses values that were on disk.
+ */
+public class BlobMap<K, V> implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(BlobMap.class);
+
+  private static final int LOCK_STRIPES = 64;
+
+  public static final int DEFAULT_THRESHOLD_BYTES = 1024;
+  public static final int DEFAULT_FILE_BYTES = 64 * 1024 * 1024;
+
+  private final Map<K, StoredValue, Void> map;
+  private final Serializer<K> keySerializer;
+  private final Serializer<V> valueSerializer;
+  private final BlobLog log;
+  private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+  private volatile int thresholdBytes = DEFAULT_THRESHOLD_BYTES;
+  private ScheduledExecutorService garbageCollector;
+
+  /**
+   * Live bytes of blob files written by a previous instance are counted by reading all of the map's values.
+   *
+   * @param map           created with {@link StoredValue#serializer} as its value serializer.
+   * @param blobDirectory directory of the blob files, not shared with other maps.
+   */
+  public BlobMap(Map<K, StoredValue, Void> map, Path blobDirectory, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+    this.map = map;
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
+    this.log = new BlobLog(blobDirectory, DEFAULT_FILE_BYTES);
+    for (int i = 0; i < locks.length; i++)
+      locks[i] = new ReentrantLock();
+
+    if (!log.sealedFiles().isEmpty())
+      for (Iterator<KeyVal<K, StoredValue>> iterator = map.iterator(); iterator.hasNext(); ) {
+        StoredValue stored = iterator.next().value();
+        if (stored.isPointer()) {
+          BlobFile file = log.file(stored.fileId);
+          if (file != null)
+            file.liveBytes.addAndGet(stored.length);
+        }
+      }
+  }
+
+  /**
+   * The map is stored in directory/map and the blob files in directory/blobs.
+   */
+  public static <K, V> BlobMap<K, V> persistent(Path directory, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+    Map<K, StoredValue, Void> map =
+      PersistentMap
+        .functionsOff(directory.resolve("map"), keySerializer, StoredValue.serializer)
+        .get();
+
+    return new BlobMap<>(map, directory.resolve("blobs"), keySerializer, valueSerializer);
+  }
+
+  /**
+   * Values with fewer serialized bytes are stored inline. Applies to values written after it is set.
+   */
+  public BlobMap<K, V> setThresholdBytes(int thresholdBytes) {
+    this.thresholdBytes = thresholdBytes;
+    return this;
+  }
+
+  /**
+   * Size of new blob files. Larger values get a file of their own size.
+   */
+  public BlobMap<K, V> setFileBytes(int fileBytes) {
+    log.setFileBytes(fileBytes);
+    return this;
+  }
+
+  public Map<K, StoredValue, Void> map() {
+    return map;
+  }
+
+  static byte[] bytes(Slice<Byte> slice, int from, int length) {
+    byte[] bytes = new byte[length];
+    Object array = slice.unsafeInnerArray();
+    if (array instanceof byte[])
+      System.arraycopy((byte[]) array, slice.fromOffset() + from, bytes, 0, length);
+    else
+      for (int i = 0; i < length; i++)
+        bytes[i] = slice.get(from + i);
+    return bytes;
+  }
+
+  private static byte[] bytes(Slice<Byte> slice) {
+    return bytes(slice, 0, slice.size());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Slice<Byte> slice(byte[] bytes) {
+    return (Slice<Byte>) (Slice<?>) Slice.ofScala(bytes);
+  }
+
+  /**
+   * The stripe is picked with the 32 bit FNV-1a hash of the serialized key, as garbage collection only has the
+   * key's bytes and K's hashCode need not be the same for equal keys, eg: byte[].
+   */
+  private ReentrantLock lock(byte[] keyBytes) {
+    int hash = 0x811C9DC5;
+    for (byte keyByte : keyBytes)
+      hash = (hash ^ (keyByte & 0xFF)) * 0x01000193;
+    return locks[Math.floorMod(hash, LOCK_STRIPES)];
+  }
+
+  public void put(K key, V value) {
+    Slice<Byte> bytes = valueSerializer.write(value);
+    byte[] keyBytes = bytes(keySerializer.write(key));
+
+    ReentrantLock lock = lock(keyBytes);
+    lock.lock();
+    try {
+      StoredValue stored =
+        bytes.size() >= thresholdBytes
+          ? log.append(keyBytes, bytes)
+          : StoredValue.inline(bytes(bytes));
+
+      Optional<StoredValue> old = map.get(key);
+      map.put(key, stored);
+      old.ifPresent(this::release);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void remove(K key) {
+    ReentrantLock lock = lock(bytes(keySerializer.write(key)));
+    lock.lock();
+    try {
+      Optional<StoredValue> old = map.get(key);
+      map.remove(key);
+      old.ifPresent(this::release);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void release(StoredValue stored) {
+    if (stored.isPointer())
+      log.release(stored);
+  }
+
+  public boolean contains(K key) {
+    return map.contains(key);
+  }
+
+  /**
+   * The serialized value. Blob values are read-only views of the mapped blob file, no bytes are copied.
+   */
+  public Optional<ByteBuffer> getBuffer(K key) {
+    while (true) {
+      Optional<StoredValue> stored = map.get(key);
+      if (!stored.isPresent())
+        return Optional.empty();
+
+      if (!stored.get().isPointer())
+        return Optional.of(ByteBuffer.wrap(stored.get().inline).asReadOnlyBuffer());
+
+      ByteBuffer buffer = log.read(stored.get());
+      //else the value was moved by garbage collection, read the new pointer.
+      if (buffer != null)
+        return Optional.of(buffer);
+    }
+  }
+
+  public Optional<V> get(K key) {
+    return getBuffer(key).map(buffer -> valueSerializer.read(slice(bytes(buffer))));
+  }
+
+  /**
+   * Rewrites the live values of sealed blob files with a live ratio below maxLiveRatio and deletes the files.
+   */
+  public GarbageCollection collectGarbage(double maxLiveRatio) throws IOException {
+    long start = System.nanoTime();
+    int files = 0;
+    long movedBytes = 0;
+    long reclaimedBytes = 0;
+
+    for (BlobFile file : log.sealedFiles()) {
+      long total = file.writePosition();
+      if (total > 0 && file.liveBytes.get() >= maxLiveRatio * total)
+        continue;
+
+      long[] moved = {0};
+      file.forEach((keyBytes, valueOffset, valueLength) -> {
+        ReentrantLock lock = lock(keyBytes);
+        lock.lock();
+        try {
+          K key = keySerializer.read(slice(keyBytes));
+          Optional<StoredValue> stored = map.get(key);
+          if (stored.isPresent() && stored.get().pointsTo(file.id, valueOffset)) {
+            StoredValue pointer = log.append(keyBytes, file.read(valueOffset, valueLength));
+            map.put(key, pointer);
+            moved[0] += valueLength;
+          }
+        } finally {
+          lock.unlock();
+        }
+      });
+
+      //the moved values must be on disk before their only other copy is deleted.
+      if (moved[0] > 0)
+        log.force();
+      log.delete(file);
+      files++;
+      movedBytes += moved[0];
+      reclaimedBytes += total - moved[0];
+    }
+
+    GarbageCollection collection = new GarbageCollection(files, movedBytes, reclaimedBytes, System.nanoTime() - start);
+    if (files > 0)
+      logger.info(collection.toString());
+    return collection;
+  }
+
+  private static byte[] bytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Runs {@link #collectGarbage(double)} every interval in a daemon thread.
+   */
+  public synchronized void startGarbageCollector(Duration interval, double maxLiveRatio) {
+    if (garbageCollector != null)
+      throw new IllegalStateException("Garbage collector already started");
+
+    garbageCollector =
+      Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "blob-garbage-collector");
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+
+    garbageCollector.scheduleWithFixedDelay(
+      () -> {
+        try {
+          collectGarbage(maxLiveRatio);
+        } catch (Exception exception) {
+          logger.error("Blob garbage collection failed", exception);
+        }
+      },
+      interval.toMillis(),
+      interval.toMillis(),
+      TimeUnit.MILLISECONDS
+    );
+  }
+
+  /**
+   * Bytes of all blob files including headers and values that are no longer referenced.
+   */
+  public long blobBytes() {
+    return log.totalBytes();
+  }
+
+  /**
+   * Bytes of blob values referenced by the map.
+   */
+  public long liveBlobBytes() {
+    return log.liveBytes();
+  }
+
+  /**
+   * Stops the garbage collector, forces the active blob file and closes the map.
+   */
+  @Override
+  public synchronized void close() throws InterruptedException {
+    if (garbageCollector != null) {
+      garbageCollector.shutdown();
+      garbageCollector.awaitTermination(1, TimeUnit.MINUTES);
+      garbageCollector = null;
+    }
+    log.force();
+    map.close();
+  }
+
+  /**
+   * Stops the garbage collector and deletes the map and the blob files.
+   */
+  public synchronized void delete() throws IOException {
+    if (garbageCollector != null) {
+      garbageCollector.shutdownNow();
+      garbageCollector = null;
+    }
+    map.delete();
+    log.delete();
+  }
+
+  public static final class GarbageCollection {
+    private final int files;
+    private final long movedBytes;
+    private final long reclaimedBytes;
+    private final long elapsedNanos;
+
+    GarbageCollection(int files, long movedBytes, long reclaimedBytes, long elapsedNanos) {
+      this.files = files;
+      this.movedBytes = movedBytes;
+      this.reclaimedBytes = reclaimedBytes;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    public int files() {
+      return files;
+    }
+
+    public long movedBytes() {
+      return movedBytes;
+    }
+
+    public long reclaimedBytes() {
+      return reclaimedBytes;
+    }
+
+    public Duration elapsed() {
+      return Duration.ofNanos(elapsedNanos);
+    }
+
+    @Override
+    public String toString() {
+      return "Collected " + files + " blob files: moved " + movedBytes + " bytes, reclaimed " + reclaimedBytes + " bytes in " + elapsedNanos / 1_000_000 + " ms";
+    }
+  }
+}
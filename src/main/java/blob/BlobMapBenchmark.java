@@ -0,0 +1,132 @@
+package blob;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import serializing.PrimitiveArraySerializers;
+import swaydb.java.Map;
+import swaydb.java.persistent.PersistentMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Writes of long[] values (as in serializing.SerialisingArrayExample) to a persistent map that stores them inline
+ * and to a {@link BlobMap} that stores them in blob files. Each iteration puts rows values to a new map with keys
+ * chosen uniformly from [0, rows / 2) so most keys are overwritten, then closes it. SEPARATED also collects
+ * garbage of blob files less than half live before closing.
+ * <p>
+ * Write amplification, the bytes written to disk by the process divided by the bytes of the values put,
+ * is printed after each iteration. It is read from /proc/self/io so it is only printed on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BlobMapBenchmark {
+
+  public enum Storage {
+    INLINE,
+    SEPARATED
+  }
+
+  @Param({"INLINE", "SEPARATED"})
+  Storage storage;
+
+  //number of longs, 8 bytes each.
+  @Param({"512", "2048"})
+  int arrayLength;
+
+  @Param("50000")
+  int rows;
+
+  long[] array;
+  Path directory;
+  long writeBytesBefore;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    array = new Random(42).longs(arrayLength).toArray();
+  }
+
+  @Setup(Level.Iteration)
+  public void createDirectory() throws IOException {
+    directory = BenchmarkMaps.directory("blob-" + storage);
+    writeBytesBefore = writeBytes();
+  }
+
+  @TearDown(Level.Iteration)
+  public void printWriteAmplification() throws IOException {
+    long written = writeBytes() - writeBytesBefore;
+    if (writeBytesBefore >= 0)
+      System.out.printf("%n%s: write amplification %.2f%n", storage, written / ((double) rows * arrayLength * Long.BYTES));
+
+    try (java.util.stream.Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+        Files.delete(file);
+    }
+  }
+
+  /**
+   * Bytes this process caused to be written to disk, or -1 if unknown.
+   */
+  static long writeBytes() {
+    Path io = Paths.get("/proc/self/io");
+    if (!Files.exists(io))
+      return -1;
+
+    try {
+      List<String> lines = Files.readAllLines(io);
+      for (String line : lines)
+        if (line.startsWith("write_bytes:"))
+          return Long.parseLong(line.substring("write_bytes:".length()).trim());
+      return -1;
+    } catch (IOException exception) {
+      return -1;
+    }
+  }
+
+  @Benchmark
+  public void put() throws Exception {
+    Random random = new Random(42);
+
+    switch (storage) {
+      case INLINE:
+        Map<Integer, long[], Void> map =
+          PersistentMap
+            .functionsOff(directory, intSerializer(), PrimitiveArraySerializers.longArraySerializer())
+            .get();
+
+        for (int i = 0; i < rows; i++) {
+          //a different value each put so that Segments cannot store it once.
+          array[0] = i;
+          map.put(random.nextInt(rows / 2), array);
+        }
+        map.close();
+        break;
+
+      case SEPARATED:
+        BlobMap<Integer, long[]> blobMap = BlobMap.persistent(directory, intSerializer(), PrimitiveArraySerializers.longArraySerializer());
+
+        for (int i = 0; i < rows; i++) {
+          array[0] = i;
+          blobMap.put(random.nextInt(rows / 2), array);
+        }
+        blobMap.collectGarbage(0.5);
+        blobMap.close();
+        break;
+
+      default:
+        throw new IllegalStateException("Unexpected value: " + storage);
+    }
+  }
+}
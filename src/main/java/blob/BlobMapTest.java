@@ -0,0 +1,97 @@
+package blob;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+class BlobMapTest {
+
+  static String value(int key, int length) {
+    StringBuilder value = new StringBuilder(length);
+    while (value.length() < length)
+      value.append(key).append(',');
+    return value.substring(0, length);
+  }
+
+  @Test
+  void separateLargeValues() throws Exception {
+    Path directory = Files.createTempDirectory("blobMapTest");
+
+    BlobMap<Integer, String> map =
+      BlobMap
+        .persistent(directory, intSerializer(), stringSerializer())
+        .setThresholdBytes(100);
+
+    map.put(1, "small");
+    map.put(2, value(2, 5000));
+
+    assertFalse(map.map().get(1).get().isPointer());
+    assertTrue(map.map().get(2).get().isPointer());
+    assertEquals("small", map.get(1).get());
+    assertEquals(value(2, 5000), map.get(2).get());
+
+    //read from the mapped file.
+    ByteBuffer buffer = map.getBuffer(2).get();
+    assertTrue(buffer.isDirect());
+    assertTrue(buffer.isReadOnly());
+    assertEquals(5000, buffer.remaining());
+    assertEquals(5000, map.liveBlobBytes());
+
+    map.remove(2);
+    assertFalse(map.get(2).isPresent());
+    assertEquals(0, map.liveBlobBytes());
+
+    map.put(3, value(3, 3000));
+    map.close();
+
+    //live bytes of existing files are counted on open.
+    BlobMap<Integer, String> reopened = BlobMap.persistent(directory, intSerializer(), stringSerializer());
+    assertEquals("small", reopened.get(1).get());
+    assertEquals(value(3, 3000), reopened.get(3).get());
+    assertEquals(3000, reopened.liveBlobBytes());
+
+    reopened.delete();
+  }
+
+  @Test
+  void collectGarbage() throws IOException {
+    Path directory = Files.createTempDirectory("blobMapTest");
+
+    BlobMap<Integer, String> map =
+      BlobMap
+        .persistent(directory, intSerializer(), stringSerializer())
+        .setThresholdBytes(100)
+        .setFileBytes(64 * 1024);
+
+    for (int key = 0; key < 100; key++)
+      map.put(key, value(key, 4000));
+
+    //overwrite 90 values so the first files are mostly dead.
+    for (int key = 10; key < 100; key++)
+      map.put(key, value(key + 1, 4000));
+
+    long blobBytes = map.blobBytes();
+    assertEquals(100 * 4000, map.liveBlobBytes());
+
+    BlobMap.GarbageCollection collection = map.collectGarbage(0.5);
+    assertTrue(collection.files() > 0);
+    assertTrue(collection.reclaimedBytes() > 0);
+    assertTrue(map.blobBytes() < blobBytes);
+    assertEquals(100 * 4000, map.liveBlobBytes());
+
+    for (int key = 0; key < 100; key++)
+      assertEquals(value(key < 10 ? key : key + 1, 4000), map.get(key).get());
+
+    //files with only live values are kept.
+    assertEquals(0, map.collectGarbage(0.5).files());
+
+    map.delete();
+  }
+}
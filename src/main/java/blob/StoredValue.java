@@ -0,0 +1,82 @@
+package blob;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A value of {@link BlobMap}'s underlying map. Either the serialized value itself or a pointer to it in a {@link BlobFile}:
+ * <ul>
+ * <li>inline: [0][value bytes]</li>
+ * <li>pointer: [1][file id: int][value offset: int][value length: int]</li>
+ * </ul>
+ */
+public final class StoredValue {
+
+  private static final byte INLINE = 0;
+  private static final byte POINTER = 1;
+
+  final byte[] inline;
+  final int fileId;
+  final int offset;
+  final int length;
+
+  private StoredValue(byte[] inline, int fileId, int offset, int length) {
+    this.inline = inline;
+    this.fileId = fileId;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  static StoredValue inline(byte[] value) {
+    return new StoredValue(value, -1, -1, value.length);
+  }
+
+  static StoredValue pointer(int fileId, int offset, int length) {
+    return new StoredValue(null, fileId, offset, length);
+  }
+
+  public boolean isPointer() {
+    return inline == null;
+  }
+
+  boolean pointsTo(int fileId, int offset) {
+    return isPointer() && this.fileId == fileId && this.offset == offset;
+  }
+
+  public static final Serializer<StoredValue> serializer = new Serializer<StoredValue>() {
+    @Override
+    @SuppressWarnings("unchecked")
+    public Slice<Byte> write(StoredValue data) {
+      byte[] bytes;
+      if (data.isPointer()) {
+        bytes =
+          ByteBuffer
+            .allocate(1 + Integer.BYTES * 3)
+            .put(POINTER)
+            .putInt(data.fileId)
+            .putInt(data.offset)
+            .putInt(data.length)
+            .array();
+      } else {
+        bytes = new byte[1 + data.inline.length];
+        bytes[0] = INLINE;
+        System.arraycopy(data.inline, 0, bytes, 1, data.inline.length);
+      }
+      //backed by a byte[] like the slices a map reads from disk.
+      return (Slice<Byte>) (Slice<?>) Slice.ofScala(bytes);
+    }
+
+    @Override
+    public StoredValue read(Slice<Byte> slice) {
+      byte[] bytes = BlobMap.bytes(slice, 1, slice.size() - 1);
+      if (slice.get(0) == POINTER) {
+        ByteBuffer pointer = ByteBuffer.wrap(bytes);
+        return pointer(pointer.getInt(), pointer.getInt(), pointer.getInt());
+      } else {
+        return inline(bytes);
+      }
+    }
+  };
+}
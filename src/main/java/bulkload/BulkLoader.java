@@ -0,0 +1,341 @@
+package bulkload;
+
+import bulkload.RecordFile.MappedReader;
+import bulkload.RecordFile.Record;
+import bulkload.RecordFile.Writer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swaydb.KeyVal;
+import swaydb.java.MapT;
+import swaydb.java.Stream;
+import swaydb.java.serializers.Serializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Loads a {@link RecordFile} into a map in key order.
+ * <p>
+ * The input file is read through memory-mapped windows and sorted externally: records are buffered
+ * into runs of at most runBytes, each run is sorted and spilled to a temporary file and the runs are merged.
+ * The merged records are written with size-bounded map.put(Stream) batches, so each batch touches
+ * a narrow key range and lands in Segments that are mostly new instead of merging into every Segment.
+ * <p>
+ * Keys are sorted by their serialized bytes with unsigned lexicographic ordering, which is the map's
+ * default ordering. Maps with a custom key comparator are still loaded correctly but the batches
+ * are not in the map's key order. If a key occurs more than once the last record wins.
+ */
+public class BulkLoader<K, V> {
+
+  private static final Logger logger = LoggerFactory.getLogger(BulkLoader.class);
+
+  public enum Phase {
+    //reading, sorting and spilling runs.
+    SORT,
+    //merging runs and writing batches to the map.
+    LOAD
+  }
+
+  public interface ProgressListener {
+    void progress(Phase phase, long rows, double rowsPerSecond);
+  }
+
+  public static final class Result {
+    private final long rows;
+    private final long duplicates;
+    private final int runs;
+    private final Duration elapsed;
+
+    Result(long rows, long duplicates, int runs, Duration elapsed) {
+      this.rows = rows;
+      this.duplicates = duplicates;
+      this.runs = runs;
+      this.elapsed = elapsed;
+    }
+
+    //rows written to the map.
+    public long rows() {
+      return rows;
+    }
+
+    //input records dropped because a later record had the same key.
+    public long duplicates() {
+      return duplicates;
+    }
+
+    //number of sorted runs. 1 if the input was sorted in memory.
+    public int runs() {
+      return runs;
+    }
+
+    public Duration elapsed() {
+      return elapsed;
+    }
+
+    public double rowsPerSecond() {
+      return rows / (elapsed.toNanos() / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d rows (%d duplicates) from %d runs in %d ms (%.0f rows/sec)", rows, duplicates, runs, elapsed.toMillis(), rowsPerSecond());
+    }
+  }
+
+  static final Comparator<byte[]> unsignedLexicographic =
+    (left, right) -> {
+      int length = Math.min(left.length, right.length);
+      for (int i = 0; i < length; i++) {
+        int compare = (left[i] & 0xFF) - (right[i] & 0xFF);
+        if (compare != 0)
+          return compare;
+      }
+      return left.length - right.length;
+    };
+
+  private final MapT<K, V, ?> map;
+  private final Serializer<K> keySerializer;
+  private final Serializer<V> valueSerializer;
+
+  private long runBytes = 64L * 1024 * 1024;
+  private long batchBytes = 4L * 1024 * 1024;
+  private long windowBytes = 256L * 1024 * 1024;
+  private long progressRows = 1_000_000;
+  private Path tempDirectory;
+  private ProgressListener progressListener =
+    (phase, rows, rowsPerSecond) -> logger.info("{} {} rows ({} rows/sec)", phase, rows, Math.round(rowsPerSecond));
+
+  public BulkLoader(MapT<K, V, ?> map, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+    this.map = map;
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
+  }
+
+  /**
+   * Maximum bytes of records sorted in memory before a run is spilled to disk.
+   */
+  public BulkLoader<K, V> setRunBytes(long runBytes) {
+    this.runBytes = runBytes;
+    return this;
+  }
+
+  /**
+   * Maximum bytes of serialized records written with one map.put(Stream).
+   */
+  public BulkLoader<K, V> setBatchBytes(long batchBytes) {
+    this.batchBytes = batchBytes;
+    return this;
+  }
+
+  /**
+   * Size of the memory-mapped windows of the input and run files.
+   */
+  public BulkLoader<K, V> setWindowBytes(long windowBytes) {
+    this.windowBytes = windowBytes;
+    return this;
+  }
+
+  /**
+   * Directory for spilled runs. Defaults to a new directory next to the input file.
+   */
+  public BulkLoader<K, V> setTempDirectory(Path tempDirectory) {
+    this.tempDirectory = tempDirectory;
+    return this;
+  }
+
+  /**
+   * Reports progress every progressRows rows. Progress is logged by default.
+   */
+  public BulkLoader<K, V> setProgressListener(long progressRows, ProgressListener progressListener) {
+    this.progressRows = progressRows;
+    this.progressListener = progressListener;
+    return this;
+  }
+
+  public Result load(Path input) throws IOException {
+    long start = System.nanoTime();
+    Path directory = tempDirectory != null ? tempDirectory : input.toAbsolutePath().getParent();
+    Path runDirectory = Files.createTempDirectory(directory, "bulkload-");
+    List<Path> runFiles = new ArrayList<>();
+
+    try {
+      Progress sortProgress = new Progress(Phase.SORT);
+      List<Record> run = new ArrayList<>();
+      long bufferedBytes = 0;
+
+      try (MappedReader reader = new MappedReader(input, windowBytes)) {
+        while (reader.hasNext()) {
+          Record record = reader.next();
+          run.add(record);
+          bufferedBytes += record.size();
+          sortProgress.increment();
+
+          if (bufferedBytes >= runBytes) {
+            runFiles.add(spill(run, runDirectory, runFiles.size()));
+            run.clear();
+            bufferedBytes = 0;
+          }
+        }
+      }
+
+      Progress loadProgress = new Progress(Phase.LOAD);
+      Merger merger;
+      int runs;
+      //the input fits in one run so merge straight from memory.
+      if (runFiles.isEmpty()) {
+        run.sort((left, right) -> unsignedLexicographic.compare(left.key, right.key));
+        merger = new Merger(Collections.singletonList(run.iterator()));
+        runs = 1;
+      } else {
+        if (!run.isEmpty())
+          runFiles.add(spill(run, runDirectory, runFiles.size()));
+        run = null;
+
+        List<Iterator<Record>> readers = new ArrayList<>();
+        for (Path runFile : runFiles)
+          readers.add(new MappedReader(runFile, windowBytes));
+        merger = new Merger(readers);
+        runs = runFiles.size();
+      }
+
+      try {
+        List<KeyVal<K, V>> batch = new ArrayList<>();
+        long batchedBytes = 0;
+        while (merger.hasNext()) {
+          Record record = merger.next();
+          batch.add(KeyVal.of(keySerializer.read(RecordFile.slice(record.key)), valueSerializer.read(RecordFile.slice(record.value))));
+          batchedBytes += record.size();
+          loadProgress.increment();
+
+          if (batchedBytes >= batchBytes) {
+            map.put(Stream.of(batch));
+            batch = new ArrayList<>();
+            batchedBytes = 0;
+          }
+        }
+        //the map does not accept empty batches.
+        if (!batch.isEmpty())
+          map.put(Stream.of(batch));
+      } finally {
+        merger.close();
+      }
+
+      Result result = new Result(loadProgress.rows, sortProgress.rows - loadProgress.rows, runs, Duration.ofNanos(System.nanoTime() - start));
+      logger.info("Loaded {}: {}", input, result);
+      return result;
+    } finally {
+      for (Path runFile : runFiles)
+        Files.deleteIfExists(runFile);
+      Files.deleteIfExists(runDirectory);
+    }
+  }
+
+  //List.sort is a stable merge sort so records with equal keys keep their input order.
+  private Path spill(List<Record> run, Path runDirectory, int index) throws IOException {
+    run.sort((left, right) -> unsignedLexicographic.compare(left.key, right.key));
+    Path runFile = runDirectory.resolve(index + ".run");
+    try (Writer writer = new Writer(runFile)) {
+      for (Record record : run)
+        writer.write(record);
+    }
+    logger.debug("Spilled run {} with {} records", index, run.size());
+    return runFile;
+  }
+
+  private final class Progress {
+    private final Phase phase;
+    private final long start = System.nanoTime();
+    private long rows;
+
+    Progress(Phase phase) {
+      this.phase = phase;
+    }
+
+    void increment() {
+      rows++;
+      if (rows % progressRows == 0)
+        progressListener.progress(phase, rows, rows / ((System.nanoTime() - start) / 1_000_000_000.0));
+    }
+  }
+
+  /**
+   * k-way merge of sorted runs that drops all but the last record of each key.
+   * Runs are in input order so on equal keys the record of the later run is the later one.
+   */
+  private static final class Merger implements Iterator<Record>, AutoCloseable {
+
+    private static final class Head {
+      final Record record;
+      final int run;
+
+      Head(Record record, int run) {
+        this.record = record;
+        this.run = run;
+      }
+    }
+
+    private final List<Iterator<Record>> runs;
+    private final PriorityQueue<Head> heads;
+
+    Merger(List<Iterator<Record>> runs) {
+      this.runs = runs;
+      this.heads =
+        new PriorityQueue<>(
+          Math.max(1, runs.size()),
+          (left, right) -> {
+            int compare = unsignedLexicographic.compare(left.record.key, right.record.key);
+            return compare != 0 ? compare : Integer.compare(left.run, right.run);
+          }
+        );
+
+      for (int run = 0; run < runs.size(); run++)
+        advance(run);
+    }
+
+    private void advance(int run) {
+      Iterator<Record> iterator = runs.get(run);
+      if (iterator.hasNext())
+        heads.add(new Head(iterator.next(), run));
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public Record next() {
+      Head head = heads.poll();
+      advance(head.run);
+      Record last = head.record;
+
+      //skip to the last record of this key.
+      while (!heads.isEmpty() && unsignedLexicographic.compare(heads.peek().record.key, last.key) == 0) {
+        Head duplicate = heads.poll();
+        advance(duplicate.run);
+        last = duplicate.record;
+      }
+      return last;
+    }
+
+    @Override
+    public void close() {
+      for (Iterator<Record> run : runs)
+        if (run instanceof MappedReader)
+          try {
+            ((MappedReader) run).close();
+          } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+          }
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package bulkload;
+
+import benchmark.BenchmarkMaps;
+import bulkload.RecordFile.MappedReader;
+import bulkload.RecordFile.Record;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.data.config.ForceSave;
+import swaydb.data.config.MMAP;
+import swaydb.data.util.OperatingSystem;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.persistent.DefaultConfigs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+/**
+ * Loading a shuffled input file of keyCount key-values into a {@link PersistentMap} configured as in
+ * {@link mmapDisabledExample.Example}.
+ * <p>
+ * naivePut writes the records in input order with map.put(Stream) batches of batchSize.
+ * bulkLoad sorts the input with {@link BulkLoader} first and writes batches of the same size in key order.
+ * Each iteration loads into a new map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BulkLoaderBenchmark {
+
+  @Param("2000000")
+  int keyCount;
+
+  @Param("100")
+  int valueSize;
+
+  @Param("10000")
+  int batchSize;
+
+  //a fraction of the input so the loader spills and merges runs.
+  @Param("67108864")
+  long runBytes;
+
+  Path input;
+  Map<Integer, String, Void> map;
+
+  @Setup(Level.Trial)
+  public void createInput() throws IOException {
+    StringBuilder padding = new StringBuilder();
+    for (int i = 0; i < valueSize; i++)
+      padding.append('x');
+
+    //Fisher-Yates shuffle of the keys.
+    int[] keys = new int[keyCount];
+    for (int i = 0; i < keyCount; i++)
+      keys[i] = i + 1;
+    Random random = new Random(42);
+    for (int i = keyCount - 1; i > 0; i--) {
+      int swap = random.nextInt(i + 1);
+      int key = keys[i];
+      keys[i] = keys[swap];
+      keys[swap] = key;
+    }
+
+    Path directory = Files.createDirectories(BenchmarkMaps.directory("bulkload").getParent());
+    input = Files.createTempFile(directory, "bulkload-input-", "");
+    Iterator<KeyVal<Integer, String>> keyValues =
+      new Iterator<KeyVal<Integer, String>>() {
+        int index = 0;
+
+        @Override
+        public boolean hasNext() {
+          return index < keys.length;
+        }
+
+        @Override
+        public KeyVal<Integer, String> next() {
+          int key = keys[index++];
+          return KeyVal.of(key, padding.toString() + key);
+        }
+      };
+
+    RecordFile.write(input, keyValues, intSerializer(), stringSerializer());
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteInput() throws IOException {
+    Files.deleteIfExists(input);
+  }
+
+  @Setup(Level.Iteration)
+  public void createMap() {
+    map =
+      PersistentMap
+        .functionsOff(BenchmarkMaps.directory("bulkload"), intSerializer(), stringSerializer())
+        .setMmapAppendix(MMAP.on(OperatingSystem.isWindows(), ForceSave.beforeClean(true, false, false)))
+        .setMmapMaps(MMAP.off(ForceSave.beforeClose(true, false, false)))
+        .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(MMAP.off(ForceSave.beforeClose(true, false, true))))
+        .get();
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteMap() {
+    map.delete();
+  }
+
+  @Benchmark
+  public long naivePut() throws IOException {
+    long rows = 0;
+    try (MappedReader reader = new MappedReader(input, 256L * 1024 * 1024)) {
+      List<KeyVal<Integer, String>> batch = new ArrayList<>(batchSize);
+      while (reader.hasNext()) {
+        Record record = reader.next();
+        batch.add(KeyVal.of(intSerializer().read(RecordFile.slice(record.key)), stringSerializer().read(RecordFile.slice(record.value))));
+        rows++;
+
+        if (batch.size() == batchSize) {
+          map.put(Stream.of(batch));
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      if (!batch.isEmpty())
+        map.put(Stream.of(batch));
+    }
+    return rows;
+  }
+
+  @Benchmark
+  public long bulkLoad() throws IOException {
+    //batch bytes of batchSize records. Values are the padding followed by the key's digits.
+    long recordBytes = 2 * Integer.BYTES + Integer.BYTES + valueSize + 7;
+
+    return
+      new BulkLoader<>(map, intSerializer(), stringSerializer())
+        .setRunBytes(runBytes)
+        .setBatchBytes(batchSize * recordBytes)
+        .load(input)
+        .rows();
+  }
+}
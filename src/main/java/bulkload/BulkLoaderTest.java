@@ -0,0 +1,104 @@
+package bulkload;
+
+import org.junit.jupiter.api.Test;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+class BulkLoaderTest {
+
+  @Test
+  void loadsShuffledInputWithDuplicatesThroughSpilledRuns() throws IOException {
+    Path directory = Files.createTempDirectory("bulkLoaderTest");
+    Path input = directory.resolve("input");
+
+    //every key twice, the second value must win.
+    List<KeyVal<Integer, String>> keyValues = new ArrayList<>();
+    for (int key = 1; key <= 10000; key++)
+      keyValues.add(KeyVal.of(key, "first " + key));
+    Collections.shuffle(keyValues, new Random(42));
+    TreeMap<Integer, String> expected = new TreeMap<>();
+    for (int key = 1; key <= 10000; key++) {
+      keyValues.add(KeyVal.of(key, "second " + key));
+      expected.put(key, "second " + key);
+    }
+
+    assertEquals(20000, RecordFile.write(input, keyValues.iterator(), intSerializer(), stringSerializer()));
+
+    Map<Integer, String, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), stringSerializer())
+        .get();
+
+    List<Long> progress = new ArrayList<>();
+    BulkLoader.Result result =
+      new BulkLoader<>(map, intSerializer(), stringSerializer())
+        .setRunBytes(16 * 1024)
+        .setBatchBytes(4 * 1024)
+        //small windows so records are remapped across window boundaries.
+        .setWindowBytes(1000)
+        .setProgressListener(5000, (phase, rows, rowsPerSecond) -> progress.add(rows))
+        .load(input);
+
+    assertEquals(10000, result.rows());
+    assertEquals(10000, result.duplicates());
+    assertTrue(result.runs() > 1);
+    //4 sort and 2 load progress reports.
+    assertEquals(6, progress.size());
+
+    TreeMap<Integer, String> actual = new TreeMap<>();
+    map.stream().forEach(keyVal -> actual.put(keyVal.key(), keyVal.value()));
+    assertEquals(expected, actual);
+
+    //spilled runs are deleted.
+    assertFalse(Files.list(directory).anyMatch(path -> !path.equals(input)));
+
+    map.delete();
+    Files.delete(input);
+    Files.delete(directory);
+  }
+
+  @Test
+  void loadsInMemoryWhenInputFitsOneRun() throws IOException {
+    Path directory = Files.createTempDirectory("bulkLoaderTest");
+    Path input = directory.resolve("input");
+
+    List<KeyVal<Integer, String>> keyValues = new ArrayList<>();
+    for (int key = 100; key >= 1; key--)
+      keyValues.add(KeyVal.of(key, "value " + key));
+    RecordFile.write(input, keyValues.iterator(), intSerializer(), stringSerializer());
+
+    Map<Integer, String, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), stringSerializer())
+        .get();
+
+    BulkLoader.Result result =
+      new BulkLoader<>(map, intSerializer(), stringSerializer())
+        .load(input);
+
+    assertEquals(100, result.rows());
+    assertEquals(1, result.runs());
+    assertEquals(100, map.stream().count());
+    assertEquals("value 50", map.get(50).get());
+
+    map.delete();
+    Files.delete(input);
+    Files.delete(directory);
+  }
+}
@@ -0,0 +1,183 @@
+package bulkload;
+
+import swaydb.KeyVal;
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Input and run files of {@link BulkLoader}.
+ * <p>
+ * A file is a sequence of records [key length: int][key bytes][value length: int][value bytes]
+ * where the bytes are written by the key and value {@link Serializer}s. Lengths are big-endian.
+ */
+public final class RecordFile {
+
+  private RecordFile() {
+  }
+
+  static final class Record {
+    final byte[] key;
+    final byte[] value;
+
+    Record(byte[] key, byte[] value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    long size() {
+      return 2 * Integer.BYTES + key.length + value.length;
+    }
+  }
+
+  static byte[] bytes(Slice<Byte> slice) {
+    byte[] bytes = new byte[slice.size()];
+    Object array = slice.unsafeInnerArray();
+    if (array instanceof byte[]) {
+      System.arraycopy(array, slice.fromOffset(), bytes, 0, bytes.length);
+      return bytes;
+    }
+
+    for (int i = 0; i < bytes.length; i++)
+      bytes[i] = slice.get(i);
+    return bytes;
+  }
+
+  /**
+   * A slice backed by the byte[], the same as the slices serializers are given when a map reads from disk.
+   */
+  @SuppressWarnings("unchecked")
+  static Slice<Byte> slice(byte[] bytes) {
+    return (Slice<Byte>) (Slice<?>) Slice.ofScala(bytes);
+  }
+
+  /**
+   * Writes key-values as an input file for {@link BulkLoader}.
+   *
+   * @return number of records written.
+   */
+  public static <K, V> long write(Path file, Iterator<KeyVal<K, V>> keyValues, Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+    long records = 0;
+    try (Writer writer = new Writer(file)) {
+      while (keyValues.hasNext()) {
+        KeyVal<K, V> keyValue = keyValues.next();
+        writer.write(new Record(bytes(keySerializer.write(keyValue.key())), bytes(valueSerializer.write(keyValue.value()))));
+        records++;
+      }
+    }
+    return records;
+  }
+
+  static final class Writer implements AutoCloseable {
+    private final DataOutputStream output;
+
+    Writer(Path file) throws IOException {
+      this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+    }
+
+    void write(Record record) throws IOException {
+      output.writeInt(record.key.length);
+      output.write(record.key);
+      output.writeInt(record.value.length);
+      output.write(record.value);
+    }
+
+    @Override
+    public void close() throws IOException {
+      output.close();
+    }
+  }
+
+  /**
+   * Reads records through memory-mapped windows of at most windowSize bytes so files larger than 2GB can be read.
+   * A window always starts at a record so records never cross windows.
+   */
+  static final class MappedReader implements Iterator<Record>, AutoCloseable {
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    MappedReader(Path file, long windowSize) throws IOException {
+      this.channel = FileChannel.open(file, StandardOpenOption.READ);
+      this.fileSize = channel.size();
+      this.windowSize = windowSize;
+    }
+
+    long position() {
+      return position;
+    }
+
+    long fileSize() {
+      return fileSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return position < fileSize;
+    }
+
+    //maps a new window at the current position if the next bytes are not within the current window.
+    private void ensure(long bytes) throws IOException {
+      if (window == null || position + bytes > windowStart + window.limit()) {
+        long size = Math.max(Math.min(windowSize, fileSize - position), bytes);
+        if (size > Integer.MAX_VALUE)
+          throw new IOException("Record of " + bytes + " bytes is larger than the maximum window size");
+
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        windowStart = position;
+      }
+    }
+
+    @Override
+    public Record next() {
+      if (!hasNext())
+        throw new NoSuchElementException();
+
+      try {
+        ensure(Integer.BYTES);
+        int offset = (int) (position - windowStart);
+        int keyLength = window.getInt(offset);
+
+        ensure(2L * Integer.BYTES + keyLength);
+        offset = (int) (position - windowStart);
+        int valueLength = window.getInt(offset + Integer.BYTES + keyLength);
+
+        ensure(2L * Integer.BYTES + keyLength + valueLength);
+        offset = (int) (position - windowStart);
+
+        byte[] key = new byte[keyLength];
+        byte[] value = new byte[valueLength];
+        window.position(offset + Integer.BYTES);
+        window.get(key);
+        window.position(offset + 2 * Integer.BYTES + keyLength);
+        window.get(value);
+
+        position += 2L * Integer.BYTES + keyLength + valueLength;
+        return new Record(key, value);
+      } catch (IOException exception) {
+        throw new UncheckedIOException(exception);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      window = null;
+      channel.close();
+    }
+  }
+}
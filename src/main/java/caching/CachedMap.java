@@ -0,0 +1,401 @@
+package caching;
+
+import forwarding.ForwardingMap;
+import swaydb.Expiration;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.java.MapT;
+import swaydb.java.Stream;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A read-through cache of deserialized values in front of a map, eg: a {@link swaydb.java.persistent.PersistentMap}.
+ * <p>
+ * {@link #get(Object)} first looks up the cache and on a miss reads the key-value and its deadline from
+ * the map. The cached value expires at the key's deadline. The cache is bounded and uses TinyLFU
+ * admission (see {@link TinyLfuCache}) so that skewed read traffic keeps the hot keys cached.
+ * <p>
+ * Writes go to the map first and then invalidate the written keys. Range writes, batch writes
+ * of streams/iterators, commits and range functions invalidate the whole cache because
+ * keys are ordered by their serialized bytes which need not match the order of K.
+ * A value loaded concurrently with a write to the same key is not cached.
+ * <p>
+ * Writes made directly on the underlying map are not seen by the cache.
+ */
+public class CachedMap<K, V, F> extends ForwardingMap<K, V, F> {
+
+  private final TinyLfuCache<K, V> cache;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public CachedMap(MapT<K, V, F> map, int maxSize) {
+    this(map, maxSize, Runtime.getRuntime().availableProcessors() * 4);
+  }
+
+  /**
+   * @param concurrency number of independently locked segments of the cache.
+   */
+  public CachedMap(MapT<K, V, F> map, int maxSize, int concurrency) {
+    super(map);
+    this.cache = new TinyLfuCache<>(maxSize, concurrency);
+  }
+
+  /**
+   * Reads
+   */
+  @Override
+  public Optional<V> get(K key) {
+    V cached = cache.get(key);
+    if (cached != null) {
+      hits.increment();
+      return Optional.of(cached);
+    }
+
+    misses.increment();
+
+    //read the epoch before the map so a write that happens during the read is not missed.
+    long epoch = cache.epoch(key);
+    Optional<Pair<KeyVal<K, V>, Optional<Expiration>>> keyValue = delegate.getKeyValueDeadline(key);
+    if (!keyValue.isPresent())
+      return Optional.empty();
+
+    V value = keyValue.get().left().value();
+    if (value != null) {
+      Optional<Expiration> expiration = keyValue.get().right();
+      long deadlineNanos = expiration.isPresent() ? expiration.get().time().toNanos() : Long.MAX_VALUE;
+      cache.put(key, value, deadlineNanos, epoch);
+    }
+
+    return Optional.ofNullable(value);
+  }
+
+  @Override
+  public boolean contains(K key) {
+    return cache.get(key) != null || delegate.contains(key);
+  }
+
+  /**
+   * A java.util.Map view whose gets and writes go through the cache. Iteration reads the underlying map.
+   */
+  @Override
+  public java.util.Map<K, V> asJava() {
+    return new JavaMap();
+  }
+
+  private final class JavaMap extends AbstractMap<K, V> {
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+      return CachedMap.this.get((K) key).orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public boolean containsKey(Object key) {
+      return contains((K) key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+      V previous = get(key);
+      CachedMap.this.put(key, value);
+      return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(Object key) {
+      V previous = get(key);
+      if (previous != null)
+        CachedMap.this.remove((K) key);
+      return previous;
+    }
+
+    @Override
+    public void clear() {
+      clearKeyValues();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return CachedMap.this.isEmpty();
+    }
+
+    @Override
+    public int size() {
+      return delegate.asJava().size();
+    }
+
+    @Override
+    public Set<java.util.Map.Entry<K, V>> entrySet() {
+      return new AbstractSet<java.util.Map.Entry<K, V>>() {
+        @Override
+        public Iterator<java.util.Map.Entry<K, V>> iterator() {
+          Iterator<java.util.Map.Entry<K, V>> entries = delegate.asJava().entrySet().iterator();
+
+          return new Iterator<java.util.Map.Entry<K, V>>() {
+            private K last;
+
+            @Override
+            public boolean hasNext() {
+              return entries.hasNext();
+            }
+
+            @Override
+            public java.util.Map.Entry<K, V> next() {
+              java.util.Map.Entry<K, V> entry = entries.next();
+              last = entry.getKey();
+              return new JavaEntry(entry.getKey(), entry.getValue());
+            }
+
+            @Override
+            public void remove() {
+              if (last == null)
+                throw new IllegalStateException("next has not been called");
+              CachedMap.this.remove(last);
+              last = null;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return JavaMap.this.size();
+        }
+      };
+    }
+  }
+
+  private final class JavaEntry extends AbstractMap.SimpleEntry<K, V> {
+    private static final long serialVersionUID = 1L;
+
+    JavaEntry(K key, V value) {
+      super(key, value);
+    }
+
+    @Override
+    public V setValue(V value) {
+      CachedMap.this.put(getKey(), value);
+      return super.setValue(value);
+    }
+  }
+
+  /**
+   * Writes
+   */
+  @Override
+  public void put(K key, V value) {
+    delegate.put(key, value);
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void put(K key, V value, Duration expireAfter) {
+    delegate.put(key, value, expireAfter);
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void put(Stream<KeyVal<K, V>> keyValues) {
+    delegate.put(keyValues);
+    cache.invalidateAll();
+  }
+
+  //Iterables can be one-shot so they are read once before writing and invalidating.
+  private static <T> List<T> list(Iterable<T> items) {
+    if (items instanceof List)
+      return (List<T>) items;
+
+    List<T> list = new ArrayList<>();
+    items.forEach(list::add);
+    return list;
+  }
+
+  @Override
+  public void put(Iterable<KeyVal<K, V>> keyValues) {
+    List<KeyVal<K, V>> list = list(keyValues);
+    delegate.put(list);
+    for (KeyVal<K, V> keyValue : list)
+      cache.invalidate(keyValue.key());
+  }
+
+  @Override
+  public void put(Iterator<KeyVal<K, V>> keyValues) {
+    delegate.put(keyValues);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void remove(K key) {
+    delegate.remove(key);
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void remove(K from, K to) {
+    delegate.remove(from, to);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void remove(Stream<K> keys) {
+    delegate.remove(keys);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void remove(Iterable<K> keys) {
+    List<K> list = list(keys);
+    delegate.remove(list);
+    for (K key : list)
+      cache.invalidate(key);
+  }
+
+  @Override
+  public void remove(Iterator<K> keys) {
+    delegate.remove(keys);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void expire(K key, Duration after) {
+    delegate.expire(key, after);
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void expire(K from, K to, Duration after) {
+    delegate.expire(from, to, after);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void expire(Stream<Pair<K, Duration>> keys) {
+    delegate.expire(keys);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void expire(Iterable<Pair<K, Duration>> keys) {
+    List<Pair<K, Duration>> list = list(keys);
+    delegate.expire(list);
+    for (Pair<K, Duration> key : list)
+      cache.invalidate(key.left());
+  }
+
+  @Override
+  public void expire(Iterator<Pair<K, Duration>> keys) {
+    delegate.expire(keys);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void update(K key, V value) {
+    delegate.update(key, value);
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void update(K from, K to, V value) {
+    delegate.update(from, to, value);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void update(Stream<KeyVal<K, V>> keyValues) {
+    delegate.update(keyValues);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void update(Iterable<KeyVal<K, V>> keyValues) {
+    List<KeyVal<K, V>> list = list(keyValues);
+    delegate.update(list);
+    for (KeyVal<K, V> keyValue : list)
+      cache.invalidate(keyValue.key());
+  }
+
+  @Override
+  public void update(Iterator<KeyVal<K, V>> keyValues) {
+    delegate.update(keyValues);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void clearKeyValues() {
+    delegate.clearKeyValues();
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void applyFunction(K key, F function) {
+    delegate.applyFunction(key, function);
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void applyFunction(K from, K to, F function) {
+    delegate.applyFunction(from, to, function);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void commit(Stream<Prepare<K, V, F>> prepares) {
+    delegate.commit(prepares);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void commit(Iterable<Prepare<K, V, F>> prepares) {
+    delegate.commit(prepares);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public void close() {
+    cache.invalidateAll();
+    delegate.close();
+  }
+
+  @Override
+  public void delete() {
+    cache.invalidateAll();
+    delegate.delete();
+  }
+
+  /**
+   * Counters
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long evictionCount() {
+    return cache.evictions();
+  }
+
+  public double hitRate() {
+    long hits = hitCount();
+    long requests = hits + missCount();
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+
+  public int cachedSize() {
+    return cache.size();
+  }
+}
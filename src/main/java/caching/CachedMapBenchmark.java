@@ -0,0 +1,107 @@
+package caching;
+
+import benchmark.BenchmarkMaps;
+import benchmark.ZipfianGenerator;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.data.config.ForceSave;
+import swaydb.data.config.MMAP;
+import swaydb.data.util.OperatingSystem;
+import swaydb.java.MapT;
+import swaydb.java.Stream;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.persistent.DefaultConfigs;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+/**
+ * Zipfian point reads on a {@link PersistentMap} with and without a {@link CachedMap} in front,
+ * with MMAP enabled for all files (as in {@link configurations.ConfiguringMMAPAndForceSaveTest})
+ * and disabled for all files except the appendix (as in {@link mmapDisabledExample.Example}).
+ * <p>
+ * The cache's hit rate is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CachedMapBenchmark {
+
+  @Param({"true", "false"})
+  boolean mmap;
+
+  @Param({"false", "true"})
+  boolean cached;
+
+  @Param("1000000")
+  int keyCount;
+
+  //number of values the cache can hold.
+  @Param("10000")
+  int cacheSize;
+
+  @Param("100")
+  int valueSize;
+
+  MapT<Integer, String, Void> map;
+  ZipfianGenerator zipfian;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    MapT<Integer, String, Void> persistentMap = mmap ? mmapEnabled() : mmapDisabled();
+
+    StringBuilder padding = new StringBuilder();
+    for (int i = 0; i < valueSize; i++)
+      padding.append('x');
+
+    persistentMap.put(Stream.range(1, keyCount).map(key -> KeyVal.of(key, padding.toString() + key)));
+
+    map = cached ? new CachedMap<>(persistentMap, cacheSize) : persistentMap;
+    zipfian = new ZipfianGenerator(keyCount);
+  }
+
+  private MapT<Integer, String, Void> mmapEnabled() {
+    MMAP.On mmapEnabled = MMAP.on(OperatingSystem.isWindows(), ForceSave.off());
+
+    return
+      PersistentMap
+        .functionsOff(BenchmarkMaps.directory("mmap-on"), intSerializer(), stringSerializer())
+        .setMmapMaps(mmapEnabled)
+        .setMmapAppendix(mmapEnabled)
+        .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(mmapEnabled))
+        .get();
+  }
+
+  private MapT<Integer, String, Void> mmapDisabled() {
+    return
+      PersistentMap
+        .functionsOff(BenchmarkMaps.directory("mmap-off"), intSerializer(), stringSerializer())
+        .setMmapAppendix(MMAP.on(OperatingSystem.isWindows(), ForceSave.off()))
+        .setMmapMaps(MMAP.off(ForceSave.off()))
+        .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(MMAP.off(ForceSave.off())))
+        .get();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (map instanceof CachedMap) {
+      CachedMap<Integer, String, Void> cachedMap = (CachedMap<Integer, String, Void>) map;
+      System.out.printf("%nhitRate: %.4f, evictions: %d%n", cachedMap.hitRate(), cachedMap.evictionCount());
+    }
+
+    map.delete();
+  }
+
+  @Benchmark
+  public Optional<String> zipfianGet() {
+    return map.get((int) zipfian.nextScrambled(ThreadLocalRandom.current()) + 1);
+  }
+}
@@ -0,0 +1,163 @@
+package caching;
+
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.KeyVal;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnValue;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class CachedMapTest {
+
+  @Test
+  void readsAreCachedAndWritesInvalidate() {
+    OnValue<Integer, Integer> increment = value -> Apply.update(value + 1);
+
+    Map<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> map =
+      MemoryMap
+        .functionsOn(intSerializer(), intSerializer(), Collections.singleton(increment))
+        .get();
+
+    CachedMap<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> cached = new CachedMap<>(map, 100);
+
+    cached.put(Arrays.asList(KeyVal.of(1, 1), KeyVal.of(2, 2), KeyVal.of(3, 3)));
+
+    assertEquals(Optional.of(1), cached.get(1));
+    assertEquals(Optional.of(1), cached.get(1));
+    assertEquals(1, cached.hitCount());
+    assertEquals(1, cached.missCount());
+
+    cached.put(1, 10);
+    assertEquals(Optional.of(10), cached.get(1));
+
+    cached.applyFunction(1, increment);
+    assertEquals(Optional.of(11), cached.get(1));
+
+    cached.get(2);
+    cached.get(3);
+    cached.applyFunction(1, 3, increment);
+    assertEquals(Optional.of(12), cached.get(1));
+    assertEquals(Optional.of(3), cached.get(2));
+    assertEquals(Optional.of(4), cached.get(3));
+
+    cached.remove(1, 2);
+    assertEquals(Optional.empty(), cached.get(1));
+    assertEquals(Optional.empty(), cached.get(2));
+
+    cached.expire(3, Duration.ZERO);
+    assertEquals(Optional.empty(), cached.get(3));
+
+    //one-shot Iterables are read once, the keys written are the keys invalidated.
+    cached.put(4, 4);
+    assertEquals(Optional.of(4), cached.get(4));
+    Iterator<KeyVal<Integer, Integer>> oneShot = Collections.singletonList(KeyVal.of(4, 40)).iterator();
+    cached.update((Iterable<KeyVal<Integer, Integer>>) () -> oneShot);
+    assertEquals(Optional.of(40), cached.get(4));
+
+    cached.delete();
+  }
+
+  @Test
+  void javaMapGoesThroughTheCache() {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    CachedMap<Integer, Integer, Void> cached = new CachedMap<>(map, 100);
+    java.util.Map<Integer, Integer> javaMap = cached.asJava();
+
+    assertNull(javaMap.put(1, 1));
+    javaMap.put(2, 2);
+    assertEquals(Integer.valueOf(1), javaMap.get(1));
+    assertEquals(Integer.valueOf(1), javaMap.get(1));
+    assertEquals(1, cached.hitCount());
+
+    //writes invalidate the cached value.
+    assertEquals(Integer.valueOf(1), javaMap.put(1, 10));
+    assertEquals(Optional.of(10), cached.get(1));
+
+    for (java.util.Map.Entry<Integer, Integer> entry : javaMap.entrySet())
+      entry.setValue(entry.getValue() * 2);
+    assertEquals(Optional.of(20), cached.get(1));
+    assertEquals(Optional.of(4), cached.get(2));
+
+    assertEquals(Integer.valueOf(20), javaMap.remove(1));
+    assertEquals(Optional.empty(), cached.get(1));
+    assertEquals(1, javaMap.size());
+    assertTrue(javaMap.containsKey(2));
+
+    javaMap.clear();
+    assertTrue(javaMap.isEmpty());
+    assertEquals(Optional.empty(), cached.get(2));
+
+    cached.delete();
+  }
+
+  @Test
+  void cachedValuesExpireWithTheirKey() throws InterruptedException {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    CachedMap<Integer, Integer, Void> cached = new CachedMap<>(map, 100);
+
+    cached.put(1, 1, Duration.ofMillis(200));
+    assertEquals(Optional.of(1), cached.get(1));
+    assertEquals(Optional.of(1), cached.get(1));
+    assertEquals(1, cached.hitCount());
+
+    Thread.sleep(300);
+    assertEquals(Optional.empty(), cached.get(1));
+
+    cached.delete();
+  }
+
+  @Test
+  void frequentKeysAreNotEvictedByColdKeys() {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    CachedMap<Integer, Integer, Void> cached = new CachedMap<>(map, 100, 1);
+
+    for (int key = 0; key < 400; key++)
+      map.put(key, key);
+
+    //keys 0 to 99 are hot.
+    for (int i = 0; i < 5; i++)
+      for (int key = 0; key < 100; key++)
+        cached.get(key);
+
+    //a scan of cold keys does not evict the hot keys.
+    for (int key = 100; key < 400; key++)
+      cached.get(key);
+
+    assertEquals(0, cached.evictionCount());
+    assertEquals(100, cached.cachedSize());
+
+    long misses = cached.missCount();
+    for (int key = 0; key < 100; key++)
+      cached.get(key);
+
+    assertEquals(misses, cached.missCount());
+    assertFalse(cached.contains(400));
+
+    cached.delete();
+  }
+}
@@ -0,0 +1,221 @@
+package caching;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded in-heap cache with TinyLFU admission.
+ * <p>
+ * Entries are kept in LRU order. When the cache is full a new entry is only admitted if it has been
+ * requested more often than the LRU victim, so one-off reads of cold keys do not evict hot keys.
+ * Request frequencies are estimated by a count-min sketch whose counters are halved periodically
+ * so that keys that were hot in the past age out.
+ * <p>
+ * The cache is split into segments, each guarded by its own lock. Each segment also keeps an
+ * epoch that is incremented on every invalidation, see {@link #epoch(Object)}.
+ */
+class TinyLfuCache<K, V> {
+
+  static final class Entry<V> {
+    final V value;
+    //System.nanoTime() after which the entry is expired or Long.MAX_VALUE if it never expires.
+    final long deadlineNanos;
+
+    Entry(V value, long deadlineNanos) {
+      this.value = value;
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    boolean isExpired(long nowNanos) {
+      return deadlineNanos != Long.MAX_VALUE && nowNanos - deadlineNanos >= 0;
+    }
+  }
+
+  private static final class Segment<K, V> {
+    final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    final FrequencySketch sketch;
+    final int maxSize;
+    long epoch;
+
+    Segment(int maxSize) {
+      this.maxSize = maxSize;
+      this.sketch = new FrequencySketch(maxSize);
+    }
+  }
+
+  private final Segment<K, V>[] segments;
+  private final LongAdder evictions = new LongAdder();
+
+  TinyLfuCache(int maxSize, int concurrency) {
+    if (maxSize < 1)
+      throw new IllegalArgumentException("maxSize must be greater than 0. Actual: " + maxSize);
+
+    int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrency, maxSize)));
+
+    @SuppressWarnings("unchecked")
+    Segment<K, V>[] segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++)
+      segments[i] = new Segment<>(Math.max(1, maxSize / segmentCount));
+
+    this.segments = segments;
+  }
+
+  private static int spread(Object key) {
+    int hash = key.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  private Segment<K, V> segment(Object key) {
+    return segments[spread(key) & (segments.length - 1)];
+  }
+
+  /**
+   * @return the cached value or null if the key is not cached or has expired.
+   */
+  V get(K key) {
+    Segment<K, V> segment = segment(key);
+    synchronized (segment) {
+      segment.sketch.increment(spread(key));
+      Entry<V> entry = segment.entries.get(key);
+      if (entry == null)
+        return null;
+
+      if (entry.isExpired(System.nanoTime())) {
+        segment.entries.remove(key);
+        return null;
+      }
+
+      return entry.value;
+    }
+  }
+
+  /**
+   * The key's current epoch. A value read from storage after reading the epoch is only cached by
+   * {@link #put(Object, Object, long, long)} if the key was not invalidated in the meantime.
+   */
+  long epoch(K key) {
+    Segment<K, V> segment = segment(key);
+    synchronized (segment) {
+      return segment.epoch;
+    }
+  }
+
+  /**
+   * Caches the value unless the key was invalidated since epoch or the value is not admitted.
+   *
+   * @return true if the value was cached.
+   */
+  boolean put(K key, V value, long deadlineNanos, long epoch) {
+    Segment<K, V> segment = segment(key);
+    synchronized (segment) {
+      if (segment.epoch != epoch)
+        return false;
+
+      if (segment.entries.containsKey(key) || segment.entries.size() < segment.maxSize) {
+        segment.entries.put(key, new Entry<>(value, deadlineNanos));
+        return true;
+      }
+
+      Iterator<Map.Entry<K, Entry<V>>> lru = segment.entries.entrySet().iterator();
+      Map.Entry<K, Entry<V>> victim = lru.next();
+
+      //expired entries are always evicted, otherwise the more frequent key wins.
+      if (!victim.getValue().isExpired(System.nanoTime()) &&
+        segment.sketch.frequency(spread(key)) <= segment.sketch.frequency(spread(victim.getKey())))
+        return false;
+
+      lru.remove();
+      evictions.increment();
+      segment.entries.put(key, new Entry<>(value, deadlineNanos));
+      return true;
+    }
+  }
+
+  void invalidate(K key) {
+    Segment<K, V> segment = segment(key);
+    synchronized (segment) {
+      segment.epoch++;
+      segment.entries.remove(key);
+    }
+  }
+
+  void invalidateAll() {
+    for (Segment<K, V> segment : segments)
+      synchronized (segment) {
+        segment.epoch++;
+        segment.entries.clear();
+      }
+  }
+
+  long evictions() {
+    return evictions.sum();
+  }
+
+  int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments)
+      synchronized (segment) {
+        size += segment.entries.size();
+      }
+    return size;
+  }
+
+  /**
+   * Count-min sketch of 4 rows with 4-bit saturating counters.
+   * Not thread-safe, guarded by the segment's lock.
+   */
+  static final class FrequencySketch {
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int[] SEEDS = {0x97CB3127, 0xB7E15163, 0x9E3779B9, 0x5BD1E995};
+
+    private final byte[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int samples;
+
+    FrequencySketch(int maxSize) {
+      //wide enough that keys outside the cache rarely share all counters with a cached key.
+      int width = Integer.highestOneBit(Math.max(16, maxSize) * 2 - 1) * 8;
+      this.counters = new byte[ROWS][width];
+      this.mask = width - 1;
+      this.sampleSize = 10 * Math.max(16, maxSize);
+    }
+
+    private int index(int hash, int row) {
+      int index = (hash ^ SEEDS[row]) * 0x85EBCA6B;
+      index ^= index >>> 13;
+      index *= 0xC2B2AE35;
+      index ^= index >>> 16;
+      return index & mask;
+    }
+
+    void increment(int hash) {
+      for (int row = 0; row < ROWS; row++) {
+        int index = index(hash, row);
+        if (counters[row][index] < MAX_COUNT)
+          counters[row][index]++;
+      }
+
+      if (++samples >= sampleSize)
+        reset();
+    }
+
+    int frequency(int hash) {
+      int frequency = MAX_COUNT;
+      for (int row = 0; row < ROWS; row++)
+        frequency = Math.min(frequency, counters[row][index(hash, row)]);
+      return frequency;
+    }
+
+    //halves all counters so that old frequencies age out.
+    private void reset() {
+      for (byte[] row : counters)
+        for (int i = 0; i < row.length; i++)
+          row[i] >>= 1;
+      samples /= 2;
+    }
+  }
+}
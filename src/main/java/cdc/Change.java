@@ -0,0 +1,183 @@
+package cdc;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A mutation of a {@link ChangeFeedMap}, in the order it was applied to the map.
+ * <p>
+ * Expirations are absolute times in epoch milliseconds so replaying a change later expires the key at the same time.
+ * applyFunction is published as its outcome: a PUT of the key's new value or a REMOVE.
+ * A range applyFunction is published as a REMOVE_RANGE followed by a PUT of each key left in the range.
+ */
+public final class Change<K, V> {
+
+  public enum Type {
+    PUT,
+    UPDATE,
+    REMOVE,
+    EXPIRE,
+    UPDATE_RANGE,
+    REMOVE_RANGE,
+    EXPIRE_RANGE,
+    CLEAR
+  }
+
+  //no expiration.
+  public static final long NEVER = 0;
+
+  private final long sequence;
+  private final Type type;
+  private final K key;
+  private final K toKey;
+  private final V value;
+  private final long expireAtMillis;
+
+  private Change(long sequence, Type type, K key, K toKey, V value, long expireAtMillis) {
+    this.sequence = sequence;
+    this.type = type;
+    this.key = key;
+    this.toKey = toKey;
+    this.value = value;
+    this.expireAtMillis = expireAtMillis;
+  }
+
+  static <K, V> Change<K, V> of(Type type, K key, K toKey, V value, long expireAtMillis) {
+    return new Change<>(0, type, key, toKey, value, expireAtMillis);
+  }
+
+  Change<K, V> withSequence(long sequence) {
+    return new Change<>(sequence, type, key, toKey, value, expireAtMillis);
+  }
+
+  /**
+   * Position of the change in the feed starting at 1. Subscribe from sequence + 1 to resume after this change.
+   */
+  public long sequence() {
+    return sequence;
+  }
+
+  public Type type() {
+    return type;
+  }
+
+  /**
+   * The key, or the first key of a range. null for CLEAR.
+   */
+  public K key() {
+    return key;
+  }
+
+  /**
+   * The last key of a range, else null.
+   */
+  public K toKey() {
+    return toKey;
+  }
+
+  /**
+   * The value of a PUT, UPDATE or UPDATE_RANGE, else null.
+   */
+  public V value() {
+    return value;
+  }
+
+  /**
+   * Expiration of a PUT, EXPIRE or EXPIRE_RANGE in epoch milliseconds, or {@link #NEVER}.
+   */
+  public long expireAtMillis() {
+    return expireAtMillis;
+  }
+
+  private static byte[] bytes(Slice<Byte> slice) {
+    byte[] bytes = new byte[slice.size()];
+    Object array = slice.unsafeInnerArray();
+    if (array instanceof byte[])
+      System.arraycopy((byte[]) array, slice.fromOffset(), bytes, 0, bytes.length);
+    else
+      for (int i = 0; i < bytes.length; i++)
+        bytes[i] = slice.get(i);
+    return bytes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Slice<Byte> slice(byte[] bytes) {
+    return (Slice<Byte>) (Slice<?>) Slice.ofScala(bytes);
+  }
+
+  /**
+   * [sequence: long][type: byte][expireAtMillis: long] then the key, toKey and value each as
+   * [length + 1: int][bytes] where length 0 is null.
+   */
+  public static <K, V> Serializer<Change<K, V>> serializer(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+    return new Serializer<Change<K, V>>() {
+      @Override
+      public Slice<Byte> write(Change<K, V> data) {
+        byte[] key = data.key == null ? null : bytes(keySerializer.write(data.key));
+        byte[] toKey = data.toKey == null ? null : bytes(keySerializer.write(data.toKey));
+        byte[] value = data.value == null ? null : bytes(valueSerializer.write(data.value));
+
+        int size = Long.BYTES + 1 + Long.BYTES + Integer.BYTES * 3;
+        for (byte[] field : Arrays.asList(key, toKey, value))
+          size += field == null ? 0 : field.length;
+
+        ByteBuffer buffer =
+          ByteBuffer
+            .allocate(size)
+            .putLong(data.sequence)
+            .put((byte) data.type.ordinal())
+            .putLong(data.expireAtMillis);
+
+        for (byte[] field : Arrays.asList(key, toKey, value))
+          if (field == null) {
+            buffer.putInt(0);
+          } else {
+            buffer.putInt(field.length + 1);
+            buffer.put(field);
+          }
+
+        //backed by a byte[] like the slices a map reads from disk.
+        return slice(buffer.array());
+      }
+
+      @Override
+      public Change<K, V> read(Slice<Byte> slice) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes(slice));
+        long sequence = buffer.getLong();
+        Type type = Type.values()[buffer.get()];
+        long expireAtMillis = buffer.getLong();
+        byte[] key = field(buffer);
+        byte[] toKey = field(buffer);
+        byte[] value = field(buffer);
+
+        return
+          new Change<>(
+            sequence,
+            type,
+            key == null ? null : keySerializer.read(slice(key)),
+            toKey == null ? null : keySerializer.read(slice(toKey)),
+            value == null ? null : valueSerializer.read(slice(value)),
+            expireAtMillis
+          );
+      }
+
+      private byte[] field(ByteBuffer buffer) {
+        int length = buffer.getInt() - 1;
+        if (length < 0)
+          return null;
+
+        byte[] field = new byte[length];
+        buffer.get(field);
+        return field;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return "Change(" + sequence + ", " + type + ", " + key + (toKey == null ? "" : " to " + toKey) + (value == null ? "" : ", " + value) + (expireAtMillis == NEVER ? "" : ", expireAt " + expireAtMillis) + ")";
+  }
+}
@@ -0,0 +1,296 @@
+package cdc;
+
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static swaydb.java.serializers.Default.longSerializer;
+
+/**
+ * A durable log of {@link Change}s keyed by sequence number, published in batches to subscribers.
+ * <p>
+ * Each subscription reads the log from its own position in its own daemon thread. A subscriber's demand is in
+ * batches: request(n) allows n calls of onNext, each with up to maxBatchSize changes. A subscriber that
+ * does not request more is not sent more, changes wait in the log instead, so slow consumers do not slow down
+ * writes or other consumers.
+ * <p>
+ * Consumers that persist the sequence of the last change they processed resume after it with
+ * {@link #subscribe(Flow.Subscriber, long)}. The log grows until {@link #truncate(long)} is called with
+ * the lowest sequence still needed by any consumer.
+ */
+public class ChangeFeed<K, V> implements Flow.Publisher<List<Change<K, V>>>, AutoCloseable {
+
+  public static final Duration RECHECK_INTERVAL = Duration.ofMillis(100);
+  public static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+  private static final AtomicInteger subscriptionIds = new AtomicInteger();
+
+  private final Map<Long, Change<K, V>, Void> log;
+  private final Serializer<K> keySerializer;
+  private final AtomicLong lastSequence;
+  private volatile int maxBatchSize = 1000;
+  private volatile boolean closed;
+  private final List<Thread> subscriptionThreads = new CopyOnWriteArrayList<>();
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition appended = lock.newCondition();
+  //appends only take the lock if there are subscriptions waiting for changes.
+  private final AtomicInteger waitingSubscriptions = new AtomicInteger();
+
+  /**
+   * @param log           created with {@link Change#serializer} as its value serializer.
+   * @param keySerializer the key serializer of the map whose changes are published.
+   */
+  public ChangeFeed(Map<Long, Change<K, V>, Void> log, Serializer<K> keySerializer) {
+    this.log = log;
+    this.keySerializer = keySerializer;
+    this.lastSequence = new AtomicLong(log.last().map(KeyVal::key).orElse(0L));
+  }
+
+  public static <K, V> ChangeFeed<K, V> memory(Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+    return
+      new ChangeFeed<>(
+        MemoryMap
+          .functionsOff(longSerializer(), Change.serializer(keySerializer, valueSerializer))
+          .get(),
+        keySerializer
+      );
+  }
+
+  public static <K, V> ChangeFeed<K, V> persistent(Path directory, Serializer<K> keySerializer, Serializer<V> valueSerializer) {
+    return
+      new ChangeFeed<>(
+        PersistentMap
+          .functionsOff(directory, longSerializer(), Change.serializer(keySerializer, valueSerializer))
+          .get(),
+        keySerializer
+      );
+  }
+
+  public ChangeFeed<K, V> setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  public Map<Long, Change<K, V>, Void> log() {
+    return log;
+  }
+
+  Serializer<K> keySerializer() {
+    return keySerializer;
+  }
+
+  /**
+   * Sequence of the last appended change, 0 if none.
+   */
+  public long lastSequence() {
+    return lastSequence.get();
+  }
+
+  /**
+   * Assigns the next sequence numbers to changes and writes them with one put.
+   * Callers must not append concurrently so that sequence order is the order changes were applied,
+   * see {@link ChangeFeedMap}.
+   */
+  void append(List<Change<K, V>> changes) {
+    if (changes.isEmpty())
+      return;
+
+    long sequence = lastSequence.get();
+    List<KeyVal<Long, Change<K, V>>> entries = new ArrayList<>(changes.size());
+    for (Change<K, V> change : changes) {
+      sequence++;
+      entries.add(KeyVal.of(sequence, change.withSequence(sequence)));
+    }
+
+    log.put(entries);
+    lastSequence.set(sequence);
+    signal();
+  }
+
+  private void signal() {
+    if (waitingSubscriptions.get() > 0) {
+      lock.lock();
+      try {
+        appended.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Up to maxChanges changes from fromSequence.
+   */
+  public List<Change<K, V>> read(long fromSequence, int maxChanges) {
+    if (fromSequence > lastSequence.get())
+      return new ArrayList<>();
+
+    return
+      log
+        .stream()
+        .fromOrAfter(fromSequence)
+        .take(maxChanges)
+        .map(KeyVal::value)
+        .materialize();
+  }
+
+  private void awaitAppend(long sequence) throws InterruptedException {
+    waitingSubscriptions.incrementAndGet();
+    lock.lock();
+    try {
+      //rechecks in case an append signalled before this subscription started waiting.
+      if (lastSequence.get() < sequence && !closed)
+        appended.await(RECHECK_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    } finally {
+      lock.unlock();
+      waitingSubscriptions.decrementAndGet();
+    }
+  }
+
+  /**
+   * Removes changes before sequence. Subscriptions behind it skip to the first change left.
+   * <p>
+   * The last change is never removed because the last sequence is recovered from it when the log is reopened,
+   * so sequences continue after a restart even if all changes were consumed.
+   */
+  public void truncate(long beforeSequence) {
+    long before = Math.min(beforeSequence, lastSequence.get());
+    if (before > 1)
+      log.remove(0L, before - 1);
+  }
+
+  /**
+   * Publishes changes appended after subscribing.
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super List<Change<K, V>>> subscriber) {
+    subscribe(subscriber, lastSequence.get() + 1);
+  }
+
+  /**
+   * Publishes changes from fromSequence, eg: 1 for all changes in the log.
+   */
+  public void subscribe(Flow.Subscriber<? super List<Change<K, V>>> subscriber, long fromSequence) {
+    FeedSubscription subscription = new FeedSubscription(subscriber, fromSequence);
+    Thread thread = new Thread(subscription, "change-feed-subscription-" + subscriptionIds.incrementAndGet());
+    thread.setDaemon(true);
+    subscriptionThreads.add(thread);
+    thread.start();
+  }
+
+  /**
+   * Completes all subscriptions and closes the log. Waits up to {@link #CLOSE_TIMEOUT} for subscribers
+   * that are processing a batch.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    closed = true;
+    lock.lock();
+    try {
+      appended.signalAll();
+    } finally {
+      lock.unlock();
+    }
+
+    long deadline = System.nanoTime() + CLOSE_TIMEOUT.toNanos();
+    for (Thread thread : subscriptionThreads)
+      thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+
+    log.close();
+  }
+
+  private final class FeedSubscription implements Flow.Subscription, Runnable {
+    private final Flow.Subscriber<? super List<Change<K, V>>> subscriber;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private volatile Throwable invalidRequest;
+    private long nextSequence;
+
+    private final Object demandMonitor = new Object();
+
+    FeedSubscription(Flow.Subscriber<? super List<Change<K, V>>> subscriber, long fromSequence) {
+      this.subscriber = subscriber;
+      this.nextSequence = fromSequence;
+    }
+
+    @Override
+    public void request(long n) {
+      if (n <= 0)
+        invalidRequest = new IllegalArgumentException("request must be positive. Actual: " + n);
+      else
+        //capped at Long.MAX_VALUE which means unbounded.
+        demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+
+      synchronized (demandMonitor) {
+        demandMonitor.notifyAll();
+      }
+    }
+
+    @Override
+    public void cancel() {
+      cancelled.set(true);
+      synchronized (demandMonitor) {
+        demandMonitor.notifyAll();
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        subscriber.onSubscribe(this);
+
+        while (!cancelled.get()) {
+          if (invalidRequest != null) {
+            cancelled.set(true);
+            subscriber.onError(invalidRequest);
+            return;
+          }
+
+          if (closed) {
+            subscriber.onComplete();
+            return;
+          }
+
+          if (demand.get() == 0) {
+            synchronized (demandMonitor) {
+              if (demand.get() == 0 && !cancelled.get() && invalidRequest == null)
+                demandMonitor.wait(RECHECK_INTERVAL.toMillis());
+            }
+            continue;
+          }
+
+          List<Change<K, V>> batch = read(nextSequence, maxBatchSize);
+          if (batch.isEmpty()) {
+            awaitAppend(nextSequence);
+            continue;
+          }
+
+          nextSequence = batch.get(batch.size() - 1).sequence() + 1;
+          if (demand.get() != Long.MAX_VALUE)
+            demand.decrementAndGet();
+          subscriber.onNext(batch);
+        }
+      } catch (Throwable throwable) {
+        if (!cancelled.getAndSet(true))
+          subscriber.onError(throwable);
+      } finally {
+        subscriptionThreads.remove(Thread.currentThread());
+      }
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package cdc;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.java.MapT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Write throughput of a persistent map without a change feed and with a {@link ChangeFeedMap} whose log is
+ * in memory or persistent. With subscribed a subscriber with unbounded demand consumes the feed while writing,
+ * subscribed is ignored without a feed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ChangeFeedBenchmark {
+
+  static final int BATCH_SIZE = 100;
+
+  public enum Feed {
+    NONE,
+    MEMORY_LOG,
+    PERSISTENT_LOG
+  }
+
+  @Param({"NONE", "MEMORY_LOG", "PERSISTENT_LOG"})
+  Feed feed;
+
+  @Param({"false", "true"})
+  boolean subscribed;
+
+  @Param("1000000")
+  int keyCount;
+
+  MapT<Integer, Integer, Void> map;
+  ChangeFeed<Integer, Integer> changeFeed;
+  final LongAdder consumed = new LongAdder();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map = BenchmarkMaps.persistentFunctionsOff(BenchmarkMaps.directory("changeFeed-map"));
+
+    switch (feed) {
+      case MEMORY_LOG:
+        changeFeed = ChangeFeed.memory(intSerializer(), intSerializer());
+        break;
+
+      case PERSISTENT_LOG:
+        changeFeed = ChangeFeed.persistent(BenchmarkMaps.directory("changeFeed-log"), intSerializer(), intSerializer());
+        break;
+
+      default:
+        return;
+    }
+
+    map = new ChangeFeedMap<>(map, changeFeed);
+
+    if (subscribed)
+      changeFeed.subscribe(
+        new Flow.Subscriber<List<Change<Integer, Integer>>>() {
+          @Override
+          public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+          }
+
+          @Override
+          public void onNext(List<Change<Integer, Integer>> batch) {
+            consumed.add(batch.size());
+          }
+
+          @Override
+          public void onError(Throwable throwable) {
+            throwable.printStackTrace();
+          }
+
+          @Override
+          public void onComplete() {
+          }
+        }
+      );
+  }
+
+  @TearDown(Level.Trial)
+  public void close() throws InterruptedException {
+    if (changeFeed != null) {
+      System.out.printf("%nPublished %d changes, consumed %d%n", changeFeed.lastSequence(), consumed.sum());
+      changeFeed.close();
+      changeFeed.log().delete();
+    }
+    map.delete();
+  }
+
+  @Benchmark
+  public void put() {
+    int key = ThreadLocalRandom.current().nextInt(keyCount);
+    map.put(key, key);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void putBatch() {
+    List<KeyVal<Integer, Integer>> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      int key = ThreadLocalRandom.current().nextInt(keyCount);
+      batch.add(KeyVal.of(key, key));
+    }
+    map.put(batch);
+  }
+}
@@ -0,0 +1,339 @@
+package cdc;
+
+import forwarding.ForwardingMap;
+import scala.Option;
+import scala.concurrent.duration.Deadline;
+import swaydb.Expiration;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.data.slice.Slice;
+import swaydb.java.MapT;
+import swaydb.java.Stream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes every write to a map to a {@link ChangeFeed}, eg:
+ * <pre>
+ * ChangeFeed&lt;Integer, String&gt; feed = ChangeFeed.persistent(logDirectory, intSerializer(), stringSerializer());
+ * ChangeFeedMap&lt;Integer, String, Void&gt; map = new ChangeFeedMap&lt;&gt;(PersistentMap.functionsOff(...).get(), feed);
+ * feed.subscribe(subscriber, lastProcessedSequence + 1);
+ * </pre>
+ * Writes are serialized with a lock and the changes are appended to the feed after the write is applied, so the
+ * feed's order is the order writes were applied. A crash between the write and the append loses the change
+ * from the feed. Batch writes and commits of {@link Prepare}s are appended with one put.
+ * <p>
+ * Writes made directly on the underlying map are not published.
+ */
+public class ChangeFeedMap<K, V, F> extends ForwardingMap<K, V, F> {
+
+  private final ChangeFeed<K, V> feed;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  public ChangeFeedMap(MapT<K, V, F> map, ChangeFeed<K, V> feed) {
+    super(map);
+    this.feed = feed;
+  }
+
+  public ChangeFeed<K, V> feed() {
+    return feed;
+  }
+
+  private static <T> List<T> list(Iterable<T> items) {
+    if (items instanceof List)
+      return (List<T>) items;
+
+    List<T> list = new ArrayList<>();
+    items.forEach(list::add);
+    return list;
+  }
+
+  private static <T> List<T> list(Iterator<T> items) {
+    List<T> list = new ArrayList<>();
+    items.forEachRemaining(list::add);
+    return list;
+  }
+
+  private static byte[] bytes(Slice<Byte> slice) {
+    byte[] bytes = new byte[slice.size()];
+    for (int i = 0; i < bytes.length; i++)
+      bytes[i] = slice.get(i);
+    return bytes;
+  }
+
+  private static long expireAt(Duration after) {
+    return System.currentTimeMillis() + after.toMillis();
+  }
+
+  private static long expireAt(Option<Deadline> deadline) {
+    return deadline.isDefined() ? expireAt(Expiration.of(deadline.get()).timeLeft()) : Change.NEVER;
+  }
+
+  private void publish(Runnable write, List<Change<K, V>> changes) {
+    //empty batches are not written.
+    if (changes.isEmpty())
+      return;
+
+    lock.lock();
+    try {
+      write.run();
+      feed.append(changes);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void publish(Runnable write, Change<K, V> change) {
+    publish(write, Collections.singletonList(change));
+  }
+
+  /**
+   * Writes
+   */
+  @Override
+  public void put(K key, V value) {
+    publish(() -> delegate.put(key, value), Change.of(Change.Type.PUT, key, null, value, Change.NEVER));
+  }
+
+  @Override
+  public void put(K key, V value, Duration expireAfter) {
+    publish(() -> delegate.put(key, value, expireAfter), Change.of(Change.Type.PUT, key, null, value, expireAt(expireAfter)));
+  }
+
+  @Override
+  public void put(Stream<KeyVal<K, V>> keyValues) {
+    put(keyValues.materialize());
+  }
+
+  @Override
+  public void put(Iterable<KeyVal<K, V>> keyValues) {
+    List<KeyVal<K, V>> list = list(keyValues);
+    List<Change<K, V>> changes = new ArrayList<>(list.size());
+    for (KeyVal<K, V> keyValue : list)
+      changes.add(Change.of(Change.Type.PUT, keyValue.key(), null, keyValue.value(), Change.NEVER));
+
+    publish(() -> delegate.put(list), changes);
+  }
+
+  @Override
+  public void put(Iterator<KeyVal<K, V>> keyValues) {
+    put(list(keyValues));
+  }
+
+  @Override
+  public void remove(K key) {
+    publish(() -> delegate.remove(key), Change.of(Change.Type.REMOVE, key, null, null, Change.NEVER));
+  }
+
+  @Override
+  public void remove(K from, K to) {
+    publish(() -> delegate.remove(from, to), Change.of(Change.Type.REMOVE_RANGE, from, to, null, Change.NEVER));
+  }
+
+  @Override
+  public void remove(Stream<K> keys) {
+    remove(keys.materialize());
+  }
+
+  @Override
+  public void remove(Iterable<K> keys) {
+    List<K> list = list(keys);
+    List<Change<K, V>> changes = new ArrayList<>(list.size());
+    for (K key : list)
+      changes.add(Change.of(Change.Type.REMOVE, key, null, null, Change.NEVER));
+
+    publish(() -> delegate.remove(list), changes);
+  }
+
+  @Override
+  public void remove(Iterator<K> keys) {
+    remove(list(keys));
+  }
+
+  @Override
+  public void expire(K key, Duration after) {
+    publish(() -> delegate.expire(key, after), Change.of(Change.Type.EXPIRE, key, null, null, expireAt(after)));
+  }
+
+  @Override
+  public void expire(K from, K to, Duration after) {
+    publish(() -> delegate.expire(from, to, after), Change.of(Change.Type.EXPIRE_RANGE, from, to, null, expireAt(after)));
+  }
+
+  @Override
+  public void expire(Stream<Pair<K, Duration>> keys) {
+    expire(keys.materialize());
+  }
+
+  @Override
+  public void expire(Iterable<Pair<K, Duration>> keys) {
+    List<Pair<K, Duration>> list = list(keys);
+    List<Change<K, V>> changes = new ArrayList<>(list.size());
+    for (Pair<K, Duration> key : list)
+      changes.add(Change.of(Change.Type.EXPIRE, key.left(), null, null, expireAt(key.right())));
+
+    publish(() -> delegate.expire(list), changes);
+  }
+
+  @Override
+  public void expire(Iterator<Pair<K, Duration>> keys) {
+    expire(list(keys));
+  }
+
+  @Override
+  public void update(K key, V value) {
+    publish(() -> delegate.update(key, value), Change.of(Change.Type.UPDATE, key, null, value, Change.NEVER));
+  }
+
+  @Override
+  public void update(K from, K to, V value) {
+    publish(() -> delegate.update(from, to, value), Change.of(Change.Type.UPDATE_RANGE, from, to, value, Change.NEVER));
+  }
+
+  @Override
+  public void update(Stream<KeyVal<K, V>> keyValues) {
+    update(keyValues.materialize());
+  }
+
+  @Override
+  public void update(Iterable<KeyVal<K, V>> keyValues) {
+    List<KeyVal<K, V>> list = list(keyValues);
+    List<Change<K, V>> changes = new ArrayList<>(list.size());
+    for (KeyVal<K, V> keyValue : list)
+      changes.add(Change.of(Change.Type.UPDATE, keyValue.key(), null, keyValue.value(), Change.NEVER));
+
+    publish(() -> delegate.update(list), changes);
+  }
+
+  @Override
+  public void update(Iterator<KeyVal<K, V>> keyValues) {
+    update(list(keyValues));
+  }
+
+  @Override
+  public void clearKeyValues() {
+    publish(delegate::clearKeyValues, Change.of(Change.Type.CLEAR, null, null, null, Change.NEVER));
+  }
+
+  /**
+   * Publishes the function's outcome, read after applying it.
+   */
+  @Override
+  public void applyFunction(K key, F function) {
+    lock.lock();
+    try {
+      delegate.applyFunction(key, function);
+      feed.append(Collections.singletonList(outcome(key)));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Change<K, V> outcome(K key) {
+    Optional<Pair<KeyVal<K, V>, Optional<Expiration>>> keyValue = delegate.getKeyValueDeadline(key);
+    if (!keyValue.isPresent())
+      return Change.of(Change.Type.REMOVE, key, null, null, Change.NEVER);
+
+    long expireAt = keyValue.get().right().map(expiration -> expireAt(expiration.timeLeft())).orElse(Change.NEVER);
+    return Change.of(Change.Type.PUT, key, null, keyValue.get().left().value(), expireAt);
+  }
+
+  //a REMOVE_RANGE followed by a PUT of each key left in the range.
+  private void addOutcomes(K from, K to, List<Change<K, V>> changes) {
+    changes.add(Change.of(Change.Type.REMOVE_RANGE, from, to, null, Change.NEVER));
+
+    //the range ends before the first key after to in the map's own order, so custom key orders are supported.
+    Optional<byte[]> end = delegate.after(to).head().map(keyValue -> bytes(feed.keySerializer().write(keyValue.key())));
+    Stream<K> keys = delegate.fromOrAfter(from).map(KeyVal::key);
+    if (end.isPresent())
+      keys = keys.takeWhile(key -> !Arrays.equals(bytes(feed.keySerializer().write(key)), end.get()));
+
+    for (K key : keys.materialize())
+      changes.add(outcome(key));
+  }
+
+  /**
+   * Publishes a REMOVE_RANGE followed by a PUT of each key left in the range after applying the function.
+   */
+  @Override
+  public void applyFunction(K from, K to, F function) {
+    lock.lock();
+    try {
+      delegate.applyFunction(from, to, function);
+
+      List<Change<K, V>> changes = new ArrayList<>();
+      addOutcomes(from, to, changes);
+      feed.append(changes);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void commit(Stream<Prepare<K, V, F>> prepares) {
+    commit(prepares.materialize());
+  }
+
+  /**
+   * Publishes the changes of all prepares with one append. ApplyFunctions are published as their outcome,
+   * read after the commit.
+   */
+  @Override
+  public void commit(Iterable<Prepare<K, V, F>> prepares) {
+    List<Prepare<K, V, F>> list = list(prepares);
+    if (list.isEmpty())
+      return;
+
+    lock.lock();
+    try {
+      delegate.commit(list);
+
+      List<Change<K, V>> changes = new ArrayList<>(list.size());
+      for (Prepare<K, V, F> prepare : list)
+        addChanges(prepare, changes);
+
+      feed.append(changes);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void addChanges(Prepare<K, V, F> prepare, List<Change<K, V>> changes) {
+    if (prepare instanceof Prepare.Put) {
+      Prepare.Put<K, V> put = (Prepare.Put<K, V>) prepare;
+      changes.add(Change.of(Change.Type.PUT, put.key(), null, put.value(), expireAt(put.deadline())));
+    } else if (prepare instanceof Prepare.Remove) {
+      //a Remove with a deadline is an expire.
+      Prepare.Remove<K> remove = (Prepare.Remove<K>) prepare;
+      K to = remove.to().isDefined() ? remove.to().get() : null;
+      Change.Type type;
+      if (remove.deadline().isDefined())
+        type = to == null ? Change.Type.EXPIRE : Change.Type.EXPIRE_RANGE;
+      else
+        type = to == null ? Change.Type.REMOVE : Change.Type.REMOVE_RANGE;
+      changes.add(Change.of(type, remove.from(), to, null, expireAt(remove.deadline())));
+    } else if (prepare instanceof Prepare.Update) {
+      Prepare.Update<K, V> update = (Prepare.Update<K, V>) prepare;
+      K to = update.to().isDefined() ? update.to().get() : null;
+      Change.Type type = to == null ? Change.Type.UPDATE : Change.Type.UPDATE_RANGE;
+      changes.add(Change.of(type, update.from(), to, update.value(), Change.NEVER));
+    } else if (prepare instanceof Prepare.ApplyFunction) {
+      Prepare.ApplyFunction<K, F> apply = (Prepare.ApplyFunction<K, F>) prepare;
+      if (apply.to().isDefined())
+        addOutcomes(apply.from(), apply.to().get(), changes);
+      else
+        changes.add(outcome(apply.from()));
+    } else {
+      throw new IllegalStateException("Unexpected value: " + prepare);
+    }
+  }
+}
@@ -0,0 +1,258 @@
+package cdc;
+
+import benchmark.BenchmarkMaps;
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.PureFunction;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class ChangeFeedTest {
+
+  static class TestSubscriber implements Flow.Subscriber<List<Change<Integer, Integer>>> {
+    final BlockingQueue<List<Change<Integer, Integer>>> batches = new LinkedBlockingQueue<>();
+    final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+    final long initialRequest;
+    volatile Flow.Subscription subscription;
+    volatile boolean completed;
+
+    TestSubscriber(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0)
+        subscription.request(initialRequest);
+    }
+
+    @Override
+    public void onNext(List<Change<Integer, Integer>> batch) {
+      batches.add(batch);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      errors.add(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+
+    List<Change<Integer, Integer>> next() throws InterruptedException {
+      List<Change<Integer, Integer>> batch = batches.poll(10, TimeUnit.SECONDS);
+      assertNotNull(batch, "no batch published");
+      return batch;
+    }
+
+    List<Change<Integer, Integer>> changes(int count) throws InterruptedException {
+      List<Change<Integer, Integer>> changes = new ArrayList<>();
+      while (changes.size() < count)
+        changes.addAll(next());
+      return changes;
+    }
+  }
+
+  @Test
+  void publishWrites() throws InterruptedException {
+    Map<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> map = BenchmarkMaps.memoryFunctionsOn();
+    ChangeFeed<Integer, Integer> feed = ChangeFeed.memory(intSerializer(), intSerializer());
+    ChangeFeedMap<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> feedMap = new ChangeFeedMap<>(map, feed);
+
+    TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+    feed.subscribe(subscriber);
+
+    feedMap.put(1, 10);
+    feedMap.put(Arrays.asList(KeyVal.of(2, 20), KeyVal.of(3, 30)));
+    feedMap.expire(Arrays.asList(Pair.of(2, Duration.ofHours(1))));
+    feedMap.applyFunction(1, BenchmarkMaps.incrementFunction);
+    feedMap.remove(3);
+    feedMap.applyFunction(1, 3, BenchmarkMaps.incrementFunction);
+
+    List<Change<Integer, Integer>> changes = subscriber.changes(9);
+    assertEquals(9, feed.lastSequence());
+    for (int i = 0; i < changes.size(); i++)
+      assertEquals(i + 1, changes.get(i).sequence());
+
+    assertEquals(Change.Type.PUT, changes.get(0).type());
+    assertEquals(10, changes.get(0).value());
+    assertEquals(30, changes.get(2).value());
+    assertEquals(Change.Type.EXPIRE, changes.get(3).type());
+    assertTrue(changes.get(3).expireAtMillis() > System.currentTimeMillis());
+
+    //applyFunction is published as its outcome.
+    assertEquals(Change.Type.PUT, changes.get(4).type());
+    assertEquals(11, changes.get(4).value());
+    assertEquals(Change.Type.REMOVE, changes.get(5).type());
+
+    //a range function is a REMOVE_RANGE and the keys left in the range with their expiration.
+    assertEquals(Change.Type.REMOVE_RANGE, changes.get(6).type());
+    assertEquals(3, changes.get(6).toKey());
+    assertEquals(12, changes.get(7).value());
+    assertEquals(2, changes.get(8).key());
+    assertEquals(21, changes.get(8).value());
+    assertTrue(changes.get(8).expireAtMillis() > System.currentTimeMillis());
+
+    feed.close();
+    assertTrue(subscriber.errors.isEmpty());
+    map.delete();
+  }
+
+  @Test
+  void publishCommits() throws InterruptedException {
+    //keys in reverse order so range functions must follow the map's order.
+    Map<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> map =
+      MemoryMap
+        .functionsOn(intSerializer(), intSerializer(), Collections.singleton(BenchmarkMaps.incrementFunction))
+        .setTypedKeyComparator((Integer key1, Integer key2) -> key1.compareTo(key2) * -1)
+        .get();
+    ChangeFeed<Integer, Integer> feed = ChangeFeed.memory(intSerializer(), intSerializer());
+    ChangeFeedMap<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> feedMap = new ChangeFeedMap<>(map, feed);
+
+    feedMap.put(Arrays.asList(KeyVal.of(1, 10), KeyVal.of(2, 20), KeyVal.of(3, 30), KeyVal.of(4, 40)));
+
+    feedMap.commit(
+      Arrays.asList(
+        Prepare.put(5, 50),
+        Prepare.removeFromMap(4),
+        Prepare.expireFromMap(1, Duration.ofHours(1)),
+        Prepare.update(2, 21),
+        Prepare.applyMapFunction(3, 2, BenchmarkMaps.incrementFunction)
+      )
+    );
+
+    assertEquals(22, map.get(2).get());
+    List<Change<Integer, Integer>> changes = feed.read(5, 10);
+    assertEquals(7, changes.size());
+    assertEquals(11, feed.lastSequence());
+
+    assertEquals(Change.Type.PUT, changes.get(0).type());
+    assertEquals(50, changes.get(0).value());
+    assertEquals(Change.Type.REMOVE, changes.get(1).type());
+    assertEquals(Change.Type.EXPIRE, changes.get(2).type());
+    assertTrue(changes.get(2).expireAtMillis() > System.currentTimeMillis());
+    assertEquals(Change.Type.UPDATE, changes.get(3).type());
+
+    //the range 3 to 2 in the map's order, not 1 which comes after it.
+    assertEquals(Change.Type.REMOVE_RANGE, changes.get(4).type());
+    assertEquals(3, changes.get(5).key());
+    assertEquals(31, changes.get(5).value());
+    assertEquals(2, changes.get(6).key());
+    assertEquals(22, changes.get(6).value());
+
+    feed.close();
+    map.delete();
+  }
+
+  @Test
+  void backpressure() throws InterruptedException {
+    Map<Integer, Integer, Void> map = BenchmarkMaps.memoryFunctionsOff();
+    ChangeFeed<Integer, Integer> feed = ChangeFeed.<Integer, Integer>memory(intSerializer(), intSerializer()).setMaxBatchSize(10);
+    ChangeFeedMap<Integer, Integer, Void> feedMap = new ChangeFeedMap<>(map, feed);
+
+    for (int i = 0; i < 25; i++)
+      feedMap.put(i, i);
+    assertEquals(25, feed.lastSequence());
+
+    //subscribes after all writes so the first batch is full.
+    TestSubscriber subscriber = new TestSubscriber(1);
+    feed.subscribe(subscriber, 1);
+
+    assertEquals(10, subscriber.next().size());
+    //no demand left.
+    assertNull(subscriber.batches.poll(300, TimeUnit.MILLISECONDS));
+
+    subscriber.subscription.request(2);
+    assertEquals(10, subscriber.next().size());
+    assertEquals(5, subscriber.next().size());
+
+    subscriber.subscription.request(-1);
+    assertTrue(subscriber.errors.poll(10, TimeUnit.SECONDS) instanceof IllegalArgumentException);
+
+    feed.close();
+    map.delete();
+  }
+
+  @Test
+  void resumeFromSequence() throws Exception {
+    Path directory = Files.createTempDirectory("changeFeedTest");
+    Map<Integer, Integer, Void> map = BenchmarkMaps.memoryFunctionsOff();
+
+    ChangeFeed<Integer, Integer> feed = ChangeFeed.persistent(directory, intSerializer(), intSerializer());
+    ChangeFeedMap<Integer, Integer, Void> feedMap = new ChangeFeedMap<>(map, feed);
+    for (int i = 1; i <= 10; i++)
+      feedMap.put(i, i);
+    feed.close();
+
+    ChangeFeed<Integer, Integer> reopened = ChangeFeed.persistent(directory, intSerializer(), intSerializer());
+    assertEquals(10, reopened.lastSequence());
+
+    TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+    reopened.subscribe(subscriber, 6);
+    List<Change<Integer, Integer>> changes = subscriber.changes(5);
+    assertEquals(6, changes.get(0).sequence());
+    assertEquals(10, changes.get(4).value());
+
+    new ChangeFeedMap<>(map, reopened).remove(1);
+    assertEquals(11, subscriber.next().get(0).sequence());
+
+    //subscriptions before the first change left start from it.
+    reopened.truncate(8);
+    TestSubscriber fromStart = new TestSubscriber(1);
+    reopened.subscribe(fromStart, 1);
+    assertEquals(8, fromStart.next().get(0).sequence());
+
+    reopened.close();
+    assertTrue(subscriber.completed);
+    reopened.log().delete();
+    map.delete();
+  }
+
+  @Test
+  void sequencesContinueAfterTruncatingAll() throws Exception {
+    Path directory = Files.createTempDirectory("changeFeedTest");
+    Map<Integer, Integer, Void> map = BenchmarkMaps.memoryFunctionsOff();
+
+    ChangeFeed<Integer, Integer> feed = ChangeFeed.persistent(directory, intSerializer(), intSerializer());
+    ChangeFeedMap<Integer, Integer, Void> feedMap = new ChangeFeedMap<>(map, feed);
+    for (int i = 1; i <= 5; i++)
+      feedMap.put(i, i);
+    //all consumers are at 6.
+    feed.truncate(6);
+    feed.close();
+
+    ChangeFeed<Integer, Integer> reopened = ChangeFeed.persistent(directory, intSerializer(), intSerializer());
+    assertEquals(5, reopened.lastSequence());
+
+    TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+    reopened.subscribe(subscriber, 6);
+    new ChangeFeedMap<>(map, reopened).put(6, 6);
+    List<Change<Integer, Integer>> changes = subscriber.next();
+    assertEquals(6, changes.get(0).sequence());
+    assertEquals(6, changes.get(0).value());
+
+    reopened.close();
+    reopened.log().delete();
+    map.delete();
+  }
+}
@@ -0,0 +1,44 @@
+package cdc;
+
+/**
+ * The interfaces of java.util.concurrent.Flow (Java 9+) for this Java 8 project, with the same contracts
+ * (see the Reactive Streams specification). Adapting a Subscriber to java.util.concurrent.Flow.Subscriber is a
+ * one to one mapping of the methods.
+ */
+public final class Flow {
+
+  private Flow() {
+  }
+
+  public interface Publisher<T> {
+    void subscribe(Subscriber<? super T> subscriber);
+  }
+
+  public interface Subscriber<T> {
+    /**
+     * Called once before any other method. Nothing is published until {@link Subscription#request(long)}.
+     */
+    void onSubscribe(Subscription subscription);
+
+    void onNext(T item);
+
+    /**
+     * Terminal, no other method is called after it.
+     */
+    void onError(Throwable throwable);
+
+    /**
+     * Terminal, no other method is called after it.
+     */
+    void onComplete();
+  }
+
+  public interface Subscription {
+    /**
+     * Adds n items to the demand. n must be positive else the subscriber receives an IllegalArgumentException.
+     */
+    void request(long n);
+
+    void cancel();
+  }
+}
@@ -0,0 +1,176 @@
+package coalescing;
+
+import swaydb.Prepare;
+import swaydb.java.Map;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commits concurrent single key writes.
+ * <p>
+ * Each put, remove or expire is queued and a background thread commits the queued writes
+ * as one atomic {@link Map#commit(Iterable)} when maxBatchSize writes are queued or when the
+ * oldest queued write has waited maxDelay, whichever happens first. Writes are committed
+ * in the order they were submitted.
+ * <p>
+ * The returned futures complete on the flush thread after the batch containing the write is committed,
+ * or complete exceptionally with the commit's exception.
+ * <p>
+ * Reads should go to {@link #map()} directly. A read only sees a write after its future completes.
+ */
+public class CoalescingMap<K, V, F> implements AutoCloseable {
+
+  private static final class Write<K, V, F> {
+    final Prepare<K, V, F> prepare;
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    final long queuedAt = System.nanoTime();
+
+    Write(Prepare<K, V, F> prepare) {
+      this.prepare = prepare;
+    }
+  }
+
+  private final Map<K, V, F> map;
+  private final int maxBatchSize;
+  private final long maxDelayNanos;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  //signalled when the first write is queued, when a batch is full and on close.
+  private final Condition flushCondition = lock.newCondition();
+  private final ArrayDeque<Write<K, V, F>> queue = new ArrayDeque<>();
+  private final Thread flushThread;
+  private volatile boolean closed;
+
+  public CoalescingMap(Map<K, V, F> map, int maxBatchSize, Duration maxDelay) {
+    if (maxBatchSize < 1)
+      throw new IllegalArgumentException("maxBatchSize must be greater than 0. Actual: " + maxBatchSize);
+
+    this.map = map;
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayNanos = maxDelay.toNanos();
+    this.flushThread = new Thread(this::flushLoop, "coalescing-map-flush");
+    this.flushThread.setDaemon(true);
+    this.flushThread.start();
+  }
+
+  public Map<K, V, F> map() {
+    return map;
+  }
+
+  public CompletableFuture<Void> put(K key, V value) {
+    return submit(Prepare.put(key, value));
+  }
+
+  public CompletableFuture<Void> put(K key, V value, Duration expireAfter) {
+    return submit(Prepare.put(key, value, expireAfter));
+  }
+
+  public CompletableFuture<Void> remove(K key) {
+    return submit(Prepare.removeFromMap(key));
+  }
+
+  public CompletableFuture<Void> expire(K key, Duration after) {
+    return submit(Prepare.expireFromMap(key, after));
+  }
+
+  private CompletableFuture<Void> submit(Prepare<K, V, F> prepare) {
+    Write<K, V, F> write = new Write<>(prepare);
+    lock.lock();
+    try {
+      if (closed)
+        throw new IllegalStateException("CoalescingMap is closed");
+
+      queue.add(write);
+      //wake up the flush thread to start the delay timer or to flush a full batch.
+      if (queue.size() == 1 || queue.size() == maxBatchSize)
+        flushCondition.signal();
+    } finally {
+      lock.unlock();
+    }
+    return write.future;
+  }
+
+  private void flushLoop() {
+    while (true) {
+      List<Write<K, V, F>> batch = nextBatch();
+      if (batch == null)
+        return;
+      commit(batch);
+    }
+  }
+
+  /**
+   * Waits until a batch is full or the oldest write's delay is reached.
+   *
+   * @return null when closed and there are no more queued writes.
+   */
+  private List<Write<K, V, F>> nextBatch() {
+    lock.lock();
+    try {
+      while (queue.isEmpty()) {
+        if (closed)
+          return null;
+        flushCondition.awaitUninterruptibly();
+      }
+
+      while (!closed && queue.size() < maxBatchSize) {
+        long remaining = queue.peek().queuedAt + maxDelayNanos - System.nanoTime();
+        if (remaining <= 0)
+          break;
+        try {
+          flushCondition.awaitNanos(remaining);
+        } catch (InterruptedException ignored) {
+          //flush now.
+          break;
+        }
+      }
+
+      int batchSize = Math.min(queue.size(), maxBatchSize);
+      List<Write<K, V, F>> batch = new ArrayList<>(batchSize);
+      for (int i = 0; i < batchSize; i++)
+        batch.add(queue.poll());
+
+      return batch;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void commit(List<Write<K, V, F>> batch) {
+    List<Prepare<K, V, F>> prepares = new ArrayList<>(batch.size());
+    for (Write<K, V, F> write : batch)
+      prepares.add(write.prepare);
+
+    try {
+      map.commit(prepares);
+    } catch (Throwable throwable) {
+      for (Write<K, V, F> write : batch)
+        write.future.completeExceptionally(throwable);
+      return;
+    }
+
+    for (Write<K, V, F> write : batch)
+      write.future.complete(null);
+  }
+
+  /**
+   * Commits all queued writes and stops the flush thread. Does not close the map.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    lock.lock();
+    try {
+      closed = true;
+      flushCondition.signal();
+    } finally {
+      lock.unlock();
+    }
+    flushThread.join();
+  }
+}
@@ -0,0 +1,65 @@
+package coalescing;
+
+import benchmark.BenchmarkMaps;
+import benchmark.BenchmarkRunner;
+import org.openjdk.jmh.annotations.*;
+import swaydb.java.Map;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares concurrent single puts with puts group committed by {@link CoalescingMap}.
+ * <p>
+ * SampleTime mode reports the latency percentiles, which for coalesced puts include the wait for the batch.
+ * Run the main method to benchmark with 1 to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CoalescingMapBenchmark {
+
+  @Param({"MEMORY_FUNCTIONS_OFF", "PERSISTENT_FUNCTIONS_OFF"})
+  BenchmarkMaps.MapType mapType;
+
+  @Param("256")
+  int maxBatchSize;
+
+  @Param("100")
+  int maxDelayMicros;
+
+  Map<Integer, Integer, ?> map;
+  CoalescingMap<Integer, Integer, ?> coalescing;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map = mapType.create();
+    coalescing = new CoalescingMap<>(map, maxBatchSize, Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(maxDelayMicros)));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    coalescing.close();
+    map.delete();
+  }
+
+  @Benchmark
+  public void put() {
+    int key = ThreadLocalRandom.current().nextInt();
+    map.put(key, key);
+  }
+
+  @Benchmark
+  public void coalescedPut() {
+    int key = ThreadLocalRandom.current().nextInt();
+    coalescing.put(key, key).join();
+  }
+
+  public static void main(String[] args) throws Exception {
+    BenchmarkRunner.runThreadScaling(CoalescingMapBenchmark.class, "target/jmh-coalescing-map.json", 1, 2, 4, 8, 16, 32, 64);
+  }
+}
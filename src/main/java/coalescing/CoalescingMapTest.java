@@ -0,0 +1,68 @@
+package coalescing;
+
+import org.junit.jupiter.api.Test;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class CoalescingMapTest {
+
+  @Test
+  void concurrentWritesAreCommittedInBatches() throws InterruptedException {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    CoalescingMap<Integer, Integer, Void> coalescing = new CoalescingMap<>(map, 100, Duration.ofMillis(1));
+
+    List<CompletableFuture<Void>> puts =
+      IntStream
+        .rangeClosed(1, 1000)
+        .parallel()
+        .mapToObj(integer -> coalescing.put(integer, integer))
+        .collect(Collectors.toList());
+
+    CompletableFuture.allOf(puts.toArray(new CompletableFuture[0])).join();
+    assertEquals(1000, map.count());
+
+    //writes to the same key are applied in submission order.
+    coalescing.put(1, 10);
+    coalescing.remove(1);
+    coalescing.put(1, 20);
+    coalescing.expire(2, Duration.ZERO).join();
+
+    assertEquals(20, map.get(1).get());
+    assertFalse(map.get(2).isPresent());
+
+    coalescing.close();
+    assertThrows(IllegalStateException.class, () -> coalescing.put(3, 3));
+  }
+
+  @Test
+  void singleWriteIsFlushedAfterMaxDelay() throws InterruptedException {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    CoalescingMap<Integer, Integer, Void> coalescing = new CoalescingMap<>(map, 1000, Duration.ofMillis(50));
+
+    long start = System.nanoTime();
+    coalescing.put(1, 1).join();
+    long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+    assertTrue(elapsedMillis >= 40, "Flushed before delay: " + elapsedMillis);
+    assertEquals(1, map.get(1).get());
+
+    coalescing.close();
+  }
+}
@@ -0,0 +1,249 @@
+package counter;
+
+import swaydb.Apply;
+import swaydb.KeyVal;
+import swaydb.Prepare;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnValue;
+import swaydb.java.Map;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A counter spread over multiple keys (stripes) so that concurrent increments of the same
+ * counter do not all apply a function to a single key (see {@link functions.LikesTest}).
+ * <p>
+ * A counter named "likes" is stored as the keys "likes" + NUL + "0000" (base) to "likes" + NUL + "NNNN".
+ * Increments apply {@link #increment} or {@link #decrement} on one of the stripes.
+ * {@link #get(String)} sums all stripes with a single range stream and {@link #fold(String)}
+ * moves the stripe values into the base key so the number of non-zero keys stays small.
+ * <p>
+ * The map must be created with {@link #functions()} registered. Counter names cannot contain the NUL character.
+ * Counters must be created with {@link #create(String)} before they are incremented.
+ */
+public class StripedCounter {
+
+  public enum StripeSelection {
+    //each thread always uses the same stripe.
+    PER_THREAD,
+    //a random stripe is picked for each increment.
+    RANDOM
+  }
+
+  public static final OnValue<String, Long> increment =
+    (Long value) ->
+      Apply.update(value + 1);
+
+  public static final OnValue<String, Long> decrement =
+    (Long value) ->
+      Apply.update(value - 1);
+
+  public static List<PureFunction<String, Long, Apply.Map<Long>>> functions() {
+    return Arrays.asList(increment, decrement);
+  }
+
+  private static final char SEPARATOR = '\u0000';
+  private static final int BASE_STRIPE = 0;
+
+  private final Map<String, Long, PureFunction<String, Long, Apply.Map<Long>>> map;
+  private final int stripes;
+  private final StripeSelection stripeSelection;
+  private final String[] stripeSuffixes;
+  //increments lock only their stripe. Held by fold when moving that stripe's value into the base key.
+  private final ReentrantLock[] stripeLocks;
+  //get reads all stripes, fold must not move values while they are being summed.
+  private final ReentrantReadWriteLock foldLock = new ReentrantReadWriteLock();
+  //concurrent creates of the same counter must not reset stripes that were already incremented.
+  private final ReentrantLock createLock = new ReentrantLock();
+  //counters known to exist so increments only check the map once per counter.
+  private final Set<String> created = ConcurrentHashMap.newKeySet();
+
+  private ScheduledExecutorService folder;
+
+  public StripedCounter(Map<String, Long, PureFunction<String, Long, Apply.Map<Long>>> map,
+                        int stripes,
+                        StripeSelection stripeSelection) {
+    if (stripes < 1 || stripes > 9999)
+      throw new IllegalArgumentException("stripes must be between 1 and 9999. Actual: " + stripes);
+
+    this.map = map;
+    this.stripes = stripes;
+    this.stripeSelection = stripeSelection;
+    //stripe 0 is the base key and is only written by fold.
+    this.stripeSuffixes = new String[stripes + 1];
+    this.stripeLocks = new ReentrantLock[stripes + 1];
+    for (int stripe = 0; stripe <= stripes; stripe++) {
+      stripeSuffixes[stripe] = SEPARATOR + String.format("%04d", stripe);
+      stripeLocks[stripe] = new ReentrantLock();
+    }
+  }
+
+  private static String prefix(String name) {
+    if (name.indexOf(SEPARATOR) >= 0)
+      throw new IllegalArgumentException("Counter name cannot contain the NUL character: " + name);
+    return name + SEPARATOR;
+  }
+
+  private String key(String name, int stripe) {
+    return name + stripeSuffixes[stripe];
+  }
+
+  private int nextStripe() {
+    if (stripeSelection == StripeSelection.PER_THREAD)
+      return (int) (Thread.currentThread().getId() % stripes) + 1;
+    else
+      return ThreadLocalRandom.current().nextInt(1, stripes + 1);
+  }
+
+  /**
+   * Creates the counter with all stripes set to 0. Does nothing if the counter already exists.
+   */
+  public void create(String name) {
+    prefix(name);
+    createLock.lock();
+    try {
+      if (!map.contains(key(name, BASE_STRIPE))) {
+        List<KeyVal<String, Long>> keyValues = new ArrayList<>(stripes + 1);
+        for (int stripe = 0; stripe <= stripes; stripe++)
+          keyValues.add(KeyVal.of(key(name, stripe), 0L));
+
+        map.put(keyValues);
+      }
+      created.add(name);
+    } finally {
+      createLock.unlock();
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if the counter was not created.
+   */
+  public void increment(String name) {
+    apply(name, increment);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the counter was not created.
+   */
+  public void decrement(String name) {
+    apply(name, decrement);
+  }
+
+  private void apply(String name, OnValue<String, Long> function) {
+    //applyFunction on a missing stripe does nothing so the increment would be lost.
+    if (!created.contains(name)) {
+      if (!map.contains(key(name, BASE_STRIPE)))
+        throw new IllegalArgumentException("Counter does not exist: " + name);
+      created.add(name);
+    }
+
+    int stripe = nextStripe();
+    ReentrantLock lock = stripeLocks[stripe];
+    lock.lock();
+    try {
+      map.applyFunction(key(name, stripe), function);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Sum of all stripes.
+   */
+  public long get(String name) {
+    String prefix = prefix(name);
+    foldLock.readLock().lock();
+    try {
+      return
+        map
+          .stream()
+          .fromOrAfter(prefix)
+          .takeWhile(keyVal -> keyVal.key().startsWith(prefix))
+          .foldLeft(0L, (sum, keyVal) -> sum + keyVal.value());
+    } finally {
+      foldLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Moves the values of all stripes into the base key. Each stripe is moved with one atomic commit.
+   */
+  public void fold(String name) {
+    prefix(name);
+    foldLock.writeLock().lock();
+    try {
+      String baseKey = key(name, BASE_STRIPE);
+      long base = map.get(baseKey).orElse(0L);
+
+      for (int stripe = 1; stripe <= stripes; stripe++) {
+        ReentrantLock lock = stripeLocks[stripe];
+        lock.lock();
+        try {
+          String stripeKey = key(name, stripe);
+          long value = map.get(stripeKey).orElse(0L);
+          if (value != 0) {
+            base += value;
+            map.commit(
+              Arrays.asList(
+                Prepare.put(baseKey, base),
+                Prepare.put(stripeKey, 0L)
+              )
+            );
+          }
+        } finally {
+          lock.unlock();
+        }
+      }
+    } finally {
+      foldLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Folds the given counters every interval on a background thread until {@link #close()}.
+   */
+  public synchronized void startFolding(Duration interval, String... names) {
+    if (folder != null)
+      throw new IllegalStateException("Folding already started");
+
+    folder =
+      Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "striped-counter-fold");
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+
+    folder.scheduleWithFixedDelay(
+      () -> {
+        for (String name : names)
+          fold(name);
+      },
+      interval.toMillis(),
+      interval.toMillis(),
+      TimeUnit.MILLISECONDS
+    );
+  }
+
+  /**
+   * Stops background folding. Does not close the map.
+   */
+  public synchronized void close() {
+    if (folder != null) {
+      folder.shutdown();
+      folder = null;
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package counter;
+
+import benchmark.BenchmarkRunner;
+import org.openjdk.jmh.annotations.*;
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.longSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+/**
+ * Compares concurrent increments of a single key (as in {@link functions.LikesTest})
+ * with {@link StripedCounter}. Run the main method to benchmark with 1 to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StripedCounterBenchmark {
+
+  @Param("64")
+  int stripes;
+
+  @Param({"PER_THREAD", "RANDOM"})
+  StripedCounter.StripeSelection stripeSelection;
+
+  Map<String, Long, PureFunction<String, Long, Apply.Map<Long>>> map;
+  StripedCounter counter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map =
+      MemoryMap
+        .functionsOn(stringSerializer(), longSerializer(), StripedCounter.functions())
+        .get();
+
+    map.put("SwayDB", 0L);
+
+    counter = new StripedCounter(map, stripes, stripeSelection);
+    counter.create("likes");
+    counter.startFolding(Duration.ofMillis(100), "likes");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    counter.close();
+    map.delete();
+  }
+
+  @Benchmark
+  public void singleKey() {
+    map.applyFunction("SwayDB", StripedCounter.increment);
+  }
+
+  @Benchmark
+  public void striped() {
+    counter.increment("likes");
+  }
+
+  public static void main(String[] args) throws Exception {
+    BenchmarkRunner.runThreadScaling(StripedCounterBenchmark.class, "target/jmh-striped-counter.json", 1, 2, 4, 8, 16, 32, 64);
+  }
+}
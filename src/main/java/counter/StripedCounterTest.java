@@ -0,0 +1,84 @@
+package counter;
+
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static swaydb.java.serializers.Default.longSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+class StripedCounterTest {
+
+  @Test
+  void concurrentIncrementsAndFolds() {
+    Map<String, Long, PureFunction<String, Long, Apply.Map<Long>>> map =
+      MemoryMap
+        .functionsOn(stringSerializer(), longSerializer(), StripedCounter.functions())
+        .get();
+
+    StripedCounter likes = new StripedCounter(map, 8, StripedCounter.StripeSelection.RANDOM);
+    likes.create("SwayDB");
+    likes.create("SwayDB.java"); //name that has "SwayDB" as prefix is not included in the SwayDB count.
+
+    //increment concurrently while folding
+    IntStream
+      .rangeClosed(1, 1000)
+      .parallel()
+      .forEach(
+        integer -> {
+          likes.increment("SwayDB");
+          if (integer % 100 == 0)
+            likes.fold("SwayDB");
+        }
+      );
+
+    likes.increment("SwayDB.java");
+    likes.decrement("SwayDB.java");
+    likes.increment("SwayDB.java");
+
+    assertEquals(1000, likes.get("SwayDB"));
+    assertEquals(1, likes.get("SwayDB.java"));
+
+    likes.fold("SwayDB");
+    assertEquals(1000, likes.get("SwayDB"));
+
+    assertThrows(IllegalArgumentException.class, () -> likes.get("Sway\u0000DB"));
+  }
+
+  @Test
+  void createIsIdempotentAndMissingCountersThrow() {
+    Map<String, Long, PureFunction<String, Long, Apply.Map<Long>>> map =
+      MemoryMap
+        .functionsOn(stringSerializer(), longSerializer(), StripedCounter.functions())
+        .get();
+
+    StripedCounter likes = new StripedCounter(map, 4, StripedCounter.StripeSelection.RANDOM);
+
+    //every thread creates the counter before incrementing, later creates do not reset earlier increments.
+    IntStream
+      .rangeClosed(1, 1000)
+      .parallel()
+      .forEach(
+        integer -> {
+          likes.create("SwayDB");
+          likes.increment("SwayDB");
+        }
+      );
+
+    assertEquals(1000, likes.get("SwayDB"));
+
+    assertThrows(IllegalArgumentException.class, () -> likes.increment("unknown"));
+    assertThrows(IllegalArgumentException.class, () -> likes.decrement("unknown"));
+    assertEquals(0, likes.get("unknown"));
+
+    //counters created by another instance of the same map exist.
+    new StripedCounter(map, 4, StripedCounter.StripeSelection.RANDOM).increment("SwayDB");
+    assertEquals(1001, likes.get("SwayDB"));
+  }
+}
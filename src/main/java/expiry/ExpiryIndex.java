@@ -0,0 +1,238 @@
+package expiry;
+
+import swaydb.Expiration;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.data.slice.Slice;
+import swaydb.data.util.ByteOps;
+import swaydb.java.Map;
+import swaydb.java.Set;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemorySet;
+import swaydb.java.persistent.PersistentSet;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexes the keys of a map by the time they expire so that functions that only act on keys
+ * close to expiry (see {@link functions.DiscountApp}) do not have to be applied to all keys.
+ * <p>
+ * Keys are grouped in buckets of bucketWidth. The index is a {@link Set} of (bucket, key) pairs
+ * ordered by bucket. Writes that set an expiration must go through this class to be indexed.
+ * <p>
+ * The index and the map are separate databases so they are not updated atomically. An index entry
+ * can be stale, eg: if the key's expiration was later changed or removed. Functions applied by
+ * {@link #sweep(Duration, Object)} must therefore check the key's expiration themselves, as DiscountApp does.
+ */
+public class ExpiryIndex<K, V, F> {
+
+  private final Map<K, V, F> map;
+  private final Set<Pair<Long, K>, Void> index;
+  private final long bucketWidthMillis;
+  private final int batchSize;
+
+  private ScheduledExecutorService sweeper;
+
+  /**
+   * @param batchSize maximum number of keys a sweep applies the function to in one commit.
+   */
+  public ExpiryIndex(Map<K, V, F> map, Set<Pair<Long, K>, Void> index, Duration bucketWidth, int batchSize) {
+    this.map = map;
+    this.index = index;
+    this.bucketWidthMillis = bucketWidth.toMillis();
+    this.batchSize = batchSize;
+  }
+
+  public static <K, V, F> ExpiryIndex<K, V, F> memory(Map<K, V, F> map, Serializer<K> keySerializer, Duration bucketWidth) {
+    Set<Pair<Long, K>, Void> index =
+      MemorySet
+        .functionsOff(keySerializer(keySerializer))
+        .get();
+
+    return new ExpiryIndex<>(map, index, bucketWidth, 1000);
+  }
+
+  public static <K, V, F> ExpiryIndex<K, V, F> persistent(Map<K, V, F> map, Path indexDirectory, Serializer<K> keySerializer, Duration bucketWidth) {
+    Set<Pair<Long, K>, Void> index =
+      PersistentSet
+        .functionsOff(indexDirectory, keySerializer(keySerializer))
+        .get();
+
+    return new ExpiryIndex<>(map, index, bucketWidth, 1000);
+  }
+
+  /**
+   * Serializes (bucket, key) as the 8 byte bucket followed by the key's bytes.
+   * Buckets are positive so the default unsigned byte ordering orders entries by bucket.
+   */
+  public static <K> Serializer<Pair<Long, K>> keySerializer(Serializer<K> keySerializer) {
+    return new Serializer<Pair<Long, K>>() {
+      @Override
+      public Slice<Byte> write(Pair<Long, K> data) {
+        Slice<Byte> key = keySerializer.write(data.right());
+        Slice<Byte> slice = Slice.ofBytesJava(Long.BYTES + key.size());
+        slice.addLong(data.left(), ByteOps.Java());
+        slice.addAll(key);
+        return slice;
+      }
+
+      @Override
+      public Pair<Long, K> read(Slice<Byte> slice) {
+        long bucket = ByteOps.Java().readLong(slice);
+        K key = keySerializer.read(slice.drop(Long.BYTES));
+        return Pair.of(bucket, key);
+      }
+    };
+  }
+
+  public Map<K, V, F> map() {
+    return map;
+  }
+
+  public Set<Pair<Long, K>, Void> index() {
+    return index;
+  }
+
+  private long bucket(long epochMillis) {
+    return epochMillis / bucketWidthMillis;
+  }
+
+  private Pair<Long, K> indexKey(K key, Duration expireAfter) {
+    return Pair.of(bucket(System.currentTimeMillis() + expireAfter.toMillis()), key);
+  }
+
+  //index entries are dropped by the index itself once the key has expired.
+  private Duration indexExpiration(Duration expireAfter) {
+    return expireAfter.plusMillis(bucketWidthMillis);
+  }
+
+  public void put(K key, V value, Duration expireAfter) {
+    //index first so a key never expires without being indexed.
+    index.add(indexKey(key, expireAfter), indexExpiration(expireAfter));
+    map.put(key, value, expireAfter);
+  }
+
+  /**
+   * Atomically puts all key-values with the same expiration in the map, after atomically indexing them.
+   */
+  public void put(Iterable<KeyVal<K, V>> keyValues, Duration expireAfter) {
+    List<Prepare<Pair<Long, K>, Void, Void>> indexEntries = new ArrayList<>();
+    List<Prepare<K, V, F>> puts = new ArrayList<>();
+
+    for (KeyVal<K, V> keyVal : keyValues) {
+      indexEntries.add(Prepare.add(indexKey(keyVal.key(), expireAfter), indexExpiration(expireAfter)));
+      puts.add(Prepare.put(keyVal.key(), keyVal.value(), expireAfter));
+    }
+
+    if (!puts.isEmpty()) {
+      index.commit(indexEntries);
+      map.commit(puts);
+    }
+  }
+
+  public void expire(K key, Duration after) {
+    index.add(indexKey(key, after), indexExpiration(after));
+    map.expire(key, after);
+  }
+
+  /**
+   * The last bucket also holds keys that expire after within, so the expiration of its keys is read from the map.
+   */
+  private Stream<Pair<Long, K>> due(Duration within) {
+    long dueBucket = bucket(System.currentTimeMillis() + within.toMillis());
+
+    return
+      index
+        .stream()
+        .takeWhile(entry -> entry.left() <= dueBucket)
+        .filter(entry -> entry.left() < dueBucket || expiresWithin(entry.right(), within));
+  }
+
+  private boolean expiresWithin(K key, Duration within) {
+    Optional<Expiration> expiration = map.expiration(key);
+    return expiration.isPresent() && expiration.get().timeLeft().compareTo(within) <= 0;
+  }
+
+  /**
+   * Keys that expire within the given duration and have not been swept yet.
+   */
+  public List<K> dueKeys(Duration within) {
+    return
+      due(within)
+        .map(Pair::right)
+        .materialize();
+  }
+
+  /**
+   * Applies the function to all keys expiring within the given duration and removes them from the index
+   * so the next sweep only visits keys indexed since and keys that were not due yet.
+   *
+   * @return the number of keys the function was applied to.
+   */
+  public int sweep(Duration within, F function) {
+    int swept = 0;
+
+    while (true) {
+      //swept entries are removed so each batch starts from the head of the index.
+      //keys of the last bucket that are not due yet stay indexed for a later sweep.
+      List<Pair<Long, K>> entries =
+        due(within)
+          .take(batchSize)
+          .materialize();
+
+      if (entries.isEmpty())
+        return swept;
+
+      List<Prepare<K, V, F>> applies = new ArrayList<>(entries.size());
+      for (Pair<Long, K> entry : entries)
+        applies.add(Prepare.applyMapFunction(entry.right(), function));
+
+      map.commit(applies);
+      index.remove(entries);
+      swept += entries.size();
+    }
+  }
+
+  /**
+   * Runs {@link #sweep(Duration, Object)} every interval on a background thread until {@link #close()}.
+   */
+  public synchronized void startSweeping(Duration interval, Duration within, F function) {
+    if (sweeper != null)
+      throw new IllegalStateException("Sweeping already started");
+
+    sweeper =
+      Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "expiry-index-sweep");
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+
+    sweeper.scheduleWithFixedDelay(
+      () -> sweep(within, function),
+      0,
+      interval.toMillis(),
+      TimeUnit.MILLISECONDS
+    );
+  }
+
+  /**
+   * Stops background sweeping. Does not close the map or the index.
+   */
+  public synchronized void close() {
+    if (sweeper != null) {
+      sweeper.shutdown();
+      sweeper = null;
+    }
+  }
+}
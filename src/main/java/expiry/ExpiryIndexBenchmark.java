@@ -0,0 +1,105 @@
+package expiry;
+
+import org.openjdk.jmh.annotations.*;
+import swaydb.Apply;
+import swaydb.Expiration;
+import swaydb.KeyVal;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnKeyValueExpiration;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.doubleSerializer;
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Applying a {@link functions.DiscountApp} style function to all products against sweeping
+ * only the products near expiry using {@link ExpiryIndex}.
+ * <p>
+ * By default 10M products are loaded of which 0.1% expire within 2 days. Use
+ * -p productCount=... for quicker runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class ExpiryIndexBenchmark {
+
+  static final OnKeyValueExpiration<Integer, Double> discount =
+    (Integer key, Double price, Optional<Expiration> expiration) -> {
+      if (expiration.isPresent() && expiration.get().timeLeft().minusDays(2).isNegative())
+        return Apply.update(price * 0.50);
+      else
+        return Apply.nothingOnMap();
+    };
+
+  @Param("10000000")
+  int productCount;
+
+  //every nearExpiryEvery'th product expires within 2 days. 1000 = 0.1%.
+  @Param("1000")
+  int nearExpiryEvery;
+
+  Map<Integer, Double, PureFunction<Integer, Double, Apply.Map<Double>>> products;
+  ExpiryIndex<Integer, Double, PureFunction<Integer, Double, Apply.Map<Double>>> expiryIndex;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    products =
+      MemoryMap
+        .functionsOn(intSerializer(), doubleSerializer(), Collections.singleton(discount))
+        .get();
+
+    expiryIndex = ExpiryIndex.memory(products, intSerializer(), Duration.ofHours(1));
+
+    int batchSize = 100000;
+    List<KeyVal<Integer, Double>> nearExpiry = new ArrayList<>();
+    List<KeyVal<Integer, Double>> farExpiry = new ArrayList<>(batchSize);
+
+    for (int id = 1; id <= productCount; id++) {
+      if (id % nearExpiryEvery == 0)
+        nearExpiry.add(KeyVal.of(id, 1000.0));
+      else
+        farExpiry.add(KeyVal.of(id, 1000.0));
+
+      if (farExpiry.size() == batchSize || id == productCount) {
+        expiryIndex.put(farExpiry, Duration.ofDays(30));
+        farExpiry.clear();
+      }
+    }
+
+    expiryIndex.put(nearExpiry, Duration.ofDays(1));
+  }
+
+  //sweeps remove their keys from the index, add them back before each sweep.
+  @Setup(Level.Invocation)
+  public void reindexNearExpiry() {
+    for (int id = nearExpiryEvery; id <= productCount; id += nearExpiryEvery)
+      expiryIndex.expire(id, Duration.ofDays(1));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    expiryIndex.index().delete();
+    products.delete();
+  }
+
+  @Benchmark
+  public void applyFunctionToAll() {
+    products.applyFunction(1, productCount, discount);
+  }
+
+  @Benchmark
+  public int sweepNearExpiry() {
+    return expiryIndex.sweep(Duration.ofDays(2), discount);
+  }
+}
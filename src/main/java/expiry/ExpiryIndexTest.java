@@ -0,0 +1,96 @@
+package expiry;
+
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.Expiration;
+import swaydb.KeyVal;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnKeyValueExpiration;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryMap;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static swaydb.java.serializers.Default.doubleSerializer;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class ExpiryIndexTest {
+
+  @Test
+  void sweepOnlyVisitsKeysNearExpiry() {
+    //same as DiscountApp's discount but without removing.
+    OnKeyValueExpiration<Integer, Double> discount =
+      (Integer key, Double price, Optional<Expiration> expiration) -> {
+        if (expiration.isPresent() && expiration.get().timeLeft().minusDays(2).isNegative())
+          return Apply.update(price * 0.50);
+        else
+          return Apply.nothingOnMap();
+      };
+
+    Map<Integer, Double, PureFunction<Integer, Double, Apply.Map<Double>>> products =
+      MemoryMap
+        .functionsOn(intSerializer(), doubleSerializer(), Collections.singleton(discount))
+        .get();
+
+    ExpiryIndex<Integer, Double, PureFunction<Integer, Double, Apply.Map<Double>>> expiryIndex =
+      ExpiryIndex.memory(products, intSerializer(), Duration.ofHours(1));
+
+    //products 1 to 100 expire in 30 days and 101 to 105 in one day.
+    expiryIndex.put(Stream.range(1, 100).map(id -> KeyVal.of(id, 100.0)).materialize(), Duration.ofDays(30));
+    expiryIndex.put(101, 100.0, Duration.ofDays(1));
+    expiryIndex.put(Arrays.asList(KeyVal.of(102, 100.0), KeyVal.of(103, 100.0)), Duration.ofDays(1));
+    products.put(104, 100.0);
+    products.put(105, 100.0);
+    expiryIndex.expire(104, Duration.ofDays(1));
+    expiryIndex.expire(105, Duration.ofDays(1));
+
+    assertEquals(Arrays.asList(101, 102, 103, 104, 105), expiryIndex.dueKeys(Duration.ofDays(2)));
+
+    assertEquals(5, expiryIndex.sweep(Duration.ofDays(2), discount));
+    assertEquals(50.0, products.get(101).get());
+    assertEquals(50.0, products.get(105).get());
+    assertEquals(100.0, products.get(1).get());
+
+    //already swept keys are not visited again.
+    assertEquals(0, expiryIndex.sweep(Duration.ofDays(2), discount));
+    assertEquals(50.0, products.get(101).get());
+  }
+
+  @Test
+  void sweepKeepsKeysOfTheLastBucketThatAreNotDue() {
+    OnKeyValueExpiration<Integer, Double> discount =
+      (Integer key, Double price, Optional<Expiration> expiration) -> {
+        if (expiration.isPresent() && expiration.get().timeLeft().minusSeconds(2).isNegative())
+          return Apply.update(price * 0.50);
+        else
+          return Apply.nothingOnMap();
+      };
+
+    Map<Integer, Double, PureFunction<Integer, Double, Apply.Map<Double>>> products =
+      MemoryMap
+        .functionsOn(intSerializer(), doubleSerializer(), Collections.singleton(discount))
+        .get();
+
+    //one bucket holds every key.
+    ExpiryIndex<Integer, Double, PureFunction<Integer, Double, Apply.Map<Double>>> expiryIndex =
+      ExpiryIndex.memory(products, intSerializer(), Duration.ofDays(365));
+
+    expiryIndex.put(1, 100.0, Duration.ofSeconds(1));
+    expiryIndex.put(2, 100.0, Duration.ofSeconds(4));
+
+    assertEquals(Collections.singletonList(1), expiryIndex.dueKeys(Duration.ofSeconds(2)));
+    assertEquals(1, expiryIndex.sweep(Duration.ofSeconds(2), discount));
+    assertEquals(50.0, products.get(1).get());
+    assertEquals(100.0, products.get(2).get());
+
+    //2 is still indexed and is swept once it is due.
+    assertEquals(Collections.singletonList(2), expiryIndex.dueKeys(Duration.ofSeconds(5)));
+    assertEquals(1, expiryIndex.sweep(Duration.ofSeconds(5), discount));
+    assertEquals(Collections.emptyList(), expiryIndex.dueKeys(Duration.ofSeconds(5)));
+  }
+}
@@ -0,0 +1,365 @@
+package forwarding;
+
+import swaydb.Expiration;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.data.accelerate.LevelZeroMeter;
+import swaydb.data.compaction.LevelMeter;
+import swaydb.java.MapT;
+import swaydb.java.Source;
+import swaydb.java.Stream;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * A {@link MapT} that forwards all calls to another map.
+ * <p>
+ * Base class for map decorators. Subclasses override only the operations they add behaviour to,
+ * eg: {@link caching.CachedMap} overrides reads and writes but not streams.
+ */
+public abstract class ForwardingMap<K, V, F> implements MapT<K, V, F> {
+
+  protected final MapT<K, V, F> delegate;
+
+  protected ForwardingMap(MapT<K, V, F> delegate) {
+    this.delegate = delegate;
+  }
+
+  public MapT<K, V, F> delegate() {
+    return delegate;
+  }
+
+  /**
+   * Streams
+   */
+  @Override
+  public swaydb.Source<K, KeyVal<K, V>, Object> asScalaStream() {
+    return delegate.asScalaStream();
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> from(K key) {
+    return delegate.from(key);
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> before(K key) {
+    return delegate.before(key);
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> fromOrBefore(K key) {
+    return delegate.fromOrBefore(key);
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> after(K key) {
+    return delegate.after(key);
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> fromOrAfter(K key) {
+    return delegate.fromOrAfter(key);
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> reverse() {
+    return delegate.reverse();
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> stream() {
+    return delegate.stream();
+  }
+
+  /**
+   * Writes
+   */
+  @Override
+  public void put(K key, V value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  public void put(K key, V value, Duration expireAfter) {
+    delegate.put(key, value, expireAfter);
+  }
+
+  @Override
+  public void put(Stream<KeyVal<K, V>> keyValues) {
+    delegate.put(keyValues);
+  }
+
+  @Override
+  public void put(Iterable<KeyVal<K, V>> keyValues) {
+    delegate.put(keyValues);
+  }
+
+  @Override
+  public void put(Iterator<KeyVal<K, V>> keyValues) {
+    delegate.put(keyValues);
+  }
+
+  @Override
+  public void remove(K key) {
+    delegate.remove(key);
+  }
+
+  @Override
+  public void remove(K from, K to) {
+    delegate.remove(from, to);
+  }
+
+  @Override
+  public void remove(Stream<K> keys) {
+    delegate.remove(keys);
+  }
+
+  @Override
+  public void remove(Iterable<K> keys) {
+    delegate.remove(keys);
+  }
+
+  @Override
+  public void remove(Iterator<K> keys) {
+    delegate.remove(keys);
+  }
+
+  @Override
+  public void expire(K key, Duration after) {
+    delegate.expire(key, after);
+  }
+
+  @Override
+  public void expire(K from, K to, Duration after) {
+    delegate.expire(from, to, after);
+  }
+
+  @Override
+  public void expire(Stream<Pair<K, Duration>> keys) {
+    delegate.expire(keys);
+  }
+
+  @Override
+  public void expire(Iterable<Pair<K, Duration>> keys) {
+    delegate.expire(keys);
+  }
+
+  @Override
+  public void expire(Iterator<Pair<K, Duration>> keys) {
+    delegate.expire(keys);
+  }
+
+  @Override
+  public void update(K key, V value) {
+    delegate.update(key, value);
+  }
+
+  @Override
+  public void update(K from, K to, V value) {
+    delegate.update(from, to, value);
+  }
+
+  @Override
+  public void update(Stream<KeyVal<K, V>> keyValues) {
+    delegate.update(keyValues);
+  }
+
+  @Override
+  public void update(Iterable<KeyVal<K, V>> keyValues) {
+    delegate.update(keyValues);
+  }
+
+  @Override
+  public void update(Iterator<KeyVal<K, V>> keyValues) {
+    delegate.update(keyValues);
+  }
+
+  @Override
+  public void clearKeyValues() {
+    delegate.clearKeyValues();
+  }
+
+  @Override
+  public void applyFunction(K key, F function) {
+    delegate.applyFunction(key, function);
+  }
+
+  @Override
+  public void applyFunction(K from, K to, F function) {
+    delegate.applyFunction(from, to, function);
+  }
+
+  @Override
+  public void commit(Stream<Prepare<K, V, F>> prepares) {
+    delegate.commit(prepares);
+  }
+
+  @Override
+  public void commit(Iterable<Prepare<K, V, F>> prepares) {
+    delegate.commit(prepares);
+  }
+
+  /**
+   * Reads
+   */
+  @Override
+  public Optional<V> get(K key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  public Optional<K> getKey(K key) {
+    return delegate.getKey(key);
+  }
+
+  @Override
+  public Optional<KeyVal<K, V>> getKeyValue(K key) {
+    return delegate.getKeyValue(key);
+  }
+
+  @Override
+  public Optional<Pair<K, Optional<Expiration>>> getKeyDeadline(K key) {
+    return delegate.getKeyDeadline(key);
+  }
+
+  @Override
+  public Optional<Pair<KeyVal<K, V>, Optional<Expiration>>> getKeyValueDeadline(K key) {
+    return delegate.getKeyValueDeadline(key);
+  }
+
+  @Override
+  public boolean contains(K key) {
+    return delegate.contains(key);
+  }
+
+  @Override
+  public boolean mightContain(K key) {
+    return delegate.mightContain(key);
+  }
+
+  @Override
+  public boolean mightContainFunction(F function) {
+    return delegate.mightContainFunction(function);
+  }
+
+  @Override
+  public Optional<Expiration> expiration(K key) {
+    return delegate.expiration(key);
+  }
+
+  @Override
+  public Optional<Duration> timeLeft(K key) {
+    return delegate.timeLeft(key);
+  }
+
+  @Override
+  public Optional<KeyVal<K, V>> head() {
+    return delegate.head();
+  }
+
+  @Override
+  public Optional<KeyVal<K, V>> last() {
+    return delegate.last();
+  }
+
+  @Override
+  public Stream<K> keys() {
+    return delegate.keys();
+  }
+
+  @Override
+  public Stream<V> values() {
+    return delegate.values();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return delegate.isEmpty();
+  }
+
+  @Override
+  public boolean nonEmpty() {
+    return delegate.nonEmpty();
+  }
+
+  @Override
+  public java.util.Map<K, V> asJava() {
+    return delegate.asJava();
+  }
+
+  /**
+   * Functions
+   */
+  @Override
+  public Iterable<String> clearAppliedFunctions() {
+    return delegate.clearAppliedFunctions();
+  }
+
+  @Override
+  public Iterable<String> clearAppliedAndRegisteredFunctions() {
+    return delegate.clearAppliedAndRegisteredFunctions();
+  }
+
+  @Override
+  public boolean isFunctionApplied(F function) {
+    return delegate.isFunctionApplied(function);
+  }
+
+  /**
+   * Meters and sizes
+   */
+  @Override
+  public Path path() {
+    return delegate.path();
+  }
+
+  @Override
+  public LevelZeroMeter levelZeroMeter() {
+    return delegate.levelZeroMeter();
+  }
+
+  @Override
+  public Optional<LevelMeter> levelMeter(int levelNumber) {
+    return delegate.levelMeter(levelNumber);
+  }
+
+  @Override
+  public long sizeOfSegments() {
+    return delegate.sizeOfSegments();
+  }
+
+  @Override
+  public int sizeOfBloomFilterEntries() {
+    return delegate.sizeOfBloomFilterEntries();
+  }
+
+  @Override
+  public int keySize(K key) {
+    return delegate.keySize(key);
+  }
+
+  @Override
+  public int valueSize(V value) {
+    return delegate.valueSize(value);
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public void delete() {
+    delegate.delete();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "(" + delegate + ")";
+  }
+}
@@ -0,0 +1,134 @@
+package functions;
+
+import scala.Option;
+import scala.concurrent.duration.Deadline;
+import swaydb.Apply;
+import swaydb.Expiration;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnKey;
+import swaydb.PureFunctionJava.OnKeyExpiration;
+import swaydb.PureFunctionJava.OnKeyValue;
+import swaydb.PureFunctionJava.OnKeyValueExpiration;
+import swaydb.PureFunctionJava.OnValue;
+import swaydb.PureFunctionJava.OnValueExpiration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Map functions composed into one function, so several updates of a range (eg: a discount, a cleanup and an expiry
+ * rule) are one applyFunction call and one pass over the key-values instead of one per function.
+ * <p>
+ * Each step sees the value and expiration returned by the steps before it. The first {@link Apply#removeFromMap()}
+ * removes the key-value without running the remaining steps. Updates and expirations of all steps are returned as a
+ * single {@link Apply.Update} or {@link Apply.Expire}.
+ * <p>
+ * Only the fused function is registered with the map, the steps are not. Its id is made of the steps' ids, which
+ * for lambdas is their class name, so give it a stable id with {@link #of(String, List)} for persistent maps.
+ */
+public final class FusedFunction<K, V> implements OnKeyValueExpiration<K, V> {
+
+  private final String id;
+  private final List<PureFunction<K, V, Apply.Map<V>>> steps;
+  private final List<OnKeyValueExpiration<K, V>> fused;
+
+  private FusedFunction(String id, List<PureFunction<K, V, Apply.Map<V>>> steps) {
+    if (steps.isEmpty())
+      throw new IllegalArgumentException("steps cannot be empty");
+
+    this.id = id;
+    this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+    this.fused = new ArrayList<>(steps.size());
+    for (PureFunction<K, V, Apply.Map<V>> step : steps)
+      fused.add(toOnKeyValueExpiration(step));
+  }
+
+  @SafeVarargs
+  public static <K, V> FusedFunction<K, V> of(PureFunction<K, V, Apply.Map<V>>... steps) {
+    return of(Arrays.asList(steps));
+  }
+
+  public static <K, V> FusedFunction<K, V> of(List<PureFunction<K, V, Apply.Map<V>>> steps) {
+    StringBuilder id = new StringBuilder(FusedFunction.class.getName()).append('(');
+    for (int i = 0; i < steps.size(); i++) {
+      if (i > 0)
+        id.append(", ");
+      id.append(steps.get(i).id());
+    }
+    return new FusedFunction<>(id.append(')').toString(), steps);
+  }
+
+  public static <K, V> FusedFunction<K, V> of(String id, List<PureFunction<K, V, Apply.Map<V>>> steps) {
+    return new FusedFunction<>(id, steps);
+  }
+
+  private static <K, V> OnKeyValueExpiration<K, V> toOnKeyValueExpiration(PureFunction<K, V, Apply.Map<V>> step) {
+    if (step instanceof OnKeyValueExpiration)
+      return (OnKeyValueExpiration<K, V>) step;
+    else if (step instanceof OnKeyValue)
+      return (key, value, expiration) -> ((OnKeyValue<K, V>) step).apply(key, value);
+    else if (step instanceof OnValue)
+      return (key, value, expiration) -> ((OnValue<K, V>) step).apply(value);
+    else if (step instanceof OnValueExpiration)
+      return (key, value, expiration) -> ((OnValueExpiration<K, V>) step).apply(value, expiration);
+    else if (step instanceof OnKey)
+      return (key, value, expiration) -> ((OnKey<K, V>) step).apply(key);
+    else if (step instanceof OnKeyExpiration)
+      return (key, value, expiration) -> ((OnKeyExpiration<K, V>) step).apply(key, expiration);
+    else
+      throw new IllegalArgumentException("Unexpected value: " + step);
+  }
+
+  public List<PureFunction<K, V, Apply.Map<V>>> steps() {
+    return steps;
+  }
+
+  @Override
+  public String id() {
+    return id;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public Apply.Map<V> apply(K key, V value, Optional<Expiration> expiration) {
+    boolean updated = false;
+    //set when a step expires the key-value, else the current expiration is kept.
+    Deadline deadline = null;
+
+    for (OnKeyValueExpiration<K, V> step : fused) {
+      Apply.Map<V> result = step.apply(key, value, expiration);
+
+      if (result instanceof Apply.Remove$) {
+        return result;
+      } else if (result instanceof Apply.Update) {
+        Apply.Update<V> update = (Apply.Update<V>) result;
+        value = update.value();
+        updated = true;
+        if (update.deadline().isDefined()) {
+          deadline = update.deadline().get();
+          expiration = Optional.of(Expiration.of(deadline));
+        }
+      } else if (result instanceof Apply.Expire) {
+        deadline = ((Apply.Expire) result).deadline();
+        expiration = Optional.of(Expiration.of(deadline));
+      } else if (!(result instanceof Apply.Nothing$)) {
+        throw new IllegalStateException("Unexpected value: " + result);
+      }
+    }
+
+    if (updated)
+      return new Apply.Update<>(value, Option.apply(deadline));
+    else if (deadline != null)
+      return (Apply.Map<V>) (Apply.Map<?>) new Apply.Expire(deadline);
+    else
+      return Apply.nothingOnMap();
+  }
+
+  @Override
+  public String toString() {
+    return id;
+  }
+}
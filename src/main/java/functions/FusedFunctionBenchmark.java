@@ -0,0 +1,142 @@
+package functions;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.Apply;
+import swaydb.KeyVal;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnValue;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * steps functions applied to a key range with one applyFunction each (as in {@link DiscountApp}) against one
+ * applyFunction of the {@link FusedFunction} of the same steps.
+ * <p>
+ * Range functions are stored and applied to the key-values when they are read or compacted, so the
+ * applyAndRead benchmarks also read the range after applying.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FusedFunctionBenchmark {
+
+  public enum Storage {
+    MEMORY,
+    PERSISTENT
+  }
+
+  /**
+   * Adds amount to the value. A class instead of a lambda so each step has its own id.
+   */
+  static final class AddStep implements OnValue<Integer, Integer> {
+    private final int amount;
+
+    AddStep(int amount) {
+      this.amount = amount;
+    }
+
+    @Override
+    public Apply.Map<Integer> apply(Integer value) {
+      return Apply.update(value + amount);
+    }
+
+    @Override
+    public String id() {
+      return "add-" + amount;
+    }
+  }
+
+  @Param({"MEMORY", "PERSISTENT"})
+  Storage storage;
+
+  @Param({"2", "4", "8"})
+  int steps;
+
+  @Param("100000")
+  int keyCount;
+
+  //number of keys the functions are applied to.
+  @Param("100")
+  int rangeSize;
+
+  List<PureFunction<Integer, Integer, Apply.Map<Integer>>> separate;
+  FusedFunction<Integer, Integer> fused;
+  Map<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    separate = new ArrayList<>(steps);
+    for (int step = 1; step <= steps; step++)
+      separate.add(new AddStep(step));
+    fused = FusedFunction.of(separate);
+
+    List<PureFunction<Integer, Integer, Apply.Map<Integer>>> functions = new ArrayList<>(separate);
+    functions.add(fused);
+
+    if (storage == Storage.MEMORY)
+      map = MemoryMap.functionsOn(intSerializer(), intSerializer(), functions).get();
+    else
+      map = PersistentMap.functionsOn(BenchmarkMaps.directory("fusedFunction"), intSerializer(), intSerializer(), functions).get();
+
+    map.put(Stream.range(1, keyCount).map(KeyVal::of));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    map.delete();
+  }
+
+  private int randomFrom() {
+    return ThreadLocalRandom.current().nextInt(1, keyCount - rangeSize + 2);
+  }
+
+  private int read(int from) {
+    return
+      map
+        .stream()
+        .from(from)
+        .takeWhile(keyVal -> keyVal.key() < from + rangeSize)
+        .foldLeft(0, (sum, keyVal) -> sum + keyVal.value());
+  }
+
+  @Benchmark
+  public void separateApply() {
+    int from = randomFrom();
+    for (PureFunction<Integer, Integer, Apply.Map<Integer>> step : separate)
+      map.applyFunction(from, from + rangeSize - 1, step);
+  }
+
+  @Benchmark
+  public void fusedApply() {
+    int from = randomFrom();
+    map.applyFunction(from, from + rangeSize - 1, fused);
+  }
+
+  @Benchmark
+  public int separateApplyAndRead() {
+    int from = randomFrom();
+    for (PureFunction<Integer, Integer, Apply.Map<Integer>> step : separate)
+      map.applyFunction(from, from + rangeSize - 1, step);
+    return read(from);
+  }
+
+  @Benchmark
+  public int fusedApplyAndRead() {
+    int from = randomFrom();
+    map.applyFunction(from, from + rangeSize - 1, fused);
+    return read(from);
+  }
+}
@@ -0,0 +1,112 @@
+package functions;
+
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.KeyVal;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnKeyValue;
+import swaydb.PureFunctionJava.OnKeyValueExpiration;
+import swaydb.PureFunctionJava.OnValue;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.doubleSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+class FusedFunctionTest {
+
+  OnValue<String, Double> discount =
+    (Double price) ->
+      Apply.update(price * 0.50);
+
+  OnKeyValue<String, Double> cleanup =
+    (String key, Double price) ->
+      price <= 10 ? Apply.removeFromMap() : Apply.nothingOnMap();
+
+  OnKeyValueExpiration<String, Double> expireSales =
+    (key, price, expiration) ->
+      key.startsWith("sale") && !expiration.isPresent() ? Apply.expireFromMap(Duration.ofDays(1)) : Apply.nothingOnMap();
+
+  @Test
+  void sameResultAsSeparateFunctions() {
+    FusedFunction<String, Double> fused = FusedFunction.of(discount, cleanup, expireSales);
+
+    Map<String, Double, PureFunction<String, Double, Apply.Map<Double>>> separate =
+      MemoryMap
+        .functionsOn(stringSerializer(), doubleSerializer(), Arrays.asList(discount, cleanup, expireSales))
+        .get();
+
+    Map<String, Double, PureFunction<String, Double, Apply.Map<Double>>> fusedMap =
+      MemoryMap
+        .functionsOn(stringSerializer(), doubleSerializer(), Collections.singleton(fused))
+        .get();
+
+    for (Map<String, Double, PureFunction<String, Double, Apply.Map<Double>>> map : Arrays.asList(separate, fusedMap)) {
+      map.put(
+        Arrays.asList(
+          KeyVal.of("a-cable", 15.0),
+          KeyVal.of("b-laptop", 2799.0),
+          KeyVal.of("sale-mouse", 40.0),
+          KeyVal.of("sale-pen", 4.0)
+        )
+      );
+    }
+
+    separate.applyFunction("a", "z", discount);
+    separate.applyFunction("a", "z", cleanup);
+    separate.applyFunction("a", "z", expireSales);
+    fusedMap.applyFunction("a", "z", fused);
+
+    assertEquals(separate.stream().materialize(), fusedMap.stream().materialize());
+    assertEquals(Arrays.asList("b-laptop", "sale-mouse"), fusedMap.keys().materialize());
+    assertEquals(1399.5, fusedMap.get("b-laptop").get());
+    assertFalse(fusedMap.expiration("b-laptop").isPresent());
+    assertTrue(fusedMap.expiration("sale-mouse").isPresent());
+    assertTrue(separate.expiration("sale-mouse").isPresent());
+
+    separate.delete();
+    fusedMap.delete();
+  }
+
+  @Test
+  void removeShortCircuits() {
+    AtomicInteger calls = new AtomicInteger();
+    OnValue<String, Double> counted =
+      (Double price) -> {
+        calls.incrementAndGet();
+        return Apply.nothingOnMap();
+      };
+
+    FusedFunction<String, Double> fused = FusedFunction.of(cleanup, counted);
+
+    assertEquals(Apply.removeFromMap(), fused.apply("pen", 4.0, Optional.empty()));
+    assertEquals(0, calls.get());
+    assertEquals(Apply.nothingOnMap(), fused.apply("laptop", 2799.0, Optional.empty()));
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void combinesResults() {
+    Object expired = FusedFunction.of(expireSales, cleanup).apply("sale-mouse", 40.0, Optional.empty());
+    assertTrue(expired instanceof Apply.Expire);
+
+    Apply.Map<Double> discountedSale = FusedFunction.of(discount, expireSales).apply("sale-mouse", 40.0, Optional.empty());
+    Apply.Update<Double> update = (Apply.Update<Double>) discountedSale;
+    assertEquals(20.0, update.value());
+    assertTrue(update.deadline().isDefined());
+
+    //each step sees the value of the previous steps, two discounts make the price too low.
+    assertEquals(Apply.removeFromMap(), FusedFunction.of(discount, discount, cleanup).apply("cable", 30.0, Optional.empty()));
+
+    assertNotEquals(FusedFunction.of(discount, cleanup).id(), FusedFunction.of(cleanup, discount).id());
+    assertEquals("discounts", FusedFunction.of("discounts", Arrays.asList(discount, cleanup)).id());
+    assertThrows(IllegalArgumentException.class, () -> FusedFunction.of(Collections.emptyList()));
+  }
+}
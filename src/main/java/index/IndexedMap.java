@@ -0,0 +1,393 @@
+package index;
+
+import ordering.OrderedSerializer;
+import scala.Option;
+import scala.concurrent.duration.Deadline;
+import swaydb.Apply;
+import swaydb.Expiration;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.PureFunctionJava.OnKeyValue;
+import swaydb.data.slice.Slice;
+import swaydb.data.util.ByteOps;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A map with a secondary index on a value of its values, eg: products by price band.
+ * <p>
+ * Primary and index entries are stored in one map so that each write updates both with one atomic commit:
+ * <ul>
+ * <li>primary entries: [0][primary key] -> value</li>
+ * <li>index entries: [1][index key][primary key][primary key length: int] -> empty</li>
+ * </ul>
+ * Index keys are serialized with an {@link OrderedSerializer} so index entries are ordered by index key.
+ * <p>
+ * Writes must go through this class. Writing a new value reads the old value to remove its index entry so
+ * writes of the same key are serialized with striped locks. SwayDB's applyFunction can only update the
+ * key it is applied to, so {@link #applyFunction(Object, OnKeyValue)} runs the function in the caller's thread
+ * and commits its result together with the index update.
+ */
+public class IndexedMap<K, V, I> {
+
+  private static final int LOCK_STRIPES = 64;
+
+  /**
+   * A key of the underlying map. indexBytes is null for primary entries.
+   * An index entry without a primary key is the lower bound of its index key's entries.
+   */
+  public static final class Entry<K> {
+    final K primaryKey;
+    final byte[] indexBytes;
+
+    Entry(K primaryKey, byte[] indexBytes) {
+      this.primaryKey = primaryKey;
+      this.indexBytes = indexBytes;
+    }
+
+    static <K> Entry<K> primary(K primaryKey) {
+      return new Entry<>(primaryKey, null);
+    }
+
+    public boolean isIndex() {
+      return indexBytes != null;
+    }
+
+    public K primaryKey() {
+      return primaryKey;
+    }
+  }
+
+  private final Map<Entry<K>, V, Void> map;
+  private final Serializer<K> keySerializer;
+  private final OrderedSerializer<I> indexSerializer;
+  private final Function<V, I> indexKey;
+  private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+  /**
+   * @param map      created with {@link #keySerializer} and {@link #valueSerializer}.
+   * @param indexKey the index key of a value.
+   */
+  public IndexedMap(Map<Entry<K>, V, Void> map, Serializer<K> keySerializer, OrderedSerializer<I> indexSerializer, Function<V, I> indexKey) {
+    this.map = map;
+    this.keySerializer = keySerializer;
+    this.indexSerializer = indexSerializer;
+    this.indexKey = indexKey;
+    for (int i = 0; i < locks.length; i++)
+      locks[i] = new ReentrantLock();
+  }
+
+  public static <K, V, I> IndexedMap<K, V, I> memory(Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                                                     OrderedSerializer<I> indexSerializer, Function<V, I> indexKey) {
+    Map<Entry<K>, V, Void> map =
+      MemoryMap
+        .functionsOff(keySerializer(keySerializer), valueSerializer(valueSerializer))
+        .get();
+
+    return new IndexedMap<>(map, keySerializer, indexSerializer, indexKey);
+  }
+
+  public static <K, V, I> IndexedMap<K, V, I> persistent(Path directory, Serializer<K> keySerializer, Serializer<V> valueSerializer,
+                                                         OrderedSerializer<I> indexSerializer, Function<V, I> indexKey) {
+    Map<Entry<K>, V, Void> map =
+      PersistentMap
+        .functionsOff(directory, keySerializer(keySerializer), valueSerializer(valueSerializer))
+        .get();
+
+    return new IndexedMap<>(map, keySerializer, indexSerializer, indexKey);
+  }
+
+  public static <K> Serializer<Entry<K>> keySerializer(Serializer<K> keySerializer) {
+    return new Serializer<Entry<K>>() {
+      @Override
+      public Slice<Byte> write(Entry<K> data) {
+        if (data.primaryKey == null) {
+          Slice<Byte> slice = Slice.ofBytesJava(1 + data.indexBytes.length);
+          slice.add((byte) 1);
+          for (byte indexByte : data.indexBytes)
+            slice.add(indexByte);
+          return slice;
+        }
+
+        Slice<Byte> key = keySerializer.write(data.primaryKey);
+        if (data.indexBytes == null) {
+          Slice<Byte> slice = Slice.ofBytesJava(1 + key.size());
+          slice.add((byte) 0);
+          slice.addAll(key);
+          return slice;
+        } else {
+          Slice<Byte> slice = Slice.ofBytesJava(1 + data.indexBytes.length + key.size() + Integer.BYTES);
+          slice.add((byte) 1);
+          for (byte indexByte : data.indexBytes)
+            slice.add(indexByte);
+          slice.addAll(key);
+          slice.addInt(key.size(), ByteOps.Java());
+          return slice;
+        }
+      }
+
+      @Override
+      public Entry<K> read(Slice<Byte> slice) {
+        if (slice.get(0) == 0)
+          return Entry.primary(keySerializer.read(slice.drop(1)));
+
+        int keySize = ByteOps.Java().readInt(slice.drop(slice.size() - Integer.BYTES));
+        int keyStart = slice.size() - Integer.BYTES - keySize;
+        byte[] indexBytes = new byte[keyStart - 1];
+        for (int i = 0; i < indexBytes.length; i++)
+          indexBytes[i] = slice.get(i + 1);
+
+        K key = keySize == 0 ? keySerializer.read(Slice.emptyJavaBytes()) : keySerializer.read(slice.slice(keyStart, keyStart + keySize - 1));
+        return new Entry<>(key, indexBytes);
+      }
+    };
+  }
+
+  /**
+   * Index entries have no value, they are written as an empty slice.
+   */
+  public static <V> Serializer<V> valueSerializer(Serializer<V> valueSerializer) {
+    return new Serializer<V>() {
+      @Override
+      public Slice<Byte> write(V data) {
+        return data == null ? Slice.emptyJavaBytes() : valueSerializer.write(data);
+      }
+
+      @Override
+      public V read(Slice<Byte> slice) {
+        return slice.size() == 0 ? null : valueSerializer.read(slice);
+      }
+    };
+  }
+
+  public Map<Entry<K>, V, Void> map() {
+    return map;
+  }
+
+  private static byte[] bytes(Slice<Byte> slice) {
+    byte[] bytes = new byte[slice.size()];
+    for (int i = 0; i < bytes.length; i++)
+      bytes[i] = slice.get(i);
+    return bytes;
+  }
+
+  private Entry<K> indexEntry(K key, V value) {
+    return new Entry<>(key, bytes(indexSerializer.write(indexKey.apply(value))));
+  }
+
+  private ReentrantLock lock(K key) {
+    return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+  }
+
+  public Optional<V> get(K key) {
+    return map.get(Entry.primary(key));
+  }
+
+  public void put(K key, V value) {
+    put(key, value, null);
+  }
+
+  /**
+   * @param expireAfter null if the key does not expire. The index entry expires with the key.
+   */
+  public void put(K key, V value, Duration expireAfter) {
+    ReentrantLock lock = lock(key);
+    lock.lock();
+    try {
+      List<Prepare<Entry<K>, V, Void>> prepares = new ArrayList<>(3);
+      removeIndexEntry(key, prepares);
+      addPuts(key, value, expireAfter, prepares);
+      map.commit(prepares);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Writes all key-values and their index entries with one atomic commit.
+   */
+  public void put(Iterable<KeyVal<K, V>> keyValues) {
+    //the last value of a key wins, earlier values of the same key would leave stale index entries.
+    LinkedHashMap<K, V> lastValues = new LinkedHashMap<>();
+    for (KeyVal<K, V> keyValue : keyValues)
+      lastValues.put(keyValue.key(), keyValue.value());
+
+    List<ReentrantLock> locked = lockAll(lastValues.keySet());
+    try {
+      List<Prepare<Entry<K>, V, Void>> prepares = new ArrayList<>();
+      for (java.util.Map.Entry<K, V> keyValue : lastValues.entrySet()) {
+        removeIndexEntry(keyValue.getKey(), prepares);
+        addPuts(keyValue.getKey(), keyValue.getValue(), null, prepares);
+      }
+      //the map does not accept empty batches.
+      if (!prepares.isEmpty())
+        map.commit(prepares);
+    } finally {
+      for (ReentrantLock lock : locked)
+        lock.unlock();
+    }
+  }
+
+  public void remove(K key) {
+    ReentrantLock lock = lock(key);
+    lock.lock();
+    try {
+      List<Prepare<Entry<K>, V, Void>> prepares = new ArrayList<>(2);
+      if (removeIndexEntry(key, prepares)) {
+        prepares.add(Prepare.removeFromMap(Entry.primary(key)));
+        map.commit(prepares);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Applies the function to the key's current value, if any, and commits the result and the index update atomically.
+   */
+  public void applyFunction(K key, OnKeyValue<K, V> function) {
+    ReentrantLock lock = lock(key);
+    lock.lock();
+    try {
+      Optional<Pair<KeyVal<Entry<K>, V>, Optional<Expiration>>> keyValue = map.getKeyValueDeadline(Entry.primary(key));
+      if (!keyValue.isPresent())
+        return;
+
+      V current = keyValue.get().left().value();
+      Apply.Map<V> result = function.apply(key, current);
+      List<Prepare<Entry<K>, V, Void>> prepares = new ArrayList<>(3);
+
+      if (result instanceof Apply.Update) {
+        Apply.Update<V> update = (Apply.Update<V>) result;
+        //as in SwayDB, an update without a deadline keeps the current one.
+        Option<Deadline> deadline = update.deadline();
+        if (deadline.isEmpty() && keyValue.get().right().isPresent())
+          deadline = Option.apply(keyValue.get().right().get().asScala());
+
+        prepares.add(Prepare.removeFromMap(indexEntry(key, current)));
+        addPuts(key, update.value(), expireAfter(deadline), prepares);
+      } else if (result instanceof Apply.Expire) {
+        Duration after = expireAfter(Option.apply(((Apply.Expire) result).deadline()));
+        prepares.add(Prepare.expireFromMap(Entry.primary(key), after));
+        prepares.add(Prepare.expireFromMap(indexEntry(key, current), after));
+      } else if (result instanceof Apply.Remove$) {
+        prepares.add(Prepare.removeFromMap(Entry.primary(key)));
+        prepares.add(Prepare.removeFromMap(indexEntry(key, current)));
+      }
+
+      if (!prepares.isEmpty())
+        map.commit(prepares);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private static Duration expireAfter(Option<Deadline> deadline) {
+    if (deadline.isEmpty())
+      return null;
+    //expired deadlines are written as expire now.
+    return Duration.ofNanos(Math.max(0, deadline.get().timeLeft().toNanos()));
+  }
+
+  /**
+   * Values whose index key is in [from, to], in index key order. Primary values are read in
+   * batches of batchSize with their keys sorted so that each batch reads neighbouring Segments.
+   */
+  public List<KeyVal<K, V>> range(I from, I to, int batchSize) {
+    byte[] toBytes = bytes(indexSerializer.write(to));
+
+    List<K> keys = new ArrayList<>();
+    map
+      .fromOrAfter(new Entry<>(null, bytes(indexSerializer.write(from))))
+      .takeWhile(keyValue -> keyValue.key().isIndex() && compare(keyValue.key().indexBytes, toBytes) <= 0)
+      .forEach(keyValue -> keys.add(keyValue.key().primaryKey));
+
+    List<KeyVal<K, V>> values = new ArrayList<>(keys.size());
+    for (int start = 0; start < keys.size(); start += batchSize)
+      get(keys.subList(start, Math.min(start + batchSize, keys.size())), values);
+    return values;
+  }
+
+  private void get(List<K> keys, List<KeyVal<K, V>> values) {
+    //read in storage order, which is the order of the serialized keys, and written back in index order.
+    Integer[] order = new Integer[keys.size()];
+    byte[][] keyBytes = new byte[keys.size()][];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+      keyBytes[i] = bytes(keySerializer.write(keys.get(i)));
+    }
+    Arrays.sort(order, (left, right) -> compare(keyBytes[left], keyBytes[right]));
+
+    List<Optional<V>> found = new ArrayList<>(Collections.nCopies(keys.size(), Optional.empty()));
+    for (int index : order)
+      found.set(index, map.get(Entry.primary(keys.get(index))));
+
+    for (int i = 0; i < keys.size(); i++)
+      if (found.get(i).isPresent())
+        values.add(KeyVal.of(keys.get(i), found.get(i).get()));
+  }
+
+  static int compare(byte[] left, byte[] right) {
+    int length = Math.min(left.length, right.length);
+    for (int i = 0; i < length; i++) {
+      int compare = (left[i] & 0xFF) - (right[i] & 0xFF);
+      if (compare != 0)
+        return compare;
+    }
+    return left.length - right.length;
+  }
+
+  //adds a remove of the key's current index entry. Returns false if the key does not exist.
+  private boolean removeIndexEntry(K key, List<Prepare<Entry<K>, V, Void>> prepares) {
+    Optional<V> current = get(key);
+    current.ifPresent(value -> prepares.add(Prepare.removeFromMap(indexEntry(key, value))));
+    return current.isPresent();
+  }
+
+  private void addPuts(K key, V value, Duration expireAfter, List<Prepare<Entry<K>, V, Void>> prepares) {
+    if (expireAfter == null) {
+      prepares.add(Prepare.put(Entry.primary(key), value));
+      prepares.add(Prepare.put(indexEntry(key, value), null));
+    } else {
+      prepares.add(Prepare.put(Entry.primary(key), value, expireAfter));
+      prepares.add(Prepare.put(indexEntry(key, value), null, expireAfter));
+    }
+  }
+
+  //locks stripes in index order so concurrent batches cannot deadlock.
+  private List<ReentrantLock> lockAll(Iterable<K> keys) {
+    TreeSet<Integer> stripes = new TreeSet<>();
+    for (K key : keys)
+      stripes.add(Math.floorMod(key.hashCode(), LOCK_STRIPES));
+
+    List<ReentrantLock> locked = new ArrayList<>(stripes.size());
+    for (int stripe : stripes) {
+      locks[stripe].lock();
+      locked.add(locks[stripe]);
+    }
+    return locked;
+  }
+
+  public void close() {
+    map.close();
+  }
+
+  public void delete() {
+    map.delete();
+  }
+}
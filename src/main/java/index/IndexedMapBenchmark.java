@@ -0,0 +1,90 @@
+package index;
+
+import benchmark.BenchmarkMaps;
+import ordering.OrderedSerializers;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.doubleSerializer;
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Finding the products in a random price band of a persistent {@link IndexedMap} of rows products
+ * with prices in [0, 100000) and bands of $100, so each band has about 0.1% of the rows.
+ * <p>
+ * indexedRange reads the band's index entries and looks up the products in batches of batchSize.
+ * fullScan streams all products and filters them by price.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndexedMapBenchmark {
+
+  @Param({"1000000", "100000000"})
+  int rows;
+
+  @Param("1000")
+  int batchSize;
+
+  IndexedMap<Integer, Double, Integer> products;
+
+  private static int priceBand(Double price) {
+    return (int) (price / 100);
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    products = IndexedMap.persistent(BenchmarkMaps.directory("indexed"), intSerializer(), doubleSerializer(), OrderedSerializers.intSerializer(), IndexedMapBenchmark::priceBand);
+
+    Random random = new Random(42);
+    List<KeyVal<Integer, Double>> batch = new ArrayList<>(10000);
+    for (int id = 0; id < rows; id++) {
+      batch.add(KeyVal.of(id, random.nextInt(10_000_000) / 100.0));
+      if (batch.size() == 10000) {
+        products.put(batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty())
+      products.put(batch);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    products.delete();
+  }
+
+  @Benchmark
+  public List<KeyVal<Integer, Double>> indexedRange() {
+    int band = ThreadLocalRandom.current().nextInt(1000);
+    return products.range(band, band, batchSize);
+  }
+
+  @Benchmark
+  public List<KeyVal<Integer, Double>> fullScan() {
+    int band = ThreadLocalRandom.current().nextInt(1000);
+    List<KeyVal<Integer, Double>> found = new ArrayList<>();
+
+    products
+      .map()
+      //primary entries are ordered before index entries.
+      .takeWhile(keyValue -> !keyValue.key().isIndex())
+      .forEach(
+        keyValue -> {
+          if (priceBand(keyValue.value()) == band)
+            found.add(KeyVal.of(keyValue.key().primaryKey(), keyValue.value()));
+        }
+      );
+
+    return found;
+  }
+}
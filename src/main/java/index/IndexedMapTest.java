@@ -0,0 +1,120 @@
+package index;
+
+import ordering.OrderedSerializers;
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.KeyVal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static swaydb.java.serializers.Default.doubleSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+class IndexedMapTest {
+
+  //products indexed by price band of $100.
+  private static int priceBand(Double price) {
+    return (int) (price / 100);
+  }
+
+  private static List<String> keys(List<KeyVal<String, Double>> keyValues) {
+    return keyValues.stream().map(KeyVal::key).collect(Collectors.toList());
+  }
+
+  @Test
+  void indexIsUpdatedWithWrites() {
+    IndexedMap<String, Double, Integer> products =
+      IndexedMap.memory(stringSerializer(), doubleSerializer(), OrderedSerializers.intSerializer(), IndexedMapTest::priceBand);
+
+    products.put(
+      Arrays.asList(
+        KeyVal.of("MacBook Pro", 2799.00),
+        KeyVal.of("Tesla", 69275.0),
+        KeyVal.of("Kindle", 89.99),
+        KeyVal.of("iPhone", 999.0),
+        KeyVal.of("Headphones", 249.0),
+        //a later value of the same key wins.
+        KeyVal.of("Headphones", 299.0)
+      )
+    );
+
+    assertEquals(Arrays.asList("Kindle", "Headphones", "iPhone"), keys(products.range(0, 9, 2)));
+    assertEquals(Optional.of(299.0), products.range(2, 2, 10).stream().map(KeyVal::value).findFirst());
+
+    //moving to another band removes the old index entry.
+    products.put("iPhone", 99.0);
+    assertEquals(Arrays.asList("Kindle", "iPhone", "Headphones"), keys(products.range(0, 9, 10)));
+
+    products.remove("Kindle");
+    assertEquals(Arrays.asList("iPhone", "Headphones"), keys(products.range(0, 9, 10)));
+    assertEquals(Arrays.asList("MacBook Pro", "Tesla"), keys(products.range(10, Integer.MAX_VALUE, 10)));
+
+    products.delete();
+  }
+
+  @Test
+  void applyFunctionUpdatesIndex() {
+    IndexedMap<String, Double, Integer> products =
+      IndexedMap.memory(stringSerializer(), doubleSerializer(), OrderedSerializers.intSerializer(), IndexedMapTest::priceBand);
+
+    products.put("MacBook Pro", 2799.00);
+    products.put("Kindle", 19.99);
+
+    //same as DiscountApp without the expiration check.
+    products.applyFunction("MacBook Pro", (key, price) -> Apply.update(price * 0.50));
+    products.applyFunction("Kindle", (key, price) -> price * 0.50 <= 10 ? Apply.removeFromMap() : Apply.update(price * 0.50));
+
+    assertEquals(Optional.of(1399.5), products.get("MacBook Pro"));
+    assertEquals(Optional.empty(), products.get("Kindle"));
+    assertEquals(Arrays.asList("MacBook Pro"), keys(products.range(0, 100, 10)));
+    assertEquals(Arrays.asList("MacBook Pro"), keys(products.range(13, 13, 10)));
+
+    //the underlying map has one primary and one index entry.
+    assertEquals(2, products.map().count());
+
+    products.delete();
+  }
+
+  @Test
+  void applyFunctionKeepsExpiration() {
+    IndexedMap<String, Double, Integer> products =
+      IndexedMap.memory(stringSerializer(), doubleSerializer(), OrderedSerializers.intSerializer(), IndexedMapTest::priceBand);
+
+    products.put("Headphones", 150.0, Duration.ofDays(1));
+    products.applyFunction("Headphones", (key, price) -> Apply.update(price + 100));
+
+    assertEquals(Optional.of(250.0), products.get("Headphones"));
+    //the primary and the new index entry still expire.
+    products.map().keys().forEach(entry -> assertTrue(products.map().expiration(entry).isPresent()));
+    assertEquals(2, products.map().count());
+
+    products.delete();
+  }
+
+  @Test
+  void rangeReadsFromPersistentSegments() throws IOException {
+    Path directory = Files.createTempDirectory("indexedMapTest");
+    IndexedMap<String, Double, Integer> products =
+      IndexedMap.persistent(directory, stringSerializer(), doubleSerializer(), OrderedSerializers.intSerializer(), IndexedMapTest::priceBand);
+
+    for (int i = 0; i < 1000; i++)
+      products.put("product " + i, (double) i);
+    products.close();
+
+    products = IndexedMap.persistent(directory, stringSerializer(), doubleSerializer(), OrderedSerializers.intSerializer(), IndexedMapTest::priceBand);
+    List<KeyVal<String, Double>> band = products.range(5, 5, 16);
+    assertEquals(100, band.size());
+    assertEquals(KeyVal.of("product 500", 500.0), band.get(0));
+
+    products.delete();
+  }
+}
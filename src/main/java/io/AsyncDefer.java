@@ -0,0 +1,190 @@
+package io;
+
+import swaydb.java.IO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+/**
+ * Runs {@link IO.Defer} chains asynchronously on an {@link Executor}.
+ * <p>
+ * {@link IO.Defer#run()} runs the chain on the calling thread. {@link #run(IO.Defer, Executor)} instead submits
+ * the whole chain (all its map, flatMap and recover steps) as one task to the executor and returns a
+ * {@link CompletableFuture} of its result. Failures complete the future exceptionally with the chain's exception.
+ * <p>
+ * Cancelling a returned future before the task starts skips running the chain. Cancelling it with
+ * mayInterruptIfRunning = true while the chain is running interrupts the running thread. Same for timeouts.
+ */
+public final class AsyncDefer {
+
+  private AsyncDefer() {
+  }
+
+  //completes futures that time out. Does not run chains.
+  private static final ScheduledExecutorService timer =
+    Executors.newSingleThreadScheduledExecutor(
+      runnable -> {
+        Thread thread = new Thread(runnable, "async-defer-timeout");
+        thread.setDaemon(true);
+        return thread;
+      }
+    );
+
+  private static final class DeferTask<R> extends CompletableFuture<R> implements Runnable {
+    private final IO.Defer<?, R> defer;
+    //thread running the chain or null if not running.
+    private Thread runner;
+
+    DeferTask(IO.Defer<?, R> defer) {
+      this.defer = defer;
+    }
+
+    @Override
+    public void run() {
+      synchronized (this) {
+        //cancelled or timed out before it started.
+        if (isDone())
+          return;
+        runner = Thread.currentThread();
+      }
+
+      try {
+        complete(defer.tryRun());
+      } catch (Throwable throwable) {
+        completeExceptionally(throwable);
+      } finally {
+        synchronized (this) {
+          runner = null;
+          //clear an interrupt meant for this chain so it does not leak to the executor's next task.
+          Thread.interrupted();
+        }
+      }
+    }
+
+    private synchronized void interruptRunner() {
+      if (runner != null)
+        runner.interrupt();
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      if (cancelled && mayInterruptIfRunning)
+        interruptRunner();
+      return cancelled;
+    }
+
+    void timeoutAfter(Duration timeout) {
+      ScheduledFuture<?> timeoutTask =
+        timer.schedule(
+          () -> {
+            if (completeExceptionally(new TimeoutException("Defer did not complete within " + timeout)))
+              interruptRunner();
+          },
+          timeout.toNanos(),
+          TimeUnit.NANOSECONDS
+        );
+
+      whenComplete((result, throwable) -> timeoutTask.cancel(false));
+    }
+  }
+
+  /**
+   * Runs the defer on the executor.
+   */
+  public static <E, R> CompletableFuture<R> run(IO.Defer<E, R> defer, Executor executor) {
+    DeferTask<R> task = new DeferTask<>(defer);
+    executor.execute(task);
+    return task;
+  }
+
+  /**
+   * Runs the defer on the executor and completes the future with a {@link TimeoutException} if it
+   * does not complete within timeout, interrupting the chain if it is running.
+   */
+  public static <E, R> CompletableFuture<R> run(IO.Defer<E, R> defer, Executor executor, Duration timeout) {
+    DeferTask<R> task = new DeferTask<>(defer);
+    task.timeoutAfter(timeout);
+    executor.execute(task);
+    return task;
+  }
+
+  /**
+   * Runs both defers concurrently and combines their results. If either fails the other is cancelled.
+   * Cancelling the returned future cancels both defers.
+   */
+  public static <A, B, C> CompletableFuture<C> zip(IO.Defer<?, A> left, IO.Defer<?, B> right, BiFunction<A, B, C> combine, Executor executor) {
+    CompletableFuture<A> leftFuture = run(left, executor);
+    CompletableFuture<B> rightFuture = run(right, executor);
+
+    cancelOnFailure(leftFuture, rightFuture);
+    cancelOnFailure(rightFuture, leftFuture);
+
+    CompletableFuture<C> result = leftFuture.thenCombine(rightFuture, combine);
+    cancelOnCancel(result, leftFuture, rightFuture);
+    return result;
+  }
+
+  /**
+   * Runs all defers concurrently. The result contains each defer's result in the order of defers.
+   * If any defer fails the others are cancelled and the future completes with the first failure.
+   */
+  public static <E, R> CompletableFuture<List<R>> all(List<IO.Defer<E, R>> defers, Executor executor) {
+    List<CompletableFuture<R>> futures = new ArrayList<>(defers.size());
+    for (IO.Defer<E, R> defer : defers)
+      futures.add(run(defer, executor));
+
+    CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+    for (CompletableFuture<R> future : futures)
+      future.whenComplete(
+        (value, throwable) -> {
+          if (throwable != null && result.completeExceptionally(throwable))
+            for (CompletableFuture<R> other : futures)
+              other.cancel(true);
+        }
+      );
+
+    CompletableFuture
+      .allOf(futures.toArray(new CompletableFuture<?>[0]))
+      .thenRun(
+        () -> {
+          List<R> results = new ArrayList<>(futures.size());
+          for (CompletableFuture<R> future : futures)
+            results.add(future.join());
+          result.complete(results);
+        }
+      );
+
+    cancelOnCancel(result, futures.toArray(new CompletableFuture<?>[0]));
+    return result;
+  }
+
+  private static void cancelOnCancel(CompletableFuture<?> result, CompletableFuture<?>... futures) {
+    result.whenComplete(
+      (value, throwable) -> {
+        if (result.isCancelled())
+          for (CompletableFuture<?> future : futures)
+            future.cancel(true);
+      }
+    );
+  }
+
+  private static void cancelOnFailure(CompletableFuture<?> future, CompletableFuture<?> other) {
+    future.whenComplete(
+      (value, throwable) -> {
+        if (throwable != null)
+          other.cancel(true);
+      }
+    );
+  }
+}
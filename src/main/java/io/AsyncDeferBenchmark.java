@@ -0,0 +1,77 @@
+package io;
+
+import org.openjdk.jmh.annotations.*;
+import swaydb.java.IO;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of running a chain of chainLength map steps with {@link IO.Defer#run()},
+ * with {@link AsyncDefer#run(IO.Defer, Executor)} and as a plain {@link CompletableFuture} chain.
+ * <p>
+ * DIRECT runs async tasks on the calling thread so only the chain overhead is measured.
+ * POOL hands each chain over to a single thread executor and waits for its result.
+ * A chain is rebuilt on every invocation because a Defer keeps its result once run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncDeferBenchmark {
+
+  public enum ExecutorType {
+    DIRECT,
+    POOL
+  }
+
+  @Param({"DIRECT", "POOL"})
+  ExecutorType executorType;
+
+  @Param({"1", "10"})
+  int chainLength;
+
+  ExecutorService pool;
+  Executor executor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    pool = Executors.newSingleThreadExecutor();
+    executor = executorType == ExecutorType.DIRECT ? Runnable::run : pool;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  IO.Defer<Throwable, Integer> defer() {
+    IO.Defer<Throwable, Integer> defer = IO.defer(() -> 1);
+    for (int i = 0; i < chainLength; i++)
+      defer = defer.map(value -> value + 1);
+    return defer;
+  }
+
+  @Benchmark
+  public Integer deferRun() {
+    return defer().run();
+  }
+
+  @Benchmark
+  public Integer asyncDefer() {
+    return AsyncDefer.run(defer(), executor).join();
+  }
+
+  @Benchmark
+  public Integer completableFuture() {
+    CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> 1, executor);
+    for (int i = 0; i < chainLength; i++)
+      future = future.thenApply(value -> value + 1);
+    return future.join();
+  }
+}
@@ -0,0 +1,139 @@
+package io;
+
+import org.junit.jupiter.api.Test;
+import swaydb.java.IO;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncDeferTest {
+
+  //blocks until interrupted.
+  static String sleepForever() {
+    try {
+      Thread.sleep(Long.MAX_VALUE);
+      return "woke up";
+    } catch (InterruptedException exception) {
+      throw new IllegalStateException("interrupted", exception);
+    }
+  }
+
+  @Test
+  void runChainOnExecutor() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    //same chain as IOTest.deferredIO.
+    IO.Defer<Throwable, String> defer =
+      IO.defer(() -> Thread.currentThread().getName())
+        .map(string -> string + " got mapped")
+        .flatMap(string -> IO.defer(() -> string + " and flatMapped"))
+        .recover(throwable -> "can do some recovery here");
+
+    String threadName = executor.submit(() -> Thread.currentThread().getName()).get();
+
+    assertEquals(threadName + " got mapped and flatMapped", AsyncDefer.run(defer, executor).get());
+
+    executor.shutdown();
+  }
+
+  @Test
+  void failuresCompleteExceptionally() throws InterruptedException {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    IO.Defer<Throwable, Integer> defer = IO.defer(() -> 1 / 0);
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> AsyncDefer.run(defer, executor).get());
+    assertTrue(exception.getCause() instanceof ArithmeticException);
+
+    executor.shutdown();
+  }
+
+  @Test
+  void zipAndAllRunConcurrently() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    //each defer waits for the others to start so they only complete if run concurrently.
+    CountDownLatch started = new CountDownLatch(3);
+    List<IO.Defer<Throwable, Integer>> defers =
+      Arrays.asList(
+        IO.defer(() -> await(started, 1)),
+        IO.defer(() -> await(started, 2)),
+        IO.defer(() -> await(started, 3))
+      );
+
+    assertEquals(Arrays.asList(1, 2, 3), AsyncDefer.all(defers, executor).get(10, TimeUnit.SECONDS));
+
+    CountDownLatch zipStarted = new CountDownLatch(2);
+    Integer sum =
+      AsyncDefer.zip(
+        IO.defer(() -> await(zipStarted, 1)),
+        IO.defer(() -> await(zipStarted, 2)),
+        Integer::sum,
+        executor
+      ).get(10, TimeUnit.SECONDS);
+
+    assertEquals(3, sum);
+
+    executor.shutdown();
+  }
+
+  static Integer await(CountDownLatch latch, Integer result) {
+    latch.countDown();
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException exception) {
+      throw new IllegalStateException(exception);
+    }
+    return result;
+  }
+
+  @Test
+  void timeoutInterruptsTheChain() throws InterruptedException {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    ExecutionException exception =
+      assertThrows(
+        ExecutionException.class,
+        () -> AsyncDefer.run(IO.defer(AsyncDeferTest::sleepForever), executor, Duration.ofMillis(100)).get()
+      );
+
+    assertTrue(exception.getCause() instanceof TimeoutException);
+
+    //the executor's thread was interrupted and is free to run the next chain.
+    assertEquals("next", AsyncDefer.run(IO.defer(() -> "next"), executor).join());
+
+    executor.shutdown();
+  }
+
+  @Test
+  void cancelledChainsDoNotRun() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    //keep the executor's only thread busy.
+    CompletableFuture<String> busy = AsyncDefer.run(IO.defer(AsyncDeferTest::sleepForever), executor);
+
+    AtomicBoolean ran = new AtomicBoolean();
+    CompletableFuture<Boolean> queued = AsyncDefer.run(IO.defer(() -> ran.getAndSet(true)), executor);
+
+    assertTrue(queued.cancel(false));
+    assertTrue(busy.cancel(true));
+    assertThrows(CancellationException.class, busy::join);
+
+    assertEquals("next", AsyncDefer.run(IO.defer(() -> "next"), executor).get(10, TimeUnit.SECONDS));
+    assertFalse(ran.get());
+
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,305 @@
+package metrics;
+
+import forwarding.ForwardingMap;
+import metrics.MapMetrics.Operation;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.java.MapT;
+import swaydb.java.Source;
+import swaydb.java.Stream;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Records the latency of each operation on a map in {@link MapMetrics}.
+ * <p>
+ * For serializer time to be separated from storage time the map must be created with the serializers
+ * returned by {@link MapMetrics#keySerializer} and {@link MapMetrics#valueSerializer}, eg:
+ * <pre>
+ * MapMetrics metrics = new MapMetrics("products");
+ *
+ * Map&lt;Integer, Integer, Void&gt; map =
+ *   MemoryMap
+ *     .functionsOff(metrics.keySerializer(intSerializer()), metrics.valueSerializer(intSerializer()))
+ *     .get();
+ *
+ * InstrumentedMap&lt;Integer, Integer, Void&gt; instrumented = new InstrumentedMap&lt;&gt;(map, metrics);
+ * </pre>
+ * stream() records the time to create the stream. Reading streamed key-values is seen in the DECODE metrics.
+ */
+public class InstrumentedMap<K, V, F> extends ForwardingMap<K, V, F> {
+
+  private final MapMetrics metrics;
+
+  public InstrumentedMap(MapT<K, V, F> map, MapMetrics metrics) {
+    super(map);
+    this.metrics = metrics;
+  }
+
+  public MapMetrics metrics() {
+    return metrics;
+  }
+
+  //batches are counted while the delegate reads them so one-shot Iterables and Iterators are read once.
+  private static <T> Stream<T> counted(Stream<T> items, long[] count) {
+    return
+      items.map(
+        item -> {
+          count[0]++;
+          return item;
+        }
+      );
+  }
+
+  private static <T> Iterable<T> counted(Iterable<T> items, long[] count) {
+    if (items instanceof Collection) {
+      count[0] = ((Collection<T>) items).size();
+      return items;
+    }
+    return () -> counted(items.iterator(), count);
+  }
+
+  private static <T> Iterator<T> counted(Iterator<T> items, long[] count) {
+    return new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        return items.hasNext();
+      }
+
+      @Override
+      public T next() {
+        T item = items.next();
+        count[0]++;
+        return item;
+      }
+    };
+  }
+
+  @Override
+  public void put(K key, V value) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.put(key, value);
+    metrics.record(Operation.PUT, start, serializerNanos);
+  }
+
+  @Override
+  public void put(K key, V value, Duration expireAfter) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.put(key, value, expireAfter);
+    metrics.record(Operation.PUT, start, serializerNanos);
+  }
+
+  @Override
+  public void put(Stream<KeyVal<K, V>> keyValues) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.put(counted(keyValues, batchSize));
+    metrics.record(Operation.PUT_BATCH, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void put(Iterable<KeyVal<K, V>> keyValues) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.put(counted(keyValues, batchSize));
+    metrics.record(Operation.PUT_BATCH, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void put(Iterator<KeyVal<K, V>> keyValues) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.put(counted(keyValues, batchSize));
+    metrics.record(Operation.PUT_BATCH, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public Optional<V> get(K key) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    Optional<V> value = delegate.get(key);
+    metrics.record(Operation.GET, start, serializerNanos);
+    return value;
+  }
+
+  @Override
+  public void remove(K key) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.remove(key);
+    metrics.record(Operation.REMOVE, start, serializerNanos);
+  }
+
+  @Override
+  public void remove(K from, K to) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.remove(from, to);
+    metrics.record(Operation.REMOVE, start, serializerNanos);
+  }
+
+  @Override
+  public void remove(Stream<K> keys) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.remove(counted(keys, batchSize));
+    metrics.record(Operation.REMOVE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void remove(Iterable<K> keys) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.remove(counted(keys, batchSize));
+    metrics.record(Operation.REMOVE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void remove(Iterator<K> keys) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.remove(counted(keys, batchSize));
+    metrics.record(Operation.REMOVE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void expire(K key, Duration after) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.expire(key, after);
+    metrics.record(Operation.EXPIRE, start, serializerNanos);
+  }
+
+  @Override
+  public void expire(K from, K to, Duration after) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.expire(from, to, after);
+    metrics.record(Operation.EXPIRE, start, serializerNanos);
+  }
+
+  @Override
+  public void expire(Stream<Pair<K, Duration>> keys) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.expire(counted(keys, batchSize));
+    metrics.record(Operation.EXPIRE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void expire(Iterable<Pair<K, Duration>> keys) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.expire(counted(keys, batchSize));
+    metrics.record(Operation.EXPIRE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void expire(Iterator<Pair<K, Duration>> keys) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.expire(counted(keys, batchSize));
+    metrics.record(Operation.EXPIRE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void update(K key, V value) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.update(key, value);
+    metrics.record(Operation.UPDATE, start, serializerNanos);
+  }
+
+  @Override
+  public void update(K from, K to, V value) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.update(from, to, value);
+    metrics.record(Operation.UPDATE, start, serializerNanos);
+  }
+
+  @Override
+  public void update(Stream<KeyVal<K, V>> keyValues) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.update(counted(keyValues, batchSize));
+    metrics.record(Operation.UPDATE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void update(Iterable<KeyVal<K, V>> keyValues) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.update(counted(keyValues, batchSize));
+    metrics.record(Operation.UPDATE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void update(Iterator<KeyVal<K, V>> keyValues) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.update(counted(keyValues, batchSize));
+    metrics.record(Operation.UPDATE, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void applyFunction(K key, F function) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.applyFunction(key, function);
+    metrics.record(Operation.APPLY_FUNCTION, start, serializerNanos);
+  }
+
+  @Override
+  public void applyFunction(K from, K to, F function) {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.applyFunction(from, to, function);
+    metrics.record(Operation.APPLY_FUNCTION, start, serializerNanos);
+  }
+
+  @Override
+  public void commit(Iterable<Prepare<K, V, F>> prepares) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.commit(counted(prepares, batchSize));
+    metrics.record(Operation.COMMIT, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public void commit(Stream<Prepare<K, V, F>> prepares) {
+    long[] batchSize = {0};
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    delegate.commit(counted(prepares, batchSize));
+    metrics.record(Operation.COMMIT, start, serializerNanos, batchSize[0]);
+  }
+
+  @Override
+  public Source<K, KeyVal<K, V>> stream() {
+    long serializerNanos = metrics.serializerNanos();
+    long start = System.nanoTime();
+    Source<K, KeyVal<K, V>> stream = delegate.stream();
+    metrics.record(Operation.STREAM, start, serializerNanos);
+    return stream;
+  }
+}
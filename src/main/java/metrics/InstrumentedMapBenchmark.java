@@ -0,0 +1,83 @@
+package metrics;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.java.MapT;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.java.serializers.Serializer;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Overhead of {@link InstrumentedMap} on get and put.
+ * <p>
+ * NONE is the plain map, MAP instruments the map's operations and MAP_AND_SERIALIZERS also times the serializers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentedMapBenchmark {
+
+  public enum Instrumentation {
+    NONE,
+    MAP,
+    MAP_AND_SERIALIZERS
+  }
+
+  @Param({"NONE", "MAP", "MAP_AND_SERIALIZERS"})
+  Instrumentation instrumentation;
+
+  @Param({"true", "false"})
+  boolean persistent;
+
+  @Param("100000")
+  int keyCount;
+
+  MapT<Integer, Integer, Void> map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    MapMetrics metrics = new MapMetrics("benchmark");
+
+    Serializer<Integer> serializer =
+      instrumentation == Instrumentation.MAP_AND_SERIALIZERS ? metrics.keySerializer(intSerializer()) : intSerializer();
+
+    MapT<Integer, Integer, Void> plain =
+      persistent ?
+        PersistentMap.functionsOff(BenchmarkMaps.directory("instrumented"), serializer, serializer).get() :
+        MemoryMap.functionsOff(serializer, serializer).get();
+
+    map = instrumentation == Instrumentation.NONE ? plain : new InstrumentedMap<>(plain, metrics);
+    map.put(Stream.range(1, keyCount).map(KeyVal::of));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    map.delete();
+  }
+
+  int randomKey() {
+    return ThreadLocalRandom.current().nextInt(1, keyCount + 1);
+  }
+
+  @Benchmark
+  public Optional<Integer> get() {
+    return map.get(randomKey());
+  }
+
+  @Benchmark
+  public void put() {
+    int key = randomKey();
+    map.put(key, key);
+  }
+}
@@ -0,0 +1,110 @@
+package metrics;
+
+import metrics.MapMetrics.Operation;
+import org.junit.jupiter.api.Test;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class InstrumentedMapTest {
+
+  @Test
+  void histogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++)
+      histogram.record(i * 1000L);
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertEquals(1000, snapshot.count());
+    assertEquals(500_500, snapshot.mean());
+    assertEquals(1_000_000, snapshot.max());
+
+    //within the histogram's 3% precision.
+    assertEquals(500_000, snapshot.percentile(50), 500_000 * 0.03);
+    assertEquals(990_000, snapshot.percentile(99), 990_000 * 0.03);
+
+    histogram.record(5);
+    LatencyHistogram.Snapshot interval = histogram.snapshot().minus(snapshot);
+    assertEquals(1, interval.count());
+    assertEquals(5, interval.percentile(100));
+  }
+
+  @Test
+  void recordsOperations() throws JMException {
+    MapMetrics metrics = new MapMetrics("test");
+
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(metrics.keySerializer(intSerializer()), metrics.valueSerializer(intSerializer()))
+        .get();
+
+    InstrumentedMap<Integer, Integer, Void> instrumented = new InstrumentedMap<>(map, metrics);
+
+    instrumented.put(1, 1);
+    instrumented.put(Stream.range(1, 100).map(KeyVal::of));
+    assertEquals(Optional.of(1), instrumented.get(1));
+    assertEquals(Optional.of(2), instrumented.get(2));
+    instrumented.expire(1, Duration.ofSeconds(10));
+    instrumented.remove(1);
+    assertEquals(99, instrumented.stream().count());
+
+    assertEquals(1, metrics.get(Operation.PUT).getCount());
+    assertEquals(1, metrics.get(Operation.PUT_BATCH).getCount());
+    assertEquals(100, metrics.get(Operation.PUT_BATCH).getMeanBatchSize());
+    assertEquals(2, metrics.get(Operation.GET).getCount());
+    assertEquals(1, metrics.get(Operation.EXPIRE).getCount());
+    assertEquals(1, metrics.get(Operation.REMOVE).getCount());
+    assertEquals(1, metrics.get(Operation.STREAM).getCount());
+
+    assertTrue(metrics.get(Operation.ENCODE).getCount() >= 202);
+    assertTrue(metrics.get(Operation.DECODE).getCount() > 0);
+    assertTrue(metrics.get(Operation.GET).serializerNanos() > 0);
+
+    metrics.registerMBeans();
+    ObjectName get = new ObjectName("swaydb.examples:type=InstrumentedMap,name=\"test\",operation=get");
+    assertEquals(2L, ManagementFactory.getPlatformMBeanServer().getAttribute(get, "Count"));
+    metrics.close();
+    assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(get));
+
+    instrumented.delete();
+  }
+
+  @Test
+  void recordsBatchesOnce() {
+    MapMetrics metrics = new MapMetrics("batches");
+    InstrumentedMap<Integer, Integer, Void> instrumented =
+      new InstrumentedMap<>(MemoryMap.functionsOff(intSerializer(), intSerializer()).get(), metrics);
+
+    //an Iterable that can only be read once.
+    Iterator<KeyVal<Integer, Integer>> keyValues = Stream.range(1, 10).map(KeyVal::of).iterator();
+    Iterable<KeyVal<Integer, Integer>> oneShot = () -> keyValues;
+
+    instrumented.put(oneShot);
+    assertEquals(10, instrumented.stream().count());
+    assertEquals(10, metrics.get(Operation.PUT_BATCH).getMeanBatchSize());
+
+    instrumented.update(Arrays.asList(KeyVal.of(1, 10), KeyVal.of(2, 20)).iterator());
+    instrumented.expire(Stream.range(3, 4).map(key -> Pair.of(key, Duration.ofMinutes(1))));
+    instrumented.remove(Arrays.asList(5, 6, 7).iterator());
+
+    assertEquals(Optional.of(10), instrumented.get(1));
+    assertEquals(2, metrics.get(Operation.UPDATE).getMeanBatchSize());
+    assertEquals(2, metrics.get(Operation.EXPIRE).getMeanBatchSize());
+    assertEquals(3, metrics.get(Operation.REMOVE).getMeanBatchSize());
+
+    instrumented.delete();
+  }
+}
@@ -0,0 +1,136 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of non-negative long values (eg: latencies in nanoseconds) with log-linear buckets
+ * in the style of HdrHistogram.
+ * <p>
+ * Each power of 2 is split into 32 linear buckets so recorded values are within about 3% of their bucket's
+ * highest value which is what percentiles report. Recording is lock-free and does not allocate.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int LINEAR_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+  private static final int BUCKETS = LINEAR_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  static int bucket(long value) {
+    if (value < LINEAR_BUCKETS)
+      return (int) value;
+
+    int highestBit = 63 - Long.numberOfLeadingZeros(value);
+    int shift = highestBit - (SUB_BUCKET_BITS - 1);
+    int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+    return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+  }
+
+  //highest value that is recorded in the bucket.
+  static long highestValue(int bucket) {
+    if (bucket < LINEAR_BUCKETS)
+      return bucket;
+
+    int shift = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+    long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+    long lowest = (SUB_BUCKETS + subBucket) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  public void record(long value) {
+    long positive = Math.max(0, value);
+    counts.incrementAndGet(bucket(positive));
+    sum.add(positive);
+    max.accumulate(positive);
+  }
+
+  /**
+   * A copy of the histogram's current counts. Values recorded concurrently may or may not be included.
+   */
+  public Snapshot snapshot() {
+    long[] copy = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+      count += copy[i];
+    }
+    return new Snapshot(copy, count, sum.sum(), max.get());
+  }
+
+  public static final class Snapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    private Snapshot(long[] counts, long count, long sum, long max) {
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    public long count() {
+      return count;
+    }
+
+    public long sum() {
+      return sum;
+    }
+
+    public double mean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Highest recorded value. For an interval snapshot this is the highest value since the histogram was created.
+     */
+    public long max() {
+      return max;
+    }
+
+    /**
+     * @param percentile between 0 and 100, eg: 99.9
+     * @return the value below which the given percentile of values fall, or 0 if there are no values.
+     */
+    public long percentile(double percentile) {
+      if (count == 0)
+        return 0;
+
+      long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= target)
+          return Math.min(highestValue(i), max);
+      }
+      return max;
+    }
+
+    /**
+     * Values recorded after previous was taken.
+     */
+    public Snapshot minus(Snapshot previous) {
+      long[] interval = new long[counts.length];
+      for (int i = 0; i < counts.length; i++)
+        interval[i] = counts[i] - previous.counts[i];
+      return new Snapshot(interval, count - previous.count, sum - previous.sum, max);
+    }
+
+    /**
+     * Values recorded in either snapshot, eg: to combine histograms of different operations.
+     */
+    public Snapshot plus(Snapshot other) {
+      long[] combined = new long[counts.length];
+      for (int i = 0; i < counts.length; i++)
+        combined[i] = counts[i] + other.counts[i];
+      return new Snapshot(combined, count + other.count, sum + other.sum, Math.max(max, other.max));
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of an {@link InstrumentedMap}, one {@link OperationMetrics} per {@link Operation}.
+ * <p>
+ * Metrics can be exported over JMX with {@link #registerMBeans()} as
+ * swaydb.examples:type=InstrumentedMap,name=[name],operation=[operation] and logged periodically
+ * with {@link #startLogging(Duration)} through the "metrics" logger configured in logback.xml.
+ */
+public class MapMetrics implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(MapMetrics.class);
+
+  public enum Operation {
+    PUT,
+    PUT_BATCH,
+    GET,
+    REMOVE,
+    EXPIRE,
+    UPDATE,
+    APPLY_FUNCTION,
+    COMMIT,
+    STREAM,
+    //time spent in serializers, see keySerializer and valueSerializer.
+    ENCODE,
+    DECODE
+  }
+
+  private final String name;
+  private final EnumMap<Operation, OperationMetrics> operations = new EnumMap<>(Operation.class);
+
+  //serializer nanos of the current thread. Only used if serializers are instrumented.
+  private final ThreadLocal<long[]> serializerNanos = ThreadLocal.withInitial(() -> new long[1]);
+  private volatile boolean serializersInstrumented;
+
+  private final List<ObjectName> registered = new ArrayList<>();
+  private ScheduledExecutorService logging;
+
+  public MapMetrics(String name) {
+    this.name = name;
+    for (Operation operation : Operation.values())
+      operations.put(operation, new OperationMetrics(operation.name().toLowerCase(Locale.ROOT)));
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public OperationMetrics get(Operation operation) {
+    return operations.get(operation);
+  }
+
+  /**
+   * Serializer nanos of the current thread so far. An operation's serializer time is the difference
+   * of this value after and before the operation.
+   */
+  long serializerNanos() {
+    return serializersInstrumented ? serializerNanos.get()[0] : 0;
+  }
+
+  void record(Operation operation, long startNanos, long serializerNanosBefore) {
+    long elapsed = System.nanoTime() - startNanos;
+    operations.get(operation).record(elapsed, serializerNanos() - serializerNanosBefore);
+  }
+
+  void record(Operation operation, long startNanos, long serializerNanosBefore, long batchSize) {
+    long elapsed = System.nanoTime() - startNanos;
+    operations.get(operation).record(elapsed, serializerNanos() - serializerNanosBefore, batchSize);
+  }
+
+  public <K> Serializer<K> keySerializer(Serializer<K> serializer) {
+    return instrument(serializer);
+  }
+
+  public <V> Serializer<V> valueSerializer(Serializer<V> serializer) {
+    return instrument(serializer);
+  }
+
+  /**
+   * Records the time spent in the serializer. Use the returned serializer to create the map
+   * so that {@link InstrumentedMap} can separate serializer time from storage time.
+   */
+  private <T> Serializer<T> instrument(Serializer<T> serializer) {
+    serializersInstrumented = true;
+    OperationMetrics encode = operations.get(Operation.ENCODE);
+    OperationMetrics decode = operations.get(Operation.DECODE);
+
+    return new Serializer<T>() {
+      @Override
+      public Slice<Byte> write(T data) {
+        long start = System.nanoTime();
+        Slice<Byte> slice = serializer.write(data);
+        long elapsed = System.nanoTime() - start;
+        encode.record(elapsed, 0);
+        serializerNanos.get()[0] += elapsed;
+        return slice;
+      }
+
+      @Override
+      public T read(Slice<Byte> slice) {
+        long start = System.nanoTime();
+        T data = serializer.read(slice);
+        long elapsed = System.nanoTime() - start;
+        decode.record(elapsed, 0);
+        serializerNanos.get()[0] += elapsed;
+        return data;
+      }
+    };
+  }
+
+  public synchronized void registerMBeans() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (OperationMetrics operation : operations.values()) {
+      ObjectName objectName = new ObjectName("swaydb.examples:type=InstrumentedMap,name=" + ObjectName.quote(name) + ",operation=" + operation.name());
+      server.registerMBean(operation, objectName);
+      registered.add(objectName);
+    }
+  }
+
+  /**
+   * Logs one line with each operation's throughput and latencies over the last interval.
+   */
+  public synchronized void startLogging(Duration interval) {
+    if (logging != null)
+      throw new IllegalStateException("Logging already started");
+
+    logging =
+      Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "map-metrics-" + name);
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+
+    EnumMap<Operation, LatencyHistogram.Snapshot> previous = snapshots();
+    long[] previousNanos = {System.nanoTime()};
+
+    logging.scheduleAtFixedRate(
+      () -> {
+        EnumMap<Operation, LatencyHistogram.Snapshot> current = snapshots();
+        long now = System.nanoTime();
+        logger.info(logLine(current, previous, (now - previousNanos[0]) / 1_000_000_000.0));
+        previous.putAll(current);
+        previousNanos[0] = now;
+      },
+      interval.toMillis(),
+      interval.toMillis(),
+      TimeUnit.MILLISECONDS
+    );
+  }
+
+  private EnumMap<Operation, LatencyHistogram.Snapshot> snapshots() {
+    EnumMap<Operation, LatencyHistogram.Snapshot> snapshots = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values())
+      snapshots.put(operation, operations.get(operation).latency().snapshot());
+    return snapshots;
+  }
+
+  String logLine(EnumMap<Operation, LatencyHistogram.Snapshot> current, EnumMap<Operation, LatencyHistogram.Snapshot> previous, double seconds) {
+    StringBuilder line = new StringBuilder(name);
+    for (Operation operation : Operation.values()) {
+      LatencyHistogram.Snapshot interval = current.get(operation).minus(previous.get(operation));
+      //skip idle operations to keep the line short.
+      if (interval.count() == 0)
+        continue;
+
+      line.append(
+        String.format(
+          Locale.ROOT,
+          " | %s %.0f/s p50=%.1fus p99=%.1fus p999=%.1fus",
+          operations.get(operation).name(),
+          interval.count() / seconds,
+          interval.percentile(50) / 1000.0,
+          interval.percentile(99) / 1000.0,
+          interval.percentile(99.9) / 1000.0
+        )
+      );
+    }
+    return line.toString();
+  }
+
+  /**
+   * Stops logging and unregisters the MBeans.
+   */
+  @Override
+  public synchronized void close() throws JMException {
+    if (logging != null) {
+      logging.shutdown();
+      logging = null;
+    }
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (ObjectName objectName : registered)
+      server.unregisterMBean(objectName);
+    registered.clear();
+  }
+}
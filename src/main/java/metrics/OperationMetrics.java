@@ -0,0 +1,111 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, batch size and serializer time of one operation.
+ * Batch size is only recorded for operations that write many key-values.
+ * <p>
+ * Serializer time is the time spent in serializers created by {@link MapMetrics#keySerializer}
+ * and {@link MapMetrics#valueSerializer} on the calling thread during the operation. The rest is storage time.
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+  private final String name;
+  private final long createdAt = System.nanoTime();
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final LatencyHistogram batchSize = new LatencyHistogram();
+  private final LongAdder serializerNanos = new LongAdder();
+
+  OperationMetrics(String name) {
+    this.name = name;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public void record(long nanos, long serializerNanos) {
+    latency.record(nanos);
+    if (serializerNanos > 0)
+      this.serializerNanos.add(serializerNanos);
+  }
+
+  public void record(long nanos, long serializerNanos, long batchSize) {
+    record(nanos, serializerNanos);
+    this.batchSize.record(batchSize);
+  }
+
+  public LatencyHistogram latency() {
+    return latency;
+  }
+
+  public LatencyHistogram batchSize() {
+    return batchSize;
+  }
+
+  public long serializerNanos() {
+    return serializerNanos.sum();
+  }
+
+  private static double micros(double nanos) {
+    return nanos / 1000;
+  }
+
+  @Override
+  public long getCount() {
+    return latency.snapshot().count();
+  }
+
+  @Override
+  public double getRatePerSecond() {
+    double seconds = (System.nanoTime() - createdAt) / 1_000_000_000.0;
+    return getCount() / seconds;
+  }
+
+  @Override
+  public double getMeanMicros() {
+    return micros(latency.snapshot().mean());
+  }
+
+  @Override
+  public double getP50Micros() {
+    return micros(latency.snapshot().percentile(50));
+  }
+
+  @Override
+  public double getP90Micros() {
+    return micros(latency.snapshot().percentile(90));
+  }
+
+  @Override
+  public double getP99Micros() {
+    return micros(latency.snapshot().percentile(99));
+  }
+
+  @Override
+  public double getP999Micros() {
+    return micros(latency.snapshot().percentile(99.9));
+  }
+
+  @Override
+  public double getMaxMicros() {
+    return micros(latency.snapshot().max());
+  }
+
+  @Override
+  public double getMeanBatchSize() {
+    return batchSize.snapshot().mean();
+  }
+
+  @Override
+  public double getMeanSerializerMicros() {
+    long count = getCount();
+    return count == 0 ? 0 : micros((double) serializerNanos() / count);
+  }
+
+  @Override
+  public double getMeanStorageMicros() {
+    return Math.max(0, getMeanMicros() - getMeanSerializerMicros());
+  }
+}
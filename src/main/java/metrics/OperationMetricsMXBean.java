@@ -0,0 +1,31 @@
+package metrics;
+
+/**
+ * JMX view of the {@link OperationMetrics} of one operation of an {@link InstrumentedMap}.
+ * Latencies are in microseconds since the map was instrumented.
+ */
+public interface OperationMetricsMXBean {
+
+  long getCount();
+
+  double getRatePerSecond();
+
+  double getMeanMicros();
+
+  double getP50Micros();
+
+  double getP90Micros();
+
+  double getP99Micros();
+
+  double getP999Micros();
+
+  double getMaxMicros();
+
+  //0 for single key operations.
+  double getMeanBatchSize();
+
+  double getMeanSerializerMicros();
+
+  double getMeanStorageMicros();
+}
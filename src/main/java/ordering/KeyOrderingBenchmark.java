@@ -0,0 +1,127 @@
+package ordering;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.persistent.PersistentMap;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Reverse ordered persistent maps with the typed comparator from {@link ReverseOrderingTest} compared
+ * to {@link OrderedSerializers#intSerializer()} descending with the default byte comparator.
+ * <p>
+ * bulkInsert writes keyCount keys in batches of batchSize into an empty map.
+ * rangeScan reads rangeSize keys from a random key of a map pre-loaded with keyCount keys.
+ */
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class KeyOrderingBenchmark {
+
+  public enum Ordering {
+    TYPED_COMPARATOR,
+    BYTE_COMPARATOR;
+
+    Map<Integer, Integer, Void> create() {
+      switch (this) {
+        case TYPED_COMPARATOR:
+          return
+            PersistentMap
+              .functionsOff(BenchmarkMaps.directory(name()), intSerializer(), intSerializer())
+              .setTypedKeyComparator((Integer key1, Integer key2) -> key1.compareTo(key2) * -1)
+              .get();
+
+        case BYTE_COMPARATOR:
+          return
+            PersistentMap
+              .functionsOff(BenchmarkMaps.directory(name()), OrderedSerializers.intSerializer().descending(), intSerializer())
+              .get();
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class EmptyMap {
+    @Param({"TYPED_COMPARATOR", "BYTE_COMPARATOR"})
+    Ordering ordering;
+
+    @Param("10000000")
+    int keyCount;
+
+    @Param("10000")
+    int batchSize;
+
+    Map<Integer, Integer, Void> map;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+      map = ordering.create();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      map.delete();
+    }
+  }
+
+  @State(Scope.Benchmark)
+  public static class LoadedMap {
+    @Param({"TYPED_COMPARATOR", "BYTE_COMPARATOR"})
+    Ordering ordering;
+
+    @Param("10000000")
+    int keyCount;
+
+    @Param("1000")
+    int rangeSize;
+
+    Map<Integer, Integer, Void> map;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      map = ordering.create();
+      for (int from = 1; from <= keyCount; from += 100000)
+        map.put(Stream.range(from, Math.min(from + 100000 - 1, keyCount)).map(KeyVal::of));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      map.delete();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public void bulkInsert(EmptyMap state) {
+    for (int from = 1; from <= state.keyCount; from += state.batchSize)
+      state.map.put(Stream.range(from, Math.min(from + state.batchSize - 1, state.keyCount)).map(KeyVal::of));
+  }
+
+  //keys are in reverse order so the scan reads from a key down to key - rangeSize.
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @Warmup(iterations = 3, time = 2)
+  @Measurement(iterations = 5, time = 2)
+  public Integer rangeScan(LoadedMap state) {
+    int from = ThreadLocalRandom.current().nextInt(state.rangeSize, state.keyCount + 1);
+    int to = from - state.rangeSize + 1;
+
+    return
+      state.map
+        .stream()
+        .from(from)
+        .takeWhile(keyVal -> keyVal.key() >= to)
+        .foldLeft(0, (sum, keyVal) -> sum + keyVal.value());
+  }
+}
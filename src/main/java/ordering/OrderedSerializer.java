@@ -0,0 +1,123 @@
+package ordering;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+/**
+ * A key {@link Serializer} whose serialized bytes compare with an unsigned lexicographic byte comparator
+ * (SwayDB's default, see {@link swaydb.java.KeyComparator#lexicographic()}) in the same order as the keys.
+ * <p>
+ * Unlike a typed comparator set with setTypedKeyComparator, ordering keys serialized with an OrderedSerializer
+ * never deserializes keys. {@link #descending()} reverses the order by inverting all bits.
+ * <p>
+ * Instances are created by {@link OrderedSerializers}.
+ */
+public abstract class OrderedSerializer<T> implements Serializer<T> {
+
+  /**
+   * Position in the array backing a Slice. Bytes are XORed with mask which is 0xFF in descending order.
+   * <p>
+   * Written slices are backed by a Byte[]. Slices read from persistent Segments are backed by a byte[].
+   */
+  static final class Cursor {
+    final Byte[] bytes;
+    final byte[] primitiveBytes;
+    //end of the slice, exclusive.
+    final int limit;
+    int position;
+    int mask;
+
+    Cursor(Byte[] bytes, int position, int limit) {
+      this.bytes = bytes;
+      this.primitiveBytes = null;
+      this.position = position;
+      this.limit = limit;
+    }
+
+    Cursor(byte[] primitiveBytes, int position, int limit) {
+      this.bytes = null;
+      this.primitiveBytes = primitiveBytes;
+      this.position = position;
+      this.limit = limit;
+    }
+
+    int remaining() {
+      return limit - position;
+    }
+
+    void put(int value) {
+      bytes[position++] = (byte) (value ^ mask);
+    }
+
+    int next() {
+      int value = bytes != null ? bytes[position++] : primitiveBytes[position++];
+      return (value ^ mask) & 0xFF;
+    }
+
+    void flip() {
+      mask ^= 0xFF;
+    }
+  }
+
+  OrderedSerializer() {
+  }
+
+  /**
+   * Serialized size in bytes.
+   */
+  abstract int size(T data);
+
+  abstract void write(T data, Cursor cursor);
+
+  abstract T read(Cursor cursor);
+
+  @Override
+  public final Slice<Byte> write(T data) {
+    Byte[] bytes = new Byte[size(data)];
+    write(data, new Cursor(bytes, 0, bytes.length));
+    return Slice.ofJava(bytes);
+  }
+
+  @Override
+  public final T read(Slice<Byte> slice) {
+    Object array = slice.unsafeInnerArray();
+    if (array instanceof Byte[])
+      return read(new Cursor((Byte[]) array, slice.fromOffset(), slice.fromOffset() + slice.size()));
+    else
+      return read(new Cursor((byte[]) array, slice.fromOffset(), slice.fromOffset() + slice.size()));
+  }
+
+  /**
+   * Same serializer in reverse order.
+   */
+  public OrderedSerializer<T> descending() {
+    OrderedSerializer<T> ascending = this;
+
+    return new OrderedSerializer<T>() {
+      @Override
+      int size(T data) {
+        return ascending.size(data);
+      }
+
+      @Override
+      void write(T data, Cursor cursor) {
+        cursor.flip();
+        ascending.write(data, cursor);
+        cursor.flip();
+      }
+
+      @Override
+      T read(Cursor cursor) {
+        cursor.flip();
+        T data = ascending.read(cursor);
+        cursor.flip();
+        return data;
+      }
+
+      @Override
+      public OrderedSerializer<T> descending() {
+        return ascending;
+      }
+    };
+  }
+}
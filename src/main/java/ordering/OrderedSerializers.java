@@ -0,0 +1,172 @@
+package ordering;
+
+import swaydb.Pair;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Order preserving key serializers.
+ * <p>
+ * <ul>
+ * <li>int and long are big-endian with the sign bit flipped so negative numbers order before positive numbers.
+ * Unlike {@link swaydb.java.serializers.Default#intSerializer()} which orders negative numbers last.</li>
+ * <li>String is UTF-8, ordered by code point, with 0x00 bytes escaped as 0x00 0xFF and terminated by 0x00 0x00
+ * so that a String followed by other components still orders by the String first.</li>
+ * <li>Pair orders by left and then by right. Each component can be ascending or descending, eg:
+ * pairSerializer(stringSerializer(), longSerializer().descending()) orders by name and then newest first.</li>
+ * </ul>
+ */
+public final class OrderedSerializers {
+
+  private OrderedSerializers() {
+  }
+
+  private static final OrderedSerializer<Integer> intSerializer =
+    new OrderedSerializer<Integer>() {
+      @Override
+      int size(Integer data) {
+        return Integer.BYTES;
+      }
+
+      @Override
+      void write(Integer data, Cursor cursor) {
+        int value = data ^ Integer.MIN_VALUE;
+        cursor.put(value >>> 24);
+        cursor.put(value >>> 16);
+        cursor.put(value >>> 8);
+        cursor.put(value);
+      }
+
+      @Override
+      Integer read(Cursor cursor) {
+        int value =
+          cursor.next() << 24 |
+            cursor.next() << 16 |
+            cursor.next() << 8 |
+            cursor.next();
+
+        return value ^ Integer.MIN_VALUE;
+      }
+    };
+
+  private static final OrderedSerializer<Long> longSerializer =
+    new OrderedSerializer<Long>() {
+      @Override
+      int size(Long data) {
+        return Long.BYTES;
+      }
+
+      @Override
+      void write(Long data, Cursor cursor) {
+        long value = data ^ Long.MIN_VALUE;
+        for (int shift = 56; shift >= 0; shift -= 8)
+          cursor.put((int) (value >>> shift));
+      }
+
+      @Override
+      Long read(Cursor cursor) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++)
+          value = value << 8 | cursor.next();
+
+        return value ^ Long.MIN_VALUE;
+      }
+    };
+
+  private static final OrderedSerializer<String> stringSerializer =
+    new OrderedSerializer<String>() {
+      @Override
+      int size(String data) {
+        //each NUL character is encoded as a zero byte followed by the 0xFF escape byte.
+        int zeros = 0;
+        for (int i = 0; i < data.length(); i++)
+          if (data.charAt(i) == 0)
+            zeros++;
+
+        return utf8Length(data) + zeros + 2;
+      }
+
+      @Override
+      void write(String data, Cursor cursor) {
+        for (byte value : data.getBytes(StandardCharsets.UTF_8)) {
+          cursor.put(value);
+          if (value == 0)
+            cursor.put(0xFF);
+        }
+        cursor.put(0);
+        cursor.put(0);
+      }
+
+      @Override
+      String read(Cursor cursor) {
+        byte[] utf8 = new byte[cursor.remaining()];
+        int length = 0;
+
+        while (true) {
+          int value = cursor.next();
+          if (value == 0 && cursor.next() == 0)
+            return new String(utf8, 0, length, StandardCharsets.UTF_8);
+
+          utf8[length++] = (byte) value;
+        }
+      }
+    };
+
+  static int utf8Length(String string) {
+    int length = 0;
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        length += 1;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+        length += 4;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        //unpaired surrogates are encoded as '?'.
+        length += 1;
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  public static OrderedSerializer<Integer> intSerializer() {
+    return intSerializer;
+  }
+
+  public static OrderedSerializer<Long> longSerializer() {
+    return longSerializer;
+  }
+
+  public static OrderedSerializer<String> stringSerializer() {
+    return stringSerializer;
+  }
+
+  /**
+   * Orders pairs by left and then by right.
+   */
+  public static <L, R> OrderedSerializer<Pair<L, R>> pairSerializer(OrderedSerializer<L> left, OrderedSerializer<R> right) {
+    return new OrderedSerializer<Pair<L, R>>() {
+      @Override
+      int size(Pair<L, R> data) {
+        return left.size(data.left()) + right.size(data.right());
+      }
+
+      @Override
+      void write(Pair<L, R> data, Cursor cursor) {
+        left.write(data.left(), cursor);
+        right.write(data.right(), cursor);
+      }
+
+      @Override
+      Pair<L, R> read(Cursor cursor) {
+        L leftData = left.read(cursor);
+        R rightData = right.read(cursor);
+        return Pair.of(leftData, rightData);
+      }
+    };
+  }
+}
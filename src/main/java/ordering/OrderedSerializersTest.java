@@ -0,0 +1,136 @@
+package ordering;
+
+import org.junit.jupiter.api.Test;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.java.KeyComparator;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class OrderedSerializersTest {
+
+  /**
+   * Same as {@link ReverseOrderingTest} without a typed comparator.
+   */
+  @Test
+  void reverseWithByteComparator() {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(OrderedSerializers.intSerializer().descending(), intSerializer())
+        //the default comparator. Keys are never deserialized to be ordered.
+        .setByteKeyComparator(KeyComparator.lexicographic())
+        .get();
+
+    IntStream
+      .rangeClosed(1, 100)
+      .forEach(integer -> map.put(integer, integer));
+
+    List<Integer> expected =
+      IntStream
+        .rangeClosed(1, 100)
+        .map(i -> 100 - i + 1)
+        .boxed()
+        .collect(Collectors.toList());
+
+    assertEquals(expected, map.keys().materialize());
+
+    map.delete();
+  }
+
+  @Test
+  void negativeNumbersOrderFirst() {
+    Map<Long, Integer, Void> map =
+      MemoryMap
+        .functionsOff(OrderedSerializers.longSerializer(), intSerializer())
+        .get();
+
+    List<Long> keys = Arrays.asList(Long.MIN_VALUE, -100L, -1L, 0L, 1L, 100L, Long.MAX_VALUE);
+
+    List<Long> shuffled = new ArrayList<>(keys);
+    Collections.shuffle(shuffled);
+    shuffled.forEach(key -> map.put(key, 1));
+
+    assertEquals(keys, map.keys().materialize());
+
+    map.delete();
+  }
+
+  @Test
+  void compositeKeys() {
+    //order by name and then by time, newest first.
+    OrderedSerializer<Pair<String, Long>> serializer =
+      OrderedSerializers.pairSerializer(OrderedSerializers.stringSerializer(), OrderedSerializers.longSerializer().descending());
+
+    Map<Pair<String, Long>, Integer, Void> map =
+      MemoryMap
+        .functionsOff(serializer, intSerializer())
+        .get();
+
+    List<Pair<String, Long>> keys =
+      Arrays.asList(
+        Pair.of("", 1L),
+        Pair.of("a", 2L),
+        Pair.of("a", 1L),
+        Pair.of("a\u0000", 5L),
+        Pair.of("ab", 3L),
+        Pair.of("b", 10L),
+        Pair.of("b", -10L),
+        Pair.of("é", 1L),
+        Pair.of("😀", 1L)
+      );
+
+    List<Pair<String, Long>> shuffled = new ArrayList<>(keys);
+    Collections.shuffle(shuffled);
+    shuffled.forEach(key -> map.put(key, 1));
+
+    assertEquals(keys, map.keys().materialize());
+
+    for (Pair<String, Long> key : keys)
+      assertEquals(key, serializer.read(serializer.write(key)));
+
+    map.delete();
+  }
+
+  @Test
+  void readKeysFromPersistentSegments() throws IOException {
+    Path directory = Files.createTempDirectory("orderedSerializersTest");
+    OrderedSerializer<Pair<String, Long>> serializer =
+      OrderedSerializers.pairSerializer(OrderedSerializers.stringSerializer(), OrderedSerializers.longSerializer());
+
+    Map<Pair<String, Long>, Integer, Void> map =
+      PersistentMap
+        .functionsOff(directory, serializer, intSerializer())
+        .get();
+
+    map.put(Stream.range(1, 1000).map(integer -> KeyVal.of(Pair.of("key", (long) integer), integer)));
+    map.close();
+
+    //reopened so keys are read back from Segments.
+    Map<Pair<String, Long>, Integer, Void> reopened =
+      PersistentMap
+        .functionsOff(directory, serializer, intSerializer())
+        .get();
+
+    assertEquals(Pair.of("key", 1L), reopened.keys().head().get());
+    assertEquals(Optional.of(500), reopened.get(Pair.of("key", 500L)));
+    assertEquals(1000, reopened.keys().count());
+
+    reopened.delete();
+  }
+}
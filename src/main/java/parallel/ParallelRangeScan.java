@@ -0,0 +1,251 @@
+package parallel;
+
+import swaydb.KeyVal;
+import swaydb.java.MapT;
+import swaydb.java.Stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Parallel version of the sequential range scan and range update in {@link quickstart.QuickStart_Map_Simple}.
+ * <p>
+ * A key range [from, to] is split into partitions at the given split points and each partition is streamed
+ * by its own task on a {@link ForkJoinPool}. Split points can be supplied by the caller or sampled
+ * with {@link #sampleSplitPoints(Object, Object, int, int)}.
+ * <p>
+ * The keyOrder comparator must order keys the same way as the map, eg: the default ordering of
+ * {@link swaydb.java.serializers.Default#intSerializer()} orders non-negative integers
+ * by {@link Comparator#naturalOrder()}.
+ */
+public class ParallelRangeScan<K, V> {
+
+  /**
+   * Keys in [from, to) or [from, to] if toInclusive.
+   */
+  public static final class Partition<K> {
+    final K from;
+    final K to;
+    final boolean toInclusive;
+
+    Partition(K from, K to, boolean toInclusive) {
+      this.from = from;
+      this.to = to;
+      this.toInclusive = toInclusive;
+    }
+
+    public K from() {
+      return from;
+    }
+
+    public K to() {
+      return to;
+    }
+
+    public boolean toInclusive() {
+      return toInclusive;
+    }
+
+    @Override
+    public String toString() {
+      return "[" + from + ", " + to + (toInclusive ? "]" : ")");
+    }
+  }
+
+  private final MapT<K, V, ?> map;
+  private final Comparator<? super K> keyOrder;
+  private final ForkJoinPool pool;
+
+  public ParallelRangeScan(MapT<K, V, ?> map, Comparator<? super K> keyOrder) {
+    this(map, keyOrder, ForkJoinPool.commonPool());
+  }
+
+  public ParallelRangeScan(MapT<K, V, ?> map, Comparator<? super K> keyOrder, ForkJoinPool pool) {
+    this.map = map;
+    this.keyOrder = keyOrder;
+    this.pool = pool;
+  }
+
+  /**
+   * Splits [from, to] at the split points. Split points outside (from, to] are ignored.
+   */
+  public List<Partition<K>> partitions(K from, K to, List<K> splitPoints) {
+    List<K> sorted = new ArrayList<>(splitPoints);
+    sorted.sort(keyOrder);
+
+    List<Partition<K>> partitions = new ArrayList<>(sorted.size() + 1);
+    K start = from;
+    for (K split : sorted)
+      if (keyOrder.compare(split, start) > 0 && keyOrder.compare(split, to) <= 0) {
+        partitions.add(new Partition<>(start, split, false));
+        start = split;
+      }
+
+    partitions.add(new Partition<>(start, to, true));
+    return partitions;
+  }
+
+  /**
+   * Picks split points that divide the existing keys in [from, to] into partitions of roughly equal size
+   * from a reservoir sample of sampleSize keys.
+   * <p>
+   * Sampling is a sequential pass over the keys of the range so the split points should be
+   * reused for repeated scans of the same range.
+   */
+  public List<K> sampleSplitPoints(K from, K to, int partitions, int sampleSize) {
+    List<K> sample = new ArrayList<>(sampleSize);
+    long[] seen = {0};
+
+    partition(new Partition<>(from, to, true))
+      .forEach(
+        keyVal -> {
+          long index = seen[0]++;
+          if (index < sampleSize) {
+            sample.add(keyVal.key());
+          } else {
+            long replace = ThreadLocalRandom.current().nextLong(index + 1);
+            if (replace < sampleSize)
+              sample.set((int) replace, keyVal.key());
+          }
+        }
+      );
+
+    sample.sort(keyOrder);
+
+    List<K> splitPoints = new ArrayList<>(partitions - 1);
+    for (int i = 1; i < partitions && !sample.isEmpty(); i++) {
+      K split = sample.get(i * sample.size() / partitions);
+      //skip duplicates when there are fewer sampled keys than partitions.
+      if (splitPoints.isEmpty() || keyOrder.compare(splitPoints.get(splitPoints.size() - 1), split) < 0)
+        splitPoints.add(split);
+    }
+    return splitPoints;
+  }
+
+  /**
+   * Stream of the key-values in the partition.
+   */
+  public Stream<KeyVal<K, V>> partition(Partition<K> partition) {
+    //fromOrAfter because from might not exist.
+    return
+      map
+        .fromOrAfter(partition.from)
+        .stream()
+        .takeWhile(
+          keyVal -> {
+            int compare = keyOrder.compare(keyVal.key(), partition.to);
+            return compare < 0 || (compare == 0 && partition.toInclusive);
+          }
+        );
+  }
+
+  private <R> List<R> runAll(List<Partition<K>> partitions, Function<Partition<K>, R> task) {
+    List<ForkJoinTask<R>> tasks = new ArrayList<>(partitions.size());
+    for (Partition<K> partition : partitions)
+      tasks.add(pool.submit(() -> task.apply(partition)));
+
+    List<R> results = new ArrayList<>(tasks.size());
+    for (ForkJoinTask<R> submitted : tasks)
+      results.add(submitted.join());
+    return results;
+  }
+
+  /**
+   * Reads the partitions in parallel and passes the key-values to the consumer in key order on the calling thread.
+   * <p>
+   * Partitions are buffered until all preceding partitions are consumed so memory use can be as large as the range.
+   */
+  public void forEachOrdered(K from, K to, List<K> splitPoints, Consumer<KeyVal<K, V>> consumer) {
+    List<Partition<K>> partitions = partitions(from, to, splitPoints);
+
+    List<ForkJoinTask<List<KeyVal<K, V>>>> tasks = new ArrayList<>(partitions.size());
+    for (Partition<K> partition : partitions)
+      tasks.add(pool.submit(() -> partition(partition).materialize()));
+
+    for (ForkJoinTask<List<KeyVal<K, V>>> task : tasks)
+      task.join().forEach(consumer);
+  }
+
+  /**
+   * Same as {@link #forEachOrdered(Object, Object, List, Consumer)} but returns the key-values as a list.
+   */
+  public List<KeyVal<K, V>> materialize(K from, K to, List<K> splitPoints) {
+    List<KeyVal<K, V>> keyValues = new ArrayList<>();
+    forEachOrdered(from, to, splitPoints, keyValues::add);
+    return keyValues;
+  }
+
+  /**
+   * Passes the key-values to the consumer concurrently from the pool's threads in no particular order.
+   */
+  public void forEachUnordered(K from, K to, List<K> splitPoints, Consumer<KeyVal<K, V>> consumer) {
+    runAll(
+      partitions(from, to, splitPoints),
+      partition -> {
+        partition(partition).forEach(consumer);
+        return null;
+      }
+    );
+  }
+
+  /**
+   * Folds each partition in parallel starting from identity and combines the partition results.
+   * The accumulator and the combiner must not depend on the order of key-values.
+   */
+  public <R> R fold(K from, K to, List<K> splitPoints, R identity, BiFunction<R, KeyVal<K, V>, R> accumulator, BinaryOperator<R> combiner) {
+    List<R> results = runAll(partitions(from, to, splitPoints), partition -> partition(partition).foldLeft(identity, accumulator::apply));
+
+    R result = identity;
+    for (R partitionResult : results)
+      result = combiner.apply(result, partitionResult);
+    return result;
+  }
+
+  /**
+   * Parallel version of the range update pattern. Each partition's updated key-values are written as one
+   * atomic map.put(Stream) batch so the update is atomic per partition but not for the whole range.
+   *
+   * @return the number of key-values written.
+   */
+  public long update(K from, K to, List<K> splitPoints, Function<KeyVal<K, V>, KeyVal<K, V>> update) {
+    List<Integer> written =
+      runAll(
+        partitions(from, to, splitPoints),
+        partition -> {
+          List<KeyVal<K, V>> updated = partition(partition).map(update::apply).materialize();
+          //the map does not accept empty batches.
+          if (!updated.isEmpty())
+            map.put(updated);
+          return updated.size();
+        }
+      );
+
+    long total = 0;
+    for (int count : written)
+      total += count;
+    return total;
+  }
+
+  /**
+   * Evenly spaced split points for integer keys in [from, to].
+   */
+  public static List<Integer> evenSplitPoints(int from, int to, int partitions) {
+    if (partitions <= 1 || to <= from)
+      return Collections.emptyList();
+
+    long width = ((long) to - from + 1) / partitions;
+    List<Integer> splitPoints = new ArrayList<>(partitions - 1);
+    for (int i = 1; i < partitions && width > 0; i++)
+      splitPoints.add((int) (from + i * width));
+    return splitPoints;
+  }
+}
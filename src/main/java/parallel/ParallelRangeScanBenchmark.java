@@ -0,0 +1,82 @@
+package parallel;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of {@link ParallelRangeScan} over the number of cores. The range is split into one partition per core
+ * and each benchmark scans or updates the full range of keyCount key-values.
+ * <p>
+ * sequentialFold is the single threaded scan from {@link quickstart.QuickStart_Map_Simple}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelRangeScanBenchmark {
+
+  @Param({"MEMORY_FUNCTIONS_OFF", "PERSISTENT_FUNCTIONS_OFF"})
+  BenchmarkMaps.MapType mapType;
+
+  @Param({"1", "2", "4", "8", "16", "32"})
+  int parallelism;
+
+  @Param("1000000")
+  int keyCount;
+
+  Map<Integer, Integer, ?> map;
+  ForkJoinPool pool;
+  ParallelRangeScan<Integer, Integer> scan;
+  List<Integer> splitPoints;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map = mapType.create();
+    map.put(Stream.range(1, keyCount).map(KeyVal::of));
+
+    pool = new ForkJoinPool(parallelism);
+    scan = new ParallelRangeScan<>(map, Comparator.naturalOrder(), pool);
+    splitPoints = ParallelRangeScan.evenSplitPoints(1, keyCount, parallelism);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    pool.shutdown();
+    map.delete();
+  }
+
+  @Benchmark
+  public long sequentialFold() {
+    return
+      map
+        .stream()
+        .from(1)
+        .takeWhile(keyVal -> keyVal.key() <= keyCount)
+        .foldLeft(0L, (sum, keyVal) -> sum + keyVal.value());
+  }
+
+  @Benchmark
+  public long parallelFold() {
+    return scan.fold(1, keyCount, splitPoints, 0L, (sum, keyVal) -> sum + keyVal.value(), Long::sum);
+  }
+
+  @Benchmark
+  public int parallelOrdered() {
+    return scan.materialize(1, keyCount, splitPoints).size();
+  }
+
+  @Benchmark
+  public long parallelUpdate() {
+    return scan.update(1, keyCount, splitPoints, keyVal -> KeyVal.of(keyVal.key(), keyVal.value() + 1));
+  }
+}
@@ -0,0 +1,101 @@
+package parallel;
+
+import org.junit.jupiter.api.Test;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryMap;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class ParallelRangeScanTest {
+
+  @Test
+  void parallelScanIsSameAsSequentialScan() {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    map.put(Stream.range(1, 10000).map(KeyVal::of));
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ParallelRangeScan<Integer, Integer> scan = new ParallelRangeScan<>(map, Comparator.naturalOrder(), pool);
+
+    List<KeyVal<Integer, Integer>> sequential =
+      map
+        .stream()
+        .from(10)
+        .takeWhile(keyVal -> keyVal.key() <= 9000)
+        .materialize();
+
+    //split points outside the range are ignored.
+    assertEquals(sequential, scan.materialize(10, 9000, Arrays.asList(5000, 20, 9500, 2500)));
+    assertEquals(sequential, scan.materialize(10, 9000, ParallelRangeScan.evenSplitPoints(10, 9000, 16)));
+    assertEquals(sequential, scan.materialize(10, 9000, scan.sampleSplitPoints(10, 9000, 8, 100)));
+    assertEquals(sequential, scan.materialize(10, 9000, Collections.emptyList()));
+
+    long expectedSum = sequential.stream().mapToLong(KeyVal::value).sum();
+    assertEquals(expectedSum, (long) scan.fold(10, 9000, Arrays.asList(3000, 6000), 0L, (sum, keyVal) -> sum + keyVal.value(), Long::sum));
+
+    LongAdder count = new LongAdder();
+    scan.forEachUnordered(10, 9000, Arrays.asList(3000, 6000), keyVal -> count.increment());
+    assertEquals(sequential.size(), count.sum());
+
+    pool.shutdown();
+    map.delete();
+  }
+
+  @Test
+  void sampledSplitPointsBalancePartitions() {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    //keys are dense in 1 to 1000 and sparse after.
+    map.put(Stream.range(1, 1000).map(KeyVal::of));
+    map.put(Stream.range(1, 100).map(i -> KeyVal.of(1000 + i * 1000, i)));
+
+    ParallelRangeScan<Integer, Integer> scan = new ParallelRangeScan<>(map, Comparator.naturalOrder());
+
+    //sample is larger than the range so split points are exact.
+    List<Integer> splitPoints = scan.sampleSplitPoints(1, Integer.MAX_VALUE, 4, 10000);
+    assertEquals(Arrays.asList(276, 551, 826), splitPoints);
+
+    for (ParallelRangeScan.Partition<Integer> partition : scan.partitions(1, Integer.MAX_VALUE, splitPoints))
+      assertEquals(275, scan.partition(partition).count());
+
+    map.delete();
+  }
+
+  @Test
+  void parallelUpdateWritesEachPartition() {
+    Map<Integer, Integer, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), intSerializer())
+        .get();
+
+    map.put(Stream.range(1, 100).map(KeyVal::of));
+
+    ParallelRangeScan<Integer, Integer> scan = new ParallelRangeScan<>(map, Comparator.naturalOrder());
+
+    //same update as QuickStart_Map_Simple. Partition 200 to 300 is empty.
+    long updated = scan.update(10, 300, Arrays.asList(30, 60, 200), keyVal -> KeyVal.of(keyVal.key(), keyVal.value() + 5000000));
+    assertEquals(91, updated);
+
+    assertEquals(9, (int) map.get(9).get());
+    assertEquals(5000010, (int) map.get(10).get());
+    assertEquals(5000100, (int) map.get(100).get());
+
+    map.delete();
+  }
+}
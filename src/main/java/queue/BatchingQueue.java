@@ -0,0 +1,158 @@
+package queue;
+
+import swaydb.java.Queue;
+import swaydb.java.Stream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adds batch and blocking operations to a {@link Queue} for multiple producers and consumers.
+ * <p>
+ * {@link #take(Duration)} parks the consumer until an item is pushed through this instance
+ * instead of polling. Pushes made directly on the wrapped queue do not wake up consumers,
+ * they are seen on the next recheck which happens at least every {@link #RECHECK_INTERVAL}.
+ */
+public class BatchingQueue<A> {
+
+  public static final Duration RECHECK_INTERVAL = Duration.ofMillis(100);
+
+  private final Queue<A> queue;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  //pushes only take the lock if there are consumers to wake up.
+  private final AtomicInteger waitingConsumers = new AtomicInteger();
+
+  public BatchingQueue(Queue<A> queue) {
+    this.queue = queue;
+  }
+
+  public Queue<A> queue() {
+    return queue;
+  }
+
+  public void push(A item) {
+    queue.push(item);
+    signal(false);
+  }
+
+  public void push(A item, Duration expireAfter) {
+    queue.push(item, expireAfter);
+    signal(false);
+  }
+
+  /**
+   * Pushes all items atomically.
+   */
+  public void pushAll(Stream<A> items) {
+    queue.push(items);
+    signal(true);
+  }
+
+  public void pushAll(Iterable<A> items) {
+    //the queue does not accept empty batches.
+    if (items instanceof Collection && ((Collection<A>) items).isEmpty())
+      return;
+
+    queue.push(items);
+    signal(true);
+  }
+
+  private void signal(boolean all) {
+    if (waitingConsumers.get() > 0) {
+      lock.lock();
+      try {
+        if (all)
+          notEmpty.signalAll();
+        else
+          notEmpty.signal();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  public Optional<A> pop() {
+    return queue.pop();
+  }
+
+  /**
+   * Pops up to maxItems without blocking. Returns an empty list if the queue is empty.
+   */
+  public List<A> popBatch(int maxItems) {
+    List<A> batch = new ArrayList<>(Math.min(maxItems, 1024));
+    A item;
+    while (batch.size() < maxItems && (item = queue.popOrNull()) != null)
+      batch.add(item);
+    return batch;
+  }
+
+  /**
+   * Pops the next item, waiting up to timeout for an item to be pushed.
+   *
+   * @return empty if no item was available before the timeout.
+   */
+  public Optional<A> take(Duration timeout) throws InterruptedException {
+    A item = queue.popOrNull();
+    if (item != null)
+      return Optional.of(item);
+
+    long deadline = System.nanoTime() + timeout.toNanos();
+
+    lock.lock();
+    waitingConsumers.incrementAndGet();
+    try {
+      while (true) {
+        //recheck after registering as waiting so a concurrent push cannot be missed.
+        item = queue.popOrNull();
+        if (item != null)
+          return Optional.of(item);
+
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0)
+          return Optional.empty();
+
+        notEmpty.awaitNanos(Math.min(remaining, RECHECK_INTERVAL.toNanos()));
+      }
+    } finally {
+      waitingConsumers.decrementAndGet();
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits up to timeout for at least one item and then pops up to maxItems without waiting further.
+   *
+   * @return empty list if no item was available before the timeout.
+   */
+  public List<A> takeBatch(int maxItems, Duration timeout) throws InterruptedException {
+    List<A> batch = popBatch(maxItems);
+    if (!batch.isEmpty())
+      return batch;
+
+    Optional<A> first = take(timeout);
+    if (!first.isPresent())
+      return batch;
+
+    batch.add(first.get());
+    A item;
+    while (batch.size() < maxItems && (item = queue.popOrNull()) != null)
+      batch.add(item);
+    return batch;
+  }
+
+  public void close() {
+    queue.close();
+  }
+
+  public void delete() {
+    queue.delete();
+  }
+}
@@ -0,0 +1,115 @@
+package queue;
+
+import benchmark.BenchmarkMaps;
+import benchmark.BenchmarkRunner;
+import org.openjdk.jmh.annotations.*;
+import swaydb.java.Queue;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryQueue;
+import swaydb.java.persistent.PersistentQueue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Producer/consumer throughput of single push/pop calls (as in {@link QueueTest})
+ * against {@link BatchingQueue} batch pushes and blocking batch takes.
+ * <p>
+ * The pushed and popped counters report items per second. Run the main method
+ * to benchmark different numbers of producers and consumers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchingQueueBenchmark {
+
+  public enum Storage {
+    MEMORY,
+    PERSISTENT
+  }
+
+  @Param({"MEMORY", "PERSISTENT"})
+  Storage storage;
+
+  @Param("100")
+  int batchSize;
+
+  BatchingQueue<Integer> queue;
+  List<Integer> batch;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Items {
+    public long pushed;
+    public long popped;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      pushed = 0;
+      popped = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    Queue<Integer> swayQueue;
+    if (storage == Storage.MEMORY)
+      swayQueue = MemoryQueue.config(intSerializer()).get();
+    else
+      swayQueue = PersistentQueue.config(BenchmarkMaps.directory("queue"), intSerializer()).get();
+
+    queue = new BatchingQueue<>(swayQueue);
+    batch = Stream.range(1, batchSize).materialize();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    queue.delete();
+  }
+
+  @Benchmark
+  @Group("single")
+  public void singlePush(Items items) {
+    queue.queue().push(1);
+    items.pushed++;
+  }
+
+  //polls like QueueTest until an item is available.
+  @Benchmark
+  @Group("single")
+  public void singlePop(Items items) {
+    if (queue.queue().popOrNull() != null)
+      items.popped++;
+  }
+
+  @Benchmark
+  @Group("batch")
+  public void batchPush(Items items) {
+    queue.pushAll(batch);
+    items.pushed += batchSize;
+  }
+
+  @Benchmark
+  @Group("batch")
+  public void batchTake(Items items) throws InterruptedException {
+    items.popped += queue.takeBatch(batchSize, Duration.ofMillis(10)).size();
+  }
+
+  public static void main(String[] args) throws Exception {
+    BenchmarkRunner.runThreadGroupScaling(
+      BatchingQueueBenchmark.class,
+      "target/jmh-batching-queue.json",
+      new int[]{1, 1},
+      new int[]{1, 4},
+      new int[]{4, 1},
+      new int[]{4, 4},
+      new int[]{8, 8}
+    );
+  }
+}
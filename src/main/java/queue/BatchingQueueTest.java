@@ -0,0 +1,66 @@
+package queue;
+
+import org.junit.jupiter.api.Test;
+import swaydb.java.Stream;
+import swaydb.java.memory.MemoryQueue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class BatchingQueueTest {
+
+  @Test
+  void pushAllAndPopBatch() {
+    BatchingQueue<Integer> queue =
+      new BatchingQueue<>(
+        MemoryQueue
+          .config(intSerializer())
+          .get()
+      );
+
+    queue.pushAll(Stream.range(1, 10));
+
+    assertEquals(Arrays.asList(1, 2, 3, 4), queue.popBatch(4));
+    assertEquals(Arrays.asList(5, 6, 7, 8, 9, 10), queue.popBatch(100));
+    assertEquals(Collections.emptyList(), queue.popBatch(100));
+  }
+
+  @Test
+  void takeWaitsForPush() throws Exception {
+    BatchingQueue<Integer> queue =
+      new BatchingQueue<>(
+        MemoryQueue
+          .config(intSerializer())
+          .get()
+      );
+
+    //nothing pushed
+    assertEquals(Optional.empty(), queue.take(Duration.ofMillis(10)));
+
+    CompletableFuture<List<Integer>> consumer =
+      CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return queue.takeBatch(10, Duration.ofSeconds(10));
+          } catch (InterruptedException exception) {
+            throw new RuntimeException(exception);
+          }
+        }
+      );
+
+    Thread.sleep(50);
+    assertFalse(consumer.isDone());
+
+    queue.pushAll(Arrays.asList(1, 2, 3));
+    //woken up by the push, not by the 10 second timeout.
+    assertEquals(Arrays.asList(1, 2, 3), consumer.get(1, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,370 @@
+package scheduler;
+
+import expiry.ExpiryIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swaydb.KeyVal;
+import swaydb.Pair;
+import swaydb.Prepare;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static swaydb.java.serializers.Default.longSerializer;
+
+/**
+ * Jobs that become visible after a delay, the opposite of a {@link swaydb.java.Queue} item that expires.
+ * <p>
+ * Jobs are stored in a map keyed by (dueMillis, id) so the map is ordered by due time. {@link #claim(int, Duration)}
+ * atomically moves up to maxJobs due jobs to (now + visibilityTimeout, id), so a claimed job that is not
+ * acknowledged with {@link #ack(Job)} before its visibility timeout is due again and delivered to the next claim.
+ * Jobs are delivered at least once.
+ * <p>
+ * A {@link TimingWheel} holds timers for jobs due within {@link #LOAD_AHEAD}, up to maxTimers. A ticker thread
+ * advances it every tick and wakes {@link #take(int, Duration, Duration)} when a timer fires, so consumers do not poll
+ * the map. Later jobs, or jobs scheduled while the wheel was full, stay only in the map and are loaded into the wheel
+ * as time advances. The number of timers in memory is bounded whatever the number of pending jobs, and far future
+ * jobs never take the wheel's room from jobs that are due soon.
+ */
+public class DelayedJobScheduler<A> implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(DelayedJobScheduler.class);
+
+  public static final Duration TICK = Duration.ofMillis(10);
+  public static final Duration RECHECK_INTERVAL = Duration.ofMillis(100);
+  public static final Duration LOAD_AHEAD = Duration.ofSeconds(30);
+
+  private final Map<Pair<Long, Long>, Pair<Integer, A>, Void> jobs;
+  private final int maxTimers;
+  //ids are unique across restarts as long as fewer than 2^20 jobs are scheduled per millisecond.
+  private final AtomicLong ids = new AtomicLong(System.currentTimeMillis() << 20);
+
+  //guards the wheel and loadedUntil.
+  private final ReentrantLock wheelLock = new ReentrantLock();
+  private final Condition fired = wheelLock.newCondition();
+  private final TimingWheel wheel;
+  //every job due before this has a timer in the wheel or has fired.
+  private long loadedUntil;
+
+  //serializes claims and acks so a job is claimed once per visibility timeout.
+  private final ReentrantLock claimLock = new ReentrantLock();
+  //every job before this key has been claimed, so claims do not stream over the removed keys of claimed jobs.
+  private final AtomicReference<Pair<Long, Long>> claimFrom = new AtomicReference<>(Pair.of(0L, 0L));
+  //schedules hold the read lock and claims the write lock so a claim that moves claimFrom past a job has seen it.
+  private final ReentrantReadWriteLock claimFromLock = new ReentrantReadWriteLock();
+
+  private final ScheduledExecutorService ticker;
+
+  /**
+   * @param jobs      created with {@link #keySerializer()} and {@link #valueSerializer(Serializer)}.
+   * @param maxTimers maximum number of timers in the wheel.
+   */
+  public DelayedJobScheduler(Map<Pair<Long, Long>, Pair<Integer, A>, Void> jobs, int maxTimers) {
+    this.jobs = jobs;
+    this.maxTimers = maxTimers;
+
+    this.wheel = new TimingWheel(TICK.toMillis(), System.currentTimeMillis());
+    //jobs already in the map are loaded by the first tick.
+    this.loadedUntil = Long.MIN_VALUE;
+
+    this.ticker =
+      Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "delayed-job-scheduler-ticker");
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+    ticker.scheduleAtFixedRate(this::tick, 0, TICK.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public static Serializer<Pair<Long, Long>> keySerializer() {
+    return ExpiryIndex.keySerializer(longSerializer());
+  }
+
+  public static <A> Serializer<Pair<Integer, A>> valueSerializer(Serializer<A> payloadSerializer) {
+    return Job.valueSerializer(payloadSerializer);
+  }
+
+  public static <A> DelayedJobScheduler<A> memory(Serializer<A> payloadSerializer, int maxTimers) {
+    return
+      new DelayedJobScheduler<>(
+        MemoryMap
+          .functionsOff(keySerializer(), valueSerializer(payloadSerializer))
+          .get(),
+        maxTimers
+      );
+  }
+
+  public static <A> DelayedJobScheduler<A> persistent(Path directory, Serializer<A> payloadSerializer, int maxTimers) {
+    return
+      new DelayedJobScheduler<>(
+        PersistentMap
+          .functionsOff(directory, keySerializer(), valueSerializer(payloadSerializer))
+          .get(),
+        maxTimers
+      );
+  }
+
+  public Map<Pair<Long, Long>, Pair<Integer, A>, Void> jobs() {
+    return jobs;
+  }
+
+  /**
+   * Number of timers in the wheel.
+   */
+  public int timers() {
+    wheelLock.lock();
+    try {
+      return wheel.size();
+    } finally {
+      wheelLock.unlock();
+    }
+  }
+
+  private final TimingWheel.Expired signal = (due, id) -> fired.signalAll();
+
+  //called with the wheelLock held.
+  private void addTimer(long dueMillis, long id) {
+    if (dueMillis >= loadedUntil)
+      return;
+
+    if (wheel.size() < maxTimers && wheel.add(dueMillis, id, signal))
+      return;
+
+    //loaded again from the map once the wheel has room.
+    loadedUntil = dueMillis;
+  }
+
+  private void addTimers(List<Pair<Long, Long>> keys) {
+    wheelLock.lock();
+    try {
+      for (Pair<Long, Long> key : keys)
+        addTimer(key.left(), key.right());
+    } finally {
+      wheelLock.unlock();
+    }
+  }
+
+  /**
+   * @return the job's id.
+   */
+  public long schedule(A payload, Duration delay) {
+    return scheduleAll(Collections.singletonList(payload), delay).get(0);
+  }
+
+  /**
+   * Atomically schedules all payloads with the same delay.
+   *
+   * @return the jobs' ids.
+   */
+  public List<Long> scheduleAll(List<A> payloads, Duration delay) {
+    if (payloads.isEmpty())
+      return Collections.emptyList();
+
+    List<Long> scheduled = new ArrayList<>(payloads.size());
+    List<KeyVal<Pair<Long, Long>, Pair<Integer, A>>> entries = new ArrayList<>(payloads.size());
+    List<Pair<Long, Long>> keys = new ArrayList<>(payloads.size());
+
+    claimFromLock.readLock().lock();
+    try {
+      long due = System.currentTimeMillis() + delay.toMillis();
+      for (A payload : payloads) {
+        long id = ids.incrementAndGet();
+        Pair<Long, Long> key = Pair.of(due, id);
+        scheduled.add(id);
+        keys.add(key);
+        entries.add(KeyVal.of(key, Pair.of(0, payload)));
+      }
+
+      jobs.put(entries);
+      //the clock moved back or the delay is negative.
+      lowerClaimFrom(keys.get(0));
+    } finally {
+      claimFromLock.readLock().unlock();
+    }
+
+    addTimers(keys);
+    return scheduled;
+  }
+
+  private void lowerClaimFrom(Pair<Long, Long> key) {
+    claimFrom.accumulateAndGet(
+      key,
+      (from, lower) -> {
+        int compare = Long.compare(lower.left(), from.left());
+        return compare < 0 || (compare == 0 && lower.right() < from.right()) ? lower : from;
+      }
+    );
+  }
+
+  /**
+   * Claims up to maxJobs due jobs, oldest first, without waiting. They are delivered again after
+   * visibilityTimeout unless acknowledged.
+   */
+  public List<Job<A>> claim(int maxJobs, Duration visibilityTimeout) {
+    claimLock.lock();
+    try {
+      long now = System.currentTimeMillis();
+      List<KeyVal<Pair<Long, Long>, Pair<Integer, A>>> due;
+
+      claimFromLock.writeLock().lock();
+      try {
+        due =
+          jobs
+            .stream()
+            .fromOrAfter(claimFrom.get())
+            .takeWhile(job -> job.key().left() <= now)
+            .take(maxJobs)
+            .materialize();
+
+        if (due.isEmpty())
+          return Collections.emptyList();
+
+        Pair<Long, Long> last = due.get(due.size() - 1).key();
+        claimFrom.set(Pair.of(last.left(), last.right() + 1));
+      } finally {
+        claimFromLock.writeLock().unlock();
+      }
+
+      long visibleUntil = now + visibilityTimeout.toMillis();
+      List<Prepare<Pair<Long, Long>, Pair<Integer, A>, Void>> moves = new ArrayList<>(due.size() * 2);
+      List<Job<A>> claimed = new ArrayList<>(due.size());
+      List<Pair<Long, Long>> receipts = new ArrayList<>(due.size());
+
+      for (KeyVal<Pair<Long, Long>, Pair<Integer, A>> job : due) {
+        long id = job.key().right();
+        int attempts = job.value().left() + 1;
+        Job<A> claimedJob = new Job<>(id, job.value().right(), attempts, visibleUntil);
+
+        moves.add(Prepare.removeFromMap(job.key()));
+        moves.add(Prepare.put(claimedJob.receipt(), Pair.of(attempts, job.value().right())));
+        claimed.add(claimedJob);
+        receipts.add(claimedJob.receipt());
+      }
+
+      jobs.commit(moves);
+      //a zero visibility timeout puts receipts before claimFrom.
+      for (Pair<Long, Long> receipt : receipts)
+        lowerClaimFrom(receipt);
+      addTimers(receipts);
+      return claimed;
+    } finally {
+      claimLock.unlock();
+    }
+  }
+
+  /**
+   * Claims up to maxJobs due jobs, waiting up to timeout for a job to be due.
+   *
+   * @return an empty list if no job was due before the timeout.
+   */
+  public List<Job<A>> take(int maxJobs, Duration visibilityTimeout, Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+
+    while (true) {
+      List<Job<A>> claimed = claim(maxJobs, visibilityTimeout);
+      if (!claimed.isEmpty())
+        return claimed;
+
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0)
+        return claimed;
+
+      wheelLock.lock();
+      try {
+        fired.awaitNanos(Math.min(remaining, RECHECK_INTERVAL.toNanos()));
+      } finally {
+        wheelLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Removes a claimed job.
+   *
+   * @return false if the job's visibility timeout passed and it was claimed again or is due again.
+   */
+  public boolean ack(Job<A> job) {
+    claimLock.lock();
+    try {
+      if (job.visibleUntilMillis() <= System.currentTimeMillis() || !jobs.contains(job.receipt()))
+        return false;
+
+      jobs.remove(job.receipt());
+      return true;
+    } finally {
+      claimLock.unlock();
+    }
+  }
+
+  public void ack(List<Job<A>> claimed) {
+    for (Job<A> job : claimed)
+      ack(job);
+  }
+
+  /**
+   * Advances the wheel and loads timers of jobs that are due within {@link #LOAD_AHEAD}.
+   */
+  private void tick() {
+    wheelLock.lock();
+    try {
+      long now = System.currentTimeMillis();
+      wheel.advance(now, signal);
+
+      long horizon = Math.min(now + LOAD_AHEAD.toMillis(), wheel.horizonMillis());
+      if (loadedUntil > horizon || wheel.size() >= maxTimers)
+        return;
+
+      long from = loadedUntil == Long.MIN_VALUE ? 0 : loadedUntil;
+      int room = maxTimers - wheel.size();
+      List<Pair<Long, Long>> keys =
+        jobs
+          .stream()
+          .fromOrAfter(Pair.of(from, 0L))
+          .map(KeyVal::key)
+          .takeWhile(key -> key.left() <= horizon)
+          .take(room)
+          .materialize();
+
+      for (Pair<Long, Long> key : keys)
+        if (!wheel.add(key.left(), key.right(), signal))
+          throw new IllegalStateException("Unexpected timer beyond the horizon: " + key);
+
+      //when the wheel filled up the rest of the range is loaded by a later tick. Timers of jobs due at the
+      //last loaded time can be loaded twice which only wakes consumers twice.
+      loadedUntil = keys.size() == room ? keys.get(keys.size() - 1).left() : horizon + 1;
+    } catch (RuntimeException exception) {
+      //the executor stops ticking on exceptions.
+      logger.error("Tick failed", exception);
+    } finally {
+      wheelLock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    ticker.shutdownNow();
+    jobs.close();
+  }
+
+  public void delete() {
+    ticker.shutdownNow();
+    jobs.delete();
+  }
+}
@@ -0,0 +1,116 @@
+package scheduler;
+
+import benchmark.BenchmarkMaps;
+import benchmark.BenchmarkRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Sustained schedule and fire rates of {@link DelayedJobScheduler} with pendingJobs jobs scheduled a day ahead,
+ * so the map is large while the wheel holds at most maxTimers timers.
+ * <p>
+ * Schedulers add batches of jobs due after delayMillis and consumers take, then acknowledge, due jobs. The scheduled
+ * and fired counters report jobs per second. Run the main method to benchmark different numbers of schedulers and
+ * consumers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class DelayedJobSchedulerBenchmark {
+
+  public enum Storage {
+    MEMORY,
+    PERSISTENT
+  }
+
+  @Param({"MEMORY", "PERSISTENT"})
+  Storage storage;
+
+  @Param("10000000")
+  int pendingJobs;
+
+  @Param("100000")
+  int maxTimers;
+
+  @Param("100")
+  int batchSize;
+
+  @Param("50")
+  int delayMillis;
+
+  DelayedJobScheduler<Integer> scheduler;
+  List<Integer> batch;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Jobs {
+    public long scheduled;
+    public long fired;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      scheduled = 0;
+      fired = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setup() {
+    if (storage == Storage.MEMORY)
+      scheduler = DelayedJobScheduler.memory(intSerializer(), maxTimers);
+    else
+      scheduler = DelayedJobScheduler.persistent(BenchmarkMaps.directory("scheduler"), intSerializer(), maxTimers);
+
+    batch = new ArrayList<>(batchSize);
+    for (int i = 0; i < batchSize; i++)
+      batch.add(i);
+
+    List<Integer> pending = new ArrayList<>(10_000);
+    for (int i = 0; i < pendingJobs; i++) {
+      pending.add(i);
+      if (pending.size() == 10_000 || i == pendingJobs - 1) {
+        scheduler.scheduleAll(pending, Duration.ofDays(1));
+        pending.clear();
+      }
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    scheduler.delete();
+  }
+
+  @Benchmark
+  @Group("scheduleAndFire")
+  public void schedule(Jobs jobs) {
+    scheduler.scheduleAll(batch, Duration.ofMillis(delayMillis));
+    jobs.scheduled += batchSize;
+  }
+
+  @Benchmark
+  @Group("scheduleAndFire")
+  public void fire(Jobs jobs) throws InterruptedException {
+    List<Job<Integer>> claimed = scheduler.take(batchSize, Duration.ofMinutes(1), Duration.ofMillis(10));
+    scheduler.ack(claimed);
+    jobs.fired += claimed.size();
+  }
+
+  public static void main(String[] args) throws Exception {
+    BenchmarkRunner.runThreadGroupScaling(
+      DelayedJobSchedulerBenchmark.class,
+      "target/jmh-delayed-job-scheduler.json",
+      new int[]{1, 1},
+      new int[]{1, 4},
+      new int[]{4, 4}
+    );
+  }
+}
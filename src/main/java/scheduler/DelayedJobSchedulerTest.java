@@ -0,0 +1,103 @@
+package scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+class DelayedJobSchedulerTest {
+
+  @Test
+  void timingWheelFiresAtDueTick() {
+    long start = 1_000_000;
+    TimingWheel wheel = new TimingWheel(10, start);
+
+    //one timer per level and some in the same slot.
+    long[] delays = {10, 15, 15, 640, 650, 41_000, 2_700_000, 100_000_000};
+    List<long[]> firedAt = new ArrayList<>();
+    for (int i = 0; i < delays.length; i++)
+      assertTrue(wheel.add(start + delays[i], i, (due, id) -> fail("not due")));
+
+    //timers due in the current tick fire immediately.
+    List<Long> immediate = new ArrayList<>();
+    assertTrue(wheel.add(start + 5, -1, (due, id) -> immediate.add(id)));
+    assertEquals(Arrays.asList(-1L), immediate);
+
+    assertFalse(wheel.add(wheel.horizonMillis() + 1, -1, (due, id) -> fail("not due")));
+    assertEquals(delays.length, wheel.size());
+
+    long now = start;
+    while (wheel.size() > 0) {
+      now += 10;
+      long time = now;
+      wheel.advance(now, (due, id) -> firedAt.add(new long[]{id, due, time}));
+    }
+
+    assertEquals(delays.length, firedAt.size());
+    for (long[] fired : firedAt) {
+      //fires in the tick that contains its due time.
+      assertTrue(fired[2] >= fired[1] / 10 * 10, Arrays.toString(fired));
+      assertTrue(fired[2] < fired[1] + 10, Arrays.toString(fired));
+    }
+  }
+
+  @Test
+  void claimAckAndRedeliver() throws InterruptedException {
+    DelayedJobScheduler<String> scheduler = DelayedJobScheduler.memory(stringSerializer(), 1000);
+
+    long start = System.currentTimeMillis();
+    scheduler.scheduleAll(Arrays.asList("a", "b", "c"), Duration.ofMillis(300));
+    assertTrue(scheduler.claim(10, Duration.ofSeconds(1)).isEmpty());
+
+    List<Job<String>> claimed = scheduler.take(10, Duration.ofMillis(500), Duration.ofSeconds(5));
+    assertTrue(System.currentTimeMillis() - start >= 300);
+    assertEquals(3, claimed.size());
+    assertEquals("a", claimed.get(0).payload());
+    assertEquals(1, claimed.get(0).attempts());
+
+    //b is not acknowledged so it is delivered again after the visibility timeout.
+    assertTrue(scheduler.ack(claimed.get(0)));
+    assertTrue(scheduler.ack(claimed.get(2)));
+
+    List<Job<String>> redelivered = scheduler.take(10, Duration.ofSeconds(5), Duration.ofSeconds(5));
+    assertEquals(1, redelivered.size());
+    assertEquals("b", redelivered.get(0).payload());
+    assertEquals(2, redelivered.get(0).attempts());
+
+    //the first claim's receipt is stale.
+    assertFalse(scheduler.ack(claimed.get(1)));
+    assertTrue(scheduler.ack(redelivered.get(0)));
+    assertEquals(0, scheduler.jobs().count());
+    scheduler.delete();
+  }
+
+  @Test
+  void boundedTimers() throws InterruptedException {
+    DelayedJobScheduler<String> scheduler = DelayedJobScheduler.memory(stringSerializer(), 10);
+
+    List<String> payloads = new ArrayList<>();
+    for (int i = 0; i < 100; i++)
+      payloads.add("job-" + i);
+    scheduler.scheduleAll(payloads, Duration.ofMillis(200));
+    //later jobs are beyond what fits in the wheel.
+    scheduler.schedule("later", Duration.ofMinutes(5));
+
+    int claimed = 0;
+    while (claimed < 100) {
+      assertTrue(scheduler.timers() <= 10);
+      List<Job<String>> jobs = scheduler.take(7, Duration.ofMinutes(1), Duration.ofSeconds(5));
+      assertFalse(jobs.isEmpty());
+      scheduler.ack(jobs);
+      claimed += jobs.size();
+    }
+
+    assertEquals(100, claimed);
+    assertEquals(1, scheduler.jobs().count());
+    scheduler.delete();
+  }
+}
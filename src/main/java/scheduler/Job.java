@@ -0,0 +1,78 @@
+package scheduler;
+
+import swaydb.Pair;
+import swaydb.data.slice.Slice;
+import swaydb.data.util.ByteOps;
+import swaydb.java.serializers.Serializer;
+
+/**
+ * A job claimed from a {@link DelayedJobScheduler}. Acknowledge it with {@link DelayedJobScheduler#ack(Job)}
+ * before its visibility deadline or it is delivered again.
+ */
+public final class Job<A> {
+
+  private final long id;
+  private final A payload;
+  private final int attempts;
+  private final long visibleUntilMillis;
+
+  Job(long id, A payload, int attempts, long visibleUntilMillis) {
+    this.id = id;
+    this.payload = payload;
+    this.attempts = attempts;
+    this.visibleUntilMillis = visibleUntilMillis;
+  }
+
+  /**
+   * Serializes (attempts, payload), the value stored for a job. The due time and id are the key.
+   */
+  static <A> Serializer<Pair<Integer, A>> valueSerializer(Serializer<A> payloadSerializer) {
+    return new Serializer<Pair<Integer, A>>() {
+      @Override
+      public Slice<Byte> write(Pair<Integer, A> data) {
+        Slice<Byte> payload = payloadSerializer.write(data.right());
+        Slice<Byte> slice = Slice.ofBytesJava(Integer.BYTES + payload.size());
+        slice.addInt(data.left(), ByteOps.Java());
+        slice.addAll(payload);
+        return slice;
+      }
+
+      @Override
+      public Pair<Integer, A> read(Slice<Byte> slice) {
+        int attempts = ByteOps.Java().readInt(slice);
+        return Pair.of(attempts, payloadSerializer.read(slice.drop(Integer.BYTES)));
+      }
+    };
+  }
+
+  public long id() {
+    return id;
+  }
+
+  public A payload() {
+    return payload;
+  }
+
+  /**
+   * Number of times the job was claimed, including this claim.
+   */
+  public int attempts() {
+    return attempts;
+  }
+
+  /**
+   * The job is delivered again after this time unless acknowledged.
+   */
+  public long visibleUntilMillis() {
+    return visibleUntilMillis;
+  }
+
+  Pair<Long, Long> receipt() {
+    return Pair.of(visibleUntilMillis, id);
+  }
+
+  @Override
+  public String toString() {
+    return "Job(id = " + id + ", attempts = " + attempts + ", payload = " + payload + ")";
+  }
+}
@@ -0,0 +1,139 @@
+package scheduler;
+
+import java.util.Arrays;
+
+/**
+ * A hierarchical timing wheel of (dueMillis, id) timers, in the style of Varghese and Lauck's hashed hierarchical
+ * wheels as used by Kafka and the Linux kernel.
+ * <p>
+ * Level 0 has {@link #SLOTS} slots of tickMillis. Each higher level has {@link #SLOTS} slots of the lower level's
+ * span, so with {@link #LEVELS} levels and 10ms ticks timers up to about 46 hours ahead are accepted. Adding a timer
+ * is O(1) and each timer is moved at most once per level as time advances.
+ * <p>
+ * Not thread-safe, callers synchronize.
+ */
+final class TimingWheel {
+
+  static final int LEVELS = 4;
+  static final int SLOT_BITS = 6;
+  static final int SLOTS = 1 << SLOT_BITS;
+
+  interface Expired {
+    void fire(long dueMillis, long id);
+  }
+
+  /**
+   * Timers of one slot.
+   */
+  private static final class Slot {
+    long[] dues = new long[4];
+    long[] ids = new long[4];
+    int size;
+
+    void add(long due, long id) {
+      if (size == dues.length) {
+        dues = Arrays.copyOf(dues, size * 2);
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      dues[size] = due;
+      ids[size] = id;
+      size++;
+    }
+  }
+
+  private final long tickMillis;
+  private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+  //timers due at or before this tick have fired.
+  private long currentTick;
+  private int size;
+
+  TimingWheel(long tickMillis, long nowMillis) {
+    this.tickMillis = tickMillis;
+    this.currentTick = nowMillis / tickMillis;
+    for (Slot[] level : levels)
+      for (int i = 0; i < SLOTS; i++)
+        level[i] = new Slot();
+  }
+
+  /**
+   * Time up to which timers have fired.
+   */
+  long currentMillis() {
+    return currentTick * tickMillis;
+  }
+
+  /**
+   * Latest due time that is accepted by {@link #add(long, long)}.
+   */
+  long horizonMillis() {
+    long topTicks = 1L << (SLOT_BITS * (LEVELS - 1));
+    return ((currentTick / topTicks) + SLOTS) * topTicks * tickMillis - 1;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return false if the timer is beyond {@link #horizonMillis()}. Timers already due fire immediately.
+   */
+  boolean add(long dueMillis, long id, Expired expired) {
+    long dueTick = dueMillis / tickMillis;
+    if (dueTick <= currentTick) {
+      expired.fire(dueMillis, id);
+      return true;
+    }
+
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = SLOT_BITS * level;
+      long dueIndex = dueTick >>> shift;
+      //a timer never goes in the current slot of a level above 0 because the level below would have taken it.
+      if (dueIndex - (currentTick >>> shift) < SLOTS) {
+        levels[level][(int) (dueIndex & (SLOTS - 1))].add(dueMillis, id);
+        size++;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Fires all timers due up to nowMillis in due order of their ticks.
+   *
+   * @return number of fired timers.
+   */
+  int advance(long nowMillis, Expired expired) {
+    long targetTick = nowMillis / tickMillis;
+    int fired = 0;
+
+    while (currentTick < targetTick) {
+      currentTick++;
+
+      //moves the timers of each level whose slot starts at this tick to lower levels, highest level first.
+      for (int level = LEVELS - 1; level > 0; level--) {
+        int shift = SLOT_BITS * level;
+        if ((currentTick & ((1L << shift) - 1)) == 0) {
+          //timers of the slot are all added to lower levels, never back to this slot.
+          Slot slot = levels[level][(int) ((currentTick >>> shift) & (SLOTS - 1))];
+          size -= slot.size;
+          for (int i = 0; i < slot.size; i++) {
+            if (slot.dues[i] / tickMillis <= currentTick)
+              fired++;
+            add(slot.dues[i], slot.ids[i], expired);
+          }
+          slot.size = 0;
+        }
+      }
+
+      Slot slot = levels[0][(int) (currentTick & (SLOTS - 1))];
+      for (int i = 0; i < slot.size; i++)
+        expired.fire(slot.dues[i], slot.ids[i]);
+
+      fired += slot.size;
+      size -= slot.size;
+      slot.size = 0;
+    }
+
+    return fired;
+  }
+}
@@ -0,0 +1,52 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+
+/**
+ * Big-endian writes to a byte[] that is then wrapped in a {@link Slice}, and reads directly on the byte[] or
+ * Byte[] backing a Slice.
+ * <p>
+ * Same byte layout as {@link swaydb.data.util.ByteOps#Java()} but without going through a
+ * {@link swaydb.data.slice.SliceReader} or the Slice's write position for every value.
+ */
+final class ByteArrays {
+
+  private ByteArrays() {
+  }
+
+  static void writeInt(byte[] bytes, int offset, int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+
+  static void writeLong(byte[] bytes, int offset, long value) {
+    writeInt(bytes, offset, (int) (value >>> 32));
+    writeInt(bytes, offset + 4, (int) value);
+  }
+
+  static int readInt(Byte[] bytes, int offset) {
+    return
+      (bytes[offset] & 0xFF) << 24 |
+        (bytes[offset + 1] & 0xFF) << 16 |
+        (bytes[offset + 2] & 0xFF) << 8 |
+        (bytes[offset + 3] & 0xFF);
+  }
+
+  static long readLong(Byte[] bytes, int offset) {
+    return (long) readInt(bytes, offset) << 32 | (readInt(bytes, offset + 4) & 0xFFFFFFFFL);
+  }
+
+  static int readInt(byte[] bytes, int offset) {
+    return
+      (bytes[offset] & 0xFF) << 24 |
+        (bytes[offset + 1] & 0xFF) << 16 |
+        (bytes[offset + 2] & 0xFF) << 8 |
+        (bytes[offset + 3] & 0xFF);
+  }
+
+  static long readLong(byte[] bytes, int offset) {
+    return (long) readInt(bytes, offset) << 32 | (readInt(bytes, offset + 4) & 0xFFFFFFFFL);
+  }
+}
@@ -0,0 +1,97 @@
+package serializing;
+
+import org.openjdk.jmh.annotations.*;
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode throughput of {@link CompressedLongArraySerializers} against
+ * {@link SerialisingArrayExample#longArraySerializer}. Bytes per element of each serializer
+ * and data shape are printed at the start of each trial.
+ * <pre>
+ * java -jar target/benchmarks.jar CompressedLongArraySerializerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressedLongArraySerializerBenchmark {
+
+  public enum Data {
+    //millisecond timestamps about one second apart.
+    TIMESTAMPS,
+    //sorted ids with gaps of up to 100.
+    SORTED_IDS,
+    RANDOM;
+
+    long[] generate(int length, Random random) {
+      long[] array = new long[length];
+      long previous = 1_600_000_000_000L;
+      for (int i = 0; i < length; i++)
+        switch (this) {
+          case TIMESTAMPS:
+            previous += 1000 + random.nextInt(16);
+            array[i] = previous;
+            break;
+
+          case SORTED_IDS:
+            previous += 1 + random.nextInt(100);
+            array[i] = previous;
+            break;
+
+          default:
+            array[i] = random.nextLong();
+        }
+      return array;
+    }
+  }
+
+  public enum SerializerType {
+    EXAMPLE(SerialisingArrayExample.longArraySerializer),
+    DELTA_VARINT(CompressedLongArraySerializers.deltaVarint()),
+    FRAME_OF_REFERENCE(CompressedLongArraySerializers.frameOfReference());
+
+    final Serializer<long[]> serializer;
+
+    SerializerType(Serializer<long[]> serializer) {
+      this.serializer = serializer;
+    }
+  }
+
+  @Param({"1024", "65536"})
+  int arrayLength;
+
+  @Param({"TIMESTAMPS", "SORTED_IDS", "RANDOM"})
+  Data data;
+
+  @Param({"EXAMPLE", "DELTA_VARINT", "FRAME_OF_REFERENCE"})
+  SerializerType serializerType;
+
+  Serializer<long[]> serializer;
+  long[] array;
+  Slice<Byte> bytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    serializer = serializerType.serializer;
+    array = data.generate(arrayLength, new Random(42));
+    bytes = serializer.write(array);
+    System.out.printf("%n%s %s: %.2f bytes per element%n", serializerType, data, bytes.size() / (double) arrayLength);
+  }
+
+  @Benchmark
+  public Slice<Byte> encode() {
+    return serializer.write(array);
+  }
+
+  @Benchmark
+  public long[] decode() {
+    return serializer.read(bytes);
+  }
+}
@@ -0,0 +1,341 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.util.Arrays;
+
+/**
+ * Compressing serializers for long[] of sorted numbers and time series, eg: timestamps, where consecutive
+ * values are close to each other. {@link SerialisingArrayExample} writes 8 bytes per element.
+ * <p>
+ * Both serializers store the first value followed by the differences (deltas) of consecutive values.
+ * Deltas are zig-zag encoded so small negative deltas are small numbers too.
+ * <ul>
+ * <li>{@link #deltaVarint()}: each delta is a varint of 1 byte for deltas in [-64, 63], 2 bytes up to 8192, etc.</li>
+ * <li>{@link #frameOfReference()}: deltas are bit-packed in blocks of {@link #BLOCK_SIZE} using the number of
+ * bits needed by the block's largest delta minus its smallest. Decodes faster than varints and compresses
+ * regular series, eg: timestamps every second with jitter, to a few bits per element.</li>
+ * </ul>
+ * Slices are written backed by a byte[], the same as slices read from disk, so neither writes nor reads box bytes.
+ * {@link LongArraySerializer#read(Slice, long[])} decodes into an existing array.
+ */
+public final class CompressedLongArraySerializers {
+
+  public static final int BLOCK_SIZE = 128;
+
+  private CompressedLongArraySerializers() {
+  }
+
+  public static LongArraySerializer deltaVarint() {
+    return DeltaVarint.instance;
+  }
+
+  public static LongArraySerializer frameOfReference() {
+    return FrameOfReference.instance;
+  }
+
+  public abstract static class LongArraySerializer implements Serializer<long[]> {
+
+    LongArraySerializer() {
+    }
+
+    abstract void write(long[] data, Output output);
+
+    /**
+     * Decodes length values into target starting at input's position.
+     */
+    abstract void read(Input input, long[] target, int length);
+
+    @Override
+    public final Slice<Byte> write(long[] data) {
+      Output output = new Output(data.length + 16);
+      output.writeVarint(data.length);
+      if (data.length > 0)
+        write(data, output);
+      return output.toSlice();
+    }
+
+    @Override
+    public final long[] read(Slice<Byte> slice) {
+      Input input = new Input(slice);
+      long[] values = new long[(int) input.readVarint()];
+      if (values.length > 0)
+        read(input, values, values.length);
+      return values;
+    }
+
+    /**
+     * Decodes into target if it is large enough, else into a new array.
+     *
+     * @return the array the values were decoded into. Its length can be greater than the number of values,
+     * see {@link #length(Slice)}.
+     */
+    public final long[] read(Slice<Byte> slice, long[] target) {
+      Input input = new Input(slice);
+      int length = (int) input.readVarint();
+      long[] values = target.length >= length ? target : new long[length];
+      if (length > 0)
+        read(input, values, length);
+      return values;
+    }
+
+    /**
+     * Number of values in the slice without decoding them.
+     */
+    public final int length(Slice<Byte> slice) {
+      return (int) new Input(slice).readVarint();
+    }
+  }
+
+  static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static final class DeltaVarint extends LongArraySerializer {
+
+    static final DeltaVarint instance = new DeltaVarint();
+
+    @Override
+    void write(long[] data, Output output) {
+      long previous = 0;
+      for (long value : data) {
+        output.writeVarint(zigZag(value - previous));
+        previous = value;
+      }
+    }
+
+    @Override
+    void read(Input input, long[] target, int length) {
+      byte[] bytes = input.bytes;
+      int position = input.position;
+      long previous = 0;
+
+      for (int i = 0; i < length; i++) {
+        //inlined Input.readVarint.
+        long varint = 0;
+        int shift = 0;
+        byte next;
+        do {
+          next = bytes[position++];
+          varint |= (long) (next & 0x7F) << shift;
+          shift += 7;
+        } while (next < 0);
+
+        previous += unZigZag(varint);
+        target[i] = previous;
+      }
+
+      input.position = position;
+    }
+  }
+
+  /**
+   * Layout after the length: [first value: zig-zag varint] then for each block of up to BLOCK_SIZE deltas
+   * [block minimum: zig-zag varint][bit width: byte][deltas - minimum: bit-packed, little-endian].
+   */
+  private static final class FrameOfReference extends LongArraySerializer {
+
+    static final FrameOfReference instance = new FrameOfReference();
+
+    @Override
+    void write(long[] data, Output output) {
+      output.writeVarint(zigZag(data[0]));
+
+      long[] deltas = new long[BLOCK_SIZE];
+      for (int blockStart = 1; blockStart < data.length; blockStart += BLOCK_SIZE) {
+        int blockLength = Math.min(BLOCK_SIZE, data.length - blockStart);
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < blockLength; i++) {
+          long delta = data[blockStart + i] - data[blockStart + i - 1];
+          deltas[i] = delta;
+          min = Math.min(min, delta);
+          max = Math.max(max, delta);
+        }
+
+        //max - min is compared unsigned so deltas spanning more than Long.MAX_VALUE use 64 bits.
+        int width = 64 - Long.numberOfLeadingZeros(max - min);
+        output.writeVarint(zigZag(min));
+        output.writeByte(width);
+        output.writeBits(deltas, blockLength, min, width);
+      }
+    }
+
+    @Override
+    void read(Input input, long[] target, int length) {
+      long previous = unZigZag(input.readVarint());
+      target[0] = previous;
+
+      for (int blockStart = 1; blockStart < length; blockStart += BLOCK_SIZE) {
+        int blockLength = Math.min(BLOCK_SIZE, length - blockStart);
+        long min = unZigZag(input.readVarint());
+        int width = input.readByte();
+        previous = input.readBits(target, blockStart, blockLength, min, width, previous);
+      }
+    }
+  }
+
+  static final class Output {
+    private byte[] bytes;
+    private int position;
+
+    Output(int capacity) {
+      this.bytes = new byte[capacity];
+    }
+
+    private void ensure(int extra) {
+      if (position + extra > bytes.length)
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + extra));
+    }
+
+    void writeByte(int value) {
+      ensure(1);
+      bytes[position++] = (byte) value;
+    }
+
+    void writeVarint(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[position++] = (byte) value;
+    }
+
+    /**
+     * Writes the width low bits of each value - min.
+     */
+    void writeBits(long[] values, int length, long min, int width) {
+      if (width == 0)
+        return;
+
+      ensure((length * width + 7) / 8);
+      long buffer = 0;
+      int buffered = 0;
+
+      for (int i = 0; i < length; i++) {
+        long value = values[i] - min;
+        buffer |= value << buffered;
+        int written = Math.min(width, 64 - buffered);
+        buffered += written;
+
+        while (buffered >= 8) {
+          bytes[position++] = (byte) buffer;
+          buffer >>>= 8;
+          buffered -= 8;
+        }
+
+        //bits of the value that did not fit in the buffer.
+        if (written < width) {
+          buffer |= value >>> written << buffered;
+          buffered += width - written;
+          while (buffered >= 8) {
+            bytes[position++] = (byte) buffer;
+            buffer >>>= 8;
+            buffered -= 8;
+          }
+        }
+      }
+
+      if (buffered > 0)
+        bytes[position++] = (byte) buffer;
+    }
+
+    @SuppressWarnings("unchecked")
+    Slice<Byte> toSlice() {
+      return (Slice<Byte>) (Slice<?>) Slice.ofScala(position == bytes.length ? bytes : Arrays.copyOf(bytes, position));
+    }
+  }
+
+  /**
+   * Reads a slice's bytes. Slices backed by a byte[] are read in place, Java slices backed by a Byte[] are copied.
+   */
+  static final class Input {
+    final byte[] bytes;
+    int position;
+
+    Input(Slice<Byte> slice) {
+      Object array = slice.unsafeInnerArray();
+      if (array instanceof byte[]) {
+        this.bytes = (byte[]) array;
+        this.position = slice.fromOffset();
+      } else {
+        this.bytes = new byte[slice.size()];
+        for (int i = 0; i < bytes.length; i++)
+          bytes[i] = slice.get(i);
+        this.position = 0;
+      }
+    }
+
+    int readByte() {
+      return bytes[position++] & 0xFF;
+    }
+
+    long readVarint() {
+      long value = 0;
+      int shift = 0;
+      byte next;
+      do {
+        next = bytes[position++];
+        value |= (long) (next & 0x7F) << shift;
+        shift += 7;
+      } while (next < 0);
+      return value;
+    }
+
+    /**
+     * Reads length values of width bits, adds min and accumulates them into target as deltas of previous.
+     *
+     * @return the last value.
+     */
+    long readBits(long[] target, int offset, int length, long min, int width, long previous) {
+      if (width == 0) {
+        for (int i = 0; i < length; i++) {
+          previous += min;
+          target[offset + i] = previous;
+        }
+        return previous;
+      }
+
+      long mask = width == 64 ? -1L : (1L << width) - 1;
+      long buffer = 0;
+      int buffered = 0;
+
+      for (int i = 0; i < length; i++) {
+        long value;
+        if (buffered >= width) {
+          value = buffer & mask;
+          buffer = width == 64 ? 0 : buffer >>> width;
+          buffered -= width;
+        } else {
+          //take the buffered low bits and read the rest from the following bytes.
+          value = buffer;
+          int read = buffered;
+          buffer = 0;
+          buffered = 0;
+          while (read < width) {
+            long next = bytes[position++] & 0xFFL;
+            value |= next << read;
+            if (read + 8 > width) {
+              int used = width - read;
+              buffer = next >>> used;
+              buffered = 8 - used;
+            }
+            read += 8;
+          }
+          value &= mask;
+        }
+
+        previous += value + min;
+        target[offset + i] = previous;
+      }
+      return previous;
+    }
+  }
+}
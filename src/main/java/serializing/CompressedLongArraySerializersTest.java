@@ -0,0 +1,110 @@
+package serializing;
+
+import org.junit.jupiter.api.Test;
+import serializing.CompressedLongArraySerializers.LongArraySerializer;
+import swaydb.data.slice.Slice;
+import swaydb.data.util.ByteOps;
+import swaydb.java.Map;
+import swaydb.java.persistent.PersistentMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class CompressedLongArraySerializersTest {
+
+  static final LongArraySerializer[] serializers = {
+    CompressedLongArraySerializers.deltaVarint(),
+    CompressedLongArraySerializers.frameOfReference()
+  };
+
+  static long[][] arrays() {
+    Random random = new Random(7);
+
+    long[] timestamps = new long[1000];
+    timestamps[0] = 1_600_000_000_000L;
+    for (int i = 1; i < timestamps.length; i++)
+      timestamps[i] = timestamps[i - 1] + 1000 + random.nextInt(10);
+
+    return new long[][]{
+      {},
+      {42},
+      {Long.MIN_VALUE, Long.MAX_VALUE, 0, Long.MAX_VALUE, Long.MIN_VALUE, -1},
+      random.longs(CompressedLongArraySerializers.BLOCK_SIZE + 1).toArray(),
+      random.longs(300, -10, 10).toArray(),
+      new long[500],
+      timestamps
+    };
+  }
+
+  @Test
+  void writeAndRead() {
+    for (LongArraySerializer serializer : serializers)
+      for (long[] array : arrays()) {
+        Slice<Byte> bytes = serializer.write(array);
+        assertArrayEquals(array, serializer.read(bytes));
+        assertEquals(array.length, serializer.length(bytes));
+
+        //decode into a larger existing array.
+        long[] target = new long[array.length + 1];
+        assertSame(target, serializer.read(bytes, target));
+        assertArrayEquals(array, Arrays.copyOf(target, array.length));
+      }
+  }
+
+  @Test
+  void readJavaSlices() {
+    long[] array = {5L, 6L, 7L, -8L};
+    for (LongArraySerializer serializer : serializers) {
+      Slice<Byte> written = serializer.write(array);
+      //a Java slice backed by a Byte[] at an offset.
+      Slice<Byte> slice = Slice.ofBytesJava(written.size() + 4);
+      slice.addInt(0, ByteOps.Java());
+      for (int i = 0; i < written.size(); i++)
+        slice.add(written.get(i));
+
+      assertArrayEquals(array, serializer.read(slice.drop(4)));
+    }
+  }
+
+  @Test
+  void timestampsCompress() {
+    long[] timestamps = arrays()[6];
+    //8 bytes per element for the example.
+    assertEquals(4 + timestamps.length * 8, SerialisingArrayExample.longArraySerializer.write(timestamps).size());
+    //deltas of 1000 to 1009 take 2 byte varints.
+    assertTrue(CompressedLongArraySerializers.deltaVarint().write(timestamps).size() < timestamps.length * 2 + 16);
+    //and 4 bits after subtracting each block's minimum.
+    assertTrue(CompressedLongArraySerializers.frameOfReference().write(timestamps).size() < timestamps.length / 2 + 64);
+  }
+
+  @Test
+  void readFromPersistentSegments() throws IOException {
+    Path directory = Files.createTempDirectory("compressedLongArraySerializersTest");
+    long[][] arrays = arrays();
+
+    Map<Integer, long[], Void> map =
+      PersistentMap
+        .functionsOff(directory, intSerializer(), CompressedLongArraySerializers.frameOfReference())
+        .get();
+
+    for (int i = 0; i < arrays.length; i++)
+      map.put(i, arrays[i]);
+    map.close();
+
+    Map<Integer, long[], Void> reopened =
+      PersistentMap
+        .functionsOff(directory, intSerializer(), CompressedLongArraySerializers.frameOfReference())
+        .get();
+
+    for (int i = 0; i < arrays.length; i++)
+      assertArrayEquals(arrays[i], reopened.get(i).get());
+
+    reopened.delete();
+  }
+}
@@ -0,0 +1,79 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Flyweight read-only view of a serialised double[]. See {@link PrimitiveArrayView}.
+ * <p>
+ * Doubles are stored as their {@link Double#doubleToRawLongBits(double)} value.
+ */
+public final class DoubleArrayView extends PrimitiveArrayView {
+
+  DoubleArrayView(Slice<Byte> slice) {
+    super(slice);
+  }
+
+  public static DoubleArrayView of(double... array) {
+    byte[] bytes = allocate(array.length, Double.BYTES);
+    int position = HEADER_BYTES;
+    for (double value : array) {
+      ByteArrays.writeLong(bytes, position, Double.doubleToRawLongBits(value));
+      position += Double.BYTES;
+    }
+    return new DoubleArrayView(wrap(bytes));
+  }
+
+  public static DoubleArrayView read(Slice<Byte> slice) {
+    return new DoubleArrayView(slice);
+  }
+
+  private double readDouble(int position) {
+    return Double.longBitsToDouble(readLong(position));
+  }
+
+  public double get(int index) {
+    checkIndex(index);
+    return readDouble(offset + index * Double.BYTES);
+  }
+
+  public double sum() {
+    double sum = 0;
+    for (int position = offset, end = offset + length * Double.BYTES; position < end; position += Double.BYTES)
+      sum += readDouble(position);
+    return sum;
+  }
+
+  public void forEach(DoubleConsumer consumer) {
+    for (int position = offset, end = offset + length * Double.BYTES; position < end; position += Double.BYTES)
+      consumer.accept(readDouble(position));
+  }
+
+  public PrimitiveIterator.OfDouble iterator() {
+    return new PrimitiveIterator.OfDouble() {
+      int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < length;
+      }
+
+      @Override
+      public double nextDouble() {
+        if (index >= length)
+          throw new NoSuchElementException();
+        return readDouble(offset + index++ * Double.BYTES);
+      }
+    };
+  }
+
+  public double[] toArray() {
+    double[] array = new double[length];
+    for (int i = 0; i < length; i++)
+      array[i] = readDouble(offset + i * Double.BYTES);
+    return array;
+  }
+}
@@ -0,0 +1,74 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Flyweight read-only view of a serialised int[]. See {@link PrimitiveArrayView}.
+ */
+public final class IntArrayView extends PrimitiveArrayView {
+
+  IntArrayView(Slice<Byte> slice) {
+    super(slice);
+  }
+
+  public static IntArrayView of(int... array) {
+    byte[] bytes = allocate(array.length, Integer.BYTES);
+    int position = HEADER_BYTES;
+    for (int value : array) {
+      ByteArrays.writeInt(bytes, position, value);
+      position += Integer.BYTES;
+    }
+    return new IntArrayView(wrap(bytes));
+  }
+
+  public static IntArrayView read(Slice<Byte> slice) {
+    return new IntArrayView(slice);
+  }
+
+  public int get(int index) {
+    checkIndex(index);
+    return readInt(offset + index * Integer.BYTES);
+  }
+
+  //sums as long so large arrays do not overflow.
+  public long sum() {
+    long sum = 0;
+    for (int position = offset, end = offset + length * Integer.BYTES; position < end; position += Integer.BYTES)
+      sum += readInt(position);
+    return sum;
+  }
+
+  public void forEach(IntConsumer consumer) {
+    for (int position = offset, end = offset + length * Integer.BYTES; position < end; position += Integer.BYTES)
+      consumer.accept(readInt(position));
+  }
+
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < length;
+      }
+
+      @Override
+      public int nextInt() {
+        if (index >= length)
+          throw new NoSuchElementException();
+        return readInt(offset + index++ * Integer.BYTES);
+      }
+    };
+  }
+
+  public int[] toArray() {
+    int[] array = new int[length];
+    for (int i = 0; i < length; i++)
+      array[i] = readInt(offset + i * Integer.BYTES);
+    return array;
+  }
+}
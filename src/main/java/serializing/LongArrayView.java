@@ -0,0 +1,73 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+/**
+ * Flyweight read-only view of a serialised long[]. See {@link PrimitiveArrayView}.
+ */
+public final class LongArrayView extends PrimitiveArrayView {
+
+  LongArrayView(Slice<Byte> slice) {
+    super(slice);
+  }
+
+  public static LongArrayView of(long... array) {
+    byte[] bytes = allocate(array.length, Long.BYTES);
+    int position = HEADER_BYTES;
+    for (long value : array) {
+      ByteArrays.writeLong(bytes, position, value);
+      position += Long.BYTES;
+    }
+    return new LongArrayView(wrap(bytes));
+  }
+
+  public static LongArrayView read(Slice<Byte> slice) {
+    return new LongArrayView(slice);
+  }
+
+  public long get(int index) {
+    checkIndex(index);
+    return readLong(offset + index * Long.BYTES);
+  }
+
+  public long sum() {
+    long sum = 0;
+    for (int position = offset, end = offset + length * Long.BYTES; position < end; position += Long.BYTES)
+      sum += readLong(position);
+    return sum;
+  }
+
+  public void forEach(LongConsumer consumer) {
+    for (int position = offset, end = offset + length * Long.BYTES; position < end; position += Long.BYTES)
+      consumer.accept(readLong(position));
+  }
+
+  public PrimitiveIterator.OfLong iterator() {
+    return new PrimitiveIterator.OfLong() {
+      int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < length;
+      }
+
+      @Override
+      public long nextLong() {
+        if (index >= length)
+          throw new NoSuchElementException();
+        return readLong(offset + index++ * Long.BYTES);
+      }
+    };
+  }
+
+  public long[] toArray() {
+    long[] array = new long[length];
+    for (int i = 0; i < length; i++)
+      array[i] = readLong(offset + i * Long.BYTES);
+    return array;
+  }
+}
@@ -0,0 +1,103 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * A map of serialized keys and values that chooses per operation whether a key may be pooled.
+ * <p>
+ * A map created with a {@link PooledSerializer} calls {@link PooledSerializer#write(Object)} for every operation
+ * because it cannot tell lookups from puts. PooledMap stores Slices directly and serializes keys of get and
+ * contains with {@link PooledSerializer#writePooled(Object)}, so lookups do not allocate for serialization.
+ * Puts and removes allocate only the exactly sized Slices the database keeps.
+ * <p>
+ * The underlying map stores the same bytes as a map created with the same serializers.
+ */
+public class PooledMap<K, V> implements AutoCloseable {
+
+  /**
+   * Stores and returns Slices as they are.
+   */
+  public static final Serializer<Slice<Byte>> sliceSerializer =
+    new Serializer<Slice<Byte>>() {
+      @Override
+      public Slice<Byte> write(Slice<Byte> data) {
+        return data;
+      }
+
+      @Override
+      public Slice<Byte> read(Slice<Byte> slice) {
+        return slice;
+      }
+    };
+
+  private final Map<Slice<Byte>, Slice<Byte>, Void> map;
+  private final PooledSerializer<K> keySerializer;
+  private final PooledSerializer<V> valueSerializer;
+
+  /**
+   * @param map created with {@link #sliceSerializer} as its key and value serializer.
+   */
+  public PooledMap(Map<Slice<Byte>, Slice<Byte>, Void> map, PooledSerializer<K> keySerializer, PooledSerializer<V> valueSerializer) {
+    this.map = map;
+    this.keySerializer = keySerializer;
+    this.valueSerializer = valueSerializer;
+  }
+
+  public static <K, V> PooledMap<K, V> memory(PooledSerializer<K> keySerializer, PooledSerializer<V> valueSerializer) {
+    return
+      new PooledMap<>(
+        MemoryMap
+          .functionsOff(sliceSerializer, sliceSerializer)
+          .get(),
+        keySerializer,
+        valueSerializer
+      );
+  }
+
+  public static <K, V> PooledMap<K, V> persistent(Path directory, PooledSerializer<K> keySerializer, PooledSerializer<V> valueSerializer) {
+    return
+      new PooledMap<>(
+        PersistentMap
+          .functionsOff(directory, sliceSerializer, sliceSerializer)
+          .get(),
+        keySerializer,
+        valueSerializer
+      );
+  }
+
+  public Map<Slice<Byte>, Slice<Byte>, Void> map() {
+    return map;
+  }
+
+  public void put(K key, V value) {
+    map.put(keySerializer.write(key), valueSerializer.write(value));
+  }
+
+  public void remove(K key) {
+    map.remove(keySerializer.write(key));
+  }
+
+  public Optional<V> get(K key) {
+    return map.get(keySerializer.writePooled(key)).map(valueSerializer::read);
+  }
+
+  public boolean contains(K key) {
+    return map.contains(keySerializer.writePooled(key));
+  }
+
+  @Override
+  public void close() {
+    map.close();
+  }
+
+  public void delete() {
+    map.delete();
+  }
+}
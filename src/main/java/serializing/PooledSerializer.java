@@ -0,0 +1,237 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A {@link Serializer} that encodes into a reusable thread-local buffer instead of allocating intermediate arrays.
+ * <p>
+ * SwayDB keeps the Slice returned by write for puts, so {@link #write(Object)} copies the encoded bytes once into
+ * an exactly sized array. Lookups (get, contains) do not keep the key so {@link #writePooled(Object)} returns a
+ * thread-local Slice without allocating, see {@link PooledMap}.
+ * <p>
+ * Instances are created by {@link PooledSerializers}.
+ */
+public abstract class PooledSerializer<T> implements Serializer<T> {
+
+  /**
+   * Encoded keys up to this size are returned by {@link #writePooled(Object)} without allocating.
+   */
+  public static final int MAX_POOLED_BYTES = 256;
+
+  /**
+   * Growable thread-local buffer that values are encoded into.
+   */
+  static final class Buffer {
+    byte[] bytes = new byte[MAX_POOLED_BYTES];
+    int position;
+
+    //pooled[n] is a Slice of size n, created on first use.
+    private final Slice<Byte>[] pooled = newSlices();
+
+    @SuppressWarnings("unchecked")
+    private static Slice<Byte>[] newSlices() {
+      return (Slice<Byte>[]) new Slice<?>[MAX_POOLED_BYTES + 1];
+    }
+
+    void ensureCapacity(int additional) {
+      if (position + additional > bytes.length)
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + additional));
+    }
+
+    void put(int value) {
+      ensureCapacity(1);
+      bytes[position++] = (byte) value;
+    }
+
+    void putInt(int value) {
+      ensureCapacity(Integer.BYTES);
+      bytes[position++] = (byte) (value >>> 24);
+      bytes[position++] = (byte) (value >>> 16);
+      bytes[position++] = (byte) (value >>> 8);
+      bytes[position++] = (byte) value;
+    }
+
+    void putLong(long value) {
+      putInt((int) (value >>> 32));
+      putInt((int) value);
+    }
+
+    //unsigned LEB128.
+    void putVarLong(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[position++] = (byte) value;
+    }
+
+    /**
+     * Same bytes as {@link String#getBytes(java.nio.charset.Charset)} with UTF-8 without the intermediate array.
+     */
+    void putUtf8(String string) {
+      ensureCapacity(string.length() * 3);
+      for (int i = 0; i < string.length(); i++) {
+        char c = string.charAt(i);
+        if (c < 0x80) {
+          bytes[position++] = (byte) c;
+        } else if (c < 0x800) {
+          bytes[position++] = (byte) (0xC0 | c >> 6);
+          bytes[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, string.charAt(++i));
+          bytes[position++] = (byte) (0xF0 | codePoint >> 18);
+          bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+          bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+          bytes[position++] = (byte) (0x80 | codePoint & 0x3F);
+        } else if (Character.isSurrogate(c)) {
+          //unpaired surrogates are encoded as '?'.
+          bytes[position++] = '?';
+        } else {
+          bytes[position++] = (byte) (0xE0 | c >> 12);
+          bytes[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+          bytes[position++] = (byte) (0x80 | c & 0x3F);
+        }
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    Slice<Byte> copy() {
+      return (Slice<Byte>) (Slice<?>) Slice.ofScala(Arrays.copyOf(bytes, position));
+    }
+
+    @SuppressWarnings("unchecked")
+    Slice<Byte> pooled() {
+      if (position > MAX_POOLED_BYTES)
+        return copy();
+
+      Slice<Byte> slice = pooled[position];
+      if (slice == null) {
+        slice = (Slice<Byte>) (Slice<?>) Slice.ofScala(new byte[position]);
+        pooled[position] = slice;
+      }
+      System.arraycopy(bytes, 0, slice.unsafeInnerArray(), 0, position);
+      return slice;
+    }
+  }
+
+  /**
+   * Position in the bytes of a Slice being read. Slices read from the database are backed by a byte[], others,
+   * eg: written by {@link swaydb.java.serializers.Default} serializers, are unboxed into the reader's own array.
+   */
+  static final class Reader {
+    byte[] bytes;
+    int position;
+    //end of the current value, exclusive.
+    int limit;
+    private byte[] unboxed = new byte[MAX_POOLED_BYTES];
+
+    Reader reset(Slice<Byte> slice) {
+      Object array = slice.unsafeInnerArray();
+      if (array instanceof byte[]) {
+        bytes = (byte[]) array;
+        position = slice.fromOffset();
+      } else {
+        Byte[] boxed = (Byte[]) array;
+        if (unboxed.length < slice.size())
+          unboxed = new byte[Math.max(unboxed.length * 2, slice.size())];
+        for (int i = 0; i < slice.size(); i++)
+          unboxed[i] = boxed[slice.fromOffset() + i];
+        bytes = unboxed;
+        position = 0;
+      }
+      limit = position + slice.size();
+      return this;
+    }
+
+    int remaining() {
+      return limit - position;
+    }
+
+    int next() {
+      return bytes[position++] & 0xFF;
+    }
+
+    int nextInt() {
+      return next() << 24 | next() << 16 | next() << 8 | next();
+    }
+
+    long nextLong() {
+      return (long) nextInt() << 32 | (nextInt() & 0xFFFFFFFFL);
+    }
+
+    long nextVarLong() {
+      long value = 0;
+      int shift = 0;
+      int next;
+      do {
+        next = next();
+        value |= (long) (next & 0x7F) << shift;
+        shift += 7;
+      } while ((next & 0x80) != 0);
+      return value;
+    }
+
+    String nextUtf8(int length) {
+      String string = new String(bytes, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return string;
+    }
+  }
+
+  private static final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(Buffer::new);
+  private static final ThreadLocal<Reader> readers = ThreadLocal.withInitial(Reader::new);
+
+  PooledSerializer() {
+  }
+
+  /**
+   * Encoded size in bytes if it is the same for all values, else -1.
+   */
+  abstract int fixedSize();
+
+  abstract void write(T data, Buffer buffer);
+
+  /**
+   * Reads the value up to the reader's limit.
+   */
+  abstract T read(Reader reader);
+
+  private Buffer encode(T data) {
+    Buffer buffer = buffers.get();
+    buffer.position = 0;
+    write(data, buffer);
+    return buffer;
+  }
+
+  /**
+   * An exactly sized copy of the encoded bytes, safe to be kept by the database.
+   */
+  @Override
+  public Slice<Byte> write(T data) {
+    return encode(data).copy();
+  }
+
+  /**
+   * A thread-local Slice that is overwritten by the next writePooled call of the same size on this thread.
+   * Only pass it to operations that do not keep it, eg: get and contains, never put or remove.
+   */
+  public final Slice<Byte> writePooled(T data) {
+    return encode(data).pooled();
+  }
+
+  @Override
+  public final T read(Slice<Byte> slice) {
+    Reader reader = readers.get().reset(slice);
+    try {
+      return read(reader);
+    } finally {
+      //does not keep the slice's array reachable.
+      reader.bytes = null;
+    }
+  }
+}
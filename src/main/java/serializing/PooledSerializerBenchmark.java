@@ -0,0 +1,165 @@
+package serializing;
+
+import org.openjdk.jmh.annotations.*;
+import swaydb.Pair;
+import swaydb.data.slice.Slice;
+import swaydb.data.util.ByteOps;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.serializers.Default;
+import swaydb.java.serializers.Serializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of serializing keys with {@link Default} serializers and with {@link PooledSerializers}.
+ * Run with -prof gc and compare gc.alloc.rate.norm, the bytes allocated per operation, eg:
+ * <pre>
+ * java -jar target/benchmarks.jar PooledSerializerBenchmark -prof gc
+ * </pre>
+ * serialize is the put path which keeps the Slice, serializeLookup is the get path. put and get include a memory map.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PooledSerializerBenchmark {
+
+  static final int KEY_COUNT = 1024;
+
+  public enum KeyType {
+    STRING,
+    //(long, String)
+    PAIR
+  }
+
+  public enum SerializerType {
+    DEFAULT,
+    POOLED
+  }
+
+  /**
+   * (long, String) keys serialized the usual way, eg: {@link expiry.ExpiryIndex#keySerializer}.
+   */
+  static final Serializer<Pair<Long, String>> defaultPairSerializer =
+    new Serializer<Pair<Long, String>>() {
+      @Override
+      public Slice<Byte> write(Pair<Long, String> data) {
+        Slice<Byte> right = Default.stringSerializer().write(data.right());
+        Slice<Byte> slice = Slice.ofBytesJava(Long.BYTES + right.size());
+        slice.addLong(data.left(), ByteOps.Java());
+        slice.addAll(right);
+        return slice;
+      }
+
+      @Override
+      public Pair<Long, String> read(Slice<Byte> slice) {
+        return Pair.of(ByteOps.Java().readLong(slice), Default.stringSerializer().read(slice.drop(Long.BYTES)));
+      }
+    };
+
+  @Param({"STRING", "PAIR"})
+  KeyType keyType;
+
+  @Param({"DEFAULT", "POOLED"})
+  SerializerType serializerType;
+
+  Object[] keys;
+  //byte[] backed like Slices read from the database.
+  Slice<Byte>[] serializedKeys;
+  int next;
+
+  Serializer<Object> serializer;
+  PooledSerializer<Object> pooledSerializer;
+  Map<Object, String, Void> map;
+  PooledMap<Object, String> pooledMap;
+
+  @SuppressWarnings("unchecked")
+  @Setup(Level.Trial)
+  public void setup() {
+    keys = new Object[KEY_COUNT];
+    for (int i = 0; i < KEY_COUNT; i++)
+      keys[i] = keyType == KeyType.STRING ? "user-" + i : Pair.of((long) i, "user-" + i);
+
+    switch (serializerType) {
+      case DEFAULT:
+        serializer = (Serializer<Object>) (keyType == KeyType.STRING ? Default.stringSerializer() : defaultPairSerializer);
+        map = MemoryMap.functionsOff(serializer, Default.stringSerializer()).get();
+        for (Object key : keys)
+          map.put(key, "value");
+        break;
+
+      case POOLED:
+        pooledSerializer =
+          (PooledSerializer<Object>)
+            (keyType == KeyType.STRING
+              ? PooledSerializers.stringSerializer()
+              : PooledSerializers.pairSerializer(PooledSerializers.longSerializer(), PooledSerializers.stringSerializer()));
+        serializer = pooledSerializer;
+        pooledMap = PooledMap.memory(pooledSerializer, PooledSerializers.stringSerializer());
+        for (Object key : keys)
+          pooledMap.put(key, "value");
+        break;
+
+      default:
+        throw new IllegalStateException("Unexpected value: " + serializerType);
+    }
+
+    serializedKeys = (Slice<Byte>[]) new Slice<?>[KEY_COUNT];
+    for (int i = 0; i < KEY_COUNT; i++) {
+      Slice<Byte> written = serializer.write(keys[i]);
+      byte[] bytes = new byte[written.size()];
+      for (int j = 0; j < bytes.length; j++)
+        bytes[j] = written.get(j);
+      serializedKeys[i] = (Slice<Byte>) (Slice<?>) Slice.ofScala(bytes);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    if (map != null)
+      map.delete();
+    if (pooledMap != null)
+      pooledMap.delete();
+  }
+
+  private Object nextKey() {
+    next = (next + 1) & (KEY_COUNT - 1);
+    return keys[next];
+  }
+
+  private Slice<Byte> nextSerializedKey() {
+    next = (next + 1) & (KEY_COUNT - 1);
+    return serializedKeys[next];
+  }
+
+  @Benchmark
+  public Slice<Byte> serialize() {
+    return serializer.write(nextKey());
+  }
+
+  @Benchmark
+  public Slice<Byte> serializeLookup() {
+    return pooledSerializer != null ? pooledSerializer.writePooled(nextKey()) : serializer.write(nextKey());
+  }
+
+  @Benchmark
+  public Object deserialize() {
+    return serializer.read(nextSerializedKey());
+  }
+
+  @Benchmark
+  public void put() {
+    if (pooledMap != null)
+      pooledMap.put(nextKey(), "value");
+    else
+      map.put(nextKey(), "value");
+  }
+
+  @Benchmark
+  public Object get() {
+    return pooledMap != null ? pooledMap.get(nextKey()) : map.get(nextKey());
+  }
+}
@@ -0,0 +1,189 @@
+package serializing;
+
+import swaydb.Pair;
+import swaydb.data.slice.Slice;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link PooledSerializer}s of common key and value types.
+ * <ul>
+ * <li>int, long and String write the same bytes as {@link swaydb.java.serializers.Default}'s serializers so
+ * existing maps can switch to them.</li>
+ * <li>varInt and varLong are zigzag LEB128 varints, 1 byte for values between -64 and 63. Varints do not preserve
+ * order so they are for values and the last component of pairs, not keys that are streamed in order.</li>
+ * <li>Pair writes the left component with a varint length prefix unless it has a fixed size, so pairs whose
+ * left component is an int or long order by left and then by right, eg: (userId, timestamp).
+ * For other order preserving composite keys see {@link ordering.OrderedSerializers}.</li>
+ * </ul>
+ */
+public final class PooledSerializers {
+
+  private PooledSerializers() {
+  }
+
+  private static final PooledSerializer<Integer> intSerializer =
+    new PooledSerializer<Integer>() {
+      @Override
+      int fixedSize() {
+        return Integer.BYTES;
+      }
+
+      @Override
+      void write(Integer data, Buffer buffer) {
+        buffer.putInt(data);
+      }
+
+      @Override
+      Integer read(Reader reader) {
+        return reader.nextInt();
+      }
+    };
+
+  private static final PooledSerializer<Long> longSerializer =
+    new PooledSerializer<Long>() {
+      @Override
+      int fixedSize() {
+        return Long.BYTES;
+      }
+
+      @Override
+      void write(Long data, Buffer buffer) {
+        buffer.putLong(data);
+      }
+
+      @Override
+      Long read(Reader reader) {
+        return reader.nextLong();
+      }
+    };
+
+  private static final PooledSerializer<String> stringSerializer =
+    new PooledSerializer<String>() {
+      @Override
+      int fixedSize() {
+        return -1;
+      }
+
+      //getBytes allocates only the exactly sized array, encoding into the buffer and copying is slower.
+      @SuppressWarnings("unchecked")
+      @Override
+      public Slice<Byte> write(String data) {
+        return (Slice<Byte>) (Slice<?>) Slice.ofScala(data.getBytes(StandardCharsets.UTF_8));
+      }
+
+      @Override
+      void write(String data, Buffer buffer) {
+        buffer.putUtf8(data);
+      }
+
+      @Override
+      String read(Reader reader) {
+        return reader.nextUtf8(reader.remaining());
+      }
+    };
+
+  private static final PooledSerializer<Integer> varIntSerializer =
+    new PooledSerializer<Integer>() {
+      @Override
+      int fixedSize() {
+        return -1;
+      }
+
+      @Override
+      void write(Integer data, Buffer buffer) {
+        buffer.putVarLong(CompressedLongArraySerializers.zigZag(data));
+      }
+
+      @Override
+      Integer read(Reader reader) {
+        return (int) CompressedLongArraySerializers.unZigZag(reader.nextVarLong());
+      }
+    };
+
+  private static final PooledSerializer<Long> varLongSerializer =
+    new PooledSerializer<Long>() {
+      @Override
+      int fixedSize() {
+        return -1;
+      }
+
+      @Override
+      void write(Long data, Buffer buffer) {
+        buffer.putVarLong(CompressedLongArraySerializers.zigZag(data));
+      }
+
+      @Override
+      Long read(Reader reader) {
+        return CompressedLongArraySerializers.unZigZag(reader.nextVarLong());
+      }
+    };
+
+  public static PooledSerializer<Integer> intSerializer() {
+    return intSerializer;
+  }
+
+  public static PooledSerializer<Long> longSerializer() {
+    return longSerializer;
+  }
+
+  public static PooledSerializer<String> stringSerializer() {
+    return stringSerializer;
+  }
+
+  public static PooledSerializer<Integer> varIntSerializer() {
+    return varIntSerializer;
+  }
+
+  public static PooledSerializer<Long> varLongSerializer() {
+    return varLongSerializer;
+  }
+
+  /**
+   * Pairs of left and right, eg: pairSerializer(longSerializer(), stringSerializer()) for (userId, name) keys.
+   * Nest pairs in the right component for more components.
+   */
+  public static <L, R> PooledSerializer<Pair<L, R>> pairSerializer(PooledSerializer<L> left, PooledSerializer<R> right) {
+    int leftSize = left.fixedSize();
+    int rightSize = right.fixedSize();
+
+    return new PooledSerializer<Pair<L, R>>() {
+      @Override
+      int fixedSize() {
+        return leftSize < 0 || rightSize < 0 ? -1 : leftSize + rightSize;
+      }
+
+      @Override
+      void write(Pair<L, R> data, Buffer buffer) {
+        if (leftSize >= 0) {
+          left.write(data.left(), buffer);
+        } else {
+          //the length is not known before encoding so the left is encoded after the largest varint prefix and moved.
+          int prefixPosition = buffer.position;
+          buffer.ensureCapacity(5);
+          buffer.position += 5;
+          left.write(data.left(), buffer);
+          int length = buffer.position - prefixPosition - 5;
+
+          buffer.position = prefixPosition;
+          buffer.putVarLong(length);
+          System.arraycopy(buffer.bytes, prefixPosition + 5, buffer.bytes, buffer.position, length);
+          buffer.position += length;
+        }
+        right.write(data.right(), buffer);
+      }
+
+      @Override
+      Pair<L, R> read(Reader reader) {
+        int length = leftSize >= 0 ? leftSize : (int) reader.nextVarLong();
+        int limit = reader.limit;
+        reader.limit = reader.position + length;
+        L leftData = left.read(reader);
+        reader.position = reader.limit;
+        reader.limit = limit;
+
+        return Pair.of(leftData, right.read(reader));
+      }
+    };
+  }
+}
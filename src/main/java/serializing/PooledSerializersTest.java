@@ -0,0 +1,86 @@
+package serializing;
+
+import org.junit.jupiter.api.Test;
+import swaydb.Pair;
+import swaydb.data.slice.Slice;
+import swaydb.java.Map;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.java.serializers.Default;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static serializing.PooledSerializers.*;
+
+class PooledSerializersTest {
+
+  static byte[] bytes(Slice<Byte> slice) {
+    byte[] bytes = new byte[slice.size()];
+    for (int i = 0; i < bytes.length; i++)
+      bytes[i] = slice.get(i);
+    return bytes;
+  }
+
+  @Test
+  void sameBytesAsDefault() {
+    for (int value : new int[]{0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE})
+      assertArrayEquals(bytes(Default.intSerializer().write(value)), bytes(intSerializer().write(value)));
+
+    assertArrayEquals(bytes(Default.longSerializer().write(-42L)), bytes(longSerializer().write(-42L)));
+
+    for (String value : new String[]{"", "key-1", "café", "日本", "😀", "unpaired \ud83d"}) {
+      assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), bytes(stringSerializer().write(value)));
+      assertArrayEquals(bytes(Default.stringSerializer().write(value)), bytes(stringSerializer().writePooled(value)));
+      //reads Slices written by Default, which are backed by a Byte[].
+      assertEquals(Default.stringSerializer().read(Default.stringSerializer().write(value)), stringSerializer().read(Default.stringSerializer().write(value)));
+    }
+  }
+
+  @Test
+  void varintsAndPairs() {
+    for (long value : new long[]{0, 63, -64, 64, Long.MIN_VALUE, Long.MAX_VALUE})
+      assertEquals(value, varLongSerializer().read(varLongSerializer().write(value)));
+    assertEquals(1, varIntSerializer().write(-64).size());
+    assertEquals(-300, varIntSerializer().read(varIntSerializer().write(-300)));
+
+    PooledSerializer<Pair<String, Pair<Integer, String>>> triple = pairSerializer(stringSerializer(), pairSerializer(varIntSerializer(), stringSerializer()));
+    Pair<String, Pair<Integer, String>> value = Pair.of("été", Pair.of(-5, "last"));
+    assertEquals(value, triple.read(triple.write(value)));
+
+    //fixed size left components are not prefixed.
+    PooledSerializer<Pair<Long, String>> pair = pairSerializer(longSerializer(), stringSerializer());
+    assertEquals(Long.BYTES + 4, pair.write(Pair.of(7L, "name")).size());
+
+    //pooled Slices of the same size are reused.
+    assertSame(triple.writePooled(value), triple.writePooled(Pair.of("été", Pair.of(-6, "last"))));
+    assertEquals(Pair.of("été", Pair.of(-6, "last")), triple.read(triple.writePooled(Pair.of("été", Pair.of(-6, "last")))));
+  }
+
+  @Test
+  void pooledLookups() throws Exception {
+    Path directory = Files.createTempDirectory("pooledMapTest");
+    PooledMap<Pair<Long, String>, String> map = PooledMap.persistent(directory, pairSerializer(longSerializer(), stringSerializer()), stringSerializer());
+
+    for (long i = 0; i < 10_000; i++)
+      map.put(Pair.of(i, "key-" + i), "value-" + i);
+    map.remove(Pair.of(5L, "key-5"));
+
+    for (long i = 0; i < 10_000; i++)
+      if (i == 5)
+        assertFalse(map.contains(Pair.of(i, "key-" + i)));
+      else
+        assertEquals("value-" + i, map.get(Pair.of(i, "key-" + i)).get());
+    map.close();
+
+    //same bytes as a map created with the serializers.
+    Map<Pair<Long, String>, String, Void> reopened =
+      PersistentMap
+        .functionsOff(directory, pairSerializer(longSerializer(), stringSerializer()), Default.stringSerializer())
+        .get();
+    assertEquals("value-9999", reopened.get(Pair.of(9999L, "key-9999")).get());
+    assertEquals(9_999, reopened.count());
+    reopened.delete();
+  }
+}
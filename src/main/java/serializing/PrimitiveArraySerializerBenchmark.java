@@ -0,0 +1,98 @@
+package serializing;
+
+import org.openjdk.jmh.annotations.*;
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link SerialisingArrayExample#longArraySerializer} with {@link PrimitiveArraySerializers}.
+ * <p>
+ * Run with the gc profiler to see the allocation rate per operation:
+ * <pre>
+ * java -jar target/benchmarks.jar PrimitiveArraySerializerBenchmark -prof gc
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitiveArraySerializerBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  int arrayLength;
+
+  Serializer<long[]> exampleSerializer = SerialisingArrayExample.longArraySerializer;
+  Serializer<long[]> arraySerializer = PrimitiveArraySerializers.longArraySerializer();
+  Serializer<LongArrayView> viewSerializer = PrimitiveArraySerializers.longArrayViewSerializer();
+
+  long[] array;
+  Slice<Byte> bytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    array = ThreadLocalRandom.current().longs(arrayLength).toArray();
+    bytes = arraySerializer.write(array);
+  }
+
+  int randomIndex() {
+    return ThreadLocalRandom.current().nextInt(arrayLength);
+  }
+
+  @Benchmark
+  public Slice<Byte> writeExample() {
+    return exampleSerializer.write(array);
+  }
+
+  @Benchmark
+  public Slice<Byte> writeArraySerializer() {
+    return arraySerializer.write(array);
+  }
+
+  @Benchmark
+  public long[] readExample() {
+    return exampleSerializer.read(bytes);
+  }
+
+  @Benchmark
+  public long[] readArraySerializer() {
+    return arraySerializer.read(bytes);
+  }
+
+  @Benchmark
+  public long getOneExample() {
+    return exampleSerializer.read(bytes)[randomIndex()];
+  }
+
+  @Benchmark
+  public long getOneView() {
+    return viewSerializer.read(bytes).get(randomIndex());
+  }
+
+  @Benchmark
+  public int lengthExample() {
+    return exampleSerializer.read(bytes).length;
+  }
+
+  @Benchmark
+  public int lengthView() {
+    return viewSerializer.read(bytes).length();
+  }
+
+  @Benchmark
+  public long sumExample() {
+    long sum = 0;
+    for (long value : exampleSerializer.read(bytes))
+      sum += value;
+    return sum;
+  }
+
+  @Benchmark
+  public long sumView() {
+    return viewSerializer.read(bytes).sum();
+  }
+}
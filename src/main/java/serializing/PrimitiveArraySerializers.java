@@ -0,0 +1,105 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+/**
+ * Serializers for primitive arrays. Reusable version of the serializer in {@link SerialisingArrayExample}
+ * that writes without boxing each element and uses the same byte layout.
+ * <p>
+ * The array serializers (eg: {@link #longArraySerializer()}) decode the full array on read.
+ * The view serializers (eg: {@link #longArrayViewSerializer()}) return a flyweight over the read
+ * {@link Slice} which decodes elements only when accessed. Use views when only a few elements,
+ * the length or an aggregate like sum is needed.
+ * <p>
+ * Data written by an array serializer can be read by the view serializer of the same type and vice-versa.
+ */
+public final class PrimitiveArraySerializers {
+
+  private PrimitiveArraySerializers() {
+  }
+
+  public static Serializer<long[]> longArraySerializer() {
+    return new Serializer<long[]>() {
+      @Override
+      public Slice<Byte> write(long[] data) {
+        return LongArrayView.of(data).slice();
+      }
+
+      @Override
+      public long[] read(Slice<Byte> slice) {
+        return LongArrayView.read(slice).toArray();
+      }
+    };
+  }
+
+  public static Serializer<int[]> intArraySerializer() {
+    return new Serializer<int[]>() {
+      @Override
+      public Slice<Byte> write(int[] data) {
+        return IntArrayView.of(data).slice();
+      }
+
+      @Override
+      public int[] read(Slice<Byte> slice) {
+        return IntArrayView.read(slice).toArray();
+      }
+    };
+  }
+
+  public static Serializer<double[]> doubleArraySerializer() {
+    return new Serializer<double[]>() {
+      @Override
+      public Slice<Byte> write(double[] data) {
+        return DoubleArrayView.of(data).slice();
+      }
+
+      @Override
+      public double[] read(Slice<Byte> slice) {
+        return DoubleArrayView.read(slice).toArray();
+      }
+    };
+  }
+
+  public static Serializer<LongArrayView> longArrayViewSerializer() {
+    return new Serializer<LongArrayView>() {
+      @Override
+      public Slice<Byte> write(LongArrayView data) {
+        return data.slice();
+      }
+
+      @Override
+      public LongArrayView read(Slice<Byte> slice) {
+        return LongArrayView.read(slice);
+      }
+    };
+  }
+
+  public static Serializer<IntArrayView> intArrayViewSerializer() {
+    return new Serializer<IntArrayView>() {
+      @Override
+      public Slice<Byte> write(IntArrayView data) {
+        return data.slice();
+      }
+
+      @Override
+      public IntArrayView read(Slice<Byte> slice) {
+        return IntArrayView.read(slice);
+      }
+    };
+  }
+
+  public static Serializer<DoubleArrayView> doubleArrayViewSerializer() {
+    return new Serializer<DoubleArrayView>() {
+      @Override
+      public Slice<Byte> write(DoubleArrayView data) {
+        return data.slice();
+      }
+
+      @Override
+      public DoubleArrayView read(Slice<Byte> slice) {
+        return DoubleArrayView.read(slice);
+      }
+    };
+  }
+}
@@ -0,0 +1,83 @@
+package serializing;
+
+import org.junit.jupiter.api.Test;
+import swaydb.data.slice.Slice;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import java.util.PrimitiveIterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class PrimitiveArraySerializersTest {
+
+  @Test
+  void writeArrayAndReadView() {
+    Map<Integer, long[], Void> arrays =
+      MemoryMap
+        .functionsOff(intSerializer(), PrimitiveArraySerializers.longArraySerializer())
+        .get();
+
+    arrays.put(1, new long[]{1L, Long.MIN_VALUE, Long.MAX_VALUE, -4L});
+    assertArrayEquals(new long[]{1L, Long.MIN_VALUE, Long.MAX_VALUE, -4L}, arrays.get(1).get());
+
+    //read the same bytes as a view
+    LongArrayView view = LongArrayView.read(PrimitiveArraySerializers.longArraySerializer().write(arrays.get(1).get()));
+    assertEquals(4, view.length());
+    assertEquals(Long.MAX_VALUE, view.get(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> view.get(4));
+
+    PrimitiveIterator.OfLong iterator = view.iterator();
+    assertEquals(1L, iterator.nextLong());
+    assertEquals(Long.MIN_VALUE, iterator.nextLong());
+  }
+
+  @Test
+  void viewsAreCompatibleWithTheExampleSerializer() {
+    Slice<Byte> bytes = SerialisingArrayExample.longArraySerializer.write(new long[]{5L, 6L, 7L, 8L});
+    LongArrayView view = LongArrayView.read(bytes);
+
+    assertEquals(4, view.length());
+    assertEquals(26, view.sum());
+    assertArrayEquals(new long[]{5L, 6L, 7L, 8L}, SerialisingArrayExample.longArraySerializer.read(LongArrayView.of(5L, 6L, 7L, 8L).slice()));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void viewOfSliceReadFromDisk() {
+    //persistent Segments return slices backed by a byte[] instead of the Byte[] of a Java slice.
+    byte[] bytes = {0, 0, 0, 9, 0, 0, 0, 2, 0, 0, 0, 1, -1, -1, -1, -1};
+    Slice<Byte> slice = (Slice<Byte>) (Slice<?>) Slice.ofScala(bytes).drop(4);
+
+    IntArrayView view = IntArrayView.read(slice);
+    assertEquals(2, view.length());
+    assertArrayEquals(new int[]{1, -1}, view.toArray());
+  }
+
+  @Test
+  void intAndDoubleViews() {
+    Map<Integer, IntArrayView, Void> ints =
+      MemoryMap
+        .functionsOff(intSerializer(), PrimitiveArraySerializers.intArrayViewSerializer())
+        .get();
+
+    ints.put(1, IntArrayView.of(Integer.MAX_VALUE, Integer.MAX_VALUE, -1));
+    IntArrayView intView = ints.get(1).get();
+    assertEquals(3, intView.length());
+    assertEquals(2L * Integer.MAX_VALUE - 1, intView.sum());
+    assertArrayEquals(new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE, -1}, intView.toArray());
+
+    Map<Integer, DoubleArrayView, Void> doubles =
+      MemoryMap
+        .functionsOff(intSerializer(), PrimitiveArraySerializers.doubleArrayViewSerializer())
+        .get();
+
+    doubles.put(1, DoubleArrayView.of(1.5, -2.25, 0));
+    DoubleArrayView doubleView = doubles.get(1).get();
+    assertEquals(-2.25, doubleView.get(1));
+    assertEquals(-0.75, doubleView.sum());
+
+    assertTrue(DoubleArrayView.of().isEmpty());
+  }
+}
@@ -0,0 +1,80 @@
+package serializing;
+
+import swaydb.data.slice.Slice;
+
+/**
+ * Base of the flyweight views created by {@link PrimitiveArraySerializers}.
+ * <p>
+ * A view only holds the {@link Slice} read from the database. Elements are decoded on access
+ * so reading the length or a single element does not copy the array. Slices read from persistent
+ * Segments are backed by a byte[] and Java slices by a Byte[], elements are read from either without copying.
+ * <p>
+ * Layout: 4 byte length header followed by the big-endian elements, same as
+ * {@link SerialisingArrayExample}.
+ */
+abstract class PrimitiveArrayView {
+
+  static final int HEADER_BYTES = Integer.BYTES;
+
+  final Slice<Byte> slice;
+  //one of them is the slice's array, the other is null.
+  private final byte[] bytes;
+  private final Byte[] boxedBytes;
+  //index of the first element in the array.
+  final int offset;
+  final int length;
+
+  PrimitiveArrayView(Slice<Byte> slice) {
+    this.slice = slice;
+    Object array = slice.unsafeInnerArray();
+    if (array instanceof byte[]) {
+      this.bytes = (byte[]) array;
+      this.boxedBytes = null;
+    } else {
+      this.bytes = null;
+      this.boxedBytes = (Byte[]) array;
+    }
+    this.offset = slice.fromOffset() + HEADER_BYTES;
+    this.length = readInt(offset - HEADER_BYTES);
+  }
+
+  final int readInt(int position) {
+    return bytes != null ? ByteArrays.readInt(bytes, position) : ByteArrays.readInt(boxedBytes, position);
+  }
+
+  final long readLong(int position) {
+    return bytes != null ? ByteArrays.readLong(bytes, position) : ByteArrays.readLong(boxedBytes, position);
+  }
+
+  //arrays are written to a byte[], a Byte[] would be 4 to 8 times the size of the bytes written.
+  static byte[] allocate(int length, int elementBytes) {
+    byte[] bytes = new byte[HEADER_BYTES + length * elementBytes];
+    ByteArrays.writeInt(bytes, 0, length);
+    return bytes;
+  }
+
+  @SuppressWarnings("unchecked")
+  static Slice<Byte> wrap(byte[] bytes) {
+    return (Slice<Byte>) (Slice<?>) Slice.ofScala(bytes);
+  }
+
+  public int length() {
+    return length;
+  }
+
+  public boolean isEmpty() {
+    return length == 0;
+  }
+
+  /**
+   * The underlying bytes. Writing a view back to a map stores these bytes without re-encoding.
+   */
+  public Slice<Byte> slice() {
+    return slice;
+  }
+
+  void checkIndex(int index) {
+    if (index < 0 || index >= length)
+      throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+  }
+}
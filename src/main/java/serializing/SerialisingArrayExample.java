@@ -13,36 +13,39 @@ import static swaydb.java.serializers.Default.intSerializer;
 
 /**
  * <a href="https://github.com/simerplaha/SwayDB/discussions/361">Question asked #361</a>
+ * <p>
+ * See {@link PrimitiveArraySerializers} for serializers that do not box elements
+ * and can read single elements without copying the array.
  */
 class SerialisingArrayExample {
 
-  public static void main(String[] args) {
-    Serializer<long[]> longArraySerializer = new Serializer<long[]>() {
-      @Override
-      public Slice<Byte> write(long[] data) {
-        int requiredHeaderBytes = Integer.BYTES; //for storing the length of array
-        int requiredDataBytes = data.length * Long.BYTES; //for storing actual data
-        int totalBytesRequired = requiredHeaderBytes + requiredDataBytes; //total count
-        Slice<Byte> slice = Slice.ofBytesJava(totalBytesRequired); //create a slice instance
-        slice.addInt(data.length, ByteOps.Java()); //write the number of longs in the array
-        for (Long longVal : data) { //write the long[] values
-          slice.addLong(longVal, ByteOps.Java());
-        }
-        return slice; //return the slice
+  static final Serializer<long[]> longArraySerializer = new Serializer<long[]>() {
+    @Override
+    public Slice<Byte> write(long[] data) {
+      int requiredHeaderBytes = Integer.BYTES; //for storing the length of array
+      int requiredDataBytes = data.length * Long.BYTES; //for storing actual data
+      int totalBytesRequired = requiredHeaderBytes + requiredDataBytes; //total count
+      Slice<Byte> slice = Slice.ofBytesJava(totalBytesRequired); //create a slice instance
+      slice.addInt(data.length, ByteOps.Java()); //write the number of longs in the array
+      for (Long longVal : data) { //write the long[] values
+        slice.addLong(longVal, ByteOps.Java());
       }
-
-      @Override
-      public long[] read(Slice<Byte> slice) {
-        SliceReader<Byte> reader = slice.createReader(ByteOps.Java()); //create reader from the slice
-        int longCount = reader.readInt(); //read header: number of longs
-        long[] longs = new long[longCount]; //create the long array to add to
-        for (int i = 0; i < longCount; i++) {
-          longs[i] = reader.readLong(); //read the long values and set it in the array
-        }
-        return longs; //return the long
+      return slice; //return the slice
+    }
+
+    @Override
+    public long[] read(Slice<Byte> slice) {
+      SliceReader<Byte> reader = slice.createReader(ByteOps.Java()); //create reader from the slice
+      int longCount = reader.readInt(); //read header: number of longs
+      long[] longs = new long[longCount]; //create the long array to add to
+      for (int i = 0; i < longCount; i++) {
+        longs[i] = reader.readLong(); //read the long values and set it in the array
       }
-    };
+      return longs; //return the long
+    }
+  };
 
+  public static void main(String[] args) {
     Map<Integer, long[], Void> map = MemoryMap.functionsOff(intSerializer(), longArraySerializer).get();
 
     //add some data
@@ -0,0 +1,262 @@
+package sharding;
+
+import swaydb.KeyVal;
+import swaydb.data.slice.Slice;
+import swaydb.java.MapT;
+import swaydb.java.Stream;
+import swaydb.java.serializers.Serializer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routes keys by hash to N independent maps (shards) so that writes, compaction and the shards'
+ * level zero are spread over N databases instead of contending on one.
+ * <p>
+ * The hash is computed from the bytes keySerializer writes, not hashCode, so a key is routed to the same shard
+ * on every JVM and after restarts, whatever the key type's hashCode. Shards take keys, not bytes, so each
+ * routed key is serialized twice: once to hash it and once by its shard. For keys with costly serializers,
+ * eg: long strings, this cost is part of every write and read.
+ * <p>
+ * Single key operations go to the key's shard. Batch writes are split by shard and each shard's part is
+ * written as one batch, so a batch is atomic per shard but not across shards. Range operations,
+ * eg: {@link #remove(Object, Object)} and {@link #applyFunction(Object, Object, Object)}, are applied
+ * to every shard. Functions are applied shard-local so each shard must register the same functions.
+ * <p>
+ * {@link #stream()} merges the ordered streams of all shards with keyOrder, which must be the
+ * same order as the shards' key comparator.
+ */
+public class ShardedMap<K, V, F> implements AutoCloseable {
+
+  private final List<MapT<K, V, F>> shards;
+  private final Serializer<K> keySerializer;
+  private final Comparator<K> keyOrder;
+
+  public ShardedMap(List<MapT<K, V, F>> shards, Serializer<K> keySerializer, Comparator<K> keyOrder) {
+    if (shards.isEmpty())
+      throw new IllegalArgumentException("At least one shard is required");
+
+    this.shards = new ArrayList<>(shards);
+    this.keySerializer = keySerializer;
+    this.keyOrder = keyOrder;
+  }
+
+  /**
+   * Creates shardCount shards with createShard, eg: PersistentMap.functionsOff(directory, ...).get().
+   * Each shard is created in its own directory directory/shard-[index].
+   * <p>
+   * The number of shards of a persistent ShardedMap cannot change after keys are written
+   * because each key's shard depends on the number of shards.
+   */
+  public static <K, V, F> ShardedMap<K, V, F> persistent(Path directory, int shardCount, Serializer<K> keySerializer, Comparator<K> keyOrder, Function<Path, ? extends MapT<K, V, F>> createShard) {
+    List<MapT<K, V, F>> shards = new ArrayList<>(shardCount);
+    for (int shard = 0; shard < shardCount; shard++)
+      shards.add(createShard.apply(directory.resolve("shard-" + shard)));
+    return new ShardedMap<>(shards, keySerializer, keyOrder);
+  }
+
+  public static <K, V, F> ShardedMap<K, V, F> memory(int shardCount, Serializer<K> keySerializer, Comparator<K> keyOrder, Supplier<? extends MapT<K, V, F>> createShard) {
+    List<MapT<K, V, F>> shards = new ArrayList<>(shardCount);
+    for (int shard = 0; shard < shardCount; shard++)
+      shards.add(createShard.get());
+    return new ShardedMap<>(shards, keySerializer, keyOrder);
+  }
+
+  public List<MapT<K, V, F>> shards() {
+    return shards;
+  }
+
+  /**
+   * Index of the key's shard, the 32 bit FNV-1a hash of the key's serialized bytes.
+   * The bytes are not reused by the shard, which serializes the key again.
+   */
+  public int shardIndex(K key) {
+    Slice<Byte> bytes = keySerializer.write(key);
+    int hash = 0x811C9DC5;
+    Object array = bytes.unsafeInnerArray();
+    if (array instanceof byte[]) {
+      byte[] primitive = (byte[]) array;
+      for (int i = bytes.fromOffset(), end = i + bytes.size(); i < end; i++)
+        hash = (hash ^ (primitive[i] & 0xFF)) * 0x01000193;
+    } else {
+      for (int i = 0; i < bytes.size(); i++)
+        hash = (hash ^ (bytes.get(i) & 0xFF)) * 0x01000193;
+    }
+    return Math.floorMod(hash, shards.size());
+  }
+
+  public MapT<K, V, F> shard(K key) {
+    return shards.get(shardIndex(key));
+  }
+
+  public void put(K key, V value) {
+    shard(key).put(key, value);
+  }
+
+  public void put(K key, V value, Duration expireAfter) {
+    shard(key).put(key, value, expireAfter);
+  }
+
+  /**
+   * Writes each shard's key-values as one batch.
+   */
+  public void put(Iterable<KeyVal<K, V>> keyValues) {
+    List<List<KeyVal<K, V>>> batches = split(keyValues, KeyVal::key);
+    for (int shard = 0; shard < batches.size(); shard++)
+      //the map does not accept empty batches.
+      if (!batches.get(shard).isEmpty())
+        shards.get(shard).put(batches.get(shard));
+  }
+
+  public Optional<V> get(K key) {
+    return shard(key).get(key);
+  }
+
+  public boolean contains(K key) {
+    return shard(key).contains(key);
+  }
+
+  public void remove(K key) {
+    shard(key).remove(key);
+  }
+
+  public void remove(Iterable<K> keys) {
+    List<List<K>> batches = split(keys, Function.identity());
+    for (int shard = 0; shard < batches.size(); shard++)
+      if (!batches.get(shard).isEmpty())
+        shards.get(shard).remove(batches.get(shard));
+  }
+
+  /**
+   * Removes the range from every shard.
+   */
+  public void remove(K from, K to) {
+    for (MapT<K, V, F> shard : shards)
+      shard.remove(from, to);
+  }
+
+  public void expire(K key, Duration after) {
+    shard(key).expire(key, after);
+  }
+
+  public void expire(K from, K to, Duration after) {
+    for (MapT<K, V, F> shard : shards)
+      shard.expire(from, to, after);
+  }
+
+  public void applyFunction(K key, F function) {
+    shard(key).applyFunction(key, function);
+  }
+
+  /**
+   * Applies the function to the range in every shard.
+   */
+  public void applyFunction(K from, K to, F function) {
+    for (MapT<K, V, F> shard : shards)
+      shard.applyFunction(from, to, function);
+  }
+
+  /**
+   * All key-values in key order.
+   */
+  public Stream<KeyVal<K, V>> stream() {
+    List<Iterator<KeyVal<K, V>>> iterators = new ArrayList<>(shards.size());
+    for (MapT<K, V, F> shard : shards)
+      iterators.add(shard.iterator());
+    return Stream.of(new MergedIterator<>(iterators, keyOrder));
+  }
+
+  /**
+   * Key-values in key order starting from the first key greater or equal to from.
+   */
+  public Stream<KeyVal<K, V>> stream(K from) {
+    List<Iterator<KeyVal<K, V>>> iterators = new ArrayList<>(shards.size());
+    for (MapT<K, V, F> shard : shards)
+      iterators.add(shard.fromOrAfter(from).iterator());
+    return Stream.of(new MergedIterator<>(iterators, keyOrder));
+  }
+
+  /**
+   * Number of key-values in all shards. Reads every key-value.
+   */
+  public long count() {
+    long count = 0;
+    for (MapT<K, V, F> shard : shards)
+      count += shard.count();
+    return count;
+  }
+
+  @Override
+  public void close() {
+    for (MapT<K, V, F> shard : shards)
+      shard.close();
+  }
+
+  public void delete() {
+    for (MapT<K, V, F> shard : shards)
+      shard.delete();
+  }
+
+  private <T> List<List<T>> split(Iterable<T> items, Function<T, K> key) {
+    List<List<T>> batches = new ArrayList<>(shards.size());
+    for (int shard = 0; shard < shards.size(); shard++)
+      batches.add(new ArrayList<>());
+
+    for (T item : items)
+      batches.get(shardIndex(key.apply(item))).add(item);
+    return batches;
+  }
+
+  /**
+   * k-way merge of the shards' ordered iterators. A key is only in one shard so keys are never equal.
+   */
+  static final class MergedIterator<K, V> implements Iterator<KeyVal<K, V>> {
+
+    private static final class Head<K, V> {
+      final KeyVal<K, V> keyValue;
+      final Iterator<KeyVal<K, V>> iterator;
+
+      Head(KeyVal<K, V> keyValue, Iterator<KeyVal<K, V>> iterator) {
+        this.keyValue = keyValue;
+        this.iterator = iterator;
+      }
+    }
+
+    private final PriorityQueue<Head<K, V>> heads;
+
+    MergedIterator(List<Iterator<KeyVal<K, V>>> iterators, Comparator<K> keyOrder) {
+      this.heads = new PriorityQueue<>(iterators.size(), (left, right) -> keyOrder.compare(left.keyValue.key(), right.keyValue.key()));
+      for (Iterator<KeyVal<K, V>> iterator : iterators)
+        advance(iterator);
+    }
+
+    private void advance(Iterator<KeyVal<K, V>> iterator) {
+      if (iterator.hasNext())
+        heads.add(new Head<>(iterator.next(), iterator));
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public KeyVal<K, V> next() {
+      Head<K, V> head = heads.poll();
+      if (head == null)
+        throw new NoSuchElementException();
+
+      advance(head.iterator);
+      return head.keyValue;
+    }
+  }
+}
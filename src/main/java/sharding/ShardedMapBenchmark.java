@@ -0,0 +1,77 @@
+package sharding;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.java.persistent.PersistentMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Write throughput of a {@link ShardedMap} of 1 to 16 {@link PersistentMap}s with the default
+ * configuration, each in its own directory. Threads write random keys concurrently. putBatch reports keys
+ * per second, each key is serialized once to route it and once by its shard.
+ * <p>
+ * Scaling depends on the number of cores so run with -t set to the machine's core count, eg: -t 16.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(Threads.MAX)
+public class ShardedMapBenchmark {
+
+  @Param({"1", "2", "4", "8", "16"})
+  int shards;
+
+  @Param("10000000")
+  int keyRange;
+
+  //a constant so @OperationsPerInvocation of putBatch always matches it.
+  static final int BATCH_SIZE = 100;
+
+  ShardedMap<Integer, Integer, Void> map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map =
+      ShardedMap.persistent(
+        BenchmarkMaps.directory("sharded-" + shards),
+        shards,
+        intSerializer(),
+        Comparator.<Integer>naturalOrder(),
+        directory -> PersistentMap.functionsOff(directory, intSerializer(), intSerializer()).get()
+      );
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    map.delete();
+  }
+
+  @Benchmark
+  public void put() {
+    int key = ThreadLocalRandom.current().nextInt(keyRange);
+    map.put(key, key);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public void putBatch() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    List<KeyVal<Integer, Integer>> batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      int key = random.nextInt(keyRange);
+      batch.add(KeyVal.of(key, key));
+    }
+    map.put(batch);
+  }
+}
@@ -0,0 +1,67 @@
+package sharding;
+
+import benchmark.BenchmarkMaps;
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.KeyVal;
+import swaydb.PureFunction;
+import swaydb.java.Stream;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class ShardedMapTest {
+
+  @Test
+  void keysAreSpreadOverShardsAndStreamedInOrder() {
+    ShardedMap<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> map =
+      ShardedMap.memory(4, intSerializer(), Comparator.naturalOrder(), BenchmarkMaps::memoryFunctionsOn);
+
+    map.put(Stream.range(1, 1000).map(KeyVal::of).materialize());
+
+    //every shard has some keys and each key is only in its own shard.
+    for (int shard = 0; shard < 4; shard++) {
+      int index = shard;
+      assertTrue(map.shards().get(shard).count() > 150);
+      map.shards().get(shard).forEach(keyVal -> assertEquals(index, map.shardIndex(keyVal.key())));
+    }
+
+    List<Integer> expected = IntStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+    assertEquals(expected, map.stream().map(KeyVal::key).materialize());
+    assertEquals(expected.subList(499, 1000), map.stream(500).map(KeyVal::key).materialize());
+    assertEquals(1000, map.count());
+
+    map.delete();
+  }
+
+  @Test
+  void rangeOperationsApplyToAllShards() {
+    ShardedMap<Integer, Integer, PureFunction<Integer, Integer, Apply.Map<Integer>>> map =
+      ShardedMap.memory(3, intSerializer(), Comparator.naturalOrder(), BenchmarkMaps::memoryFunctionsOn);
+
+    map.put(Stream.range(1, 100).map(KeyVal::of).materialize());
+
+    map.applyFunction(1, 10, BenchmarkMaps.incrementFunction);
+    map.applyFunction(50, BenchmarkMaps.incrementFunction);
+    assertEquals(Optional.of(2), map.get(1));
+    assertEquals(Optional.of(11), map.get(10));
+    assertEquals(Optional.of(11), map.get(11));
+    assertEquals(Optional.of(51), map.get(50));
+
+    map.remove(20, 29);
+    map.remove(30);
+    for (int key = 20; key <= 30; key++)
+      assertFalse(map.contains(key));
+    assertEquals(89, map.count());
+
+    map.delete();
+  }
+}
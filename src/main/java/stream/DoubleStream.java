@@ -0,0 +1,222 @@
+package stream;
+
+import swaydb.java.Stream;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A lazy stream of primitive doubles, see {@link IntStream}.
+ */
+public abstract class DoubleStream {
+
+  /**
+   * Passes elements to action until there are no more elements or action returns false.
+   *
+   * @return false if action stopped the stream.
+   */
+  public abstract boolean forEachWhile(DoublePredicate action);
+
+  public static DoubleStream of(double... values) {
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        for (double value : values)
+          if (!action.test(value))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Maps each element of the stream to a double. Stops reading the stream early if this stream is stopped.
+   */
+  public static <A> DoubleStream of(Stream<A> stream, ToDoubleFunction<? super A> mapper) {
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        Iterator<A> iterator = stream.iterator();
+        while (iterator.hasNext())
+          if (!action.test(mapper.applyAsDouble(iterator.next())))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  public DoubleStream map(DoubleUnaryOperator mapper) {
+    DoubleStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsDouble(value)));
+      }
+    };
+  }
+
+  public IntStream mapToInt(DoubleToIntFunction mapper) {
+    DoubleStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsInt(value)));
+      }
+    };
+  }
+
+  public LongStream mapToLong(DoubleToLongFunction mapper) {
+    DoubleStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsLong(value)));
+      }
+    };
+  }
+
+  public DoubleStream filter(DoublePredicate predicate) {
+    DoubleStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        return parent.forEachWhile(value -> !predicate.test(value) || action.test(value));
+      }
+    };
+  }
+
+  public DoubleStream takeWhile(DoublePredicate predicate) {
+    DoubleStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        //the stream is only stopped if the action stops it, not if the predicate ends it.
+        boolean[] stoppedByAction = {false};
+        parent.forEachWhile(
+          value -> {
+            if (!predicate.test(value))
+              return false;
+            if (!action.test(value)) {
+              stoppedByAction[0] = true;
+              return false;
+            }
+            return true;
+          }
+        );
+        return !stoppedByAction[0];
+      }
+    };
+  }
+
+  public DoubleStream dropWhile(DoublePredicate predicate) {
+    DoubleStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        boolean[] dropping = {true};
+        return
+          parent.forEachWhile(
+            value -> {
+              if (dropping[0] && predicate.test(value))
+                return true;
+              dropping[0] = false;
+              return action.test(value);
+            }
+          );
+      }
+    };
+  }
+
+  public DoubleStream take(int count) {
+    DoubleStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        if (count <= 0)
+          return true;
+
+        int[] taken = {0};
+        boolean[] stoppedByAction = {false};
+        parent.forEachWhile(
+          value -> {
+            if (!action.test(value)) {
+              stoppedByAction[0] = true;
+              return false;
+            }
+            return ++taken[0] < count;
+          }
+        );
+        return !stoppedByAction[0];
+      }
+    };
+  }
+
+  public DoubleStream drop(int count) {
+    DoubleStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        int[] dropped = {0};
+        return
+          parent.forEachWhile(
+            value -> {
+              if (dropped[0] < count) {
+                dropped[0]++;
+                return true;
+              }
+              return action.test(value);
+            }
+          );
+      }
+    };
+  }
+
+  public void forEach(DoubleConsumer action) {
+    forEachWhile(
+      value -> {
+        action.accept(value);
+        return true;
+      }
+    );
+  }
+
+  public double foldLeft(double initial, DoubleBinaryOperator operator) {
+    double[] result = {initial};
+    forEach(value -> result[0] = operator.applyAsDouble(result[0], value));
+    return result[0];
+  }
+
+  public double sum() {
+    double[] sum = {0};
+    forEach(value -> sum[0] += value);
+    return sum[0];
+  }
+
+  public long count() {
+    long[] count = {0};
+    forEach(value -> count[0]++);
+    return count[0];
+  }
+
+  public double[] toArray() {
+    double[][] array = {new double[16]};
+    int[] size = {0};
+    forEach(
+      value -> {
+        if (size[0] == array[0].length)
+          array[0] = Arrays.copyOf(array[0], size[0] * 2);
+        array[0][size[0]++] = value;
+      }
+    );
+    return Arrays.copyOf(array[0], size[0]);
+  }
+}
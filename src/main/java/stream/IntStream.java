@@ -0,0 +1,260 @@
+package stream;
+
+import swaydb.java.Stream;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.DoublePredicate;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * A lazy stream of primitive ints. Same operations as {@link Stream} for numeric pipelines
+ * without boxing each element at each stage.
+ * <p>
+ * Create from a range or by mapping a {@link Stream}, eg: the values of a map
+ * <pre>
+ * IntStream.of(map.stream(), KeyVal::value).filter(value -> value % 2 == 0).sum();
+ * </pre>
+ * Elements are pushed through all stages so intermediate operations do not allocate per element.
+ * Like {@link Stream} a stream created from a {@link Stream} can be run once.
+ */
+public abstract class IntStream {
+
+  /**
+   * Passes elements to action until there are no more elements or action returns false.
+   *
+   * @return false if action stopped the stream.
+   */
+  public abstract boolean forEachWhile(IntPredicate action);
+
+  /**
+   * Inclusive range, same as {@link Stream#range(int, int)}.
+   */
+  public static IntStream range(int from, int to) {
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        for (long i = from; i <= to; i++)
+          if (!action.test((int) i))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  public static IntStream rangeUntil(int from, int until) {
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        for (int i = from; i < until; i++)
+          if (!action.test(i))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  public static IntStream of(int... values) {
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        for (int value : values)
+          if (!action.test(value))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Maps each element of the stream to an int. Stops reading the stream early if this stream is stopped.
+   */
+  public static <A> IntStream of(Stream<A> stream, ToIntFunction<? super A> mapper) {
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        Iterator<A> iterator = stream.iterator();
+        while (iterator.hasNext())
+          if (!action.test(mapper.applyAsInt(iterator.next())))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  public IntStream map(IntUnaryOperator mapper) {
+    IntStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsInt(value)));
+      }
+    };
+  }
+
+  public LongStream mapToLong(IntToLongFunction mapper) {
+    IntStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsLong(value)));
+      }
+    };
+  }
+
+  public DoubleStream mapToDouble(IntToDoubleFunction mapper) {
+    IntStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsDouble(value)));
+      }
+    };
+  }
+
+  public IntStream filter(IntPredicate predicate) {
+    IntStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        return parent.forEachWhile(value -> !predicate.test(value) || action.test(value));
+      }
+    };
+  }
+
+  public IntStream takeWhile(IntPredicate predicate) {
+    IntStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        //the stream is only stopped if the action stops it, not if the predicate ends it.
+        boolean[] stoppedByAction = {false};
+        parent.forEachWhile(
+          value -> {
+            if (!predicate.test(value))
+              return false;
+            if (!action.test(value)) {
+              stoppedByAction[0] = true;
+              return false;
+            }
+            return true;
+          }
+        );
+        return !stoppedByAction[0];
+      }
+    };
+  }
+
+  public IntStream dropWhile(IntPredicate predicate) {
+    IntStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        boolean[] dropping = {true};
+        return
+          parent.forEachWhile(
+            value -> {
+              if (dropping[0] && predicate.test(value))
+                return true;
+              dropping[0] = false;
+              return action.test(value);
+            }
+          );
+      }
+    };
+  }
+
+  public IntStream take(int count) {
+    IntStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        if (count <= 0)
+          return true;
+
+        int[] taken = {0};
+        boolean[] stoppedByAction = {false};
+        parent.forEachWhile(
+          value -> {
+            if (!action.test(value)) {
+              stoppedByAction[0] = true;
+              return false;
+            }
+            return ++taken[0] < count;
+          }
+        );
+        return !stoppedByAction[0];
+      }
+    };
+  }
+
+  public IntStream drop(int count) {
+    IntStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        int[] dropped = {0};
+        return
+          parent.forEachWhile(
+            value -> {
+              if (dropped[0] < count) {
+                dropped[0]++;
+                return true;
+              }
+              return action.test(value);
+            }
+          );
+      }
+    };
+  }
+
+  public void forEach(IntConsumer action) {
+    forEachWhile(
+      value -> {
+        action.accept(value);
+        return true;
+      }
+    );
+  }
+
+  public int foldLeft(int initial, IntBinaryOperator operator) {
+    int[] result = {initial};
+    forEach(value -> result[0] = operator.applyAsInt(result[0], value));
+    return result[0];
+  }
+
+  /**
+   * Sum as a long so that summing many ints does not overflow.
+   */
+  public long sum() {
+    long[] sum = {0};
+    forEach(value -> sum[0] += value);
+    return sum[0];
+  }
+
+  public long count() {
+    long[] count = {0};
+    forEach(value -> count[0]++);
+    return count[0];
+  }
+
+  public int[] toArray() {
+    int[][] array = {new int[16]};
+    int[] size = {0};
+    forEach(
+      value -> {
+        if (size[0] == array[0].length)
+          array[0] = Arrays.copyOf(array[0], size[0] * 2);
+        array[0][size[0]++] = value;
+      }
+    );
+    return Arrays.copyOf(array[0], size[0]);
+  }
+}
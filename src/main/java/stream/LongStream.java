@@ -0,0 +1,255 @@
+package stream;
+
+import swaydb.java.Stream;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+/**
+ * A lazy stream of primitive longs, see {@link IntStream}.
+ */
+public abstract class LongStream {
+
+  /**
+   * Passes elements to action until there are no more elements or action returns false.
+   *
+   * @return false if action stopped the stream.
+   */
+  public abstract boolean forEachWhile(LongPredicate action);
+
+  /**
+   * Inclusive range.
+   */
+  public static LongStream range(long from, long to) {
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        if (from > to)
+          return true;
+
+        //stop at to without overflowing if to is Long.MAX_VALUE.
+        for (long i = from; ; i++) {
+          if (!action.test(i))
+            return false;
+          if (i == to)
+            return true;
+        }
+      }
+    };
+  }
+
+  public static LongStream rangeUntil(long from, long until) {
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        for (long i = from; i < until; i++)
+          if (!action.test(i))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  public static LongStream of(long... values) {
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        for (long value : values)
+          if (!action.test(value))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  /**
+   * Maps each element of the stream to a long. Stops reading the stream early if this stream is stopped.
+   */
+  public static <A> LongStream of(Stream<A> stream, ToLongFunction<? super A> mapper) {
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        Iterator<A> iterator = stream.iterator();
+        while (iterator.hasNext())
+          if (!action.test(mapper.applyAsLong(iterator.next())))
+            return false;
+        return true;
+      }
+    };
+  }
+
+  public LongStream map(LongUnaryOperator mapper) {
+    LongStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsLong(value)));
+      }
+    };
+  }
+
+  public IntStream mapToInt(LongToIntFunction mapper) {
+    LongStream parent = this;
+    return new IntStream() {
+      @Override
+      public boolean forEachWhile(IntPredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsInt(value)));
+      }
+    };
+  }
+
+  public DoubleStream mapToDouble(LongToDoubleFunction mapper) {
+    LongStream parent = this;
+    return new DoubleStream() {
+      @Override
+      public boolean forEachWhile(DoublePredicate action) {
+        return parent.forEachWhile(value -> action.test(mapper.applyAsDouble(value)));
+      }
+    };
+  }
+
+  public LongStream filter(LongPredicate predicate) {
+    LongStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        return parent.forEachWhile(value -> !predicate.test(value) || action.test(value));
+      }
+    };
+  }
+
+  public LongStream takeWhile(LongPredicate predicate) {
+    LongStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        //the stream is only stopped if the action stops it, not if the predicate ends it.
+        boolean[] stoppedByAction = {false};
+        parent.forEachWhile(
+          value -> {
+            if (!predicate.test(value))
+              return false;
+            if (!action.test(value)) {
+              stoppedByAction[0] = true;
+              return false;
+            }
+            return true;
+          }
+        );
+        return !stoppedByAction[0];
+      }
+    };
+  }
+
+  public LongStream dropWhile(LongPredicate predicate) {
+    LongStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        boolean[] dropping = {true};
+        return
+          parent.forEachWhile(
+            value -> {
+              if (dropping[0] && predicate.test(value))
+                return true;
+              dropping[0] = false;
+              return action.test(value);
+            }
+          );
+      }
+    };
+  }
+
+  public LongStream take(int count) {
+    LongStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        if (count <= 0)
+          return true;
+
+        int[] taken = {0};
+        boolean[] stoppedByAction = {false};
+        parent.forEachWhile(
+          value -> {
+            if (!action.test(value)) {
+              stoppedByAction[0] = true;
+              return false;
+            }
+            return ++taken[0] < count;
+          }
+        );
+        return !stoppedByAction[0];
+      }
+    };
+  }
+
+  public LongStream drop(int count) {
+    LongStream parent = this;
+    return new LongStream() {
+      @Override
+      public boolean forEachWhile(LongPredicate action) {
+        int[] dropped = {0};
+        return
+          parent.forEachWhile(
+            value -> {
+              if (dropped[0] < count) {
+                dropped[0]++;
+                return true;
+              }
+              return action.test(value);
+            }
+          );
+      }
+    };
+  }
+
+  public void forEach(LongConsumer action) {
+    forEachWhile(
+      value -> {
+        action.accept(value);
+        return true;
+      }
+    );
+  }
+
+  public long foldLeft(long initial, LongBinaryOperator operator) {
+    long[] result = {initial};
+    forEach(value -> result[0] = operator.applyAsLong(result[0], value));
+    return result[0];
+  }
+
+  public long sum() {
+    long[] sum = {0};
+    forEach(value -> sum[0] += value);
+    return sum[0];
+  }
+
+  public long count() {
+    long[] count = {0};
+    forEach(value -> count[0]++);
+    return count[0];
+  }
+
+  public long[] toArray() {
+    long[][] array = {new long[16]};
+    int[] size = {0};
+    forEach(
+      value -> {
+        if (size[0] == array[0].length)
+          array[0] = Arrays.copyOf(array[0], size[0] * 2);
+        array[0][size[0]++] = value;
+      }
+    );
+    return Arrays.copyOf(array[0], size[0]);
+  }
+}
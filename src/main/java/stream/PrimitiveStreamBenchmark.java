@@ -0,0 +1,94 @@
+package stream;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link StreamTest} pipeline (range, map, filter, fold) over size elements with the boxed
+ * {@link Stream}, {@link IntStream} and java.util.stream, and a sum of all values of a map.
+ * <p>
+ * Run with -prof gc to compare allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrimitiveStreamBenchmark {
+
+  @Param("1000000")
+  int size;
+
+  Map<Integer, Integer, ?> map;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    map = BenchmarkMaps.memoryFunctionsOff();
+    map.put(Stream.range(1, size).map(KeyVal::of));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    map.delete();
+  }
+
+  @Benchmark
+  public Integer boxedStream() {
+    return
+      Stream
+        .range(1, size)
+        .map(integer -> integer - 1)
+        .filter(integer -> integer % 2 == 0)
+        .foldLeft(0, Integer::sum);
+  }
+
+  @Benchmark
+  public int intStream() {
+    return
+      IntStream
+        .range(1, size)
+        .map(integer -> integer - 1)
+        .filter(integer -> integer % 2 == 0)
+        .foldLeft(0, Integer::sum);
+  }
+
+  @Benchmark
+  public int javaIntStream() {
+    return
+      java.util.stream.IntStream
+        .rangeClosed(1, size)
+        .map(integer -> integer - 1)
+        .filter(integer -> integer % 2 == 0)
+        .reduce(0, Integer::sum);
+  }
+
+  @Benchmark
+  public Integer javaBoxedStream() {
+    return
+      java.util.stream.IntStream
+        .rangeClosed(1, size)
+        .boxed()
+        .map(integer -> integer - 1)
+        .filter(integer -> integer % 2 == 0)
+        .reduce(0, Integer::sum);
+  }
+
+  @Benchmark
+  public Long mapValuesBoxedSum() {
+    return
+      map
+        .values()
+        .foldLeft(0L, (sum, value) -> sum + value);
+  }
+
+  @Benchmark
+  public long mapValuesIntStreamSum() {
+    return IntStream.of(map.stream(), KeyVal::value).sum();
+  }
+}
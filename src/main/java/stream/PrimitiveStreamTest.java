@@ -0,0 +1,67 @@
+package stream;
+
+import org.junit.jupiter.api.Test;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.longSerializer;
+
+class PrimitiveStreamTest {
+
+  /**
+   * Same as {@link StreamTest} without boxing.
+   */
+  @Test
+  void intStream() {
+    int sum =
+      IntStream
+        .range(1, 1000)
+        .map(integer -> integer - 1)
+        .filter(integer -> integer % 2 == 0)
+        .foldLeft(0, Integer::sum);
+
+    assertEquals(249500, sum);
+    assertEquals(249500, IntStream.range(1, 1000).map(integer -> integer - 1).filter(integer -> integer % 2 == 0).sum());
+    assertEquals(1000, IntStream.range(1, 1000).count());
+    assertEquals(3, IntStream.range(Integer.MAX_VALUE - 2, Integer.MAX_VALUE).count());
+  }
+
+  @Test
+  void takeAndDrop() {
+    assertArrayEquals(new int[]{3, 4, 5}, IntStream.range(1, 10).drop(2).take(3).toArray());
+    assertArrayEquals(new int[]{4, 5}, IntStream.range(1, 10).dropWhile(i -> i < 4).takeWhile(i -> i < 6).toArray());
+    assertArrayEquals(new int[]{}, IntStream.range(1, 10).take(0).toArray());
+    assertArrayEquals(new long[]{1, 2}, IntStream.range(1, 10).take(5).mapToLong(i -> i).take(2).toArray());
+    assertArrayEquals(new double[]{0.5, 1.0}, LongStream.range(1, Long.MAX_VALUE).mapToDouble(i -> i / 2.0).take(2).toArray());
+    assertEquals(2, LongStream.range(Long.MAX_VALUE - 1, Long.MAX_VALUE).count());
+  }
+
+  @Test
+  void keyValueStreams() {
+    Map<Integer, Long, Void> map =
+      MemoryMap
+        .functionsOff(intSerializer(), longSerializer())
+        .get();
+
+    map.put(swaydb.java.Stream.range(1, 1000).map(key -> KeyVal.of(key, key * 1000L)));
+
+    assertEquals(500500, IntStream.of(map.stream(), KeyVal::key).sum());
+    assertEquals(500500000L, LongStream.of(map.stream(), KeyVal::value).sum());
+    assertEquals(500.5, DoubleStream.of(map.stream(), KeyVal::key).sum() / 1000);
+
+    //stops reading the map after the range.
+    long rangeSum =
+      LongStream
+        .of(map.stream().from(10), KeyVal::value)
+        .takeWhile(value -> value <= 90_000)
+        .sum();
+
+    assertEquals(4_050_000, rangeSum);
+
+    map.delete();
+  }
+}
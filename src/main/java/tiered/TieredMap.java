@@ -0,0 +1,376 @@
+package tiered;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swaydb.KeyVal;
+import swaydb.Prepare;
+import swaydb.data.slice.Slice;
+import swaydb.data.util.ByteOps;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.serializers.Serializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A map that accepts writes into a {@link MemoryMap} front tier and drains them in the background to a back tier,
+ * eg: a {@link swaydb.java.persistent.PersistentMap}, so writes return at memory speed.
+ * <p>
+ * The drainer reads the front tier in key order in batches of batchSize, commits each batch atomically to the back
+ * tier and then removes the drained entries from the front tier unless they were written again meanwhile.
+ * Removes are kept in the front tier as tombstones until drained. Reads check the front tier, then the back tier.
+ * <p>
+ * The front tier holds at most maxPendingKeys keys. Writes of new keys block while it is full, so writers slow down
+ * to the back tier's speed when draining falls behind. {@link #flush()} returns when every write made before it
+ * is in the back tier.
+ * <p>
+ * Writes must go through this class. Point reads and writes only, the tiers are not merged for streams.
+ * Writes that are not drained yet are lost by a crash.
+ */
+public class TieredMap<K, V> implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TieredMap.class);
+
+  private static final int LOCK_STRIPES = 64;
+  public static final Duration IDLE_INTERVAL = Duration.ofMillis(10);
+
+  /**
+   * A value of the front tier: the value or a tombstone, and the version of the write.
+   */
+  static final class Pending<V> {
+    final long version;
+    //null for tombstones.
+    final V value;
+
+    Pending(long version, V value) {
+      this.version = version;
+      this.value = value;
+    }
+
+    boolean isTombstone() {
+      return value == null;
+    }
+  }
+
+  /**
+   * [version: long][tombstone: byte][value bytes]
+   */
+  static <V> Serializer<Pending<V>> pendingSerializer(Serializer<V> valueSerializer) {
+    return new Serializer<Pending<V>>() {
+      @Override
+      public Slice<Byte> write(Pending<V> data) {
+        Slice<Byte> value = data.isTombstone() ? Slice.emptyJavaBytes() : valueSerializer.write(data.value);
+        Slice<Byte> slice = Slice.ofBytesJava(Long.BYTES + 1 + value.size());
+        slice.addLong(data.version, ByteOps.Java());
+        slice.add(data.isTombstone() ? (byte) 1 : (byte) 0);
+        slice.addAll(value);
+        return slice;
+      }
+
+      @Override
+      public Pending<V> read(Slice<Byte> slice) {
+        long version = ByteOps.Java().readLong(slice);
+        if (slice.get(Long.BYTES) == 1)
+          return new Pending<>(version, null);
+
+        Slice<Byte> value = slice.size() == Long.BYTES + 1 ? Slice.emptyJavaBytes() : slice.drop(Long.BYTES + 1);
+        return new Pending<>(version, valueSerializer.read(value));
+      }
+    };
+  }
+
+  private final Serializer<K> keySerializer;
+  private final Map<K, Pending<V>, Void> front;
+  private final Map<K, V, Void> back;
+  private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+  private final AtomicLong versions = new AtomicLong();
+  private final AtomicLong pendingKeys = new AtomicLong();
+
+  private volatile int maxPendingKeys = 100_000;
+  private volatile int batchSize = 1000;
+
+  //held while draining so flush and the drainer do not drain the same entries.
+  private final ReentrantLock drainLock = new ReentrantLock();
+  private final ReentrantLock pendingLock = new ReentrantLock();
+  private final Condition drained = pendingLock.newCondition();
+  private final Condition written = pendingLock.newCondition();
+
+  private final Thread drainer;
+  private volatile boolean closed;
+  private volatile RuntimeException drainFailure;
+
+  public TieredMap(Serializer<K> keySerializer, Serializer<V> valueSerializer, Map<K, V, Void> back) {
+    this.keySerializer = keySerializer;
+    this.front =
+      MemoryMap
+        .functionsOff(keySerializer, pendingSerializer(valueSerializer))
+        .get();
+    this.back = back;
+
+    for (int i = 0; i < locks.length; i++)
+      locks[i] = new ReentrantLock();
+
+    this.drainer = new Thread(this::drainContinuously, "tiered-map-drainer");
+    drainer.setDaemon(true);
+    drainer.start();
+  }
+
+  /**
+   * Writes of new keys block while the front tier holds maxPendingKeys keys.
+   */
+  public TieredMap<K, V> setMaxPendingKeys(int maxPendingKeys) {
+    this.maxPendingKeys = maxPendingKeys;
+    return this;
+  }
+
+  /**
+   * Number of entries committed to the back tier at once.
+   */
+  public TieredMap<K, V> setBatchSize(int batchSize) {
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  public Map<K, V, Void> back() {
+    return back;
+  }
+
+  /**
+   * Number of keys in the front tier that are not drained yet.
+   */
+  public long pendingKeys() {
+    return pendingKeys.get();
+  }
+
+  private ReentrantLock lock(K key) {
+    return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+  }
+
+  private void checkOpen() {
+    if (drainFailure != null)
+      throw new IllegalStateException("Draining to the back tier failed", drainFailure);
+    if (closed)
+      throw new IllegalStateException("TieredMap is closed");
+  }
+
+  private void awaitCapacity() {
+    if (pendingKeys.get() < maxPendingKeys)
+      return;
+
+    pendingLock.lock();
+    try {
+      while (pendingKeys.get() >= maxPendingKeys) {
+        checkOpen();
+        drained.await(IDLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException exception) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(exception);
+    } finally {
+      pendingLock.unlock();
+    }
+  }
+
+  private void write(K key, V value) {
+    checkOpen();
+    awaitCapacity();
+
+    ReentrantLock lock = lock(key);
+    lock.lock();
+    try {
+      boolean pending = front.contains(key);
+      front.put(key, new Pending<>(versions.incrementAndGet(), value));
+      if (!pending && pendingKeys.incrementAndGet() == 1)
+        signalWritten();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void signalWritten() {
+    pendingLock.lock();
+    try {
+      written.signalAll();
+    } finally {
+      pendingLock.unlock();
+    }
+  }
+
+  public void put(K key, V value) {
+    write(key, value);
+  }
+
+  public void put(Iterable<KeyVal<K, V>> keyValues) {
+    for (KeyVal<K, V> keyValue : keyValues)
+      write(keyValue.key(), keyValue.value());
+  }
+
+  public void remove(K key) {
+    write(key, null);
+  }
+
+  public Optional<V> get(K key) {
+    Optional<Pending<V>> pending = front.get(key);
+    if (pending.isPresent())
+      return Optional.ofNullable(pending.get().value);
+
+    return back.get(key);
+  }
+
+  public boolean contains(K key) {
+    return get(key).isPresent();
+  }
+
+  private static boolean sameBytes(Slice<Byte> left, Slice<Byte> right) {
+    if (left.size() != right.size())
+      return false;
+
+    for (int i = 0; i < left.size(); i++)
+      if (!left.get(i).equals(right.get(i)))
+        return false;
+    return true;
+  }
+
+  /**
+   * Drains the keys in the front tier once in key order, up to the front tier's last key when the pass started.
+   *
+   * @return number of entries drained.
+   */
+  private long drainPass() {
+    drainLock.lock();
+    try {
+      //keys written during the pass can keep appearing after the cursor, eg: ascending timestamps. Only drains
+      //remove keys from the front tier so the last key is still there when the pass reaches it.
+      Optional<KeyVal<K, Pending<V>>> last = front.last();
+      if (!last.isPresent())
+        return 0;
+      Slice<Byte> lastKey = keySerializer.write(last.get().key());
+
+      long drainedEntries = 0;
+      Optional<K> after = Optional.empty();
+      boolean lastBatch = false;
+
+      while (!lastBatch) {
+        List<KeyVal<K, Pending<V>>> batch =
+          after.isPresent()
+            ? front.after(after.get()).take(batchSize).materialize()
+            : front.stream().take(batchSize).materialize();
+
+        if (batch.isEmpty())
+          return drainedEntries;
+
+        for (int i = 0; i < batch.size(); i++) {
+          if (sameBytes(keySerializer.write(batch.get(i).key()), lastKey)) {
+            batch = batch.subList(0, i + 1);
+            lastBatch = true;
+            break;
+          }
+        }
+
+        List<Prepare<K, V, Void>> prepares = new ArrayList<>(batch.size());
+        for (KeyVal<K, Pending<V>> entry : batch)
+          if (entry.value().isTombstone())
+            prepares.add(Prepare.removeFromMap(entry.key()));
+          else
+            prepares.add(Prepare.put(entry.key(), entry.value().value));
+
+        back.commit(prepares);
+
+        for (KeyVal<K, Pending<V>> entry : batch) {
+          ReentrantLock lock = lock(entry.key());
+          lock.lock();
+          try {
+            //else written again while draining, drained by a later pass.
+            Optional<Pending<V>> current = front.get(entry.key());
+            if (current.isPresent() && current.get().version == entry.value().version) {
+              front.remove(entry.key());
+              pendingKeys.decrementAndGet();
+            }
+          } finally {
+            lock.unlock();
+          }
+        }
+
+        drainedEntries += batch.size();
+        after = Optional.of(batch.get(batch.size() - 1).key());
+
+        pendingLock.lock();
+        try {
+          drained.signalAll();
+        } finally {
+          pendingLock.unlock();
+        }
+      }
+      return drainedEntries;
+    } finally {
+      drainLock.unlock();
+    }
+  }
+
+  private void drainContinuously() {
+    while (!closed) {
+      try {
+        if (pendingKeys.get() == 0) {
+          pendingLock.lock();
+          try {
+            if (pendingKeys.get() == 0 && !closed)
+              written.await(IDLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+          } finally {
+            pendingLock.unlock();
+          }
+        } else {
+          drainPass();
+        }
+      } catch (InterruptedException exception) {
+        return;
+      } catch (RuntimeException exception) {
+        logger.error("Draining to the back tier failed", exception);
+        drainFailure = exception;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Blocks until every write made before the call is in the back tier.
+   * Keys written again during the flush are drained with their newer value.
+   */
+  public void flush() {
+    checkOpen();
+    drainPass();
+  }
+
+  private void stopDrainer() throws InterruptedException {
+    closed = true;
+    signalWritten();
+    drainer.join();
+  }
+
+  /**
+   * Flushes, stops the drainer and closes both tiers.
+   */
+  @Override
+  public void close() throws InterruptedException {
+    if (drainFailure == null)
+      drainPass();
+    stopDrainer();
+    front.close();
+    back.close();
+  }
+
+  /**
+   * Stops the drainer without draining and deletes both tiers.
+   */
+  public void delete() throws InterruptedException {
+    stopDrainer();
+    front.delete();
+    back.delete();
+  }
+}
@@ -0,0 +1,81 @@
+package tiered;
+
+import benchmark.BenchmarkMaps;
+import org.openjdk.jmh.annotations.*;
+import swaydb.java.Map;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+
+/**
+ * Write throughput and latency percentiles of a persistent map and of a {@link TieredMap} draining to the same
+ * persistent map, and read latency of keys that are mostly already drained.
+ * Run with -bm thrpt or -bm sample to see either.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class TieredMapBenchmark {
+
+  public enum Store {
+    PERSISTENT,
+    TIERED
+  }
+
+  @Param({"PERSISTENT", "TIERED"})
+  Store store;
+
+  @Param("100000")
+  int maxPendingKeys;
+
+  @Param("1000000")
+  int keyCount;
+
+  Map<Integer, Integer, Void> persistent;
+  TieredMap<Integer, Integer> tiered;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    persistent = BenchmarkMaps.persistentFunctionsOff(BenchmarkMaps.directory("tieredMap"));
+    if (store == Store.TIERED)
+      tiered =
+        new TieredMap<>(intSerializer(), intSerializer(), persistent)
+          .setMaxPendingKeys(maxPendingKeys);
+  }
+
+  @TearDown(Level.Trial)
+  public void close() throws InterruptedException {
+    if (tiered != null) {
+      long start = System.nanoTime();
+      long pending = tiered.pendingKeys();
+      tiered.flush();
+      System.out.printf("%nFlushed %d pending keys in %d ms%n", pending, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+      tiered.delete();
+    } else {
+      persistent.delete();
+    }
+  }
+
+  @Benchmark
+  public void put() {
+    int key = ThreadLocalRandom.current().nextInt(keyCount);
+    if (tiered != null)
+      tiered.put(key, key);
+    else
+      persistent.put(key, key);
+  }
+
+  @Benchmark
+  public Object get() {
+    int key = ThreadLocalRandom.current().nextInt(keyCount);
+    if (tiered != null)
+      return tiered.get(key);
+    else
+      return persistent.get(key);
+  }
+}
@@ -0,0 +1,110 @@
+package tiered;
+
+import benchmark.BenchmarkMaps;
+import org.junit.jupiter.api.Test;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class TieredMapTest {
+
+  @Test
+  void readThroughAndFlush() throws Exception {
+    Path directory = Files.createTempDirectory("tieredMapTest");
+    TieredMap<Integer, Integer> map =
+      new TieredMap<>(intSerializer(), intSerializer(), BenchmarkMaps.persistentFunctionsOff(directory));
+
+    for (int i = 1; i <= 1000; i++)
+      map.put(i, i);
+    map.remove(5);
+
+    assertEquals(100, map.get(100).get());
+    assertFalse(map.get(5).isPresent());
+
+    map.flush();
+    assertEquals(0, map.pendingKeys());
+    assertEquals(999, map.back().count());
+    assertFalse(map.back().get(5).isPresent());
+
+    //a tombstone hides the back tier's value until drained.
+    map.remove(6);
+    assertFalse(map.get(6).isPresent());
+    assertFalse(map.contains(6));
+    map.put(7, 70);
+    assertEquals(70, map.get(7).get());
+    map.close();
+
+    Map<Integer, Integer, Void> reopened = BenchmarkMaps.persistentFunctionsOff(directory);
+    assertEquals(998, reopened.count());
+    assertEquals(70, reopened.get(7).get());
+    assertFalse(reopened.get(6).isPresent());
+    reopened.delete();
+  }
+
+  @Test
+  void flushUnderAscendingWrites() throws Exception {
+    TieredMap<Integer, Integer> map =
+      new TieredMap<>(intSerializer(), intSerializer(), BenchmarkMaps.memoryFunctionsOff())
+        .setBatchSize(10);
+
+    for (int i = 0; i < 1000; i++)
+      map.put(i, i);
+
+    //keeps writing keys after every key the flush has seen.
+    AtomicBoolean writing = new AtomicBoolean(true);
+    CompletableFuture<Void> writer =
+      CompletableFuture.runAsync(() -> {
+        for (int from = 1000; writing.get(); from += 100) {
+          List<KeyVal<Integer, Integer>> batch = new ArrayList<>(100);
+          for (int i = from; i < from + 100; i++)
+            batch.add(KeyVal.of(i, i));
+          map.put(batch);
+        }
+      });
+
+    CompletableFuture.runAsync(map::flush).get(30, TimeUnit.SECONDS);
+    for (int i = 0; i < 1000; i++)
+      assertEquals(i, map.back().get(i).get());
+
+    writing.set(false);
+    writer.get();
+    map.delete();
+  }
+
+  @Test
+  void backpressure() throws Exception {
+    TieredMap<Integer, Integer> map =
+      new TieredMap<>(intSerializer(), intSerializer(), BenchmarkMaps.memoryFunctionsOff())
+        .setMaxPendingKeys(100)
+        .setBatchSize(10);
+
+    AtomicLong maxPending = new AtomicLong();
+    CompletableFuture<Void> monitor =
+      CompletableFuture.runAsync(() -> {
+        while (map.back().count() < 10_000)
+          maxPending.accumulateAndGet(map.pendingKeys(), Math::max);
+      });
+
+    for (int i = 0; i < 10_000; i++)
+      map.put(i, i);
+    map.flush();
+    monitor.get();
+
+    //writers wait for the drainer instead of growing the front tier.
+    assertTrue(maxPending.get() <= 100, "max pending " + maxPending.get());
+    assertEquals(10_000, map.back().count());
+    assertEquals(9_999, map.get(9_999).get());
+    map.delete();
+  }
+}
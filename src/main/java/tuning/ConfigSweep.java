@@ -0,0 +1,222 @@
+package tuning;
+
+import benchmark.BenchmarkMaps;
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.java.Map;
+import ycsb.Workload;
+import ycsb.WorkloadDriver;
+import ycsb.WorkloadResult;
+import ycsb.YcsbMaps;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Runs a {@link Workload} against a new persistent map of each {@link StoreConfig} and ranks the configs,
+ * see {@link Tuner} for a command line runner.
+ * <p>
+ * Each config loads recordCount records and runs the workload with {@link WorkloadDriver}, seeded with seed,
+ * so a sweep with one thread repeats the same operations per config and per release.
+ * Throughput and p99 latency are of the run. Peak RSS is sampled every {@link #RSS_INTERVAL} during the load and
+ * run, and bytes written are from the load until the map is closed, both are read from /proc and are -1 elsewhere.
+ * Configs run one after another in the same JVM, so the first config is run once untimed to warm up the JIT,
+ * otherwise configs that run first rank last, and a GC runs before each to make RSS comparable.
+ */
+public class ConfigSweep {
+
+  public static final Duration RSS_INTERVAL = Duration.ofMillis(100);
+
+  public enum Objective {
+    //highest first.
+    THROUGHPUT,
+    //lowest first.
+    P99,
+    BYTES_WRITTEN,
+    RSS;
+
+    //unknown values are ranked last.
+    private static long known(long value) {
+      return value < 0 ? Long.MAX_VALUE : value;
+    }
+
+    Comparator<SweepResult> comparator() {
+      switch (this) {
+        case THROUGHPUT:
+          return Comparator.comparingDouble(SweepResult::throughput).reversed();
+
+        case P99:
+          return Comparator.comparingDouble(SweepResult::p99Micros);
+
+        case BYTES_WRITTEN:
+          return Comparator.comparingLong(result -> known(result.bytesWritten()));
+
+        case RSS:
+          return Comparator.comparingLong(result -> known(result.peakRssBytes()));
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+  }
+
+  private final Workload workload;
+  private final List<StoreConfig> configs;
+
+  private int recordCount = 100_000;
+  private long operationCount = 200_000;
+  private Duration maxDuration;
+  private int threads = 1;
+  private int valueSize = 100;
+  private long seed = 42;
+  private Objective objective = Objective.THROUGHPUT;
+  private boolean warmup = true;
+
+  public ConfigSweep(Workload workload, List<StoreConfig> configs) {
+    this.workload = workload;
+    this.configs = configs;
+  }
+
+  public ConfigSweep setRecordCount(int recordCount) {
+    this.recordCount = recordCount;
+    return this;
+  }
+
+  public ConfigSweep setOperationCount(long operationCount) {
+    this.operationCount = operationCount;
+    return this;
+  }
+
+  /**
+   * Stops each run after maxDuration. Runs then differ in their number of operations.
+   */
+  public ConfigSweep setMaxDuration(Duration maxDuration) {
+    this.maxDuration = maxDuration;
+    return this;
+  }
+
+  public ConfigSweep setThreads(int threads) {
+    this.threads = threads;
+    return this;
+  }
+
+  public ConfigSweep setValueSize(int valueSize) {
+    this.valueSize = valueSize;
+    return this;
+  }
+
+  public ConfigSweep setSeed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  public ConfigSweep setObjective(Objective objective) {
+    this.objective = objective;
+    return this;
+  }
+
+  public ConfigSweep setWarmup(boolean warmup) {
+    this.warmup = warmup;
+    return this;
+  }
+
+  /**
+   * Parameters that a repeated sweep needs to use to be comparable.
+   */
+  public String description() {
+    return
+      String.format(
+        Locale.ROOT,
+        "Workload %s: records=%d operations=%d seconds=%s threads=%d valueSize=%d seed=%d configs=%d",
+        workload.name(), recordCount, operationCount, maxDuration == null ? "0" : String.valueOf(maxDuration.getSeconds()),
+        threads, valueSize, seed, configs.size()
+      );
+  }
+
+  public SweepReport run() {
+    if (warmup && !configs.isEmpty())
+      run(configs.get(0));
+
+    List<SweepResult> results = new ArrayList<>(configs.size());
+    for (StoreConfig config : configs) {
+      SweepResult result = run(config);
+      System.err.printf(Locale.ROOT, "%s: %.0f ops/s, p99 %.1f us%n", config, result.throughput(), result.p99Micros());
+      results.add(result);
+    }
+
+    results.sort(objective.comparator());
+    return new SweepReport(description(), objective, results);
+  }
+
+  SweepResult run(StoreConfig config) {
+    System.gc();
+
+    LongAccumulator peakRss = new LongAccumulator(Math::max, -1);
+    ScheduledExecutorService rssSampler =
+      Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+          Thread thread = new Thread(runnable, "config-sweep-rss");
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+    rssSampler.scheduleAtFixedRate(() -> peakRss.accumulate(ProcessStats.rssBytes()), 0, RSS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+    Path directory = BenchmarkMaps.directory("sweep");
+    long writeBytesBefore = ProcessStats.writeBytes();
+    try {
+      Map<Integer, String, PureFunction<Integer, String, Apply.Map<String>>> map = config.create(directory);
+
+      long loadNanos =
+        new WorkloadDriver<>(map, Workload.core("A"))
+          .setRecordCount(recordCount)
+          .setValueSize(valueSize)
+          .load();
+
+      WorkloadResult result =
+        new WorkloadDriver<>(map, workload)
+          .setConfigName(config.toString())
+          .setRecordCount(recordCount)
+          .setOperationCount(operationCount)
+          .setMaxDuration(maxDuration)
+          .setThreads(threads)
+          .setValueSize(valueSize)
+          .setSeed(seed)
+          .setReadModifyWrite(YcsbMaps.readModifyWrite)
+          .run();
+
+      map.close();
+      long writeBytesAfter = ProcessStats.writeBytes();
+      peakRss.accumulate(ProcessStats.rssBytes());
+
+      long written = writeBytesBefore < 0 || writeBytesAfter < 0 ? -1 : writeBytesAfter - writeBytesBefore;
+      return new SweepResult(config, result, loadNanos, peakRss.get(), written);
+    } finally {
+      rssSampler.shutdownNow();
+      delete(directory);
+    }
+  }
+
+  private static void delete(Path directory) {
+    if (!Files.exists(directory))
+      return;
+
+    try (java.util.stream.Stream<Path> files = Files.walk(directory)) {
+      for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator)
+        Files.delete(file);
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package tuning;
+
+import org.junit.jupiter.api.Test;
+import ycsb.Operation;
+import ycsb.Workload;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigSweepTest {
+
+  @Test
+  void space() {
+    List<StoreConfig> all = StoreConfig.space(Arrays.asList(true, false), Arrays.asList(StoreConfig.ForceSaveMode.values()));
+    //BEFORE_CLEAN only with all files memory-mapped.
+    assertEquals(3 * 8 + 1, all.size());
+    assertThrows(IllegalArgumentException.class, () -> new StoreConfig(true, false, true, StoreConfig.ForceSaveMode.BEFORE_CLEAN));
+  }
+
+  @Test
+  void rankAndRepeat() {
+    List<StoreConfig> configs = StoreConfig.space(Arrays.asList(true, false), Arrays.asList(StoreConfig.ForceSaveMode.OFF)).subList(0, 2);
+
+    ConfigSweep sweep =
+      new ConfigSweep(Workload.core("A"), configs)
+        .setRecordCount(1000)
+        .setOperationCount(2000)
+        .setObjective(ConfigSweep.Objective.P99)
+        .setWarmup(false);
+
+    SweepReport report = sweep.run();
+    assertEquals(2, report.ranked().size());
+    assertTrue(report.ranked().get(0).p99Micros() <= report.ranked().get(1).p99Micros());
+    assertTrue(report.toString().contains("Winning configuration " + report.winner().config()));
+    assertTrue(report.winner().config().builderCode().contains(".setMmapMaps("));
+    //the builder of the maps that were measured.
+    assertTrue(report.winner().config().builderCode().contains(".functionsOn("));
+
+    //seeded runs repeat the same operations.
+    for (SweepResult result : report.ranked()) {
+      assertEquals(2000, result.workload().operations());
+      assertEquals(report.ranked().get(0).workload().operations(Operation.READ), result.workload().operations(Operation.READ));
+    }
+    assertEquals(
+      report.winner().workload().operations(Operation.READ),
+      sweep.run().winner().workload().operations(Operation.READ)
+    );
+  }
+}
@@ -0,0 +1,45 @@
+package tuning;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Disk writes and memory of this process read from /proc, so only available on Linux.
+ */
+final class ProcessStats {
+
+  private ProcessStats() {
+  }
+
+  //value of the first line starting with name, -1 if there is none.
+  private static long read(Path file, String name) {
+    if (!Files.exists(file))
+      return -1;
+
+    try {
+      for (String line : Files.readAllLines(file))
+        if (line.startsWith(name))
+          return Long.parseLong(line.substring(name.length()).trim().split("\\s+")[0]);
+      return -1;
+    } catch (IOException | NumberFormatException exception) {
+      return -1;
+    }
+  }
+
+  /**
+   * Bytes this process caused to be written to disk, including dirtied memory-mapped pages, or -1 if unknown.
+   */
+  static long writeBytes() {
+    return read(Paths.get("/proc/self/io"), "write_bytes:");
+  }
+
+  /**
+   * Resident set size in bytes, including mapped file pages, or -1 if unknown.
+   */
+  static long rssBytes() {
+    long kilobytes = read(Paths.get("/proc/self/status"), "VmRSS:");
+    return kilobytes < 0 ? -1 : kilobytes * 1024;
+  }
+}
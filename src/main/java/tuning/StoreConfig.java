@@ -0,0 +1,193 @@
+package tuning;
+
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.data.config.ForceSave;
+import swaydb.data.config.MMAP;
+import swaydb.data.util.OperatingSystem;
+import swaydb.java.Map;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.persistent.DefaultConfigs;
+import ycsb.YcsbMaps;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+/**
+ * One point of the {@link ConfigSweep} space: whether maps, appendices and segments are memory-mapped
+ * and when their files are force saved, see {@link configurations.ConfiguringMMAPAndForceSaveTest}.
+ * The same force save mode is used for all files.
+ */
+public final class StoreConfig {
+
+  public enum ForceSaveMode {
+    OFF,
+    //memory-mapped files only.
+    BEFORE_CLEAN,
+    BEFORE_COPY,
+    BEFORE_CLOSE;
+
+    ForceSave.MMAPFiles mmapFiles() {
+      switch (this) {
+        case OFF:
+          return ForceSave.off();
+
+        case BEFORE_CLEAN:
+          return ForceSave.beforeClean(false, false, false);
+
+        case BEFORE_COPY:
+          return ForceSave.beforeCopy(false, false);
+
+        case BEFORE_CLOSE:
+          return ForceSave.beforeClose(false, false, false);
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+
+    ForceSave.ChannelFiles channelFiles() {
+      switch (this) {
+        case OFF:
+          return ForceSave.off();
+
+        case BEFORE_COPY:
+          return ForceSave.beforeCopy(false, false);
+
+        case BEFORE_CLOSE:
+          return ForceSave.beforeClose(false, false, false);
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+
+    String builderCode() {
+      switch (this) {
+        case OFF:
+          return "ForceSave.off()";
+
+        case BEFORE_CLEAN:
+          return "ForceSave.beforeClean(false, false, false)";
+
+        case BEFORE_COPY:
+          return "ForceSave.beforeCopy(false, false)";
+
+        case BEFORE_CLOSE:
+          return "ForceSave.beforeClose(false, false, false)";
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+  }
+
+  private final boolean mmapMaps;
+  private final boolean mmapAppendix;
+  private final boolean mmapSegments;
+  private final ForceSaveMode forceSave;
+
+  public StoreConfig(boolean mmapMaps, boolean mmapAppendix, boolean mmapSegments, ForceSaveMode forceSave) {
+    if (forceSave == ForceSaveMode.BEFORE_CLEAN && !(mmapMaps && mmapAppendix && mmapSegments))
+      throw new IllegalArgumentException("BEFORE_CLEAN requires all files to be memory-mapped.");
+
+    this.mmapMaps = mmapMaps;
+    this.mmapAppendix = mmapAppendix;
+    this.mmapSegments = mmapSegments;
+    this.forceSave = forceSave;
+  }
+
+  /**
+   * Every valid combination of the given mmap settings for maps, appendices and segments and force save modes,
+   * in a fixed order.
+   */
+  public static List<StoreConfig> space(List<Boolean> mmap, List<ForceSaveMode> forceSaves) {
+    List<StoreConfig> configs = new ArrayList<>();
+    for (ForceSaveMode forceSave : forceSaves)
+      for (boolean maps : mmap)
+        for (boolean appendix : mmap)
+          for (boolean segments : mmap)
+            if (forceSave != ForceSaveMode.BEFORE_CLEAN || (maps && appendix && segments))
+              configs.add(new StoreConfig(maps, appendix, segments, forceSave));
+    return configs;
+  }
+
+  public boolean mmapMaps() {
+    return mmapMaps;
+  }
+
+  public boolean mmapAppendix() {
+    return mmapAppendix;
+  }
+
+  public boolean mmapSegments() {
+    return mmapSegments;
+  }
+
+  public ForceSaveMode forceSave() {
+    return forceSave;
+  }
+
+  private MMAP.Map mapMmap(boolean on) {
+    return on ? MMAP.on(OperatingSystem.isWindows(), forceSave.mmapFiles()) : MMAP.off(forceSave.channelFiles());
+  }
+
+  private MMAP.Segment segmentMmap(boolean on) {
+    return on ? MMAP.on(OperatingSystem.isWindows(), forceSave.mmapFiles()) : MMAP.off(forceSave.channelFiles());
+  }
+
+  public <K, V, F> PersistentMap.Config<K, V, F> apply(PersistentMap.Config<K, V, F> config) {
+    return
+      config
+        .setMmapMaps(mapMmap(mmapMaps))
+        .setMmapAppendix(mapMmap(mmapAppendix))
+        .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(segmentMmap(mmapSegments)));
+  }
+
+  /**
+   * A map for {@link ycsb.WorkloadDriver} with this configuration.
+   */
+  public Map<Integer, String, PureFunction<Integer, String, Apply.Map<String>>> create(Path directory) {
+    return
+      apply(PersistentMap.functionsOn(directory, intSerializer(), stringSerializer(), Collections.singleton(YcsbMaps.readModifyWrite)))
+        .get();
+  }
+
+  private String mmapCode(boolean on) {
+    return
+      on
+        ? "MMAP.on(OperatingSystem.isWindows(), " + forceSave.builderCode() + ")"
+        : "MMAP.off(" + forceSave.builderCode() + ")";
+  }
+
+  /**
+   * The PersistentMap builder calls that configure this, eg: to paste the winner of a sweep. Same as the
+   * maps the sweep measured, created by {@link #create(Path)} with functions on.
+   */
+  public String builderCode() {
+    return
+      "PersistentMap\n" +
+        "  .functionsOn(directory, intSerializer(), stringSerializer(), Collections.singleton(YcsbMaps.readModifyWrite))\n" +
+        "  .setMmapMaps(" + mmapCode(mmapMaps) + ")\n" +
+        "  .setMmapAppendix(" + mmapCode(mmapAppendix) + ")\n" +
+        "  .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(" + mmapCode(mmapSegments) + "))\n" +
+        "  .get();";
+  }
+
+  private static String mmapName(boolean on) {
+    return on ? "mmap" : "off";
+  }
+
+  /**
+   * eg: maps=mmap/appendix=mmap/segments=off/BEFORE_CLOSE
+   */
+  @Override
+  public String toString() {
+    return "maps=" + mmapName(mmapMaps) + "/appendix=" + mmapName(mmapAppendix) + "/segments=" + mmapName(mmapSegments) + "/" + forceSave;
+  }
+}
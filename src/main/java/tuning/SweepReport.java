@@ -0,0 +1,78 @@
+package tuning;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Results of a {@link ConfigSweep} ranked by its objective, best first.
+ */
+public final class SweepReport {
+
+  private final String description;
+  private final ConfigSweep.Objective objective;
+  private final List<SweepResult> ranked;
+
+  SweepReport(String description, ConfigSweep.Objective objective, List<SweepResult> ranked) {
+    this.description = description;
+    this.objective = objective;
+    this.ranked = ranked;
+  }
+
+  public List<SweepResult> ranked() {
+    return ranked;
+  }
+
+  public SweepResult winner() {
+    return ranked.get(0);
+  }
+
+  private static String megabytes(long bytes) {
+    return bytes < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", bytes / (1024.0 * 1024.0));
+  }
+
+  public String toCsv() {
+    StringBuilder csv = new StringBuilder("rank,config,throughput,p99Us,peakRssMb,writtenMb,loadMs\n");
+    for (int i = 0; i < ranked.size(); i++) {
+      SweepResult result = ranked.get(i);
+      csv
+        .append(i + 1).append(',')
+        .append(result.config()).append(',')
+        .append(String.format(Locale.ROOT, "%.0f", result.throughput())).append(',')
+        .append(String.format(Locale.ROOT, "%.1f", result.p99Micros())).append(',')
+        .append(megabytes(result.peakRssBytes())).append(',')
+        .append(megabytes(result.bytesWritten())).append(',')
+        .append(result.loadNanos() / 1_000_000).append('\n');
+    }
+    return csv.toString();
+  }
+
+  /**
+   * A table of the ranked results followed by the builder configuration of the winner.
+   */
+  @Override
+  public String toString() {
+    StringBuilder report =
+      new StringBuilder()
+        .append(description).append('\n')
+        .append("Ranked by ").append(objective).append('\n')
+        .append(String.format(Locale.ROOT, "%4s  %-52s %12s %10s %10s %10s%n", "rank", "config", "ops/s", "p99 us", "rss MB", "written MB"));
+
+    for (int i = 0; i < ranked.size(); i++) {
+      SweepResult result = ranked.get(i);
+      report.append(
+        String.format(
+          Locale.ROOT,
+          "%4d  %-52s %12.0f %10.1f %10s %10s%n",
+          i + 1, result.config(), result.throughput(), result.p99Micros(), megabytes(result.peakRssBytes()), megabytes(result.bytesWritten())
+        )
+      );
+    }
+
+    if (!ranked.isEmpty())
+      report
+        .append("\nWinning configuration ").append(winner().config()).append(":\n")
+        .append(winner().config().builderCode()).append('\n');
+
+    return report.toString();
+  }
+}
@@ -0,0 +1,63 @@
+package tuning;
+
+import ycsb.WorkloadResult;
+
+/**
+ * Measurements of one {@link StoreConfig} in a {@link ConfigSweep}.
+ */
+public final class SweepResult {
+
+  private final StoreConfig config;
+  private final WorkloadResult workload;
+  private final long loadNanos;
+  private final long peakRssBytes;
+  private final long bytesWritten;
+
+  SweepResult(StoreConfig config, WorkloadResult workload, long loadNanos, long peakRssBytes, long bytesWritten) {
+    this.config = config;
+    this.workload = workload;
+    this.loadNanos = loadNanos;
+    this.peakRssBytes = peakRssBytes;
+    this.bytesWritten = bytesWritten;
+  }
+
+  public StoreConfig config() {
+    return config;
+  }
+
+  public WorkloadResult workload() {
+    return workload;
+  }
+
+  public long loadNanos() {
+    return loadNanos;
+  }
+
+  /**
+   * Operations per second of the run, excluding the load.
+   */
+  public double throughput() {
+    return workload.throughput();
+  }
+
+  /**
+   * 99th percentile latency of all operations of the run in microseconds.
+   */
+  public double p99Micros() {
+    return workload.latency() == null ? 0 : workload.latency().percentile(99) / 1000.0;
+  }
+
+  /**
+   * Highest resident set size sampled during the load and run, -1 if unknown.
+   */
+  public long peakRssBytes() {
+    return peakRssBytes;
+  }
+
+  /**
+   * Bytes written to disk by the load, the run and closing the map, -1 if unknown.
+   */
+  public long bytesWritten() {
+    return bytesWritten;
+  }
+}
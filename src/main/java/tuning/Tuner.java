@@ -0,0 +1,76 @@
+package tuning;
+
+import ycsb.Workload;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Command line runner of {@link ConfigSweep}. Prints the ranked report, or writes it to output, and the winning
+ * PersistentMap builder configuration.
+ * <p>
+ * Arguments are key=value pairs, lists are comma separated. Defaults sweep all 25 valid configs:
+ * <pre>
+ * workload=A mmap=true,false forceSave=OFF,BEFORE_CLEAN,BEFORE_COPY,BEFORE_CLOSE rankBy=THROUGHPUT
+ * records=100000 operations=200000 seconds=0 (no limit) threads=1 valueSize=100 seed=42 warmup=true format=text output=(stdout)
+ * </pre>
+ * Example, built with mvn package -Pbenchmarks:
+ * <pre>
+ * java -cp target/benchmarks.jar tuning.Tuner workload=B forceSave=OFF,BEFORE_CLOSE rankBy=P99 format=csv output=target/sweep.csv
+ * </pre>
+ */
+public class Tuner {
+
+  public static void main(String[] args) throws IOException {
+    java.util.Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      if (equals < 0)
+        throw new IllegalArgumentException("Expected key=value. Actual: " + arg);
+      options.put(arg.substring(0, equals), arg.substring(equals + 1));
+    }
+
+    List<Boolean> mmap = new ArrayList<>();
+    for (String value : options.getOrDefault("mmap", "true,false").split(","))
+      mmap.add(Boolean.parseBoolean(value));
+
+    List<StoreConfig.ForceSaveMode> forceSaves = new ArrayList<>();
+    for (String value : options.getOrDefault("forceSave", "OFF,BEFORE_CLEAN,BEFORE_COPY,BEFORE_CLOSE").split(","))
+      forceSaves.add(StoreConfig.ForceSaveMode.valueOf(value));
+
+    long seconds = Long.parseLong(options.getOrDefault("seconds", "0"));
+
+    SweepReport report =
+      new ConfigSweep(Workload.core(options.getOrDefault("workload", "A")), StoreConfig.space(mmap, forceSaves))
+        .setRecordCount(Integer.parseInt(options.getOrDefault("records", "100000")))
+        .setOperationCount(Long.parseLong(options.getOrDefault("operations", "200000")))
+        .setMaxDuration(seconds > 0 ? Duration.ofSeconds(seconds) : null)
+        .setThreads(Integer.parseInt(options.getOrDefault("threads", "1")))
+        .setValueSize(Integer.parseInt(options.getOrDefault("valueSize", "100")))
+        .setSeed(Long.parseLong(options.getOrDefault("seed", "42")))
+        .setObjective(ConfigSweep.Objective.valueOf(options.getOrDefault("rankBy", "THROUGHPUT")))
+        .setWarmup(Boolean.parseBoolean(options.getOrDefault("warmup", "true")))
+        .run();
+
+    String format = options.getOrDefault("format", "text");
+    String formatted;
+    if (format.equalsIgnoreCase("text"))
+      formatted = report.toString();
+    else if (format.equalsIgnoreCase("csv"))
+      formatted = report.toCsv();
+    else
+      throw new IllegalArgumentException("Unknown format " + format + ". Expected text or csv.");
+
+    String output = options.get("output");
+    if (output == null)
+      System.out.print(formatted);
+    else
+      Files.write(Paths.get(output), formatted.getBytes(StandardCharsets.UTF_8));
+  }
+}
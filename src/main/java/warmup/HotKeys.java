@@ -0,0 +1,113 @@
+package warmup;
+
+import swaydb.data.slice.Slice;
+import swaydb.java.serializers.Serializer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Records a sample of the keys read by a running node so they can be replayed by
+ * {@link MapWarmer#replay(swaydb.java.MapT, Iterable)} after a restart.
+ * <p>
+ * One in sampleRate reads is counted. At most maxKeys distinct keys are tracked, keys first seen after
+ * that are ignored so hot keys must show up early in the recording. {@link #save} writes the hottest
+ * keys to a file as [key length: int][key bytes] records.
+ */
+public class HotKeys<K> {
+
+  private final int sampleRate;
+  private final int maxKeys;
+  private final ConcurrentHashMap<K, LongAdder> counts = new ConcurrentHashMap<>();
+
+  public HotKeys(int sampleRate, int maxKeys) {
+    this.sampleRate = sampleRate;
+    this.maxKeys = maxKeys;
+  }
+
+  public void record(K key) {
+    if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0)
+      return;
+
+    LongAdder count = counts.get(key);
+    if (count == null) {
+      //size is approximate under concurrent inserts, a few keys over maxKeys is fine.
+      if (counts.size() >= maxKeys)
+        return;
+      count = counts.computeIfAbsent(key, ignored -> new LongAdder());
+    }
+    count.increment();
+  }
+
+  /**
+   * The count most read keys, hottest first.
+   */
+  public List<K> hottest(int count) {
+    return
+      counts
+        .entrySet()
+        .stream()
+        .sorted((left, right) -> Long.compare(right.getValue().sum(), left.getValue().sum()))
+        .limit(count)
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toList());
+  }
+
+  public int size() {
+    return counts.size();
+  }
+
+  /**
+   * Writes the count hottest keys to file.
+   *
+   * @return number of keys written.
+   */
+  public int save(Path file, Serializer<K> serializer, int count) throws IOException {
+    List<K> hottest = hottest(count);
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      for (K key : hottest) {
+        Slice<Byte> slice = serializer.write(key);
+        output.writeInt(slice.size());
+        for (int i = 0; i < slice.size(); i++)
+          output.writeByte(slice.get(i));
+      }
+    }
+    return hottest.size();
+  }
+
+  /**
+   * Reads keys saved by {@link #save}, hottest first.
+   */
+  @SuppressWarnings("unchecked")
+  public static <K> List<K> load(Path file, Serializer<K> serializer) throws IOException {
+    List<K> keys = new ArrayList<>();
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      while (true) {
+        int length;
+        try {
+          length = input.readInt();
+        } catch (EOFException end) {
+          return keys;
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        //backed by a byte[] like the slices a map reads from disk.
+        keys.add(serializer.read((Slice<Byte>) (Slice<?>) Slice.ofScala(bytes)));
+      }
+    }
+  }
+}
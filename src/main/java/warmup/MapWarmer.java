@@ -0,0 +1,86 @@
+package warmup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import swaydb.java.MapT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Warm-up phases that bring a freshly opened persistent map to steady state read latency before it takes traffic.
+ * <p>
+ * {@link #touchSegments(Path)} sequentially reads all Segment files so that they are in the OS page cache,
+ * which is where MMAP'd Segments read from and what non-MMAP Segments read through.
+ * {@link #replay(MapT, Iterable)} reads the keys recorded by {@link HotKeys} so that the blocks and the
+ * in-memory caches of the hottest keys are loaded, without reading the rest of the database.
+ */
+public final class MapWarmer {
+
+  private static final Logger logger = LoggerFactory.getLogger(MapWarmer.class);
+
+  private static final int READ_BUFFER_BYTES = 1024 * 1024;
+
+  private MapWarmer() {
+  }
+
+  /**
+   * Reads every Segment (*.seg) file under the map's directory.
+   * Lower levels are read first because they hold the most recently written data.
+   *
+   * @return number of bytes read.
+   */
+  public static long touchSegments(Path directory) throws IOException {
+    long start = System.nanoTime();
+
+    List<Path> segments;
+    try (java.util.stream.Stream<Path> files = Files.walk(directory)) {
+      segments =
+        files
+          .filter(file -> file.getFileName().toString().endsWith(".seg"))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+    long bytes = 0;
+    for (Path segment : segments)
+      try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+        int read;
+        while ((read = channel.read(buffer)) >= 0) {
+          bytes += read;
+          buffer.clear();
+        }
+      }
+
+    logger.info("Touched {} Segments ({} MB) in {} ms", segments.size(), bytes / (1024 * 1024), (System.nanoTime() - start) / 1_000_000);
+    return bytes;
+  }
+
+  /**
+   * Reads each key.
+   *
+   * @return number of keys read.
+   */
+  public static <K> long replay(MapT<K, ?, ?> map, Iterable<K> keys) {
+    long start = System.nanoTime();
+    long count = 0;
+    for (K key : keys) {
+      map.get(key);
+      count++;
+    }
+
+    logger.info("Replayed {} keys in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    return count;
+  }
+
+  public static <K> long replay(MapT<K, ?, ?> map, HotKeys<K> hotKeys, int count) {
+    return replay(map, hotKeys.hottest(count));
+  }
+}
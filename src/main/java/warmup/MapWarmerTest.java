@@ -0,0 +1,65 @@
+package warmup;
+
+import org.junit.jupiter.api.Test;
+import swaydb.KeyVal;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.persistent.PersistentMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static swaydb.java.serializers.Default.intSerializer;
+
+class MapWarmerTest {
+
+  @Test
+  void hottestKeysAreSavedAndReplayed() throws IOException {
+    HotKeys<Integer> hotKeys = new HotKeys<>(1, 3);
+    for (int i = 0; i < 10; i++)
+      hotKeys.record(1);
+    for (int i = 0; i < 5; i++)
+      hotKeys.record(2);
+    hotKeys.record(3);
+    //over maxKeys so it is not tracked.
+    hotKeys.record(4);
+    hotKeys.record(4);
+
+    assertEquals(3, hotKeys.size());
+    assertEquals(Arrays.asList(1, 2), hotKeys.hottest(2));
+
+    Path file = Files.createTempFile("hot-keys", "");
+    assertEquals(2, hotKeys.save(file, intSerializer(), 2));
+    assertEquals(Arrays.asList(1, 2), HotKeys.load(file, intSerializer()));
+    Files.delete(file);
+  }
+
+  @Test
+  void touchSegmentsReadsAllSegmentFiles() throws IOException {
+    Path directory = Files.createTempDirectory("mapWarmerTest");
+    Map<Integer, Integer, Void> map =
+      PersistentMap
+        .functionsOff(directory, intSerializer(), intSerializer())
+        .get();
+
+    for (int from = 0; from < 1000000; from += 100000) {
+      int batchStart = from;
+      map.put(Stream.range(batchStart, batchStart + 99999).map(KeyVal::of));
+    }
+    map.close();
+
+    map =
+      PersistentMap
+        .functionsOff(directory, intSerializer(), intSerializer())
+        .get();
+
+    assertTrue(MapWarmer.touchSegments(directory) > 0);
+    assertEquals(3, MapWarmer.replay(map, Arrays.asList(1, 500000, 2000000)));
+
+    map.delete();
+  }
+}
@@ -0,0 +1,236 @@
+package warmup;
+
+import benchmark.ZipfianGenerator;
+import metrics.LatencyHistogram;
+import org.openjdk.jmh.annotations.*;
+import swaydb.KeyVal;
+import swaydb.data.config.ForceSave;
+import swaydb.data.config.MMAP;
+import swaydb.data.util.OperatingSystem;
+import swaydb.java.Map;
+import swaydb.java.Stream;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.persistent.DefaultConfigs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+/**
+ * Open time and time to steady state read latency of a persistent map of sizeMb after a restart.
+ * <p>
+ * Databases are created once per config and size under target/benchmark/startup-[config]-[sizeMb]mb
+ * and reused by later runs, so delete the directory to recreate one. While a database is created
+ * zipfian reads are recorded with {@link HotKeys} and the hottest keys are saved next to it.
+ * <p>
+ * open measures opening the map and the warmup phase.
+ * timeToSteadyState also runs zipfian reads in windows of windowReads until a window's p99 is within
+ * tolerance of the steady state p99, which is measured once per trial on a fully warmed map.
+ * <p>
+ * Closing a map does not evict its files from the OS page cache so without dropCaches later iterations
+ * measure a warm page cache. dropCaches writes to /proc/sys/vm/drop_caches which requires root on Linux.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StartupBenchmark {
+
+  public enum Config {
+    //as in configurations.ConfiguringMMAPAndForceSaveTest.
+    MMAP_ON,
+    //as in mmapDisabledExample.Example.
+    MMAP_OFF;
+
+    Map<Integer, String, Void> open(Path directory) {
+      switch (this) {
+        case MMAP_ON:
+          MMAP.On mmapEnabled = MMAP.on(OperatingSystem.isWindows(), ForceSave.beforeClean(false, false, true));
+
+          return
+            PersistentMap
+              .functionsOff(directory, intSerializer(), stringSerializer())
+              .setMmapMaps(mmapEnabled)
+              .setMmapAppendix(mmapEnabled)
+              .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(mmapEnabled))
+              .get();
+
+        case MMAP_OFF:
+          return
+            PersistentMap
+              .functionsOff(directory, intSerializer(), stringSerializer())
+              .setMmapAppendix(MMAP.on(OperatingSystem.isWindows(), ForceSave.beforeClean(true, false, false)))
+              .setMmapMaps(MMAP.off(ForceSave.beforeClose(true, false, false)))
+              .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(MMAP.off(ForceSave.beforeClose(true, false, true))))
+              .get();
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+  }
+
+  public enum WarmupPhase {
+    NONE,
+    TOUCH_SEGMENTS,
+    REPLAY_HOT_KEYS
+  }
+
+  @Param({"1024", "10240", "51200"})
+  int sizeMb;
+
+  @Param({"MMAP_ON", "MMAP_OFF"})
+  Config config;
+
+  @Param({"NONE", "TOUCH_SEGMENTS", "REPLAY_HOT_KEYS"})
+  WarmupPhase warmup;
+
+  @Param("1000")
+  int valueSize;
+
+  @Param("10000")
+  int hotKeyCount;
+
+  @Param("10000")
+  int windowReads;
+
+  //a window is steady if its p99 is at most (1 + tolerance) times the steady state p99.
+  @Param("0.2")
+  double tolerance;
+
+  @Param("false")
+  boolean dropCaches;
+
+  Path directory;
+  int keyCount;
+  List<Integer> hotKeys;
+  ZipfianGenerator zipfian;
+  long steadyP99Nanos;
+
+  Map<Integer, String, Void> map;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    directory = Paths.get("target", "benchmark", "startup-" + config + "-" + sizeMb + "mb");
+    //approximate, key-values also have a few bytes of key and index overhead.
+    keyCount = (int) (sizeMb * 1024L * 1024 / valueSize);
+    zipfian = new ZipfianGenerator(keyCount);
+
+    if (!Files.exists(directory.resolve("ready")))
+      createDatabase();
+
+    hotKeys = HotKeys.load(directory.resolve("hot-keys"), intSerializer());
+
+    map = config.open(directory);
+    MapWarmer.touchSegments(directory);
+    MapWarmer.replay(map, hotKeys);
+    readWindow(map);
+    steadyP99Nanos = readWindow(map).percentile(99);
+    map.close();
+    System.out.printf("%nSteady state p99: %.1fus%n", steadyP99Nanos / 1000.0);
+  }
+
+  private void createDatabase() throws IOException {
+    Map<Integer, String, Void> map = config.open(directory);
+
+    //values are windows of random characters so that consecutive values are not duplicates, which Segments store once.
+    char[] characters = new char[valueSize + 4096];
+    Random random = new Random(42);
+    for (int i = 0; i < characters.length; i++)
+      characters[i] = (char) ('a' + random.nextInt(26));
+    String randomCharacters = new String(characters);
+
+    for (int from = 0; from < keyCount; from += 100000) {
+      int to = Math.min(from + 100000, keyCount) - 1;
+      map.put(Stream.range(from, to).map(key -> KeyVal.of(key, randomCharacters.substring(key % 4096, key % 4096 + valueSize))));
+    }
+
+    HotKeys<Integer> recorder = new HotKeys<>(1, hotKeyCount * 10);
+    for (int i = 0; i < hotKeyCount * 100; i++)
+      recorder.record(nextKey());
+    recorder.save(directory.resolve("hot-keys"), intSerializer(), hotKeyCount);
+
+    map.close();
+    Files.write(directory.resolve("ready"), new byte[0]);
+  }
+
+  @Setup(Level.Iteration)
+  public void dropCaches() throws IOException, InterruptedException {
+    if (dropCaches) {
+      new ProcessBuilder("sync").inheritIO().start().waitFor();
+      Files.write(Paths.get("/proc/sys/vm/drop_caches"), "3".getBytes(StandardCharsets.US_ASCII));
+    }
+  }
+
+  @TearDown(Level.Iteration)
+  public void close() {
+    map.close();
+  }
+
+  private int nextKey() {
+    return (int) zipfian.nextScrambled(ThreadLocalRandom.current());
+  }
+
+  private LatencyHistogram.Snapshot readWindow(Map<Integer, String, Void> map) {
+    LatencyHistogram latency = new LatencyHistogram();
+    for (int i = 0; i < windowReads; i++) {
+      int key = nextKey();
+      long start = System.nanoTime();
+      map.get(key);
+      latency.record(System.nanoTime() - start);
+    }
+    return latency.snapshot();
+  }
+
+  private void openAndWarmUp() throws IOException {
+    map = config.open(directory);
+
+    switch (warmup) {
+      case TOUCH_SEGMENTS:
+        MapWarmer.touchSegments(directory);
+        break;
+
+      case REPLAY_HOT_KEYS:
+        MapWarmer.replay(map, hotKeys);
+        break;
+
+      default:
+        break;
+    }
+  }
+
+  @Benchmark
+  public Map<Integer, String, Void> open() throws IOException {
+    openAndWarmUp();
+    return map;
+  }
+
+  /**
+   * @return number of windows read until steady state. Stops after 60 seconds.
+   */
+  @Benchmark
+  public int timeToSteadyState() throws IOException {
+    openAndWarmUp();
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+    int windows = 0;
+    long p99;
+    do {
+      p99 = readWindow(map).percentile(99);
+      windows++;
+    } while (p99 > steadyP99Nanos * (1 + tolerance) && System.nanoTime() < deadline);
+
+    return windows;
+  }
+}
@@ -0,0 +1,17 @@
+package ycsb;
+
+/**
+ * Operations of a {@link Workload}.
+ */
+public enum Operation {
+  //get of an existing key.
+  READ,
+  //put of a new value for an existing key.
+  UPDATE,
+  //put of a new key after the loaded keys.
+  INSERT,
+  //stream().from(key).take(length).
+  SCAN,
+  //applyFunction of the driver's read-modify-write function.
+  READ_MODIFY_WRITE
+}
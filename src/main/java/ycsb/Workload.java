@@ -0,0 +1,131 @@
+package ycsb;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The mix of operations run by {@link WorkloadDriver} and how their keys are chosen.
+ * <p>
+ * {@link #core(String)} returns YCSB's core workloads A to F. Custom workloads are created with
+ * {@link #Workload(String)} and the setters, proportions are relative to each other and do not need to add up to 1.
+ */
+public final class Workload {
+
+  public enum KeyDistribution {
+    UNIFORM,
+    //few keys are read most of the time, see benchmark.ZipfianGenerator.
+    ZIPFIAN,
+    //the most recently inserted keys are the most popular.
+    LATEST
+  }
+
+  private final String name;
+  private final EnumMap<Operation, Double> proportions = new EnumMap<>(Operation.class);
+  private KeyDistribution keyDistribution = KeyDistribution.ZIPFIAN;
+  private int maxScanLength = 100;
+
+  public Workload(String name) {
+    this.name = name;
+  }
+
+  /**
+   * YCSB's core workloads.
+   * <ul>
+   * <li>A: update heavy, 50% reads and 50% updates.</li>
+   * <li>B: read mostly, 95% reads and 5% updates.</li>
+   * <li>C: read only.</li>
+   * <li>D: read latest, 95% reads and 5% inserts where recently inserted keys are the most read.</li>
+   * <li>E: short ranges, 95% scans of up to 100 keys and 5% inserts.</li>
+   * <li>F: read-modify-write, 50% reads and 50% read-modify-writes.</li>
+   * </ul>
+   */
+  public static Workload core(String letter) {
+    switch (letter.toUpperCase(Locale.ROOT)) {
+      case "A":
+        return new Workload("A").setProportion(Operation.READ, 0.5).setProportion(Operation.UPDATE, 0.5);
+      case "B":
+        return new Workload("B").setProportion(Operation.READ, 0.95).setProportion(Operation.UPDATE, 0.05);
+      case "C":
+        return new Workload("C").setProportion(Operation.READ, 1);
+      case "D":
+        return
+          new Workload("D")
+            .setProportion(Operation.READ, 0.95)
+            .setProportion(Operation.INSERT, 0.05)
+            .setKeyDistribution(KeyDistribution.LATEST);
+      case "E":
+        return new Workload("E").setProportion(Operation.SCAN, 0.95).setProportion(Operation.INSERT, 0.05);
+      case "F":
+        return new Workload("F").setProportion(Operation.READ, 0.5).setProportion(Operation.READ_MODIFY_WRITE, 0.5);
+      default:
+        throw new IllegalArgumentException("Unknown workload " + letter + ". Expected A, B, C, D, E or F.");
+    }
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public Workload setProportion(Operation operation, double proportion) {
+    if (proportion < 0)
+      throw new IllegalArgumentException("proportion must not be negative. Actual: " + proportion);
+
+    proportions.put(operation, proportion);
+    return this;
+  }
+
+  public double proportion(Operation operation) {
+    return proportions.getOrDefault(operation, 0.0);
+  }
+
+  public KeyDistribution keyDistribution() {
+    return keyDistribution;
+  }
+
+  public Workload setKeyDistribution(KeyDistribution keyDistribution) {
+    this.keyDistribution = keyDistribution;
+    return this;
+  }
+
+  public int maxScanLength() {
+    return maxScanLength;
+  }
+
+  /**
+   * Scan lengths are uniform between 1 and maxScanLength.
+   */
+  public Workload setMaxScanLength(int maxScanLength) {
+    this.maxScanLength = maxScanLength;
+    return this;
+  }
+
+  Operation nextOperation(Random random) {
+    double total = 0;
+    for (double proportion : proportions.values())
+      total += proportion;
+
+    if (total == 0)
+      throw new IllegalStateException("Workload " + name + " has no operations.");
+
+    double next = random.nextDouble() * total;
+    Operation last = null;
+    for (Map.Entry<Operation, Double> entry : proportions.entrySet()) {
+      if (entry.getValue() == 0)
+        continue;
+
+      next -= entry.getValue();
+      last = entry.getKey();
+      if (next < 0)
+        return last;
+    }
+    //rounding.
+    return last;
+  }
+
+  @Override
+  public String toString() {
+    return "Workload(" + name + ", " + proportions + ", " + keyDistribution + ")";
+  }
+}
@@ -0,0 +1,251 @@
+package ycsb;
+
+import benchmark.ZipfianGenerator;
+import metrics.LatencyHistogram;
+import swaydb.KeyVal;
+import swaydb.java.MapT;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a YCSB-like {@link Workload} against a map of Integer keys and String values with N client threads,
+ * eg: to compare map configurations, see {@link Ycsb} for a command line runner.
+ * <p>
+ * {@link #load()} puts recordCount keys. {@link #run()} then runs operationCount operations, or until
+ * maxDuration, and records the latency of each operation.
+ * <p>
+ * Read-modify-writes apply the function set with {@link #setReadModifyWrite(Object)}, which must be
+ * registered with the map, eg: {@link YcsbMaps#readModifyWrite}.
+ */
+public class WorkloadDriver<F> {
+
+  //values are windows of random characters so that they are not duplicates, which Segments store once.
+  private static final int VALUE_WINDOWS = 4096;
+
+  private final MapT<Integer, String, F> map;
+  private final Workload workload;
+
+  private String configName = "custom";
+  private int recordCount = 100_000;
+  private long operationCount = 1_000_000;
+  private Duration maxDuration;
+  private int threads = 1;
+  private int valueSize = 100;
+  private F readModifyWrite;
+  private Long seed;
+
+  //keys [0, keyCount) are loaded or inserted. Inserts of later runs of this driver continue after them.
+  private final AtomicInteger keyCount = new AtomicInteger(recordCount);
+  private String randomCharacters;
+
+  public WorkloadDriver(MapT<Integer, String, F> map, Workload workload) {
+    this.map = map;
+    this.workload = workload;
+  }
+
+  /**
+   * Name of the map's configuration in the results.
+   */
+  public WorkloadDriver<F> setConfigName(String configName) {
+    this.configName = configName;
+    return this;
+  }
+
+  /**
+   * Number of keys put by {@link #load()}. Set it without calling load to run against an already loaded map,
+   * to the {@link #keyCount()} of the last driver if its workload inserted keys.
+   */
+  public WorkloadDriver<F> setRecordCount(int recordCount) {
+    this.recordCount = recordCount;
+    this.keyCount.set(recordCount);
+    return this;
+  }
+
+  public WorkloadDriver<F> setOperationCount(long operationCount) {
+    this.operationCount = operationCount;
+    return this;
+  }
+
+  /**
+   * Stops a run after maxDuration even if not all operations ran.
+   */
+  public WorkloadDriver<F> setMaxDuration(Duration maxDuration) {
+    this.maxDuration = maxDuration;
+    return this;
+  }
+
+  public WorkloadDriver<F> setThreads(int threads) {
+    this.threads = threads;
+    return this;
+  }
+
+  public WorkloadDriver<F> setValueSize(int valueSize) {
+    this.valueSize = valueSize;
+    this.randomCharacters = null;
+    return this;
+  }
+
+  public WorkloadDriver<F> setReadModifyWrite(F readModifyWrite) {
+    this.readModifyWrite = readModifyWrite;
+    return this;
+  }
+
+  /**
+   * Seeds client i's random numbers with seed + i, so a run with one thread repeats the same operations.
+   * Unseeded runs use {@link ThreadLocalRandom}.
+   */
+  public WorkloadDriver<F> setSeed(long seed) {
+    this.seed = seed;
+    return this;
+  }
+
+  private String value(Random random) {
+    if (randomCharacters == null) {
+      char[] characters = new char[valueSize + VALUE_WINDOWS];
+      Random seeded = new Random(42);
+      for (int i = 0; i < characters.length; i++)
+        characters[i] = (char) ('a' + seeded.nextInt(26));
+      randomCharacters = new String(characters);
+    }
+
+    int from = random.nextInt(VALUE_WINDOWS);
+    return randomCharacters.substring(from, from + valueSize);
+  }
+
+  /**
+   * Puts keys [0, recordCount) in batches.
+   *
+   * @return elapsed nanoseconds.
+   */
+  public long load() {
+    long start = System.nanoTime();
+    Random random = new Random(42);
+
+    List<KeyVal<Integer, String>> batch = new ArrayList<>(10_000);
+    for (int key = 0; key < recordCount; key++) {
+      batch.add(KeyVal.of(key, value(random)));
+      if (batch.size() == 10_000 || key == recordCount - 1) {
+        map.put(batch);
+        batch.clear();
+      }
+    }
+
+    keyCount.set(recordCount);
+    return System.nanoTime() - start;
+  }
+
+  /**
+   * Number of keys loaded or inserted so far.
+   */
+  public int keyCount() {
+    return keyCount.get();
+  }
+
+  public WorkloadResult run() {
+    if (workload.proportion(Operation.READ_MODIFY_WRITE) > 0 && readModifyWrite == null)
+      throw new IllegalStateException("Workload " + workload.name() + " has read-modify-writes but no readModifyWrite function is set.");
+
+    //zeta is computed over all keys, so create it once per run instead of per operation.
+    ZipfianGenerator zipfian = new ZipfianGenerator(recordCount);
+
+    EnumMap<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values())
+      latencies.put(operation, new LatencyHistogram());
+
+    AtomicLong remaining = new AtomicLong(operationCount);
+    long deadline = maxDuration == null ? Long.MAX_VALUE : System.nanoTime() + maxDuration.toNanos();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    try {
+      List<CompletableFuture<Void>> clients = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        Random random = seed == null ? null : new Random(seed + i);
+        clients.add(
+          CompletableFuture.runAsync(() -> {
+            Random clientRandom = random == null ? ThreadLocalRandom.current() : random;
+            while (remaining.getAndDecrement() > 0 && System.nanoTime() < deadline) {
+              Operation operation = workload.nextOperation(clientRandom);
+              long operationStart = System.nanoTime();
+              execute(operation, zipfian, clientRandom);
+              latencies.get(operation).record(System.nanoTime() - operationStart);
+            }
+          }, executor)
+        );
+      }
+
+      for (CompletableFuture<Void> client : clients)
+        client.join();
+    } finally {
+      executor.shutdown();
+    }
+    long elapsed = System.nanoTime() - start;
+
+    EnumMap<Operation, LatencyHistogram.Snapshot> snapshots = new EnumMap<>(Operation.class);
+    latencies.forEach((operation, latency) -> {
+      LatencyHistogram.Snapshot snapshot = latency.snapshot();
+      if (snapshot.count() > 0)
+        snapshots.put(operation, snapshot);
+    });
+
+    return new WorkloadResult(workload.name(), configName, threads, elapsed, snapshots);
+  }
+
+  private void execute(Operation operation, ZipfianGenerator zipfian, Random random) {
+    switch (operation) {
+      case READ:
+        map.get(nextKey(zipfian, random));
+        break;
+
+      case UPDATE:
+        map.put(nextKey(zipfian, random), value(random));
+        break;
+
+      case INSERT:
+        map.put(keyCount.getAndIncrement(), value(random));
+        break;
+
+      case SCAN:
+        map
+          .stream()
+          .from(nextKey(zipfian, random))
+          .take(1 + random.nextInt(workload.maxScanLength()))
+          .count();
+        break;
+
+      case READ_MODIFY_WRITE:
+        map.applyFunction(nextKey(zipfian, random), readModifyWrite);
+        break;
+
+      default:
+        throw new IllegalStateException("Unexpected value: " + operation);
+    }
+  }
+
+  private int nextKey(ZipfianGenerator zipfian, Random random) {
+    switch (workload.keyDistribution()) {
+      case UNIFORM:
+        return random.nextInt(keyCount.get());
+
+      case ZIPFIAN:
+        return (int) zipfian.nextScrambled(random);
+
+      case LATEST:
+        //a key being inserted by another client may not be written yet, in which case the read misses.
+        return (int) Math.max(0, keyCount.get() - 1 - zipfian.next(random));
+
+      default:
+        throw new IllegalStateException("Unexpected value: " + workload.keyDistribution());
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package ycsb;
+
+import org.junit.jupiter.api.Test;
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.java.Map;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadDriverTest {
+
+  @Test
+  void runCoreWorkloads() {
+    Map<Integer, String, PureFunction<Integer, String, Apply.Map<String>>> map = YcsbMaps.Config.MEMORY.create(null);
+
+    new WorkloadDriver<>(map, Workload.core("A"))
+      .setRecordCount(1000)
+      .setValueSize(10)
+      .load();
+    assertEquals(1000, map.stream().count());
+
+    for (String letter : new String[]{"A", "B", "C", "D", "E", "F"}) {
+      Workload workload = Workload.core(letter);
+      WorkloadResult result =
+        new WorkloadDriver<>(map, workload)
+          .setRecordCount(1000)
+          .setOperationCount(2000)
+          .setThreads(2)
+          .setValueSize(10)
+          .setReadModifyWrite(YcsbMaps.readModifyWrite)
+          .run();
+
+      assertEquals(2000, result.operations());
+      for (Operation operation : Operation.values())
+        if (workload.proportion(operation) == 0)
+          assertEquals(0, result.operations(operation));
+        else
+          assertTrue(result.operations(operation) > 0);
+    }
+
+    //D and E inserted new keys after the loaded ones.
+    assertTrue(map.stream().count() > 1000);
+    //values keep their size after read-modify-writes.
+    assertEquals(10, map.get(0).get().length());
+
+    map.delete();
+  }
+
+  @Test
+  void readModifyWriteRequiresAFunction() {
+    Map<Integer, String, PureFunction<Integer, String, Apply.Map<String>>> map = YcsbMaps.Config.MEMORY.create(null);
+    WorkloadDriver<PureFunction<Integer, String, Apply.Map<String>>> driver = new WorkloadDriver<>(map, Workload.core("F"));
+    assertThrows(IllegalStateException.class, driver::run);
+    map.delete();
+  }
+
+  @Test
+  void customWorkloadAndOutput() {
+    Workload workload =
+      new Workload("scan-update")
+        .setProportion(Operation.SCAN, 3)
+        .setProportion(Operation.UPDATE, 1)
+        .setKeyDistribution(Workload.KeyDistribution.UNIFORM);
+
+    //relative proportions.
+    Random random = new Random(1);
+    int scans = 0;
+    for (int i = 0; i < 10000; i++)
+      if (workload.nextOperation(random) == Operation.SCAN)
+        scans++;
+    assertEquals(7500, scans, 200);
+
+    Map<Integer, String, PureFunction<Integer, String, Apply.Map<String>>> map = YcsbMaps.Config.MEMORY.create(null);
+    WorkloadDriver<PureFunction<Integer, String, Apply.Map<String>>> driver =
+      new WorkloadDriver<>(map, workload)
+        .setConfigName("memory")
+        .setRecordCount(100)
+        .setOperationCount(100);
+    driver.load();
+    WorkloadResult result = driver.run();
+
+    String[] csv = result.toCsv().split("\n");
+    assertEquals(2, csv.length);
+    assertEquals(WorkloadResult.csvHeader().split(",").length, csv[0].split(",").length);
+    assertTrue(csv[0].startsWith("scan-update,memory,1,UPDATE,") || csv[0].startsWith("scan-update,memory,1,SCAN,"));
+
+    String json = result.toJson();
+    assertTrue(json.contains("\"operations\": 100,"));
+    assertTrue(json.contains("\"SCAN\": {\"count\": "));
+    assertTrue(json.contains("\"p999Us\": "));
+
+    map.delete();
+  }
+}
@@ -0,0 +1,147 @@
+package ycsb;
+
+import metrics.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput and per operation latencies of a {@link WorkloadDriver} run.
+ * Latencies are reported in microseconds.
+ */
+public final class WorkloadResult {
+
+  static final double[] PERCENTILES = {50, 95, 99, 99.9};
+
+  private final String workload;
+  private final String config;
+  private final int threads;
+  private final long elapsedNanos;
+  private final EnumMap<Operation, LatencyHistogram.Snapshot> latencies;
+
+  WorkloadResult(String workload, String config, int threads, long elapsedNanos, EnumMap<Operation, LatencyHistogram.Snapshot> latencies) {
+    this.workload = workload;
+    this.config = config;
+    this.threads = threads;
+    this.elapsedNanos = elapsedNanos;
+    this.latencies = latencies;
+  }
+
+  public long operations() {
+    long operations = 0;
+    for (LatencyHistogram.Snapshot snapshot : latencies.values())
+      operations += snapshot.count();
+    return operations;
+  }
+
+  public long operations(Operation operation) {
+    LatencyHistogram.Snapshot snapshot = latencies.get(operation);
+    return snapshot == null ? 0 : snapshot.count();
+  }
+
+  public double throughput() {
+    return operations() / (elapsedNanos / 1_000_000_000.0);
+  }
+
+  /**
+   * Latencies of the operations that ran at least once.
+   */
+  public Map<Operation, LatencyHistogram.Snapshot> latencies() {
+    return latencies;
+  }
+
+  /**
+   * Latencies of all operations, or null if no operation ran.
+   */
+  public LatencyHistogram.Snapshot latency() {
+    LatencyHistogram.Snapshot all = null;
+    for (LatencyHistogram.Snapshot snapshot : latencies.values())
+      all = all == null ? snapshot : all.plus(snapshot);
+    return all;
+  }
+
+  public String workload() {
+    return workload;
+  }
+
+  public int threads() {
+    return threads;
+  }
+
+  public static String csvHeader() {
+    StringBuilder header = new StringBuilder("workload,config,threads,operation,count,throughput,meanUs");
+    for (double percentile : PERCENTILES)
+      header.append(",p").append(percentileName(percentile)).append("Us");
+    return header.append(",maxUs").toString();
+  }
+
+  /**
+   * One line per operation, without {@link #csvHeader()}.
+   */
+  public String toCsv() {
+    StringBuilder csv = new StringBuilder();
+    for (Map.Entry<Operation, LatencyHistogram.Snapshot> entry : latencies.entrySet()) {
+      LatencyHistogram.Snapshot latency = entry.getValue();
+      csv
+        .append(workload).append(',')
+        .append(config).append(',')
+        .append(threads).append(',')
+        .append(entry.getKey()).append(',')
+        .append(latency.count()).append(',')
+        .append(format(latency.count() / (elapsedNanos / 1_000_000_000.0))).append(',')
+        .append(format(latency.mean() / 1000));
+
+      for (double percentile : PERCENTILES)
+        csv.append(',').append(format(latency.percentile(percentile) / 1000.0));
+
+      csv.append(',').append(format(latency.max() / 1000.0)).append('\n');
+    }
+    return csv.toString();
+  }
+
+  public String toJson() {
+    StringBuilder json =
+      new StringBuilder()
+        .append("{\n")
+        .append("  \"workload\": \"").append(workload).append("\",\n")
+        .append("  \"config\": \"").append(config).append("\",\n")
+        .append("  \"threads\": ").append(threads).append(",\n")
+        .append("  \"elapsedMs\": ").append(elapsedNanos / 1_000_000).append(",\n")
+        .append("  \"operations\": ").append(operations()).append(",\n")
+        .append("  \"throughput\": ").append(format(throughput())).append(",\n")
+        .append("  \"latencies\": {");
+
+    String separator = "\n";
+    for (Map.Entry<Operation, LatencyHistogram.Snapshot> entry : latencies.entrySet()) {
+      LatencyHistogram.Snapshot latency = entry.getValue();
+      json
+        .append(separator)
+        .append("    \"").append(entry.getKey()).append("\": {")
+        .append("\"count\": ").append(latency.count())
+        .append(", \"meanUs\": ").append(format(latency.mean() / 1000));
+
+      for (double percentile : PERCENTILES)
+        json.append(", \"p").append(percentileName(percentile)).append("Us\": ").append(format(latency.percentile(percentile) / 1000.0));
+
+      json.append(", \"maxUs\": ").append(format(latency.max() / 1000.0)).append('}');
+      separator = ",\n";
+    }
+
+    return json.append("\n  }\n}\n").toString();
+  }
+
+  private static String percentileName(double percentile) {
+    //99.9 -> 999
+    return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile).replace(".", "");
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.1f", value);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "Workload %s on %s with %d threads: %d operations, %.0f ops/s", workload, config, threads, operations(), throughput());
+  }
+}
@@ -0,0 +1,108 @@
+package ycsb;
+
+import benchmark.BenchmarkMaps;
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.java.Map;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Command line runner of {@link WorkloadDriver}. Loads a map of each config once and runs each workload
+ * with each thread count against it. Results are printed or written to output as CSV or JSON.
+ * <p>
+ * Arguments are key=value pairs, lists are comma separated. Defaults:
+ * <pre>
+ * workloads=A,B,C,D,E,F configs=MEMORY,PERSISTENT threads=1 records=100000 operations=1000000 seconds=0 (no limit)
+ * valueSize=100 format=csv output=(stdout)
+ * </pre>
+ * Example, built with mvn package -Pbenchmarks:
+ * <pre>
+ * java -cp target/benchmarks.jar ycsb.Ycsb workloads=A,E configs=PERSISTENT,PERSISTENT_MMAP_OFF threads=1,4,16 format=json output=target/ycsb.json
+ * </pre>
+ */
+public class Ycsb {
+
+  public static void main(String[] args) throws IOException {
+    java.util.Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int equals = arg.indexOf('=');
+      if (equals < 0)
+        throw new IllegalArgumentException("Expected key=value. Actual: " + arg);
+      options.put(arg.substring(0, equals), arg.substring(equals + 1));
+    }
+
+    String[] workloads = options.getOrDefault("workloads", "A,B,C,D,E,F").split(",");
+    String[] configs = options.getOrDefault("configs", "MEMORY,PERSISTENT").split(",");
+    String[] threads = options.getOrDefault("threads", "1").split(",");
+    int records = Integer.parseInt(options.getOrDefault("records", "100000"));
+    long operations = Long.parseLong(options.getOrDefault("operations", "1000000"));
+    long seconds = Long.parseLong(options.getOrDefault("seconds", "0"));
+    int valueSize = Integer.parseInt(options.getOrDefault("valueSize", "100"));
+    String format = options.getOrDefault("format", "csv");
+    String output = options.get("output");
+
+    List<WorkloadResult> results = new ArrayList<>();
+    for (String configName : configs) {
+      YcsbMaps.Config config = YcsbMaps.Config.valueOf(configName);
+      Map<Integer, String, PureFunction<Integer, String, Apply.Map<String>>> map = config.create(BenchmarkMaps.directory("ycsb-" + config));
+
+      long loadNanos =
+        new WorkloadDriver<>(map, Workload.core("A"))
+          .setRecordCount(records)
+          .setValueSize(valueSize)
+          .load();
+      System.err.printf("Loaded %d records into %s in %d ms%n", records, config, loadNanos / 1_000_000);
+
+      //inserts of workloads D and E add keys after the keys of previous runs.
+      int keyCount = records;
+      for (String workload : workloads)
+        for (String threadCount : threads) {
+          WorkloadDriver<PureFunction<Integer, String, Apply.Map<String>>> driver =
+            new WorkloadDriver<>(map, Workload.core(workload))
+              .setConfigName(config.name())
+              .setRecordCount(keyCount)
+              .setOperationCount(operations)
+              .setMaxDuration(seconds > 0 ? Duration.ofSeconds(seconds) : null)
+              .setThreads(Integer.parseInt(threadCount))
+              .setValueSize(valueSize)
+              .setReadModifyWrite(YcsbMaps.readModifyWrite);
+
+          WorkloadResult result = driver.run();
+          keyCount = driver.keyCount();
+
+          System.err.println(result);
+          results.add(result);
+        }
+
+      map.delete();
+    }
+
+    String formatted;
+    if (format.equalsIgnoreCase("json")) {
+      StringBuilder json = new StringBuilder("[\n");
+      for (int i = 0; i < results.size(); i++)
+        json.append(results.get(i).toJson().trim()).append(i == results.size() - 1 ? "\n" : ",\n");
+      formatted = json.append("]\n").toString();
+    } else if (format.equalsIgnoreCase("csv")) {
+      StringBuilder csv = new StringBuilder(WorkloadResult.csvHeader()).append('\n');
+      for (WorkloadResult result : results)
+        csv.append(result.toCsv());
+      formatted = csv.toString();
+    } else {
+      throw new IllegalArgumentException("Unknown format " + format + ". Expected csv or json.");
+    }
+
+    if (output == null)
+      System.out.print(formatted);
+    else
+      Files.write(Paths.get(output), formatted.getBytes(StandardCharsets.UTF_8));
+  }
+}
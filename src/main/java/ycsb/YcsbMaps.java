@@ -0,0 +1,74 @@
+package ycsb;
+
+import swaydb.Apply;
+import swaydb.PureFunction;
+import swaydb.PureFunctionJava.OnValue;
+import swaydb.data.config.ForceSave;
+import swaydb.data.config.MMAP;
+import swaydb.data.util.OperatingSystem;
+import swaydb.java.Map;
+import swaydb.java.memory.MemoryMap;
+import swaydb.java.persistent.PersistentMap;
+import swaydb.persistent.DefaultConfigs;
+
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static swaydb.java.serializers.Default.intSerializer;
+import static swaydb.java.serializers.Default.stringSerializer;
+
+/**
+ * Map configurations for {@link WorkloadDriver}. Each map registers {@link #readModifyWrite}.
+ * <p>
+ * Other configurations can be compared by creating any {@link swaydb.java.MapT} of Integer keys
+ * and String values and passing it to a {@link WorkloadDriver}.
+ */
+public final class YcsbMaps {
+
+  private YcsbMaps() {
+  }
+
+  //moves the value's first character to its end so the value changes but keeps its size.
+  public static final OnValue<Integer, String> readModifyWrite =
+    (String value) ->
+      Apply.update(value.isEmpty() ? value : value.substring(1) + value.charAt(0));
+
+  public enum Config {
+    MEMORY,
+    //default persistent configuration.
+    PERSISTENT,
+    //as in mmapDisabledExample.Example.
+    PERSISTENT_MMAP_OFF;
+
+    /**
+     * @param directory ignored by MEMORY.
+     */
+    public Map<Integer, String, PureFunction<Integer, String, Apply.Map<String>>> create(Path directory) {
+      switch (this) {
+        case MEMORY:
+          return
+            MemoryMap
+              .functionsOn(intSerializer(), stringSerializer(), Collections.singleton(readModifyWrite))
+              .get();
+
+        case PERSISTENT:
+          return
+            PersistentMap
+              .functionsOn(directory, intSerializer(), stringSerializer(), Collections.singleton(readModifyWrite))
+              .get();
+
+        case PERSISTENT_MMAP_OFF:
+          return
+            PersistentMap
+              .functionsOn(directory, intSerializer(), stringSerializer(), Collections.singleton(readModifyWrite))
+              .setMmapAppendix(MMAP.on(OperatingSystem.isWindows(), ForceSave.beforeClean(true, false, false)))
+              .setMmapMaps(MMAP.off(ForceSave.beforeClose(true, false, false)))
+              .setSegmentConfig(DefaultConfigs.segmentConfig(true).copyWithMmap(MMAP.off(ForceSave.beforeClose(true, false, true))))
+              .get();
+
+        default:
+          throw new IllegalStateException("Unexpected value: " + this);
+      }
+    }
+  }
+}